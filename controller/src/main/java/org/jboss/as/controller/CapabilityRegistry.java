@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +40,8 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.jboss.as.controller.capability.Capability;
 import org.jboss.as.controller.capability.RuntimeCapability;
@@ -65,17 +68,12 @@ import org.jboss.msc.service.ServiceName;
  */
 public final class CapabilityRegistry implements ImmutableCapabilityRegistry, PossibleCapabilityRegistry, RuntimeCapabilityRegistry {
 
-    private final Map<CapabilityId, RuntimeCapabilityRegistration> capabilities = new HashMap<>();
     private final Map<CapabilityId, RuntimeCapabilityRegistration> pendingRemoveCapabilities = new HashMap<>();
-    private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirements = new HashMap<>();
     private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> pendingRemoveRequirements = new HashMap<>();
-    private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> runtimeOnlyRequirements = new HashMap<>();
     private final boolean forServer;
-    private final Set<CapabilityScope> knownContexts;
     private final ResolutionContextImpl resolutionContext = new ResolutionContextImpl();
-    private final Map<CapabilityId, CapabilityRegistration<?>> possibleCapabilities = new ConcurrentHashMap<>();
-    private final Set<CapabilityId> reloadCapabilities = new HashSet<>();
-    private final Set<CapabilityId> restartCapabilities = new HashSet<>();
+    // the registered capabilities and requirements, possibly shared with the published registry or a shadow copy
+    private volatile RegistryState state;
 
     private final ReentrantReadWriteLock reentrantReadWriteLock = new ReentrantReadWriteLock();
     private final ReentrantReadWriteLock.ReadLock readLock = reentrantReadWriteLock.readLock();
@@ -90,13 +88,15 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     private CapabilityRegistry(boolean forServer, CapabilityRegistry parent) {//for published view
         this.forServer = forServer;
-        this.knownContexts = forServer ? null : new HashSet<>();
+        this.state = new RegistryState(forServer);
         this.publishedFullRegistry = parent;
     }
 
     /**
      * Creates updateable version of capability registry that on publish pushes all changes to main registry
-     * this is used to create context local registry that only on completion commits changes to main registry
+     * this is used to create context local registry that only on completion commits changes to main registry.
+     * The copy initially shares the state of this registry; whichever of the two is modified first copies the parts
+     * of it that it modifies.
      *
      * @return writable registry
      */
@@ -106,7 +106,8 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         try {
             try {
                 result.writeLock.lock();
-                copy(this, result);
+                result.state = share();
+                result.resolutionContext.copy(resolutionContext);
             } finally {
                 result.writeLock.unlock();
             }
@@ -116,23 +117,51 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         return result;
     }
 
-    private static void copyCapabilities(final Map<CapabilityId, RuntimeCapabilityRegistration> source,
-                                         final Map<CapabilityId, RuntimeCapabilityRegistration> dest) {
-        for (Map.Entry<CapabilityId, RuntimeCapabilityRegistration> entry : source.entrySet()) {
-            dest.put(entry.getKey(), new RuntimeCapabilityRegistration(entry.getValue()));
-        }
+    /**
+     * Marks the current state as shared, after which neither this registry nor any other registry referencing
+     * it may modify it. This must be called with the read or write lock held, so no modification is in progress.
+     *
+     * @return the current state
+     */
+    private RegistryState share() {
+        RegistryState current = state;
+        current.frozen = true;
+        return current;
     }
 
-    private static void copyRequirements(Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> source,
-                                         Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> dest) {
-        for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : source.entrySet()) {
-            Map<String, RuntimeRequirementRegistration> mapCopy = new HashMap<>();
-            for (Map.Entry<String, RuntimeRequirementRegistration> innerEntry : entry.getValue().entrySet()) {
-                mapCopy.put(innerEntry.getKey(), new RuntimeRequirementRegistration(innerEntry.getValue()));
-            }
-            dest.put(entry.getKey(), mapCopy);
+    /**
+     * Gets the state to modify, first replacing it with a state sharing the collections and registrations of the
+     * shared one if it is shared. This must be called with the write lock held.
+     *
+     * @return the modifiable state
+     */
+    private RegistryState getWritableState() {
+        assert writeLock.isHeldByCurrentThread();
+        RegistryState current = state;
+        if (current.frozen) {
+            current = new RegistryState(current);
+            state = current;
         }
+        return current;
+    }
 
+    /**
+     * Reads the current state. A shared state can no longer be modified so it is read without acquiring the read lock.
+     *
+     * @param reader function reading the state
+     * @return the result of the {@code reader}
+     */
+    private <T> T readState(Function<RegistryState, T> reader) {
+        RegistryState current = state;
+        if (current.frozen) {
+            return reader.apply(current);
+        }
+        readLock.lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            readLock.unlock();
+        }
     }
 
 
@@ -147,9 +176,10 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void registerCapability(RuntimeCapabilityRegistration capabilityRegistration) {
         writeLock.lock();
         try {
+            RegistryState writable = getWritableState();
             CapabilityId capabilityId = capabilityRegistration.getCapabilityId();
             RegistrationPoint rp = capabilityRegistration.getOldestRegistrationPoint();
-            RuntimeCapabilityRegistration currentRegistration = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration currentRegistration = writable.writableCapability(capabilityId);
             if (currentRegistration != null) {
                 // The actual capability must be the same, the capability must allow multiple registrations
                 // and we must not already have a registration from this same resource
@@ -161,7 +191,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 }
                 // else it was ok, and we just recorded the additional registration point
             } else {
-                capabilities.put(capabilityId, capabilityRegistration);
+                writable.writableCapabilities().put(capabilityId, writable.own(capabilityRegistration));
             }
 
             // Add any hard requirements
@@ -172,7 +202,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
             if (!forServer) {
                 CapabilityScope capContext = capabilityId.getScope();
-                knownContexts.add(capContext);
+                writable.writableKnownContexts().add(capContext);
             }
             modified = true;
         } finally {
@@ -206,23 +236,16 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
      * @param requirement the requirement
      */
     private void registerRequirement(RuntimeRequirementRegistration requirement) {
-        assert writeLock.isHeldByCurrentThread();
+        RegistryState writable = getWritableState();
         CapabilityId dependentId = requirement.getDependentId();
-        if (!capabilities.containsKey(dependentId)) {
+        if (!writable.capabilities.containsKey(dependentId)) {
             throw ControllerLogger.MGMT_OP_LOGGER.unknownCapabilityInContext(dependentId.getName(),
                     dependentId.getScope().getName());
         }
-        Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap =
-                requirement.isRuntimeOnly() ? runtimeOnlyRequirements : requirements;
-
-        Map<String, RuntimeRequirementRegistration> dependents = requirementMap.get(dependentId);
-        if (dependents == null) {
-            dependents = new HashMap<>();
-            requirementMap.put(dependentId, dependents);
-        }
-        RuntimeRequirementRegistration existing = dependents.get(requirement.getRequiredName());
+        Map<String, RuntimeRequirementRegistration> dependents = writable.writableDependents(requirement.isRuntimeOnly(), dependentId, true);
+        RuntimeRequirementRegistration existing = writable.writableRequirement(dependents, requirement.getRequiredName());
         if (existing == null) {
-            dependents.put(requirement.getRequiredName(), requirement);
+            dependents.put(requirement.getRequiredName(), writable.own(requirement));
         } else {
             existing.addRegistrationPoint(requirement.getOldestRegistrationPoint());
         }
@@ -262,22 +285,23 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                                                           PathAddress registrationPoint) {
         writeLock.lock();
         try {
+            RegistryState writable = getWritableState();
             CapabilityId capabilityId = new CapabilityId(capabilityName, scope);
             RuntimeCapabilityRegistration removed = null;
-            RuntimeCapabilityRegistration candidate = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration candidate = writable.writableCapability(capabilityId);
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
                 if (candidate.removeRegistrationPoint(rp)) {
 
                     Map<String, RuntimeRequirementRegistration> removedRequirements = null;
                     if (candidate.getRegistrationPointCount() == 0) {
-                        removed = capabilities.remove(capabilityId);
-                        removedRequirements = requirements.remove(capabilityId);
-                        runtimeOnlyRequirements.remove(capabilityId);
+                        removed = writable.writableCapabilities().remove(capabilityId);
+                        removedRequirements = writable.writableRequirementMap(false).remove(capabilityId);
+                        writable.writableRequirementMap(true).remove(capabilityId);
                     } else {
                         // There are still registration points for this capability.
                         // So just remove the requirements for this registration point
-                        Map<String, RuntimeRequirementRegistration> candidateRequirements = requirements.get(capabilityId);
+                        Map<String, RuntimeRequirementRegistration> candidateRequirements = writable.requirements.get(capabilityId);
                         if (candidateRequirements != null) {
                             removedRequirements = new HashMap<>(candidateRequirements.size());
                             // Iterate over array to avoid ConcurrentModificationException
@@ -288,7 +312,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                                 }
                             }
                         }
-                        candidateRequirements = runtimeOnlyRequirements.get(capabilityId);
+                        candidateRequirements = writable.runtimeOnlyRequirements.get(capabilityId);
                         if (candidateRequirements != null) {
                             // Iterate over array to avoid ConcurrentModificationException
                             for (String req : candidateRequirements.keySet().toArray(new String[candidateRequirements.size()])) {
@@ -322,19 +346,18 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     }
 
     private RuntimeRequirementRegistration removeRequirement(RuntimeRequirementRegistration requirementRegistration, boolean optional) {
-        assert writeLock.isHeldByCurrentThread();
-        Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap = optional ? runtimeOnlyRequirements : requirements;
-        Map<String, RuntimeRequirementRegistration> dependents = requirementMap.get(requirementRegistration.getDependentId());
+        RegistryState writable = getWritableState();
+        Map<String, RuntimeRequirementRegistration> dependents = writable.writableDependents(optional, requirementRegistration.getDependentId(), false);
         RuntimeRequirementRegistration result = null;
         if (dependents != null) {
-            RuntimeRequirementRegistration rrr = dependents.get(requirementRegistration.getRequiredName());
+            RuntimeRequirementRegistration rrr = writable.writableRequirement(dependents, requirementRegistration.getRequiredName());
             if (rrr != null) {
                 rrr.removeRegistrationPoint(requirementRegistration.getOldestRegistrationPoint());
                 if (rrr.getRegistrationPointCount() == 0) {
                     result = dependents.remove(requirementRegistration.getRequiredName());
                 }
                 if (dependents.size() == 0) {
-                    requirementMap.remove(requirementRegistration.getDependentId());
+                    writable.writableRequirementMap(optional).remove(requirementRegistration.getDependentId());
                 }
                 modified = true;
             }
@@ -346,8 +369,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public Map<CapabilityId, RuntimeStatus> getRuntimeStatus(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         readLock.lock();
         try {
+            final RegistryState current = state;
             Map<CapabilityId, RuntimeStatus> result;
-            Set<CapabilityId> ids = getCapabilitiesForAddress(address, resourceRegistration);
+            Set<CapabilityId> ids = getCapabilitiesForAddress(current, address, resourceRegistration);
             int size = ids.size();
             if (size == 0) {
                 result = Collections.emptyMap();
@@ -355,11 +379,11 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 Set<CapabilityId> examined = new HashSet<>();
                 if (size == 1) {
                     CapabilityId id = ids.iterator().next();
-                    result = Collections.singletonMap(id, getCapabilityStatus(id, examined));
+                    result = Collections.singletonMap(id, getCapabilityStatus(current, id, examined));
                 } else {
                     result = new HashMap<>(size);
                     for (CapabilityId id : ids) {
-                        result.put(id, getCapabilityStatus(id, examined));
+                        result.put(id, getCapabilityStatus(current, id, examined));
                     }
                 }
             }
@@ -369,7 +393,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         }
     }
 
-    private RuntimeStatus getCapabilityStatus(CapabilityId id, Set<CapabilityId> examined) {
+    private RuntimeStatus getCapabilityStatus(RegistryState current, CapabilityId id, Set<CapabilityId> examined) {
         // This is meant for checking runtime stuff, which should only be for servers or
         // HC runtime stuff, both of which use CapabilityScope.GLOBAL or HostCapabilityScope. So this assert
         // is to check that assumption is valid, as further thought is needed if not (e.g. see WFCORE-1710).
@@ -377,19 +401,19 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         // internals, but oh well.
         assert id.getScope().equals(CapabilityScope.GLOBAL) || id.getScope().getName().equals(HOST);
 
-        boolean hasRestart = !restartCapabilities.isEmpty();
-        if (hasRestart && restartCapabilities.contains(id)) {
+        boolean hasRestart = !current.restartCapabilities.isEmpty();
+        if (hasRestart && current.restartCapabilities.contains(id)) {
             return RuntimeStatus.RESTART_REQUIRED;
         }
         if (!hasRestart) {
-            if (reloadCapabilities.contains(id)) {
+            if (current.reloadCapabilities.contains(id)) {
                 return RuntimeStatus.RELOAD_REQUIRED;
             }
             examined.add(id);
         } // else defer reload-required check until after we search requirements for restart-required
 
-        Map<String, RuntimeRequirementRegistration> dependents = requirements.get(id);
-        RuntimeStatus result = getDependentCapabilityStatus(dependents, id, examined);
+        Map<String, RuntimeRequirementRegistration> dependents = current.requirements.get(id);
+        RuntimeStatus result = getDependentCapabilityStatus(current, dependents, id, examined);
         // TODO we could also check runtimeOnlyRequirements but it's not clear that's meaningful
         // If the non-normal runtime-only req has had its cap removed, a RUNTIME step for the dependent
         // will not see it any more and won't try and integrate. If the req is reload-required but
@@ -399,20 +423,20 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         if (result != RuntimeStatus.RESTART_REQUIRED) {
             // Check pending remove requirements
             dependents = pendingRemoveRequirements.get(id);
-            RuntimeStatus pending = getDependentCapabilityStatus(dependents, id, examined);
+            RuntimeStatus pending = getDependentCapabilityStatus(current, dependents, id, examined);
             if (pending != RuntimeStatus.NORMAL) {
                 result = pending;
             }
         }
 
         // We've checked dependents; if we didn't already check this cap for reload-required
-        if (result == RuntimeStatus.NORMAL && hasRestart && reloadCapabilities.contains(id)) {
+        if (result == RuntimeStatus.NORMAL && hasRestart && current.reloadCapabilities.contains(id)) {
             result = RuntimeStatus.RELOAD_REQUIRED;
         }
         return result;
     }
 
-    private RuntimeStatus getDependentCapabilityStatus(Map<String, RuntimeRequirementRegistration> dependents, CapabilityId requiror, Set<CapabilityId> examined) {
+    private RuntimeStatus getDependentCapabilityStatus(RegistryState current, Map<String, RuntimeRequirementRegistration> dependents, CapabilityId requiror, Set<CapabilityId> examined) {
         RuntimeStatus result = RuntimeStatus.NORMAL;
         if (dependents != null) {
             for (String dependent : dependents.keySet()) {
@@ -423,7 +447,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 for (CapabilityScope scope : toCheck) {
                     CapabilityId dependentId = new CapabilityId(dependent, scope);
                     if (!examined.contains(dependentId)) {
-                        RuntimeStatus status = getCapabilityStatus(dependentId, examined);
+                        RuntimeStatus status = getCapabilityStatus(current, dependentId, examined);
                         if (status == RuntimeStatus.RESTART_REQUIRED) {
                             return status; // no need to check anything else
                         } else if (status == RuntimeStatus.RELOAD_REQUIRED) {
@@ -440,7 +464,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void capabilityReloadRequired(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         writeLock.lock();
         try {
-            reloadCapabilities.addAll(getCapabilitiesForAddress(address, resourceRegistration));
+            RegistryState writable = getWritableState();
+            writable.reloadCapabilities = writable.own(writable.reloadCapabilities, HashSet::new);
+            writable.reloadCapabilities.addAll(getCapabilitiesForAddress(writable, address, resourceRegistration));
         } finally {
             writeLock.unlock();
         }
@@ -450,13 +476,15 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void capabilityRestartRequired(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         writeLock.lock();
         try {
-            restartCapabilities.addAll(getCapabilitiesForAddress(address, resourceRegistration));
+            RegistryState writable = getWritableState();
+            writable.restartCapabilities = writable.own(writable.restartCapabilities, HashSet::new);
+            writable.restartCapabilities.addAll(getCapabilitiesForAddress(writable, address, resourceRegistration));
         } finally {
             writeLock.unlock();
         }
     }
 
-    private Set<CapabilityId> getCapabilitiesForAddress(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
+    private Set<CapabilityId> getCapabilitiesForAddress(RegistryState current, PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         Set<CapabilityId> result = null;
         PathAddress curAddress = address;
         ImmutableManagementResourceRegistration curReg = resourceRegistration;
@@ -488,7 +516,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
             // TODO this is inefficient. But it's only called for post-boot write ops
             // when the process is already reload-required
-            for (Map<CapabilityId, RuntimeCapabilityRegistration> map : Arrays.asList(capabilities, pendingRemoveCapabilities)) {
+            for (Map<CapabilityId, RuntimeCapabilityRegistration> map : Arrays.asList(current.capabilities, pendingRemoveCapabilities)) {
 
                 for (Map.Entry<CapabilityId, RuntimeCapabilityRegistration> entry : map.entrySet()) {
                     boolean checkIncorporating = false;
@@ -565,7 +593,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         CapabilityRegistration<?> capabilityRegistration = new CapabilityRegistration<>(capability, CapabilityScope.GLOBAL, point);
         writeLock.lock();
         try {
-            possibleCapabilities.computeIfPresent(capabilityId, (capabilityId1, currentRegistration) -> {
+            RegistryState writable = getWritableState();
+            CapabilityRegistration<?> currentRegistration = writable.writablePossibleCapability(capabilityId);
+            if (currentRegistration != null) {
                 RegistrationPoint rp = capabilityRegistration.getOldestRegistrationPoint();
                 // The actual capability must be the same, and we must not already have a registration
                 // from this resource
@@ -574,9 +604,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                     throw ControllerLogger.MGMT_OP_LOGGER.capabilityAlreadyRegisteredInContext(capabilityId.getName(),
                             capabilityId.getScope().getName());
                 }
-                return currentRegistration;
-            });
-            possibleCapabilities.putIfAbsent(capabilityId, capabilityRegistration);
+            } else {
+                writable.writablePossibleCapabilities().put(capabilityId, writable.own(capabilityRegistration));
+            }
             modified = true;
         } finally {
             writeLock.unlock();
@@ -598,12 +628,13 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         CapabilityRegistration<?> removed = null;
         writeLock.lock();
         try {
-            CapabilityRegistration<?> candidate = possibleCapabilities.get(capabilityId);
+            RegistryState writable = getWritableState();
+            CapabilityRegistration<?> candidate = writable.writablePossibleCapability(capabilityId);
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
                 if (candidate.removeRegistrationPoint(rp)) {
                     if (candidate.getRegistrationPointCount() == 0) {
-                        removed = possibleCapabilities.remove(capabilityId);
+                        removed = writable.writablePossibleCapabilities().remove(capabilityId);
                     } else {
                         removed = candidate;
                     }
@@ -624,111 +655,80 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     @Override
     public boolean hasCapability(String capabilityName, CapabilityScope scope) {
-        readLock.lock();
-        try {
-            return findSatisfactoryCapability(capabilityName, scope, !forServer) != null;
-        } finally {
-            readLock.unlock();
-        }
+        return readState(current -> findSatisfactoryCapability(current, capabilityName, scope, !forServer) != null);
     }
 
     @Override
     public <T> T getCapabilityRuntimeAPI(String capabilityName, CapabilityScope scope, Class<T> apiType) {
         // Here we can't know the dependent name. So this can only be called when resolution is complete.
         assert resolutionContext.resolutionComplete;
-        readLock.lock();
-        try {
-            RuntimeCapabilityRegistration reg = getCapabilityRegistration(capabilityName, scope);
-            Object api = reg.getCapability().getRuntimeAPI();
-            if (api == null) {
-                throw ControllerLogger.MGMT_OP_LOGGER.capabilityDoesNotExposeRuntimeAPI(capabilityName);
-            }
-            return apiType.cast(api);
-        } finally {
-            readLock.unlock();
+        RuntimeCapabilityRegistration reg = readState(current -> getCapabilityRegistration(current, capabilityName, scope));
+        Object api = reg.getCapability().getRuntimeAPI();
+        if (api == null) {
+            throw ControllerLogger.MGMT_OP_LOGGER.capabilityDoesNotExposeRuntimeAPI(capabilityName);
         }
+        return apiType.cast(api);
     }
 
     @Override
     public Set<CapabilityRegistration<?>> getCapabilities() {
-        readLock.lock();
-        try {
-            return Collections.unmodifiableSet(new TreeSet<>(capabilities.values()));
-        } finally {
-            readLock.unlock();
-        }
+        return readState(current -> Collections.unmodifiableSet(new TreeSet<>(current.capabilities.values())));
     }
 
     @Override
     public Set<CapabilityRegistration<?>> getPossibleCapabilities() {
-        readLock.lock();
-        try {
-            return Collections.unmodifiableSet(new TreeSet<>(possibleCapabilities.values()));
-        } finally {
-            readLock.unlock();
-        }
+        return readState(current -> Collections.unmodifiableSet(new TreeSet<>(current.possibleCapabilities.values())));
     }
 
     @Override
     public ServiceName getCapabilityServiceName(String capabilityName, CapabilityScope scope, Class<?> serviceType) {
         // Here we can't know the dependent name. So this can only be called when resolution is complete.
         assert resolutionContext.resolutionComplete;
-        readLock.lock();
-        try {
-            RuntimeCapabilityRegistration reg = getCapabilityRegistration(capabilityName, scope);
-            RuntimeCapability<?> cap = reg.getCapability();
-            return cap.getCapabilityServiceName(serviceType);
-        } finally {
-            readLock.unlock();
-        }
+        RuntimeCapabilityRegistration reg = readState(current -> getCapabilityRegistration(current, capabilityName, scope));
+        RuntimeCapability<?> cap = reg.getCapability();
+        return cap.getCapabilityServiceName(serviceType);
     }
 
     @Override
     public Set<PathAddress> getPossibleProviderPoints(CapabilityId capabilityId) {
+        return readState(current -> getPossibleProviderPoints(current, capabilityId));
+    }
+
+    private static Set<PathAddress> getPossibleProviderPoints(RegistryState current, CapabilityId capabilityId) {
         Set<PathAddress> result = new LinkedHashSet<>();
-        readLock.lock();
-        try {
-            final CapabilityId capId = capabilityId.getScope() == CapabilityScope.GLOBAL ? capabilityId : new CapabilityId(capabilityId.getName(), CapabilityScope.GLOBAL); //possible registry is only in global scope
-            CapabilityRegistration<?> reg =  possibleCapabilities.get(capId);
-            if (reg != null) {
-                List<PathAddress> list = new ArrayList<>();
-                for (RegistrationPoint registrationPoint : reg.getRegistrationPoints()) {
-                    PathAddress address = registrationPoint.getAddress();
-                    list.add(address);
-                }
-                result.addAll(list);
-            } else {
-                List<PathAddress> list = new ArrayList<>();
-                for (CapabilityRegistration<?> registration : possibleCapabilities.values()) {
-                    if (registration.getCapability().isDynamicallyNamed()
-                        && registration.getCapabilityScope().equals(capId.getScope())
-                        && capId.getName().startsWith(registration.getCapabilityName())) {
-                        Set<RegistrationPoint> registrationPoints = registration.getRegistrationPoints();
-                        for (RegistrationPoint registrationPoint : registrationPoints) {
-                            PathAddress address = registrationPoint.getAddress();
-                            list.add(address);
-                        }
+        final CapabilityId capId = capabilityId.getScope() == CapabilityScope.GLOBAL ? capabilityId : new CapabilityId(capabilityId.getName(), CapabilityScope.GLOBAL); //possible registry is only in global scope
+        CapabilityRegistration<?> reg =  current.possibleCapabilities.get(capId);
+        if (reg != null) {
+            List<PathAddress> list = new ArrayList<>();
+            for (RegistrationPoint registrationPoint : reg.getRegistrationPoints()) {
+                PathAddress address = registrationPoint.getAddress();
+                list.add(address);
+            }
+            result.addAll(list);
+        } else {
+            List<PathAddress> list = new ArrayList<>();
+            for (CapabilityRegistration<?> registration : current.possibleCapabilities.values()) {
+                if (registration.getCapability().isDynamicallyNamed()
+                    && registration.getCapabilityScope().equals(capId.getScope())
+                    && capId.getName().startsWith(registration.getCapabilityName())) {
+                    Set<RegistrationPoint> registrationPoints = registration.getRegistrationPoints();
+                    for (RegistrationPoint registrationPoint : registrationPoints) {
+                        PathAddress address = registrationPoint.getAddress();
+                        list.add(address);
                     }
                 }
-                result.addAll(list);
             }
-
-        } finally {
-            readLock.unlock();
+            result.addAll(list);
         }
         return result;
     }
 
     @Override
     public CapabilityRegistration<?> getCapability(CapabilityId capabilityId){
-        readLock.lock();
-        try {
-            CapabilityRegistration<?> reg = capabilities.get(capabilityId);
+        return readState(current -> {
+            CapabilityRegistration<?> reg = current.capabilities.get(capabilityId);
             return reg != null ? new CapabilityRegistration<>(reg) : null;
-        } finally {
-            readLock.unlock();
-        }
-
+        });
     }
 
     //end ImmutableCapabilityRegistry methods
@@ -746,8 +746,11 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             }
             publishedFullRegistry.writeLock.lock();
             try {
-                publishedFullRegistry.clear(true);
-                copy(this, publishedFullRegistry);
+                // Hand our state over to the main registry instead of copying it
+                publishedFullRegistry.state = share();
+                publishedFullRegistry.resolutionContext.copy(resolutionContext);
+                publishedFullRegistry.pendingRemoveCapabilities.clear();
+                publishedFullRegistry.pendingRemoveRequirements.clear();
                 pendingRemoveCapabilities.clear();
                 pendingRemoveRequirements.clear();
                 modified = false;
@@ -770,8 +773,10 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         try {
             publishedFullRegistry.readLock.lock();
             try {
-                clear(true);
-                copy(publishedFullRegistry, this);
+                state = publishedFullRegistry.share();
+                resolutionContext.copy(publishedFullRegistry.resolutionContext);
+                pendingRemoveCapabilities.clear();
+                pendingRemoveRequirements.clear();
                 modified = false;
             } finally {
                 publishedFullRegistry.readLock.unlock();
@@ -790,22 +795,6 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         }
     }
 
-    private void copy(CapabilityRegistry source, CapabilityRegistry target) {
-        assert target.writeLock.isHeldByCurrentThread();
-        copyCapabilities(source.capabilities, target.capabilities);
-        for (Map.Entry<CapabilityId, CapabilityRegistration<?>> entry : source.possibleCapabilities.entrySet()) {
-            target.possibleCapabilities.put(entry.getKey(), new CapabilityRegistration<>(entry.getValue()));
-        }
-        copyRequirements(source.requirements, target.requirements);
-        copyRequirements(source.runtimeOnlyRequirements, target.runtimeOnlyRequirements);
-        target.reloadCapabilities.addAll(source.reloadCapabilities);
-        target.restartCapabilities.addAll(source.restartCapabilities);
-        if (!forServer) {
-            target.knownContexts.addAll(source.knownContexts);
-        }
-        target.resolutionContext.copy(source.resolutionContext);
-    }
-
     /**
      * Clears capability registry
      */
@@ -816,16 +805,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     private void clear(boolean restartRequired) {
         writeLock.lock();
         try {
-            capabilities.clear();
+            state = state.cleared(restartRequired);
             pendingRemoveCapabilities.clear();
-            possibleCapabilities.clear();
-            requirements.clear();
             pendingRemoveRequirements.clear();
-            runtimeOnlyRequirements.clear();
-            reloadCapabilities.clear();
-            if (restartRequired) {
-                restartCapabilities.clear();
-            }
             modified = true;
         } finally {
             writeLock.unlock();
@@ -836,6 +818,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     CapabilityValidation resolveCapabilities(Resource rootResource, boolean hostXmlOnly) {
         readLock.lock();
         try {
+            final RegistryState current = state;
             resolutionContext.setRootResource(rootResource);
             assert resolutionContext.rootResource != null;
             Map<CapabilityId, Set<RuntimeRequirementRegistration>> missing = new HashMap<>();
@@ -845,13 +828,13 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             Map<CapabilityScope, Set<RuntimeRequirementRegistration>> requiresConsistency = null;
             Map<CapabilityScope, Set<CapabilityScope>> consistentSets = null;
 
-            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : requirements.entrySet()) {
+            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : current.requirements.entrySet()) {
                 CapabilityId dependentId = entry.getKey();
                 String dependentName = dependentId.getName();
                 CapabilityScope dependentContext = dependentId.getScope();
                 Set<CapabilityScope> consistentSet = consistentSets == null ? null : consistentSets.get(dependentContext);
                 for (RuntimeRequirementRegistration req : entry.getValue().values()) {
-                    SatisfactoryCapability satisfactory = findSatisfactoryCapability(req.getRequiredName(), dependentContext, !forServer);
+                    SatisfactoryCapability satisfactory = findSatisfactoryCapability(current, req.getRequiredName(), dependentContext, !forServer);
                     if (satisfactory == null) {
                         // Missing
                         if (hostXmlOnly && dependentName.startsWith("org.wildfly.domain.server-config.")
@@ -937,8 +920,8 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         return result;
     }
 
-    private RuntimeCapabilityRegistration getCapabilityRegistration(String capabilityName, CapabilityScope capabilityScope) {
-        SatisfactoryCapability satisfactoryCapability = findSatisfactoryCapability(capabilityName, capabilityScope, false);
+    private RuntimeCapabilityRegistration getCapabilityRegistration(RegistryState current, String capabilityName, CapabilityScope capabilityScope) {
+        SatisfactoryCapability satisfactoryCapability = findSatisfactoryCapability(current, capabilityName, capabilityScope, false);
         if (satisfactoryCapability == null) {
             if (forServer) {
                 throw ControllerLogger.MGMT_OP_LOGGER.unknownCapability(capabilityName);
@@ -946,28 +929,28 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 throw ControllerLogger.MGMT_OP_LOGGER.unknownCapabilityInContext(capabilityName, capabilityScope.getName());
             }
         }
-        return capabilities.get(satisfactoryCapability.singleCapability);
+        return current.capabilities.get(satisfactoryCapability.singleCapability);
     }
 
-    private SatisfactoryCapability findSatisfactoryCapability(String capabilityName, CapabilityScope dependentContext,
+    private SatisfactoryCapability findSatisfactoryCapability(RegistryState current, String capabilityName, CapabilityScope dependentContext,
                                                               boolean requireConsistency) {
 
         // Check for a simple match
         CapabilityId requestedId = new CapabilityId(capabilityName, dependentContext);
-        if (capabilities.containsKey(requestedId)) {
+        if (current.capabilities.containsKey(requestedId)) {
             return new SatisfactoryCapability(requestedId);
         }
 
         if (!forServer) {
             // Try other contexts that satisfy the requested one
             Set<CapabilityScope> multiple = null;
-            for (CapabilityScope satisfies : knownContexts) {
+            for (CapabilityScope satisfies : current.knownContexts) {
                 if (satisfies.equals(dependentContext)) {
                     // We already know this one doesn't exist
                     continue;
                 }
                 CapabilityId satisfiesId = new CapabilityId(capabilityName, satisfies);
-                if (capabilities.containsKey(satisfiesId) && satisfies.canSatisfyRequirement(capabilityName, dependentContext, resolutionContext)) {
+                if (current.capabilities.containsKey(satisfiesId) && satisfies.canSatisfyRequirement(capabilityName, dependentContext, resolutionContext)) {
                     if (!requireConsistency || !satisfies.requiresConsistencyCheck()) {
                         return new SatisfactoryCapability(satisfiesId);
                     } else {
@@ -1031,6 +1014,152 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         return capabilityNames;
     }
 
+    /**
+     * The capabilities and requirements known to a registry. A state is shared between registries by
+     * {@link CapabilityRegistry#share() freezing} it, after which it is never modified again; a registry
+     * modifies a frozen state by first replacing it with a new state sharing its collections and registrations.
+     * <p>
+     * A state only modifies the collections and registrations it {@link #own(Object) owns}. Any other collection
+     * or registration is copied the first time it is modified, so a write only copies the collections it changes
+     * and the registrations of the capabilities and requirements it touches.
+     * </p>
+     */
+    private static final class RegistryState {
+        private Map<CapabilityId, RuntimeCapabilityRegistration> capabilities;
+        private Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirements;
+        private Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> runtimeOnlyRequirements;
+        private Set<CapabilityScope> knownContexts;
+        private Map<CapabilityId, CapabilityRegistration<?>> possibleCapabilities;
+        private Set<CapabilityId> reloadCapabilities;
+        private Set<CapabilityId> restartCapabilities;
+        // the collections and registrations created by this state, which it may modify in place
+        private final Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        private volatile boolean frozen;
+
+        private RegistryState(boolean forServer) {
+            this.capabilities = own(new HashMap<>());
+            this.requirements = own(new HashMap<>());
+            this.runtimeOnlyRequirements = own(new HashMap<>());
+            this.knownContexts = forServer ? null : own(new HashSet<>());
+            this.possibleCapabilities = own(new ConcurrentHashMap<>());
+            this.reloadCapabilities = own(new HashSet<>());
+            this.restartCapabilities = own(new HashSet<>());
+        }
+
+        private RegistryState(RegistryState source) {
+            this.capabilities = source.capabilities;
+            this.requirements = source.requirements;
+            this.runtimeOnlyRequirements = source.runtimeOnlyRequirements;
+            this.knownContexts = source.knownContexts;
+            this.possibleCapabilities = source.possibleCapabilities;
+            this.reloadCapabilities = source.reloadCapabilities;
+            this.restartCapabilities = source.restartCapabilities;
+        }
+
+        private RegistryState cleared(boolean restartRequired) {
+            RegistryState result = new RegistryState(knownContexts == null);
+            if (knownContexts != null) {
+                result.knownContexts.addAll(knownContexts);
+            }
+            if (!restartRequired) {
+                result.restartCapabilities.addAll(restartCapabilities);
+            }
+            return result;
+        }
+
+        /**
+         * Records that a collection or registration belongs to this state.
+         */
+        private <T> T own(T value) {
+            owned.add(value);
+            return value;
+        }
+
+        /**
+         * Gets a collection or registration which may be modified by this state, copying it if it is not owned.
+         */
+        private <T> T own(T value, UnaryOperator<T> copier) {
+            return owned.contains(value) ? value : own(copier.apply(value));
+        }
+
+        private Map<CapabilityId, RuntimeCapabilityRegistration> writableCapabilities() {
+            capabilities = own(capabilities, HashMap::new);
+            return capabilities;
+        }
+
+        private RuntimeCapabilityRegistration writableCapability(CapabilityId capabilityId) {
+            RuntimeCapabilityRegistration current = capabilities.get(capabilityId);
+            if (current == null || owned.contains(current)) {
+                return current;
+            }
+            RuntimeCapabilityRegistration copy = own(new RuntimeCapabilityRegistration(current));
+            writableCapabilities().put(capabilityId, copy);
+            return copy;
+        }
+
+        private Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> writableRequirementMap(boolean runtimeOnly) {
+            if (runtimeOnly) {
+                runtimeOnlyRequirements = own(runtimeOnlyRequirements, HashMap::new);
+                return runtimeOnlyRequirements;
+            }
+            requirements = own(requirements, HashMap::new);
+            return requirements;
+        }
+
+        /**
+         * Gets the requirements of a dependent capability, which may be modified by this state.
+         *
+         * @param create whether the requirements are created if the dependent has none
+         * @return the requirements or {@code null} if the dependent has none and {@code create} is {@code false}
+         */
+        private Map<String, RuntimeRequirementRegistration> writableDependents(boolean runtimeOnly, CapabilityId dependentId, boolean create) {
+            Map<String, RuntimeRequirementRegistration> current = (runtimeOnly ? runtimeOnlyRequirements : requirements).get(dependentId);
+            if (current != null && owned.contains(current)) {
+                return current;
+            }
+            if (current == null && !create) {
+                return null;
+            }
+            Map<String, RuntimeRequirementRegistration> result = current == null ? new HashMap<>() : new HashMap<>(current);
+            writableRequirementMap(runtimeOnly).put(dependentId, own(result));
+            return result;
+        }
+
+        /**
+         * Gets a requirement from requirements {@link #writableDependents(boolean, CapabilityId, boolean) owned} by
+         * this state, copying it if it is not owned.
+         */
+        private RuntimeRequirementRegistration writableRequirement(Map<String, RuntimeRequirementRegistration> dependents, String requiredName) {
+            RuntimeRequirementRegistration current = dependents.get(requiredName);
+            if (current == null || owned.contains(current)) {
+                return current;
+            }
+            RuntimeRequirementRegistration copy = own(new RuntimeRequirementRegistration(current));
+            dependents.put(requiredName, copy);
+            return copy;
+        }
+
+        private Set<CapabilityScope> writableKnownContexts() {
+            knownContexts = own(knownContexts, HashSet::new);
+            return knownContexts;
+        }
+
+        private Map<CapabilityId, CapabilityRegistration<?>> writablePossibleCapabilities() {
+            possibleCapabilities = own(possibleCapabilities, ConcurrentHashMap::new);
+            return possibleCapabilities;
+        }
+
+        private CapabilityRegistration<?> writablePossibleCapability(CapabilityId capabilityId) {
+            CapabilityRegistration<?> current = possibleCapabilities.get(capabilityId);
+            if (current == null || owned.contains(current)) {
+                return current;
+            }
+            CapabilityRegistration<?> copy = own(new CapabilityRegistration<>(current));
+            writablePossibleCapabilities().put(capabilityId, copy);
+            return copy;
+        }
+    }
+
     private static class ResolutionContextImpl extends CapabilityResolutionContext {
         private boolean resolutionComplete;
         private Resource rootResource;
@@ -21,16 +21,29 @@
 */
 package org.jboss.as.controller;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.jboss.dmr.ValueExpression;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Basic {@link ExpressionResolver} implementation.
+ * <p>
+ * The structure of the expression strings is cached, so the same string is only scanned once. Resolved values can
+ * also be cached by setting the {@code org.jboss.as.controller.expression.resolved-value-cache} system property to
+ * {@code true}. Resolved values are discarded when {@link #invalidateResolvedExpressions()} is called, which is done
+ * when a {@code system-property} resource changes. As system properties set by other means are not tracked, the cache
+ * is disabled by default.
+ * </p>
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
@@ -40,7 +53,14 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     private static final int GOT_DOLLAR = 1;
     private static final int GOT_OPEN_BRACE = 2;
 
+    private static final boolean RESOLVED_VALUE_CACHE = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.controller.expression.resolved-value-cache", "false"));
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final Map<String, ParsedExpression> PARSED_EXPRESSIONS = new ConcurrentHashMap<String, ParsedExpression>();
+    private static final AtomicLong GENERATION = new AtomicLong();
+
     private final boolean lenient;
+    private final Map<String, ResolvedExpression> resolvedExpressions;
 
     /**
      * Creates a new {@code ExpressionResolverImpl} configured to throw an OFE
@@ -58,7 +78,21 @@ public class ExpressionResolverImpl implements ExpressionResolver {
      *                           if the node should be left as an unresolved expression
      */
     protected ExpressionResolverImpl(boolean lenient) {
+        this(lenient, RESOLVED_VALUE_CACHE);
+    }
+
+    /** Only for testing use, other than the delegation from the other constructors */
+    ExpressionResolverImpl(boolean lenient, boolean cacheResolvedValues) {
         this.lenient = lenient;
+        this.resolvedExpressions = cacheResolvedValues ? new ConcurrentHashMap<String, ResolvedExpression>() : null;
+    }
+
+    /**
+     * Discards all the values cached by the resolvers, so expressions are resolved again against the current system
+     * properties.
+     */
+    public static void invalidateResolvedExpressions() {
+        GENERATION.incrementAndGet();
     }
 
     @Override
@@ -123,6 +157,22 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     protected void resolvePluggableExpression(ModelNode node) throws OperationFailedException {
     }
 
+    /**
+     * Gets whether the resolved value of the given expression may be cached, if caching of resolved values is enabled.
+     * Implementations must return {@code false} for expressions which {@link #resolvePluggableExpression(ModelNode)}
+     * resolves to sensitive data, or to values that can change without {@link #invalidateResolvedExpressions()} being
+     * called.
+     * <p>
+     * The default implementation returns {@code true}.
+     * </p>
+     *
+     * @param expression an expression of the form {@code ${...}}
+     * @return {@code true} if the resolved value may be cached
+     */
+    protected boolean isResolvedValueCacheable(String expression) {
+        return true;
+    }
+
     /**
      * Attempt to resolve the given expression string, recursing if resolution of one string produces
      * another expression.
@@ -166,6 +216,49 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     }
 
     private ParseAndResolveResult parseAndResolve(final String initialValue, boolean lenient) throws OperationFailedException {
+        ParsedExpression parsed = PARSED_EXPRESSIONS.get(initialValue);
+        if (parsed == null) {
+            parsed = ParsedExpression.parse(initialValue);
+            if (PARSED_EXPRESSIONS.size() >= MAX_CACHE_SIZE) {
+                PARSED_EXPRESSIONS.clear();
+            }
+            PARSED_EXPRESSIONS.put(initialValue, parsed);
+        }
+        return parsed == ParsedExpression.NESTED ? parseAndResolveNested(initialValue, lenient) : resolveParsed(initialValue, parsed, lenient);
+    }
+
+    /** Resolves an expression string which does not contain nested expressions or escaped {@code $} */
+    private ParseAndResolveResult resolveParsed(final String initialValue, final ParsedExpression parsed, boolean lenient) throws OperationFailedException {
+        if (parsed.starts.length == 0) {
+            return new ParseAndResolveResult(initialValue, false, false);
+        }
+        final StringBuilder builder = new StringBuilder();
+        int next = 0;
+        for (int i = 0; i < parsed.starts.length; i++) {
+            final int start = parsed.starts[i];
+            final int end = parsed.ends[i];
+            builder.append(initialValue, next, start);
+            final String toResolve = initialValue.substring(start, end + 1);
+            final String resolved = resolveExpressionString(toResolve);
+            if (toResolve.equals(resolved)) {
+                if (lenient) {
+                    return new ParseAndResolveResult(initialValue, false, false);
+                }
+                throw ControllerLogger.ROOT_LOGGER.cannotResolveExpression(initialValue);
+            }
+            if (EXPRESSION_PATTERN.matcher(resolved).matches()) {
+                // The resolved value is itself an expression, so there will need to be another pass
+                // which must not see the changes made to the preceding parts
+                return new ParseAndResolveResult(initialValue.substring(0, start) + resolved + initialValue.substring(end + 1), true, true);
+            }
+            builder.append(resolved);
+            next = end + 1;
+        }
+        builder.append(initialValue, next, initialValue.length());
+        return new ParseAndResolveResult(builder.toString(), true, false);
+    }
+
+    private ParseAndResolveResult parseAndResolveNested(final String initialValue, boolean lenient) throws OperationFailedException {
 
 
         final StringBuilder builder = new StringBuilder();
@@ -332,6 +425,15 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         // parseAndResolve should only be providing expressions with no leading or trailing chars
         assert unresolvedString.startsWith("${") && unresolvedString.endsWith("}");
 
+        final boolean cacheable = resolvedExpressions != null && isResolvedValueCacheable(unresolvedString);
+        final long generation = GENERATION.get();
+        if (cacheable) {
+            ResolvedExpression cached = resolvedExpressions.get(unresolvedString);
+            if (cached != null && cached.generation == generation) {
+                return cached.value;
+            }
+        }
+
         // Default result is no change from input
         String result = unresolvedString;
 
@@ -352,6 +454,12 @@ public class ExpressionResolverImpl implements ExpressionResolver {
             result = resolveNode.asString();
         }
 
+        if (cacheable && !unresolvedString.equals(result)) {
+            if (resolvedExpressions.size() >= MAX_CACHE_SIZE) {
+                resolvedExpressions.clear();
+            }
+            resolvedExpressions.put(unresolvedString, new ResolvedExpression(result, generation));
+        }
         return result;
     }
 
@@ -471,6 +579,64 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
     }
 
+    /**
+     * The positions of the {@code ${...}} expressions within a string. Strings with nested expressions or
+     * escaped {@code $} are represented by {@link #NESTED} and parsed as they are resolved.
+     */
+    private static final class ParsedExpression {
+        private static final ParsedExpression NESTED = new ParsedExpression(new int[0], new int[0]);
+
+        private final int[] starts;
+        private final int[] ends;
+
+        private ParsedExpression(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        private static ParsedExpression parse(String value) {
+            final int len = value.length();
+            List<int[]> expressions = new ArrayList<int[]>();
+            int i = value.indexOf('$');
+            while (i >= 0) {
+                if (i + 1 == len || value.charAt(i + 1) != '{') {
+                    return NESTED;
+                }
+                int end = -1;
+                for (int j = i + 2; j < len && end < 0; j++) {
+                    final char ch = value.charAt(j);
+                    if (ch == '}') {
+                        end = j;
+                    } else if (ch == '$' || ch == '{') {
+                        return NESTED;
+                    }
+                }
+                if (end < 0) {
+                    return NESTED;
+                }
+                expressions.add(new int[] {i, end});
+                i = value.indexOf('$', end + 1);
+            }
+            final int[] starts = new int[expressions.size()];
+            final int[] ends = new int[expressions.size()];
+            for (int k = 0; k < starts.length; k++) {
+                starts[k] = expressions.get(k)[0];
+                ends[k] = expressions.get(k)[1];
+            }
+            return new ParsedExpression(starts, ends);
+        }
+    }
+
+    private static final class ResolvedExpression {
+        private final String value;
+        private final long generation;
+
+        private ResolvedExpression(String value, long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+
     private static class OpenExpression {
         private final int startIndex;
         private int endIndex = -1;
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.access.constraint;
 
+import org.jboss.as.controller.access.rbac.AuthorizationDecisionCache;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 
 /**
@@ -92,6 +93,7 @@ public class ApplicationTypeConfig {
 
     public void setConfiguredApplication(Boolean configuredApplication) {
         this.configuredApplication = configuredApplication;
+        AuthorizationDecisionCache.configurationChanged();
     }
 
     @Override
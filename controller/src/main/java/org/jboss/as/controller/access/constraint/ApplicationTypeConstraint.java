@@ -83,6 +83,18 @@ public class ApplicationTypeConstraint extends AllowAllowNotConstraint {
             return (isApplicationType(action) || isApplicationType(target)) ? APPLICATION : NON_APPLICATION;
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            // Only depends on the access constraints and their configuration
+            return true;
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // Only depends on the access constraints and their configuration
+            return true;
+        }
+
         private boolean isApplicationType(Action action) {
             for (AccessConstraintDefinition constraintDefinition : action.getAccessConstraints()) {
                 if (constraintDefinition instanceof ApplicationTypeAccessConstraintDefinition) {
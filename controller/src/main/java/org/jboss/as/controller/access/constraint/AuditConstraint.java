@@ -73,6 +73,17 @@ public class AuditConstraint extends AllowAllowNotConstraint {
             return isAuditResource(target) ? AUDIT : NOT_AUDIT;
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            return isCacheable(actionEffect, action, target.getTargetResource());
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // The constraint for the audit log resources depends on their address
+            return !isAuditResource(target);
+        }
+
         private boolean isAuditResource(TargetResource target) {
             return AuditLogAddressUtil.isAuditLogAddress(target.getResourceAddress());
         }
@@ -86,4 +86,38 @@ public interface ConstraintFactory extends Comparable<ConstraintFactory> {
      * @return the constraint. Cannot return {@code null}
      */
     Constraint getRequiredConstraint(Action.ActionEffect actionEffect, JmxAction action, JmxTarget target);
+
+    /**
+     * Gets whether the constraint provided for the given {@code action} and {@code target} only depends on the
+     * registration and access constraints of the target and of the action, and on the configuration of this factory.
+     * Authorization decisions are only reused for later operations if all factories opt in by returning {@code true}.
+     * Implementations must return {@code false} if the constraint depends on the address of the target, the parameters
+     * of the operation or the current state of the model.
+     *
+     * @param actionEffect the {@link org.jboss.as.controller.access.Action.ActionEffect} for which the constraint is relevant
+     * @param action the action
+     * @param target the attribute that is the target of the action
+     *
+     * @return {@code true} if decisions based on the constraint may be cached. Default is {@code false}
+     */
+    default boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+        return false;
+    }
+
+    /**
+     * Gets whether the constraint provided for the given {@code action} and {@code target} only depends on the
+     * registration and access constraints of the target and of the action, and on the configuration of this factory.
+     * Authorization decisions are only reused for later operations if all factories opt in by returning {@code true}.
+     * Implementations must return {@code false} if the constraint depends on the address of the target, the parameters
+     * of the operation or the current state of the model.
+     *
+     * @param actionEffect the {@link org.jboss.as.controller.access.Action.ActionEffect} for which the constraint is relevant
+     * @param action the action
+     * @param target the resource that is the target of the action
+     *
+     * @return {@code true} if decisions based on the constraint may be cached. Default is {@code false}
+     */
+    default boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+        return false;
+    }
 }
@@ -220,6 +220,21 @@ public class HostEffectConstraint extends AbstractConstraint implements Constrai
             return getRequiredConstraint(target.getHostEffect());
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            return isGlobal(target.getHostEffect());
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // The affected hosts depend on the address of the target and the model
+            return isGlobal(target.getHostEffect());
+        }
+
+        private boolean isGlobal(HostEffect hostEffect) {
+            return hostEffect == null || hostEffect.isHostEffectGlobal();
+        }
+
         private Constraint getRequiredConstraint(HostEffect hostEffect) {
             if (hostEffect == null || hostEffect.isHostEffectGlobal()) {
                 return GLOBAL_REQUIRED;
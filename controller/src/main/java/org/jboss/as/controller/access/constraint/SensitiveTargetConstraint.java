@@ -89,6 +89,18 @@ public class SensitiveTargetConstraint extends AllowAllowNotConstraint {
             return (isSensitiveAction(action, actionEffect) || isSensitiveResource(target, actionEffect)) ? SENSITIVE : NOT_SENSITIVE;
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            // Only depends on the access constraints and their configuration
+            return true;
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // Only depends on the access constraints and their configuration
+            return true;
+        }
+
         private boolean isSensitiveAction(Action action, Action.ActionEffect effect) {
             for (AccessConstraintDefinition constraintDefinition : action.getAccessConstraints()) {
                 if (constraintDefinition instanceof SensitiveTargetAccessConstraintDefinition) {
@@ -80,6 +80,30 @@ public class SensitiveVaultExpressionConstraint extends AllowAllowNotConstraint
             return isSensitiveAction(action, actionEffect) ? SENSITIVE : NOT_SENSITIVE;
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            if (VaultExpressionSensitivityConfig.INSTANCE.isSensitive(actionEffect)) {
+                if (actionEffect == Action.ActionEffect.WRITE_RUNTIME || actionEffect == Action.ActionEffect.WRITE_CONFIG) {
+                    // Depends on the parameters of the operation
+                    return false;
+                }
+                if (actionEffect != Action.ActionEffect.ADDRESS) {
+                    // Depends on the current value of the attribute, unless it cannot hold an expression
+                    ModelNode currentValue = target.getCurrentValue();
+                    return currentValue != null
+                            && currentValue.getType() != ModelType.STRING && currentValue.getType() != ModelType.EXPRESSION;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // Writes depend on the parameters of the operation
+            return !VaultExpressionSensitivityConfig.INSTANCE.isSensitive(actionEffect)
+                    || (actionEffect != Action.ActionEffect.WRITE_RUNTIME && actionEffect != Action.ActionEffect.WRITE_CONFIG);
+        }
+
         private boolean isSensitiveAction(Action action, Action.ActionEffect actionEffect) {
             if (VaultExpressionSensitivityConfig.INSTANCE.isSensitive(actionEffect)) {
                 if (actionEffect == Action.ActionEffect.WRITE_RUNTIME || actionEffect == Action.ActionEffect.WRITE_CONFIG) {
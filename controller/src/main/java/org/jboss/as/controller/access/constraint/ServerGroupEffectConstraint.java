@@ -274,6 +274,22 @@ public class ServerGroupEffectConstraint extends AbstractConstraint implements C
             return getRequiredConstraint(target.getServerGroupEffect(), target.getHostEffect());
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            return isGlobal(target.getServerGroupEffect(), target.getHostEffect());
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // The affected server groups depend on the address of the target and the model
+            return isGlobal(target.getServerGroupEffect(), target.getHostEffect());
+        }
+
+        private boolean isGlobal(ServerGroupEffect serverGroupEffect, HostEffect hostEffect) {
+            return (serverGroupEffect == null || serverGroupEffect.isServerGroupEffectGlobal())
+                    && (hostEffect == null || hostEffect.isHostEffectGlobal());
+        }
+
         private Constraint getRequiredConstraint(ServerGroupEffect serverGroupEffect, HostEffect hostEffect) {
             boolean nonServerHost = hostEffect != null && !hostEffect.isHostEffectGlobal() && !hostEffect.isServerEffect();
             if (serverGroupEffect == null || serverGroupEffect.isServerGroupEffectGlobal()) {
@@ -82,24 +82,36 @@ public class TopRoleConstraint extends AllowAllowNotConstraint {
             return isTopRole(target) ? TOP_ROLE : NOT_TOP_ROLE;
         }
 
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            return isCacheable(actionEffect, action, target.getTargetResource());
+        }
+
+        @Override
+        public boolean isCacheable(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            // The constraint for a role mapping depends on the name of the role
+            return !isRoleMapping(target.getResourceAddress());
+        }
+
         private boolean isTopRole(TargetResource target) {
             return isTopRole(target.getResourceAddress());
         }
 
         private boolean isTopRole(PathAddress address) {
-            if (address.size() >= 3) {
-                PathElement roleMapping;
-                if (MGMT_ELEMENT.equals(address.getElement(0)) && AUTHZ_ELEMENT.equals(address.getElement(1))
-                        && ROLE_MAPPING.equals((roleMapping = address.getElement(2)).getKey())) {
-                    String roleName = roleMapping.getValue();
-                    return StandardRole.AUDITOR.name().equalsIgnoreCase(roleName)
-                            || StandardRole.SUPERUSER.name().equalsIgnoreCase(roleName);
-                }
+            if (isRoleMapping(address)) {
+                String roleName = address.getElement(2).getValue();
+                return StandardRole.AUDITOR.name().equalsIgnoreCase(roleName)
+                        || StandardRole.SUPERUSER.name().equalsIgnoreCase(roleName);
             }
 
             return false;
         }
 
+        private boolean isRoleMapping(PathAddress address) {
+            return address.size() >= 3 && MGMT_ELEMENT.equals(address.getElement(0)) && AUTHZ_ELEMENT.equals(address.getElement(1))
+                    && ROLE_MAPPING.equals(address.getElement(2).getKey());
+        }
+
         @Override
         protected int internalCompare(AbstractConstraintFactory other) {
             return 0;
@@ -36,6 +36,7 @@ import org.jboss.as.controller.access.Authorizer;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.CombinationPolicy;
+import org.jboss.as.controller.access.rbac.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.rbac.StandardRBACAuthorizer;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 
@@ -84,6 +85,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 }
             }
         }
+        AuthorizationDecisionCache.configurationChanged();
     }
 
     public synchronized void registerScopedRoleListener(ScopedRoleListener listener) {
@@ -146,6 +148,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         Map<String, ScopedRole> newScopedRoles = new HashMap<String, ScopedRole>(roleMaps.scopedRoles);
         newScopedRoles.put(toAdd.getName(), toAdd);
         roleMaps = new RoleMaps(roleMaps.standardRoles, newScopedRoles);
+        AuthorizationDecisionCache.configurationChanged();
     }
 
     public synchronized void removeScopedRole(String toRemove) {
@@ -156,6 +159,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
             for (ScopedRoleListener listener : scopedRoleListeners) {
                 listener.scopedRoleRemoved(removed);
             }
+            AuthorizationDecisionCache.configurationChanged();
         }
     }
 
@@ -256,6 +260,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     public void setPermissionCombinationPolicy(CombinationPolicy combinationPolicy) {
         assert combinationPolicy != null : "combinationPolicy is null";
         this.combinationPolicy = combinationPolicy;
+        AuthorizationDecisionCache.configurationChanged();
     }
 
     void setNonFacadeMBeansSensitive(boolean nonFacadeMBeansSensitive) {
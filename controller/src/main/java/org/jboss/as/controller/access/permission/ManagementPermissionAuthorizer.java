@@ -102,7 +102,14 @@ public class ManagementPermissionAuthorizer implements Authorizer {
         return operation == null || target.getResourceAddress().equals(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
     }
 
-    private AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
+    /**
+     * Authorizes the user permissions against the required permissions.
+     *
+     * @param userPermissions the permissions of the user
+     * @param requiredPermissions the permissions required for the action
+     * @return the authorization result
+     */
+    protected AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
 
         final Enumeration<Permission> enumeration = requiredPermissions.elements();
         while (enumeration.hasMoreElements()){
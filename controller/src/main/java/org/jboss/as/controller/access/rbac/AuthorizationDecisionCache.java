@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.rbac;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.access.TargetAttribute;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.constraint.ConstraintFactory;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+
+/**
+ * Cache of the authorization decisions made by a {@link StandardRBACAuthorizer}, shared by all the operations
+ * executed by the process.
+ * <p>
+ * Decisions are keyed by the address of the registration of the target, the access constraints of the action and the
+ * target, and the configuration of those constraints, so a decision is shared by all the resources of a registration.
+ * They are only cached for callers mapped only to standard roles, and only if every {@link ConstraintFactory}
+ * {@linkplain ConstraintFactory#isCacheable(Action.ActionEffect, Action, TargetResource) opts in}, i.e. none of the
+ * required constraints depends on the address of the target, the parameters of the operation or the current state of
+ * the model. Cached decisions are no longer used once the configuration of the authorizer or of the access constraints
+ * {@linkplain #configurationChanged() changes}, and the least recently used decisions are evicted.
+ * </p>
+ */
+public final class AuthorizationDecisionCache {
+
+    private static final int MAX_SIZE = 4096;
+    private static final Set<String> STANDARD_ROLES;
+    static {
+        Set<String> stdRoles = new HashSet<String>();
+        for (StandardRole stdRole : StandardRole.values()) {
+            stdRoles.add(stdRole.getOfficialForm());
+        }
+        STANDARD_ROLES = stdRoles;
+    }
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final DefaultPermissionFactory permissionFactory;
+    private final Map<Key, AuthorizationResult> decisions;
+
+    AuthorizationDecisionCache(DefaultPermissionFactory permissionFactory) {
+        this(permissionFactory, MAX_SIZE);
+    }
+
+    AuthorizationDecisionCache(DefaultPermissionFactory permissionFactory, final int maxSize) {
+        this.permissionFactory = permissionFactory;
+        this.decisions = new LinkedHashMap<Key, AuthorizationResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, AuthorizationResult> eldest) {
+                // Also evicts the decisions of previous configurations, which are no longer used
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Notifies that the configuration the authorization decisions are based on has changed, discarding all the
+     * decisions cached so far.
+     */
+    public static void configurationChanged() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Creates the key of the decision for the given roles, action and target.
+     *
+     * @param roles the roles the caller is mapped to
+     * @param action the action
+     * @param target the target resource
+     * @return the key, or {@code null} if the decision cannot be cached
+     */
+    Key createKey(Set<String> roles, Action action, TargetResource target) {
+        if (!isStandardRoles(roles) || !permissionFactory.isCacheable(action, target)) {
+            return null;
+        }
+        return createKey(roles, action, target, null, Collections.<AccessConstraintDefinition>emptyList());
+    }
+
+    /**
+     * Creates the key of the decision for the given roles, action and target.
+     *
+     * @param roles the roles the caller is mapped to
+     * @param action the action
+     * @param target the target attribute
+     * @return the key, or {@code null} if the decision cannot be cached
+     */
+    Key createKey(Set<String> roles, Action action, TargetAttribute target) {
+        if (!isStandardRoles(roles) || !permissionFactory.isCacheable(action, target)) {
+            return null;
+        }
+        return createKey(roles, action, target.getTargetResource(), target.getAttributeName(), target.getAccessConstraints());
+    }
+
+    private Key createKey(Set<String> roles, Action action, TargetResource target, String attributeName,
+                          List<AccessConstraintDefinition> attributeConstraints) {
+        ImmutableManagementResourceRegistration registration = target.getResourceRegistration();
+        if (registration == null) {
+            return null;
+        }
+        // The factories opted in, so the decision does not depend on the address of the resource within the registration
+        return new Key(GENERATION.get(), roles, registration.getPathAddress(), attributeName, action.getActionEffects(),
+                action.getAccessConstraints(), target.getAccessConstraints(), attributeConstraints);
+    }
+
+    private static boolean isStandardRoles(Set<String> roles) {
+        if (roles == null) {
+            return false;
+        }
+        for (String role : roles) {
+            // Scoped roles depend on the address of the target
+            if (!STANDARD_ROLES.contains(role.toUpperCase(Locale.ENGLISH))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    AuthorizationResult get(Key key) {
+        synchronized (decisions) {
+            return decisions.get(key);
+        }
+    }
+
+    void put(Key key, AuthorizationResult result) {
+        synchronized (decisions) {
+            decisions.put(key, result);
+        }
+    }
+
+    int size() {
+        synchronized (decisions) {
+            return decisions.size();
+        }
+    }
+
+    /** The key of a decision */
+    static final class Key {
+        private final long generation;
+        private final Set<String> roles;
+        private final PathAddress registrationAddress;
+        private final String attributeName;
+        private final Set<Action.ActionEffect> actionEffects;
+        private final List<AccessConstraintDefinition> actionConstraints;
+        private final List<AccessConstraintDefinition> resourceConstraints;
+        private final List<AccessConstraintDefinition> attributeConstraints;
+        private final int hashCode;
+
+        private Key(long generation, Set<String> roles, PathAddress registrationAddress, String attributeName,
+                    Set<Action.ActionEffect> actionEffects, List<AccessConstraintDefinition> actionConstraints,
+                    List<AccessConstraintDefinition> resourceConstraints, List<AccessConstraintDefinition> attributeConstraints) {
+            this.generation = generation;
+            this.roles = roles;
+            this.registrationAddress = registrationAddress;
+            this.attributeName = attributeName;
+            this.actionEffects = actionEffects;
+            this.actionConstraints = actionConstraints;
+            this.resourceConstraints = resourceConstraints;
+            this.attributeConstraints = attributeConstraints;
+            this.hashCode = Objects.hash(generation, roles, registrationAddress, attributeName, actionEffects,
+                    actionConstraints, resourceConstraints, attributeConstraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return generation == other.generation
+                    && hashCode == other.hashCode
+                    && roles.equals(other.roles)
+                    && registrationAddress.equals(other.registrationAddress)
+                    && Objects.equals(attributeName, other.attributeName)
+                    && actionEffects.equals(other.actionEffects)
+                    && actionConstraints.equals(other.actionConstraints)
+                    && resourceConstraints.equals(other.resourceConstraints)
+                    && attributeConstraints.equals(other.attributeConstraints);
+        }
+    }
+}
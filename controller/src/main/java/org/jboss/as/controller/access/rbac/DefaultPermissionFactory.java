@@ -114,7 +114,13 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
         return getUserPermissions(roleMapper.mapRoles(caller, callEnvironment, action, target));
     }
 
-    private PermissionCollection getUserPermissions(Set<String> roles) {
+    /**
+     * Gets the permissions of a user mapped to the given roles.
+     *
+     * @param roles the roles, as mapped by the role mapper of this factory
+     * @return the permissions
+     */
+    PermissionCollection getUserPermissions(Set<String> roles) {
         PermissionCollection result = checkAllPermissions(roles);
         if (result != null) {
             return result;
@@ -232,6 +238,48 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
         return result;
     }
 
+    /**
+     * Gets whether the constraints required for the action and target may be reused for later operations, i.e. all
+     * the {@linkplain ConstraintFactory#isCacheable(Action.ActionEffect, Action, TargetAttribute) constraint factories}
+     * opt in.
+     *
+     * @param action the action
+     * @param target the target attribute
+     * @return {@code true} if a decision based on the required permissions may be cached
+     */
+    boolean isCacheable(Action action, TargetAttribute target) {
+        ConstraintFactory[] currentFactories = configureRolePermissions().constraintFactories;
+        for (Action.ActionEffect actionEffect : action.getActionEffects()) {
+            for (ConstraintFactory factory : currentFactories) {
+                if (!factory.isCacheable(actionEffect, action, target)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets whether the constraints required for the action and target may be reused for later operations, i.e. all
+     * the {@linkplain ConstraintFactory#isCacheable(Action.ActionEffect, Action, TargetResource) constraint factories}
+     * opt in.
+     *
+     * @param action the action
+     * @param target the target resource
+     * @return {@code true} if a decision based on the required permissions may be cached
+     */
+    boolean isCacheable(Action action, TargetResource target) {
+        ConstraintFactory[] currentFactories = configureRolePermissions().constraintFactories;
+        for (Action.ActionEffect actionEffect : action.getActionEffects()) {
+            for (ConstraintFactory factory : currentFactories) {
+                if (!factory.isCacheable(actionEffect, action, target)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /** Hook for the access control management layer to add a new constraint factory */
     void addConstraintFactory(ConstraintFactory factory) {
         synchronized (this) {
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.access.rbac;
 
+import java.security.PermissionCollection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,9 +31,15 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.TargetAttribute;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.permission.AllPermissionsCollection;
 import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
 
 /**
@@ -46,6 +53,8 @@ import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
  * So, by adding the {@code roles} operation-header to the request the client can only reduce its privileges,
  * not increase them.
  * </p>
+ * <p>Decisions whose required constraints do not depend on the address of the target or the parameters of the
+ * operation are kept in an {@link AuthorizationDecisionCache} and reused by later operations on the same target.</p>
  *
  *
  * @author Brian Stansberry (c) 2013 Red Hat Inc.
@@ -85,12 +94,14 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
     private final DefaultPermissionFactory permissionFactory;
     private final RoleMapper roleMapper;
     private final Map<String, String> mappedToOfficialForm = Collections.synchronizedMap(new HashMap<String, String>());
+    private final AuthorizationDecisionCache decisionCache;
 
     private StandardRBACAuthorizer(final AuthorizerConfiguration configuration,
                                    final DefaultPermissionFactory permissionFactory, final RoleMapper roleMapper) {
         super(permissionFactory);
         this.configuration = configuration;
         this.permissionFactory = permissionFactory;
+        this.decisionCache = new AuthorizationDecisionCache(permissionFactory);
         configuration.registerScopedRoleListener(permissionFactory);
         this.roleMapper = roleMapper;
         for (StandardRole std : StandardRole.values()) {
@@ -98,6 +109,57 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
         }
     }
 
+    @Override
+    public AuthorizationResult authorize(Caller caller, Environment callEnvironment, Action action, TargetAttribute target) {
+        if (isServerBooting(callEnvironment)) {
+            return super.authorize(caller, callEnvironment, action, target);
+        }
+        // Map the roles only once, for both the key and the user permissions
+        Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        AuthorizationDecisionCache.Key key = decisionCache.createKey(roles, action, target);
+        AuthorizationResult result = key != null ? decisionCache.get(key) : null;
+        if (result == null) {
+            result = authorize(permissionFactory.getUserPermissions(roles), permissionFactory.getRequiredPermissions(action, target));
+            if (key != null) {
+                decisionCache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Caller caller, Environment callEnvironment, Action action, TargetResource target) {
+        if (isServerBooting(callEnvironment)) {
+            return super.authorize(caller, callEnvironment, action, target);
+        }
+        // Map the roles only once, for both the key and the user permissions
+        Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        AuthorizationDecisionCache.Key key = decisionCache.createKey(roles, action, target);
+        AuthorizationResult result = key != null ? decisionCache.get(key) : null;
+        if (result == null) {
+            PermissionCollection userPerms = permissionFactory.getUserPermissions(roles);
+            if (userPerms == AllPermissionsCollection.INSTANCE) {
+                result = AuthorizationResult.PERMITTED;
+            } else {
+                result = authorize(userPerms, permissionFactory.getRequiredPermissions(action, target));
+            }
+            if (key != null) {
+                decisionCache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isServerBooting(Environment callEnvironment) {
+        // Everything is permitted while booting, those decisions must not be reused
+        return callEnvironment != null && callEnvironment.getProcessState() == ControlledProcessState.State.STARTING;
+    }
+
+    /** Only for testing use */
+    AuthorizationDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
     @Override
     public Set<String> getCallerRoles(Caller caller, Environment callEnvironment, Set<String> runAsRoles) {
         Set<String> mapped = roleMapper.mapRoles(caller, callEnvironment, runAsRoles);
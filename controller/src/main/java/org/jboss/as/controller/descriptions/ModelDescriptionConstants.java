@@ -83,6 +83,7 @@ public class ModelDescriptionConstants {
     public static final String AUTO_START = "auto-start";
     public static final String BASE_DN = "base-dn";
     public static final String BASE_ROLE = "base-role";
+    public static final String BATCH_PERCENTAGE = "batch-percentage";
     public static final String BLOCKING = "blocking";
     public static final String BLOCKING_TIMEOUT = "blocking-timeout";
     public static final String BOOT_TIME = "boot-time";
@@ -307,6 +308,7 @@ public class ModelDescriptionConstants {
     public static final String MAX_FAILURE_COUNT = "max-failure-count";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
     public static final String MAX_HISTORY = "max-history";
+    public static final String MAX_IN_FLIGHT = "max-in-flight";
     public static final String MAX_LENGTH = "max-length";
     public static final String MAX_OCCURS = "max-occurs";
     public static final String MAX_THREADS = "max-threads";
@@ -70,6 +70,15 @@ public interface OperationTransformer {
             return resultTransformer;
         }
 
+        /**
+         * Whether or not the transformed operation may be rejected by the target.
+         *
+         * @return {@code false} if the default rejection policy is used, otherwise {@code true}
+         */
+        boolean isRejectable() {
+            return getClass() != TransformedOperation.class || rejectPolicy != DEFAULT_REJECTION_POLICY;
+        }
+
         @Override
         public boolean rejectOperation(final ModelNode preparedResult) {
             return rejectPolicy.rejectOperation(preparedResult);
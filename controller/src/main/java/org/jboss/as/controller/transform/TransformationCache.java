@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.transform;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Caches the results of transforming the model and operations for legacy targets, so that a transformation done for
+ * one target can be reused for every other target running the same versions and ignoring the same resources.
+ * <p>
+ * Transformed resource trees are keyed by the target and a digest of the original model, so any change to the model
+ * results in a new entry, and the least recently used trees are evicted. The digest is computed while walking the
+ * resource tree and is kept on the {@link Transformers.TransformationInputs}, so it is only computed once for all the
+ * targets a model is transformed for. Transformed operations are only kept for the lifetime of the inputs they were
+ * created from, as the inputs represent a single version of the model.
+ * </p>
+ * <p>
+ * The number of transformed resource trees kept can be set with the {@value #CACHE_SIZE} system property, setting it
+ * to {@code 0} disables the cache.
+ * </p>
+ */
+public final class TransformationCache {
+
+    static final String CACHE_SIZE = "org.jboss.as.controller.transform.cache-size";
+
+    private static final String DEFAULT_CACHE_SIZE = "8";
+
+    private static final Object DEFAULT_REGISTRY_KEY = new Object();
+
+    private final int maxSize;
+    private final Map<Object, CachedResource> resources;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedTime = new AtomicLong();
+
+    TransformationCache() {
+        this(Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(CACHE_SIZE, DEFAULT_CACHE_SIZE)));
+    }
+
+    TransformationCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.resources = new LinkedHashMap<Object, CachedResource>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, CachedResource> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Whether or not transformation results are cached.
+     *
+     * @return {@code true} if the cache is enabled, otherwise {@code false}
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * The number of transformations served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of transformations which could not be served from the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * The time spent on the original transformations which were served from the cache.
+     *
+     * @param unit the unit to return the time in
+     *
+     * @return the time saved
+     */
+    public long getTimeSaved(final TimeUnit unit) {
+        return unit.convert(savedTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    Object createResourceKey(final Object targetKey, final Transformers.TransformationInputs inputs, final Resource resource) {
+        if (inputs == null || resource != inputs.getRootResource()) {
+            return Arrays.asList(targetKey, digest(resource));
+        }
+        String modelDigest = inputs.modelDigest;
+        if (modelDigest == null) {
+            modelDigest = digest(resource);
+            inputs.modelDigest = modelDigest;
+        }
+        return Arrays.asList(targetKey, modelDigest);
+    }
+
+    Resource getResource(final Object key) {
+        final CachedResource cached;
+        synchronized (resources) {
+            cached = resources.get(key);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hit(cached.time);
+        // Callers own the returned resource
+        return cached.resource.clone();
+    }
+
+    void putResource(final Object key, final Resource transformed, final long time) {
+        final CachedResource cached = new CachedResource(transformed.clone(), time);
+        synchronized (resources) {
+            resources.put(key, cached);
+        }
+    }
+
+    OperationTransformer.TransformedOperation getOperation(final Transformers.TransformationInputs inputs, final Object key) {
+        final CachedOperation cached = inputs.transformedOperations.get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hit(cached.time);
+        final ModelNode operation = cached.operation.getTransformedOperation();
+        // The cached operation provides the rejection policy and result transformer
+        return new OperationTransformer.TransformedOperation(operation == null ? null : operation.clone(), cached.operation, cached.operation);
+    }
+
+    void putOperation(final Transformers.TransformationInputs inputs, final Object key,
+                      final OperationTransformer.TransformedOperation transformed, final long time) {
+        final ModelNode operation = transformed.getTransformedOperation();
+        inputs.transformedOperations.putIfAbsent(key, new CachedOperation(new OperationTransformer.TransformedOperation(
+                operation == null ? null : operation.clone(), transformed, transformed), time));
+    }
+
+    private void hit(final long time) {
+        final long hitCount = hits.incrementAndGet();
+        final long saved = savedTime.addAndGet(time);
+        if (ControllerLogger.ROOT_LOGGER.isDebugEnabled()) {
+            final long missCount = misses.get();
+            ControllerLogger.ROOT_LOGGER.debugf("Transformation served from cache: %d hits, %d misses (%d%% hit rate), %d ms saved",
+                    hitCount, missCount, hitCount * 100 / (hitCount + missCount), TimeUnit.NANOSECONDS.toMillis(saved));
+        }
+    }
+
+    /**
+     * Gets the key of a registry of ignored resources or excluded operations.
+     *
+     * @param registry        the registry
+     * @param defaultRegistry the default registry which ignores nothing
+     *
+     * @return the key, or {@code null} if the results for the registry cannot be shared
+     */
+    static Object getRegistryKey(final Object registry, final Object defaultRegistry) {
+        if (registry == null || registry == defaultRegistry) {
+            return DEFAULT_REGISTRY_KEY;
+        }
+        if (registry instanceof Transformers.TransformationCacheKeyProvider) {
+            return ((Transformers.TransformationCacheKeyProvider) registry).getTransformationCacheKey();
+        }
+        return null;
+    }
+
+    private static String digest(final Resource resource) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            try (DigestOutputStream out = new DigestOutputStream(new DiscardingOutputStream(), digest)) {
+                digest(resource, out);
+            }
+            final StringBuilder result = new StringBuilder();
+            for (byte b : digest.digest()) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void digest(final Resource resource, final DigestOutputStream out) throws IOException {
+        // Same content as Resource.Tools.readModel, without copying the model
+        resource.getModel().writeExternal(out);
+        for (final String childType : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                if (entry.isProxy() || entry.isRuntime()) {
+                    continue;
+                }
+                final PathElement element = entry.getPathElement();
+                new ModelNode(element.getKey()).writeExternal(out);
+                new ModelNode(element.getValue()).writeExternal(out);
+                digest(entry, out);
+            }
+        }
+    }
+
+    private static final class CachedResource {
+        private final Resource resource;
+        private final long time;
+
+        private CachedResource(final Resource resource, final long time) {
+            this.resource = resource;
+            this.time = time;
+        }
+    }
+
+    static final class CachedOperation {
+        private final OperationTransformer.TransformedOperation operation;
+        private final long time;
+
+        private CachedOperation(final OperationTransformer.TransformedOperation operation, final long time) {
+            this.operation = operation;
+            this.time = time;
+        }
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.transform;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -117,6 +118,33 @@ public class TransformationTargetImpl implements TransformationTarget {
         return new TransformationTargetImpl(this, placeholderResolver);
     }
 
+    TransformationCache getTransformationCache() {
+        return transformerRegistry.getTransformationCache();
+    }
+
+    /**
+     * Gets the key identifying the transformations for this target, which are the same for any other target using the
+     * same versions and ignoring the same resources and operations.
+     *
+     * @param ignoredRegistry the registry of ignored resources used for the transformation
+     * @return the key, or {@code null} if the transformation results cannot be shared
+     */
+    Object getTransformationCacheKey(final Transformers.ResourceIgnoredTransformationRegistry ignoredRegistry) {
+        if (placeholderResolver != null) {
+            return null;
+        }
+        final Object excludedKey = TransformationCache.getRegistryKey(operationIgnoredRegistry, Transformers.OperationExcludedTransformationRegistry.DEFAULT);
+        final Object ignoredKey = TransformationCache.getRegistryKey(ignoredRegistry, Transformers.DEFAULT);
+        if (excludedKey == null || ignoredKey == null) {
+            return null;
+        }
+        final Map<String, ModelVersion> subsystems;
+        synchronized (subsystemVersions) {
+            subsystems = new HashMap<>(subsystemVersions);
+        }
+        return Arrays.asList(type, version, subsystems, excludedKey, ignoredKey);
+    }
+
     @Override
     public ModelVersion getVersion() {
         return version;
@@ -66,6 +66,7 @@ public final class TransformerRegistry {
 
     private final GlobalTransformerRegistry domain = new GlobalTransformerRegistry();
     private final GlobalTransformerRegistry subsystem = new GlobalTransformerRegistry();
+    private final TransformationCache transformationCache = new TransformationCache();
 
     TransformerRegistry() {
         // Initialize the empty paths
@@ -74,6 +75,15 @@ public final class TransformerRegistry {
         domain.createChildRegistry(PathAddress.pathAddress(HOST, SERVER), ModelVersion.create(0), ResourceTransformer.DEFAULT, false);
     }
 
+    /**
+     * Gets the cache of transformation results shared by the targets using this registry.
+     *
+     * @return the transformation cache
+     */
+    public TransformationCache getTransformationCache() {
+        return transformationCache;
+    }
+
     public void loadAndRegisterTransformers(String name, ModelVersion subsystemVersion, String extensionModuleName) {
         try {
             SubsystemTransformerRegistration transformerRegistration = new SubsystemTransformerRegistrationImpl(name, subsystemVersion);
@@ -22,6 +22,9 @@
 
 package org.jboss.as.controller.transform;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.jboss.as.controller.ExpressionResolver;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -119,6 +122,10 @@ public interface Transformers {
         private final ProcessType processType;
         private final RunningMode runningMode;
         private final TransformerOperationAttachment transformerOperationAttachment;
+        // Operations transformed for targets sharing a TransformationCache, only valid for this model
+        final Map<Object, TransformationCache.CachedOperation> transformedOperations = new ConcurrentHashMap<>();
+        // Digest of the original model, computed on first use by the TransformationCache
+        volatile String modelDigest;
 
         /**
          * Obtains a set of {@code TransformationInputs} from the given operation context. If the
@@ -309,6 +316,21 @@ public interface Transformers {
         }
     };
 
+    /**
+     * Implemented by a {@link ResourceIgnoredTransformationRegistry} or {@link OperationExcludedTransformationRegistry}
+     * whose decisions are fully described by a key. Targets using registries with equal keys may share the results
+     * held by the {@link TransformationCache}.
+     */
+    interface TransformationCacheKeyProvider {
+
+        /**
+         * Gets the key describing the resources and operations ignored by this registry.
+         *
+         * @return the key, or {@code null} if transformation results must not be shared with other targets
+         */
+        Object getTransformationCacheKey();
+    }
+
     /** Provides information on whether a target process is excluded from receiving operations for a particular resource addresses. */
     @FunctionalInterface
     interface OperationExcludedTransformationRegistry {
@@ -25,6 +25,7 @@ package org.jboss.as.controller.transform;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -85,6 +86,11 @@ public class TransformersImpl implements Transformers {
 
     @Override
     public OperationTransformer.TransformedOperation transformOperation(final TransformationInputs transformationInputs, final ModelNode operation) throws OperationFailedException {
+        final long start = System.nanoTime();
+        final TransformationCache cache = getTransformationCache();
+        final Object targetKey = cache == null ? null : ((TransformationTargetImpl) target).getTransformationCacheKey(Transformers.DEFAULT);
+        // The inputs represent a single version of the model, so only the target and the operation need to match
+        final Object cacheKey = targetKey == null ? null : Arrays.asList(targetKey, operation.clone());
 
         final PathAddress original = PathAddress.pathAddress(operation.require(OP_ADDR));
         //If this is an alias, get the real address before transforming
@@ -103,14 +109,29 @@ public class TransformersImpl implements Transformers {
         // Update the operation using the new path address
         operation.get(OP_ADDR).set(transformed.toModelNode()); // TODO should this happen by default?
 
+        if (cacheKey != null) {
+            final OperationTransformer.TransformedOperation cached = cache.getOperation(transformationInputs, cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         final TransformationContext context = ResourceTransformationContextImpl.create(transformationInputs, target, transformed, original, Transformers.DEFAULT);
         final OperationTransformer transformer = target.resolveTransformer(context, useAddress, operationName);
         if (transformer == null) {
             ControllerLogger.ROOT_LOGGER.tracef("operation %s does not need transformation", operation);
-            return new OperationTransformer.TransformedOperation(operation, OperationResultTransformer.ORIGINAL_RESULT);
+            final OperationTransformer.TransformedOperation op = new OperationTransformer.TransformedOperation(operation, OperationResultTransformer.ORIGINAL_RESULT);
+            if (cacheKey != null) {
+                cache.putOperation(transformationInputs, cacheKey, op, System.nanoTime() - start);
+            }
+            return op;
         }
         final OperationTransformer.TransformedOperation op = transformer.transformOperation(context, transformed, operation);
-        context.getLogger().flushLogQueue();
+        final boolean warnings = context.getLogger().flushLogQueue();
+        // Warnings and rejections report the target host, so those results are not shared with other targets
+        if (cacheKey != null && !warnings && !op.isRejectable()) {
+            cache.putOperation(transformationInputs, cacheKey, op, System.nanoTime() - start);
+        }
         return op;
     }
 
@@ -131,9 +152,32 @@ public class TransformersImpl implements Transformers {
             ControllerLogger.ROOT_LOGGER.tracef("resource %s does not need transformation", resource);
             return resource;
         }
+        final long start = System.nanoTime();
+        final TransformationCache cache = getTransformationCache();
+        final Object targetKey = cache == null ? null : ((TransformationTargetImpl) target).getTransformationCacheKey(ignoredTransformationRegistry);
+        final Object cacheKey = targetKey == null ? null : cache.createResourceKey(targetKey, transformationInputs, resource);
+        if (cacheKey != null) {
+            final Resource cached = cache.getResource(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
         transformer.transformResource(context, transformed, resource);
-        context.getLogger().flushLogQueue();
-        return context.getTransformedRoot();
+        final boolean warnings = context.getLogger().flushLogQueue();
+        final Resource result = context.getTransformedRoot();
+        // Warnings report the target host, so those results are not shared with other targets
+        if (cacheKey != null && !warnings) {
+            cache.putResource(cacheKey, result, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private TransformationCache getTransformationCache() {
+        if (target instanceof TransformationTargetImpl) {
+            final TransformationCache cache = ((TransformationTargetImpl) target).getTransformationCache();
+            return cache.isEnabled() ? cache : null;
+        }
+        return null;
     }
 
     @Override
@@ -250,8 +250,10 @@ public class TransformersLogger {
 
     /**
      * flushes log queue, this actually writes combined log message into system log
+     *
+     * @return {@code true} if any warnings were logged, otherwise {@code false}
      */
-    void flushLogQueue() {
+    boolean flushLogQueue() {
         Set<String> problems = new LinkedHashSet<String>();
         synchronized (messageQueue) {
             Iterator<LogEntry> i = messageQueue.iterator();
@@ -262,7 +264,9 @@ public class TransformersLogger {
         }
         if (!problems.isEmpty()) {
             logger.transformationWarnings(target.getHostName(), problems);
+            return true;
         }
+        return false;
     }
 
     private interface LogEntry {
@@ -36,6 +36,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.jboss.as.controller.capability.Capability;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.capability.registry.CapabilityId;
+import org.jboss.as.controller.capability.registry.CapabilityRegistration;
 import org.jboss.as.controller.capability.registry.CapabilityScope;
 import org.jboss.as.controller.capability.registry.RegistrationPoint;
 import org.jboss.as.controller.capability.registry.RuntimeCapabilityRegistration;
@@ -959,6 +960,59 @@ public class CapabilityRegistryTestCase extends AbstractControllerTestBase {
     private void add(PathElement... address) throws OperationFailedException {
         executeCheckNoFailure(Util.createEmptyOperation("add", PathAddress.pathAddress(address)));
     }
+    @Test
+    public void testShadowCopyPublishAndRollback() {
+        CapabilityRegistry published = new CapabilityRegistry(true);
+        CapabilityRegistry shadow = published.createShadowCopy();
+        CapabilityScope scope = CapabilityScope.GLOBAL;
+
+        shadow.registerCapability(new RuntimeCapabilityRegistration(TEST_CAPABILITY1, scope, new RegistrationPoint(TEST_ADDRESS1, null)));
+        Assert.assertTrue(shadow.hasCapability(TEST_CAPABILITY1.getName(), scope));
+        Assert.assertFalse(published.hasCapability(TEST_CAPABILITY1.getName(), scope));
+
+        shadow.publish();
+        Assert.assertFalse(shadow.isModified());
+        Assert.assertTrue(published.hasCapability(TEST_CAPABILITY1.getName(), scope));
+
+        // Changes after publishing the shared state must not leak into the published registry
+        shadow.registerCapability(new RuntimeCapabilityRegistration(TEST_CAPABILITY2, scope, new RegistrationPoint(TEST_ADDRESS2, null)));
+        Assert.assertNotNull(shadow.removeCapability(TEST_CAPABILITY1.getName(), scope, TEST_ADDRESS1));
+        Assert.assertFalse(shadow.hasCapability(TEST_CAPABILITY1.getName(), scope));
+        Assert.assertTrue(published.hasCapability(TEST_CAPABILITY1.getName(), scope));
+        Assert.assertFalse(published.hasCapability(TEST_CAPABILITY2.getName(), scope));
+        Assert.assertEquals(1, published.getCapabilities().size());
+
+        shadow.rollback();
+        Assert.assertFalse(shadow.isModified());
+        Assert.assertTrue(shadow.hasCapability(TEST_CAPABILITY1.getName(), scope));
+        Assert.assertFalse(shadow.hasCapability(TEST_CAPABILITY2.getName(), scope));
+        Assert.assertEquals(1, published.getCapabilities().iterator().next().getRegistrationPointCount());
+    }
+
+    @Test
+    public void testShadowCopySharedRegistrations() {
+        CapabilityRegistry published = new CapabilityRegistry(true);
+        published.registerPossibleCapability(TEST_CAPABILITY1, TEST_ADDRESS1);
+        published.registerPossibleCapability(TEST_CAPABILITY2, TEST_ADDRESS1);
+        CapabilityRegistry shadow = published.createShadowCopy();
+
+        // Modifying a registration shared with the published registry must only change the shadow's copy
+        shadow.registerPossibleCapability(TEST_CAPABILITY1, TEST_ADDRESS2);
+        Assert.assertNull(shadow.removePossibleCapability(TEST_CAPABILITY2, TEST_ADDRESS2));
+        Assert.assertNotNull(shadow.removePossibleCapability(TEST_CAPABILITY2, TEST_ADDRESS1));
+
+        Assert.assertEquals(2, published.getPossibleCapabilities().size());
+        for (CapabilityRegistration<?> registration : published.getPossibleCapabilities()) {
+            Assert.assertEquals(1, registration.getRegistrationPointCount());
+        }
+        Assert.assertEquals(1, shadow.getPossibleCapabilities().size());
+        Assert.assertEquals(2, shadow.getPossibleCapabilities().iterator().next().getRegistrationPointCount());
+
+        shadow.publish();
+        Assert.assertEquals(1, published.getPossibleCapabilities().size());
+        Assert.assertEquals(2, published.getPossibleCapabilities().iterator().next().getRegistrationPointCount());
+    }
+
     private void remove(PathElement... address) throws OperationFailedException {
         executeCheckNoFailure(Util.createEmptyOperation("remove", PathAddress.pathAddress(address)));
     }
@@ -467,6 +467,41 @@ public class ExpressionResolverUnitTestCase {
         assertEquals("PROP", node.get("prop").asProperty().getValue().asString());
     }
 
+    @Test
+    public void testResolvedValueCache() throws OperationFailedException {
+        ExpressionResolver resolver = new ExpressionResolverImpl(false, true);
+        ModelNode expression = new ModelNode(new ValueExpression("a-${test.prop.cached}-b"));
+        System.setProperty("test.prop.cached", "1");
+        try {
+            assertEquals("a-1-b", resolver.resolveExpressions(expression).asString());
+            System.setProperty("test.prop.cached", "2");
+            assertEquals("a-1-b", resolver.resolveExpressions(expression).asString());
+            ExpressionResolverImpl.invalidateResolvedExpressions();
+            assertEquals("a-2-b", resolver.resolveExpressions(expression).asString());
+        } finally {
+            System.clearProperty("test.prop.cached");
+        }
+    }
+
+    @Test
+    public void testResolvedValueCacheOptOut() throws OperationFailedException {
+        ExpressionResolver resolver = new ExpressionResolverImpl(false, true) {
+            @Override
+            protected boolean isResolvedValueCacheable(String expression) {
+                return !expression.equals("${test.prop.cached}");
+            }
+        };
+        ModelNode expression = new ModelNode(new ValueExpression("a-${test.prop.cached}-b"));
+        System.setProperty("test.prop.cached", "1");
+        try {
+            assertEquals("a-1-b", resolver.resolveExpressions(expression).asString());
+            System.setProperty("test.prop.cached", "2");
+            assertEquals("a-2-b", resolver.resolveExpressions(expression).asString());
+        } finally {
+            System.clearProperty("test.prop.cached");
+        }
+    }
+
     private ModelNode createModelNode() {
         ModelNode node = new ModelNode();
         node.get("int").set(1);
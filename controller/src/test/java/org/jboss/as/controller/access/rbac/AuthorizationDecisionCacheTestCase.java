@@ -0,0 +1,251 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.rbac;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTHORIZATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLE_MAPPING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.access.Caller;
+import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.JmxAction;
+import org.jboss.as.controller.access.JmxTarget;
+import org.jboss.as.controller.access.TargetAttribute;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.constraint.SensitivityClassification;
+import org.jboss.as.controller.access.constraint.VaultExpressionSensitivityConfig;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link AuthorizationDecisionCache} used by {@link StandardRBACAuthorizer}.
+ */
+public class AuthorizationDecisionCacheTestCase {
+
+    private static final PathElement CHILD = PathElement.pathElement("child");
+    private static final SensitivityClassification SENSITIVITY = new SensitivityClassification("test", "decision-cache", false, false, false);
+
+    private Caller caller;
+    private Environment environment;
+    private ManagementResourceRegistration childRegistration;
+    private ManagementResourceRegistration roleMappingRegistration;
+
+    @Before
+    public void setUp() {
+        SENSITIVITY.setConfiguredRequiresReadPermission(null);
+        caller = Caller.createCaller(null);
+        ControlledProcessState processState = new ControlledProcessState(false);
+        processState.setRunning();
+        environment = new Environment(processState, ProcessType.EMBEDDED_SERVER);
+        ManagementResourceRegistration rootRegistration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(new SimpleResourceDefinition(null, new NonResolvingResourceDescriptionResolver()));
+        childRegistration = rootRegistration.registerSubModel(new SimpleResourceDefinition(CHILD, new NonResolvingResourceDescriptionResolver()) {
+            @Override
+            public List<AccessConstraintDefinition> getAccessConstraints() {
+                return Collections.<AccessConstraintDefinition>singletonList(new SensitiveTargetAccessConstraintDefinition(SENSITIVITY));
+            }
+        });
+        roleMappingRegistration = rootRegistration
+                .registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(CORE_SERVICE, MANAGEMENT), new NonResolvingResourceDescriptionResolver()))
+                .registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(ACCESS, AUTHORIZATION), new NonResolvingResourceDescriptionResolver()))
+                .registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(ROLE_MAPPING), new NonResolvingResourceDescriptionResolver()));
+    }
+
+    @After
+    public void tearDown() {
+        VaultExpressionSensitivityConfig.INSTANCE.setConfiguredRequiresWritePermission(null);
+    }
+
+    @Test
+    public void testDecisionsReusedForSameRegistration() {
+        StandardRBACAuthorizer authorizer = createAuthorizer(StandardRole.MONITOR);
+
+        AuthorizationResult first = authorize(authorizer, "a", Action.ActionEffect.READ_CONFIG);
+        assertEquals(AuthorizationResult.Decision.PERMIT, first.getDecision());
+        assertEquals(1, authorizer.getDecisionCache().size());
+
+        assertSame(first, authorize(authorizer, "a", Action.ActionEffect.READ_CONFIG));
+        assertEquals(1, authorizer.getDecisionCache().size());
+
+        // Same registration, different resource
+        assertSame(first, authorize(authorizer, "b", Action.ActionEffect.READ_CONFIG));
+        assertEquals(1, authorizer.getDecisionCache().size());
+
+        // Writes may depend on vault expressions in the operation
+        assertEquals(AuthorizationResult.Decision.DENY, authorize(authorizer, "a", Action.ActionEffect.WRITE_CONFIG).getDecision());
+        assertEquals(1, authorizer.getDecisionCache().size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        TestRoleMapper roleMapper = new TestRoleMapper(StandardRole.MONITOR);
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(new DefaultPermissionFactory(roleMapper,
+                new WritableAuthorizerConfiguration(StandardRBACAuthorizer.AUTHORIZER_DESCRIPTION)), 2);
+        AuthorizationDecisionCache.Key read = cache.createKey(roleMapper.roles, createAction(Action.ActionEffect.READ_CONFIG), createTarget("a"));
+        AuthorizationDecisionCache.Key address = cache.createKey(roleMapper.roles, createAction(Action.ActionEffect.ADDRESS), createTarget("a"));
+        AuthorizationDecisionCache.Key runtime = cache.createKey(roleMapper.roles, createAction(Action.ActionEffect.READ_RUNTIME), createTarget("a"));
+
+        cache.put(read, AuthorizationResult.PERMITTED);
+        cache.put(address, AuthorizationResult.PERMITTED);
+        // Use the first decision, so the second one is evicted
+        assertSame(AuthorizationResult.PERMITTED, cache.get(read));
+        cache.put(runtime, AuthorizationResult.PERMITTED);
+
+        assertEquals(2, cache.size());
+        assertSame(AuthorizationResult.PERMITTED, cache.get(read));
+        assertSame(AuthorizationResult.PERMITTED, cache.get(runtime));
+        assertNull(cache.get(address));
+    }
+
+    @Test
+    public void testTopRoleMappingWritesNotCached() {
+        // Writes no longer depend on vault expressions in the operation
+        VaultExpressionSensitivityConfig.INSTANCE.setConfiguredRequiresWritePermission(false);
+        StandardRBACAuthorizer authorizer = createAuthorizer(StandardRole.ADMINISTRATOR);
+
+        assertEquals(AuthorizationResult.Decision.PERMIT,
+                authorizeRoleMapping(authorizer, StandardRole.MONITOR, Action.ActionEffect.WRITE_CONFIG).getDecision());
+        assertEquals(AuthorizationResult.Decision.DENY,
+                authorizeRoleMapping(authorizer, StandardRole.SUPERUSER, Action.ActionEffect.WRITE_CONFIG).getDecision());
+        assertEquals(AuthorizationResult.Decision.DENY,
+                authorizeRoleMapping(authorizer, StandardRole.AUDITOR, Action.ActionEffect.WRITE_CONFIG).getDecision());
+        assertEquals(0, authorizer.getDecisionCache().size());
+
+        // Still not permitted after the decision for the Monitor role mapping was made again
+        assertEquals(AuthorizationResult.Decision.PERMIT,
+                authorizeRoleMapping(authorizer, StandardRole.MONITOR, Action.ActionEffect.WRITE_CONFIG).getDecision());
+        assertEquals(AuthorizationResult.Decision.DENY,
+                authorizeRoleMapping(authorizer, StandardRole.SUPERUSER, Action.ActionEffect.WRITE_CONFIG).getDecision());
+    }
+
+    @Test
+    public void testConstraintConfigurationChange() {
+        StandardRBACAuthorizer authorizer = createAuthorizer(StandardRole.MONITOR);
+
+        assertEquals(AuthorizationResult.Decision.PERMIT, authorize(authorizer, "a", Action.ActionEffect.READ_CONFIG).getDecision());
+
+        SENSITIVITY.setConfiguredRequiresReadPermission(true);
+        assertEquals(AuthorizationResult.Decision.DENY, authorize(authorizer, "a", Action.ActionEffect.READ_CONFIG).getDecision());
+
+        SENSITIVITY.setConfiguredRequiresReadPermission(null);
+        assertEquals(AuthorizationResult.Decision.PERMIT, authorize(authorizer, "a", Action.ActionEffect.READ_CONFIG).getDecision());
+    }
+
+    @Test
+    public void testBootDecisionsNotCached() {
+        StandardRBACAuthorizer authorizer = createAuthorizer(StandardRole.MONITOR);
+        ControlledProcessState processState = new ControlledProcessState(false);
+        processState.setStarting();
+        Environment bootEnvironment = new Environment(processState, ProcessType.EMBEDDED_SERVER);
+
+        PathAddress address = PathAddress.pathAddress(CHILD.getKey(), "a");
+        TargetResource target = TargetResource.forStandalone(address, childRegistration, Resource.Factory.create());
+        Action action = new Action(Util.createEmptyOperation("test", address), null, EnumSet.of(Action.ActionEffect.WRITE_CONFIG));
+        assertEquals(AuthorizationResult.Decision.PERMIT, authorizer.authorize(caller, bootEnvironment, action, target).getDecision());
+        assertEquals(0, authorizer.getDecisionCache().size());
+
+        assertEquals(AuthorizationResult.Decision.DENY, authorizer.authorize(caller, environment, action, target).getDecision());
+    }
+
+    private AuthorizationResult authorize(StandardRBACAuthorizer authorizer, String name, Action.ActionEffect actionEffect) {
+        return authorizer.authorize(caller, environment, createAction(actionEffect), createTarget(name));
+    }
+
+    private TargetResource createTarget(String name) {
+        return TargetResource.forStandalone(PathAddress.pathAddress(CHILD.getKey(), name), childRegistration, Resource.Factory.create());
+    }
+
+    private static Action createAction(Action.ActionEffect actionEffect) {
+        return new Action(Util.createEmptyOperation("test", PathAddress.pathAddress(CHILD)), null, EnumSet.of(actionEffect));
+    }
+
+    private AuthorizationResult authorizeRoleMapping(StandardRBACAuthorizer authorizer, StandardRole role, Action.ActionEffect actionEffect) {
+        PathAddress address = PathAddress.pathAddress(CORE_SERVICE, MANAGEMENT).append(ACCESS, AUTHORIZATION).append(ROLE_MAPPING, role.getFormalName());
+        TargetResource target = TargetResource.forStandalone(address, roleMappingRegistration, Resource.Factory.create());
+        Action action = new Action(Util.createEmptyOperation("test", address), null, EnumSet.of(actionEffect));
+        return authorizer.authorize(caller, environment, action, target);
+    }
+
+    private static StandardRBACAuthorizer createAuthorizer(StandardRole role) {
+        WritableAuthorizerConfiguration configuration = new WritableAuthorizerConfiguration(StandardRBACAuthorizer.AUTHORIZER_DESCRIPTION);
+        return StandardRBACAuthorizer.create(configuration, new TestRoleMapper(role));
+    }
+
+    private static final class TestRoleMapper implements RoleMapper {
+        private final Set<String> roles;
+
+        private TestRoleMapper(StandardRole role) {
+            this.roles = Collections.singleton(role.toString());
+        }
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, Action action, TargetAttribute attribute) {
+            return roles;
+        }
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, Action action, TargetResource resource) {
+            return roles;
+        }
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, JmxAction action, JmxTarget target) {
+            return roles;
+        }
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, Set<String> operationHeaderRoles) {
+            return roles;
+        }
+
+        @Override
+        public boolean canRunAs(Set<String> mappedRoles, String runAsRole) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.transform;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests sharing transformed resource trees between equivalent targets.
+ */
+public class TransformationCacheTestCase {
+
+    @Test
+    public void testResourceSharedUntilModelChanges() {
+        final TransformationCache cache = new TransformationCache(2);
+        Assert.assertTrue(cache.isEnabled());
+        final Object targetKey = Arrays.asList("1.8.0", TransformationCache.getRegistryKey(Transformers.DEFAULT, Transformers.DEFAULT));
+
+        final Resource original = createResource("value");
+        final Object key = cache.createResourceKey(targetKey, null, original);
+        Assert.assertNull(cache.getResource(key));
+        cache.putResource(key, createResource("transformed"), TimeUnit.MILLISECONDS.toNanos(5));
+
+        // An equal model for an equivalent target is served from the cache
+        final Object sameKey = cache.createResourceKey(Arrays.asList("1.8.0", TransformationCache.getRegistryKey(null, Transformers.DEFAULT)), null,
+                createResource("value"));
+        final Resource cached = cache.getResource(sameKey);
+        Assert.assertNotNull(cached);
+        Assert.assertEquals("transformed", cached.getChild(PathElement.pathElement("profile", "default")).getModel().get("attr").asString());
+        // Callers get their own copy
+        Assert.assertNotSame(cached, cache.getResource(sameKey));
+
+        // A change to the model or a different target is not
+        Assert.assertNull(cache.getResource(cache.createResourceKey(targetKey, null, createResource("changed"))));
+        Assert.assertNull(cache.getResource(cache.createResourceKey(Arrays.asList("1.7.0", targetKey.hashCode()), null, original)));
+
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(10, cache.getTimeSaved(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRuntimeResourcesIgnored() {
+        final TransformationCache cache = new TransformationCache(2);
+        final Resource original = createResource("value");
+        final Object key = cache.createResourceKey("target", null, original);
+
+        final Resource withRuntime = createResource("value");
+        withRuntime.registerChild(PathElement.pathElement("runtime", "state"), Resource.Factory.create(true));
+        Assert.assertEquals(key, cache.createResourceKey("target", null, withRuntime));
+
+        final Resource renamed = Resource.Factory.create();
+        renamed.registerChild(PathElement.pathElement("profile", "other"), original.getChild(PathElement.pathElement("profile", "default")));
+        Assert.assertNotEquals(key, cache.createResourceKey("target", null, renamed));
+    }
+
+    @Test
+    public void testUnknownRegistriesNotShared() {
+        final Transformers.ResourceIgnoredTransformationRegistry registry = address -> false;
+        Assert.assertNull(TransformationCache.getRegistryKey(registry, Transformers.DEFAULT));
+        Assert.assertFalse(new TransformationCache(0).isEnabled());
+        Assert.assertTrue(new TransformationCache().isEnabled());
+    }
+
+    private static Resource createResource(final String value) {
+        final Resource root = Resource.Factory.create();
+        final Resource profile = Resource.Factory.create();
+        profile.getModel().get("attr").set(value);
+        root.registerChild(PathElement.pathElement("profile", "default"), profile);
+        return root;
+    }
+}
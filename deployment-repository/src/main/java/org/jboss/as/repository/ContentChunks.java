@@ -0,0 +1,401 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * Splits content into content defined chunks, so a new version of some content can be assembled from the chunks of
+ * content which is already available locally and only the chunks which changed need to be transferred.
+ * <p>
+ * Chunk boundaries are selected using a rolling hash of the content, so inserting or removing data only changes the
+ * chunks around the modification rather than shifting every following chunk.
+ * </p>
+ */
+public final class ContentChunks {
+
+    static final int MIN_CHUNK_SIZE = 16 * 1024;
+    static final int MAX_CHUNK_SIZE = 256 * 1024;
+    /** The length of the SHA-1 hash of a chunk */
+    public static final int HASH_LENGTH = 20;
+
+    // Once past the minimum size a boundary is found on average every 64KB
+    private static final long BOUNDARY_MASK = 0xFFFF000000000000L;
+    private static final long[] GEAR = new long[256];
+    private static final int MAX_CACHED_FILES = 256;
+    private static final int INDEX_VERSION = 1;
+    private static final Map<String, List<Chunk>> CACHE = new LinkedHashMap<String, List<Chunk>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Chunk>> eldest) {
+            return size() > MAX_CACHED_FILES;
+        }
+    };
+
+    static {
+        // Both sides of a transfer must select the same boundaries, so the table is generated from a fixed seed
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < GEAR.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private ContentChunks() {
+    }
+
+    /**
+     * Returns the chunks of a file. As content in the repository is never modified the chunks of recently used files
+     * are cached.
+     *
+     * @param file the file to split
+     * @return the chunks of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Chunk> getChunks(final File file) throws IOException {
+        final String key = file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified();
+        synchronized (CACHE) {
+            final List<Chunk> chunks = CACHE.get(key);
+            if (chunks != null) {
+                return chunks;
+            }
+        }
+        final List<Chunk> chunks;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            chunks = Collections.unmodifiableList(split(in));
+        }
+        synchronized (CACHE) {
+            CACHE.put(key, chunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * Looks for chunks which are already available in the {@code content} files of a local content repository.
+     * <p>
+     * The chunks of each content are persisted in an index next to the repository, so content is only split the first
+     * time it is looked at rather than on every transfer.
+     * </p>
+     *
+     * @param repositoryRoot the root of the local content repository
+     * @param chunks the chunks required
+     * @return the locations of the chunks found locally, keyed by the hex hash of the chunk
+     * @throws IOException if the local content cannot be read
+     */
+    public static Map<String, ChunkLocation> findLocalChunks(final File repositoryRoot, final List<Chunk> chunks) throws IOException {
+        final Set<String> missing = new HashSet<>();
+        for (Chunk chunk : chunks) {
+            missing.add(chunk.getHexHash());
+        }
+        final Map<String, ChunkLocation> result = new HashMap<>();
+        if (!repositoryRoot.isDirectory()) {
+            return result;
+        }
+        final List<Path> contents;
+        try (Stream<Path> paths = Files.walk(repositoryRoot.toPath(), 3)) {
+            contents = paths.filter(p -> Files.isRegularFile(p) && ContentRepositoryImpl.CONTENT.equals(p.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        final Path root = repositoryRoot.toPath();
+        final Path indexRoot = getIndexRoot(repositoryRoot);
+        pruneIndex(root, indexRoot);
+        for (Path content : contents) {
+            final File file = content.toFile();
+            for (Chunk chunk : getIndexedChunks(file, indexRoot.resolve(root.relativize(content.getParent())))) {
+                if (missing.remove(chunk.getHexHash())) {
+                    result.put(chunk.getHexHash(), new ChunkLocation(file, chunk.getOffset()));
+                }
+            }
+            if (missing.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The chunk index of a repository is kept outside of it, as the content directories are transferred as a whole.
+     */
+    static Path getIndexRoot(final File repositoryRoot) {
+        final File root = repositoryRoot.getAbsoluteFile();
+        return new File(root.getParentFile(), root.getName() + "-chunks").toPath();
+    }
+
+    /**
+     * Returns the chunks of a content file, reading them from its index if the index still describes the file and
+     * (re)building the index otherwise.
+     */
+    static List<Chunk> getIndexedChunks(final File file, final Path index) throws IOException {
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        if (Files.isRegularFile(index)) {
+            try {
+                final List<Chunk> chunks = readIndex(index, length, lastModified);
+                if (chunks != null) {
+                    return chunks;
+                }
+            } catch (IOException e) {
+                DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Ignoring unreadable chunk index %s", index);
+            }
+        }
+        final List<Chunk> chunks = getChunks(file);
+        writeIndex(index, length, lastModified, chunks);
+        return chunks;
+    }
+
+    private static List<Chunk> readIndex(final Path index, final long length, final long lastModified) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != INDEX_VERSION || in.readLong() != length || in.readLong() != lastModified) {
+                return null;
+            }
+            final int count = in.readInt();
+            if (count < 0 || count > length) {
+                return null;
+            }
+            final List<Chunk> chunks = new ArrayList<>(count);
+            long offset = 0;
+            for (int i = 0; i < count; i++) {
+                final int chunkLength = in.readInt();
+                if (chunkLength <= 0 || chunkLength > MAX_CHUNK_SIZE) {
+                    return null;
+                }
+                final byte[] hash = new byte[HASH_LENGTH];
+                in.readFully(hash);
+                chunks.add(new Chunk(offset, chunkLength, hash));
+                offset += chunkLength;
+            }
+            return offset == length ? Collections.unmodifiableList(chunks) : null;
+        }
+    }
+
+    private static void writeIndex(final Path index, final long length, final long lastModified, final List<Chunk> chunks) {
+        Path temp = null;
+        try {
+            Files.createDirectories(index.getParent());
+            temp = Files.createTempFile(index.getParent(), index.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(length);
+                out.writeLong(lastModified);
+                out.writeInt(chunks.size());
+                for (Chunk chunk : chunks) {
+                    out.writeInt(chunk.getLength());
+                    out.write(chunk.hash);
+                }
+            }
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The index is only an optimization, the content is split again next time
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Failed to write chunk index %s", index);
+            if (temp != null) {
+                PathUtil.deleteSilentlyRecursively(temp);
+            }
+        }
+    }
+
+    /**
+     * Removes the indexes of content which is no longer in the repository.
+     */
+    private static void pruneIndex(final Path root, final Path indexRoot) throws IOException {
+        if (!Files.isDirectory(indexRoot)) {
+            return;
+        }
+        final List<Path> indexes;
+        try (Stream<Path> paths = Files.walk(indexRoot, 2)) {
+            indexes = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path index : indexes) {
+            if (!Files.isRegularFile(root.resolve(indexRoot.relativize(index)).resolve(ContentRepositoryImpl.CONTENT))) {
+                PathUtil.deleteSilentlyRecursively(index);
+            }
+        }
+    }
+
+    static List<Chunk> split(final InputStream in) throws IOException {
+        final MessageDigest digest = createDigest();
+        final List<Chunk> chunks = new ArrayList<>();
+        final byte[] buffer = new byte[8192];
+        long offset = 0;
+        int length = 0;
+        long hash = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+                length++;
+                if ((length >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0) || length >= MAX_CHUNK_SIZE) {
+                    digest.update(buffer, start, i + 1 - start);
+                    chunks.add(new Chunk(offset, length, digest.digest()));
+                    offset += length;
+                    start = i + 1;
+                    length = 0;
+                    hash = 0;
+                }
+            }
+            digest.update(buffer, start, read - start);
+        }
+        if (length > 0) {
+            chunks.add(new Chunk(offset, length, digest.digest()));
+        }
+        return chunks;
+    }
+
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A chunk of some content.
+     */
+    public static final class Chunk {
+        private final long offset;
+        private final int length;
+        private final byte[] hash;
+        private final String hexHash;
+
+        public Chunk(final long offset, final int length, final byte[] hash) {
+            this.offset = offset;
+            this.length = length;
+            this.hash = hash;
+            this.hexHash = HashUtil.bytesToHexString(hash);
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public byte[] getHash() {
+            return hash.clone();
+        }
+
+        public String getHexHash() {
+            return hexHash;
+        }
+    }
+
+    /**
+     * The location of a chunk in a local file.
+     */
+    public static final class ChunkLocation {
+        private final File file;
+        private final long offset;
+
+        ChunkLocation(final File file, final long offset) {
+            this.file = file;
+            this.offset = offset;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+    }
+
+    /**
+     * The chunks of a remote file.
+     */
+    public static final class Manifest {
+        private final String path;
+        private final long length;
+        private final List<Chunk> chunks;
+
+        Manifest(final String path, final long length, final List<Chunk> chunks) {
+            this.path = path;
+            this.length = length;
+            this.chunks = chunks;
+        }
+
+        /**
+         * The path of the file relative to the requested root.
+         *
+         * @return the relative path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public List<Chunk> getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Returns the number of bytes of the file which do not need to be transferred.
+         *
+         * @param localChunks the chunks available locally
+         * @return the number of bytes available locally
+         */
+        public long getLocalBytes(final Map<String, ChunkLocation> localChunks) {
+            long result = 0;
+            for (Chunk chunk : chunks) {
+                if (localChunks.containsKey(chunk.getHexHash())) {
+                    result += chunk.getLength();
+                }
+            }
+            return result;
+        }
+    }
+}
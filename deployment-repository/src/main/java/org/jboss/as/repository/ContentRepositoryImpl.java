@@ -28,6 +28,7 @@ import static org.jboss.as.repository.PathUtil.deleteRecursively;
 import static org.jboss.as.repository.PathUtil.deleteSilentlyRecursively;
 import static org.jboss.as.repository.PathUtil.getFileExtension;
 import static org.jboss.as.repository.PathUtil.isArchive;
+import static org.jboss.as.repository.PathUtil.linkRecursively;
 import static org.jboss.as.repository.PathUtil.resolveSecurely;
 
 import java.io.BufferedInputStream;
@@ -35,9 +36,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -73,6 +77,9 @@ public class ContentRepositoryImpl implements ContentRepository {
     private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<>();
     private final Map<String, ReentrantLock> lockedContents = new HashMap<>();
     private final Map<String, Long> obsoleteContents = new HashMap<>();
+    // The hex hash of a file to a file with that content within the exploded content of the repository
+    private final Map<String, Path> explodedFiles = new HashMap<>();
+    private boolean explodedFilesIndexed = false;
     private final long obsolescenceTimeout;
     private final long lockTimeout;
     private volatile boolean readWrite = false;
@@ -432,7 +439,9 @@ public class ContentRepositoryImpl implements ContentRepository {
                 }
                 DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.toAbsolutePath().toString());
             } else {
+                final Map<String, String> fileHashes = shareIdenticalFiles(contentDir);
                 moveTempToPermanent(contentDir, realFile);
+                indexExplodedFiles(realFile, fileHashes);
                 deleteRecursively(tmp);
                 DeploymentRepositoryLogger.ROOT_LOGGER.contentExploded(realFile.toAbsolutePath().toString());
             }
@@ -443,6 +452,89 @@ public class ContentRepositoryImpl implements ContentRepository {
         }
     }
 
+    /**
+     * Replaces the files of newly exploded content with hard links to identical files of the exploded content already
+     * in the repository, typically a previous version of the same deployment, so unchanged files are only stored once.
+     * Files of exploded content are never modified in place, updating exploded content creates new content.
+     * <p>
+     * Identical files are found through an index of the files of exploded content keyed by their hash, which is built
+     * the first time content is exploded and then kept up to date as content is exploded, so each file is only compared
+     * against a single candidate.
+     * </p>
+     *
+     * @return the hex hashes of the files of the new content keyed by their path relative to the content
+     */
+    private Map<String, String> shareIdenticalFiles(final Path contentDir) throws IOException {
+        final MessageDigest digest = ContentChunks.createDigest();
+        final Map<String, String> fileHashes = new HashMap<>();
+        synchronized (explodedFiles) {
+            if (!explodedFilesIndexed) {
+                for (ContentReference reference : listLocalContents()) {
+                    final Path exploded = Paths.get(reference.getContentIdentifier()).resolve(CONTENT);
+                    if (reference.getHexHash().length() == 40 && HashUtil.isEachHexHashInTable(reference.getHexHash()) && Files.isDirectory(exploded)) {
+                        addExplodedFiles(exploded, hashFiles(digest, exploded));
+                    }
+                }
+                explodedFilesIndexed = true;
+            }
+            fileHashes.putAll(hashFiles(digest, contentDir));
+            final Path link = contentDir.resolveSibling("link");
+            for (Map.Entry<String, String> entry : fileHashes.entrySet()) {
+                final Path file = contentDir.resolve(entry.getKey());
+                final Path existing = explodedFiles.get(entry.getValue());
+                if (existing == null) {
+                    continue;
+                }
+                try {
+                    if (!Files.isRegularFile(existing) || !PathUtil.isSameContent(file, existing)) {
+                        // The content has been removed in the meantime
+                        explodedFiles.remove(entry.getValue());
+                        continue;
+                    }
+                } catch (IOException ex) {
+                    explodedFiles.remove(entry.getValue());
+                    continue;
+                }
+                if (!PathUtil.createLink(link, existing)) {
+                    break;
+                }
+                Files.move(link, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return fileHashes;
+    }
+
+    private Map<String, String> hashFiles(final MessageDigest digest, final Path dir) throws IOException {
+        final Map<String, String> fileHashes = new HashMap<>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                try (InputStream in = Files.newInputStream(file)) {
+                    fileHashes.put(dir.relativize(file).toString(), HashUtil.bytesToHexString(HashUtil.hashContent(digest, in)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return fileHashes;
+    }
+
+    /**
+     * Adds the files of newly exploded content to the index used to find identical files, once the index is built.
+     */
+    private void indexExplodedFiles(final Path contentDir, final Map<String, String> fileHashes) {
+        synchronized (explodedFiles) {
+            if (explodedFilesIndexed) {
+                addExplodedFiles(contentDir, fileHashes);
+            }
+        }
+    }
+
+    private void addExplodedFiles(final Path contentDir, final Map<String, String> fileHashes) {
+        for (Map.Entry<String, String> entry : fileHashes.entrySet()) {
+            explodedFiles.putIfAbsent(entry.getValue(), contentDir.resolve(entry.getKey()));
+        }
+    }
+
     @Override
     public byte[] explodeSubContent(byte[] deploymentHash, String relativePath) throws ExplodedContentException {
         Path contentPath = getDeploymentContentFile(deploymentHash);
@@ -451,7 +543,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath) && this.readWrite) {
                 Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
                 Path contentDir = tmp.resolve(CONTENT);
-                copyRecursively(contentPath, contentDir, true);
+                linkRecursively(contentPath, contentDir);
                 Path targetPath = resolveSecurely(contentDir, relativePath);
                 if (!Files.exists(sourcePath)) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.archiveNotFound(sourcePath.toString());
@@ -611,7 +703,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath) && this.readWrite) {
                 Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
                 Path contentDir = tmp.resolve(CONTENT);
-                copyRecursively(contentPath, contentDir, overwrite);
+                linkRecursively(contentPath, contentDir);
                 for (ExplodedContent newContent : addFiles) {
                     Path targetFile = resolveSecurely(contentDir, newContent.getRelativePath());
                     if (!Files.exists(targetFile)) {
@@ -661,7 +753,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath) && this.readWrite) {
                 Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
                 Path contentDir = tmp.resolve(CONTENT).toAbsolutePath();
-                copyRecursively(contentPath, contentDir, false);
+                linkRecursively(contentPath, contentDir);
                 for (String path : paths) {
                     Path targetFile = resolveSecurely(contentDir, path);
                     deleteFileWithEmptyAncestorDirectories(targetFile);
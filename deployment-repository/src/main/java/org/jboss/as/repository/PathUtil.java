@@ -83,6 +83,99 @@ public class PathUtil {
         });
     }
 
+    /**
+     * Copy a path recursively, creating hard links to the files instead of copying them where the file system supports
+     * it. This must only be used for files which are never modified in place, like the content of the repository.
+     * @param source a Path pointing to a file or a directory that must exist
+     * @param target a Path pointing to a directory where the contents will be linked.
+     * @throws IOException
+     */
+    public static void linkRecursively(final Path source, final Path target) throws IOException {
+        final CopyOption[] options = new CopyOption[]{StandardCopyOption.COPY_ATTRIBUTES};
+        Files.walkFileTree(source, new FileVisitor<Path>() {
+            private boolean linksSupported = true;
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.copy(dir, target.resolve(source.relativize(dir)), options);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                final Path targetFile = target.resolve(source.relativize(file));
+                if (linksSupported) {
+                    linksSupported = createLink(targetFile, file);
+                }
+                if (!linksSupported) {
+                    Files.copy(file, targetFile, options);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                DeploymentRepositoryLogger.ROOT_LOGGER.cannotCopyFile(exc, file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Creates a hard link to an existing file.
+     * @param link the link to create.
+     * @param existing the file to link to.
+     * @return true if the link was created, false if the file system does not support it.
+     */
+    static boolean createLink(final Path link, final Path existing) {
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (UnsupportedOperationException | IOException | SecurityException e) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.tracef(e, "Cannot link %s to %s", link, existing);
+            return false;
+        }
+    }
+
+    /**
+     * Compares the content of two files.
+     * @param file1 a Path pointing to a file.
+     * @param file2 a Path pointing to a file.
+     * @return true if both files have the same content.
+     * @throws IOException
+     */
+    static boolean isSameContent(final Path file1, final Path file2) throws IOException {
+        if (Files.size(file1) != Files.size(file2)) {
+            return false;
+        }
+        try (InputStream in1 = Files.newInputStream(file1); InputStream in2 = Files.newInputStream(file2)) {
+            final byte[] buffer1 = new byte[8192];
+            final byte[] buffer2 = new byte[8192];
+            int read;
+            while ((read = in1.read(buffer1)) > 0) {
+                int offset = 0;
+                while (offset < read) {
+                    final int len = in2.read(buffer2, offset, read - offset);
+                    if (len < 0) {
+                        return false;
+                    }
+                    offset += len;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer1[i] != buffer2[i]) {
+                        return false;
+                    }
+                }
+            }
+            return in2.read() < 0;
+        }
+    }
+
     /**
      * Delete a path recursively, not throwing Exception if it fails or if the path is null.
      * @param path a Path pointing to a file or a directory that may not exists anymore.
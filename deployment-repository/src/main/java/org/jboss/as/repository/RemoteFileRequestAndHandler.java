@@ -31,8 +31,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 import org.jboss.as.protocol.StreamUtils;
@@ -41,6 +45,10 @@ import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.ContentChunks.Chunk;
+import org.jboss.as.repository.ContentChunks.ChunkLocation;
+import org.jboss.as.repository.ContentChunks.Manifest;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.logging.BasicLogger;
 
 
@@ -52,6 +60,7 @@ import org.jboss.logging.BasicLogger;
 public abstract class RemoteFileRequestAndHandler {
 
     private final RemoteFileProtocolIdMapper protocol;
+    private final ChunkProtocolIdMapper chunkProtocol;
     private final Executor asyncExecutor;
 
     protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol) {
@@ -59,7 +68,12 @@ public abstract class RemoteFileRequestAndHandler {
     }
 
     protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol, Executor asyncExecutor) {
+        this(protocol, null, asyncExecutor);
+    }
+
+    protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol, ChunkProtocolIdMapper chunkProtocol, Executor asyncExecutor) {
         this.protocol = protocol;
+        this.chunkProtocol = chunkProtocol;
         this.asyncExecutor = asyncExecutor;
     }
 
@@ -144,7 +158,216 @@ public abstract class RemoteFileRequestAndHandler {
                 }
             }
         };
+        executeAsync(task, context);
+    }
+
+    /**
+     * Handles a request for the {@linkplain ContentChunks chunks} of a file. The request has the same format as the one
+     * written by {@link #sendRequest(FlushableDataOutput, byte, String)}.
+     */
+    public void handleChunksRequest(final DataInput input, final RootFileReader reader,
+                                    final ActiveOperation.ResultHandler<Void> resultHandler,
+                                    final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, protocol.paramRootId());
+        final byte rootId = input.readByte();
+        expectHeader(input, protocol.paramFilePath());
+        final String filePath = input.readUTF();
+
+        ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws RequestProcessingException, IOException {
+                final File file = getSingleFile(reader.readRootFile(rootId, filePath));
+                FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    output.writeByte(chunkProtocol.paramNumChunks());
+                    if (file == null) {
+                        output.writeInt(-1);
+                    } else {
+                        final List<Chunk> chunks = ContentChunks.getChunks(file);
+                        output.writeInt(chunks.size());
+                        output.writeByte(protocol.paramFilePath());
+                        output.writeUTF(file.getName());
+                        output.writeByte(protocol.paramFileSize());
+                        output.writeLong(file.length());
+                        for (Chunk chunk : chunks) {
+                            output.writeInt(chunk.getLength());
+                            output.write(chunk.getHash());
+                        }
+                    }
+                    output.close();
+                    resultHandler.done(null);
+                } finally {
+                    StreamUtils.safeClose(output);
+                }
+            }
+        };
+        executeAsync(task, context);
+    }
+
+    /**
+     * Reads the response to a request for the chunks of a file.
+     *
+     * @return the chunks of the remote file, or {@code null} if the file does not exist or cannot be transferred in chunks
+     */
+    public Manifest handleChunksResponse(final DataInput input) throws IOException {
+        expectHeader(input, chunkProtocol.paramNumChunks());
+        final int numChunks = input.readInt();
+        if (numChunks < 0) {
+            return null;
+        }
+        expectHeader(input, protocol.paramFilePath());
+        final String path = input.readUTF();
+        expectHeader(input, protocol.paramFileSize());
+        final long length = input.readLong();
+        // The chunks are assembled into buffers of the maximum chunk size, so reject anything the sender could not produce
+        final List<Chunk> chunks = new ArrayList<>((int) Math.min(numChunks, length));
+        long offset = 0;
+        for (int i = 0; i < numChunks; i++) {
+            final int chunkLength = input.readInt();
+            if (chunkLength <= 0 || chunkLength > ContentChunks.MAX_CHUNK_SIZE || offset + chunkLength > length) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunk(chunkLength, offset, path);
+            }
+            final byte[] hash = new byte[ContentChunks.HASH_LENGTH];
+            input.readFully(hash);
+            chunks.add(new Chunk(offset, chunkLength, hash));
+            offset += chunkLength;
+        }
+        if (offset != length) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunk(0, offset, path);
+        }
+        return new Manifest(path, length, chunks);
+    }
+
+    /**
+     * Requests the data of the chunks of a file which are not available locally.
+     */
+    public void sendChunkDataRequest(FlushableDataOutput output, byte rootId, String filePath, Manifest manifest, Map<String, ChunkLocation> localChunks) throws IOException {
+        sendRequest(output, rootId, filePath);
+        final List<Chunk> chunks = manifest.getChunks();
+        final List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (!localChunks.containsKey(chunks.get(i).getHexHash())) {
+                indexes.add(i);
+            }
+        }
+        output.writeByte(chunkProtocol.paramNumChunks());
+        output.writeInt(indexes.size());
+        for (int index : indexes) {
+            output.writeInt(index);
+        }
+    }
+
+    public void handleChunkDataRequest(final DataInput input, final RootFileReader reader,
+                                       final ActiveOperation.ResultHandler<Void> resultHandler,
+                                       final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, protocol.paramRootId());
+        final byte rootId = input.readByte();
+        expectHeader(input, protocol.paramFilePath());
+        final String filePath = input.readUTF();
+        expectHeader(input, chunkProtocol.paramNumChunks());
+        final int[] indexes = new int[input.readInt()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = input.readInt();
+        }
+
+        ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws RequestProcessingException, IOException {
+                final File file = getSingleFile(reader.readRootFile(rootId, filePath));
+                FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    output.writeByte(chunkProtocol.paramNumChunks());
+                    if (file == null) {
+                        output.writeInt(-1);
+                    } else {
+                        final List<Chunk> chunks = ContentChunks.getChunks(file);
+                        output.writeInt(indexes.length);
+                        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                            final byte[] buffer = new byte[ContentChunks.MAX_CHUNK_SIZE];
+                            for (int index : indexes) {
+                                final Chunk chunk = chunks.get(index);
+                                raf.seek(chunk.getOffset());
+                                raf.readFully(buffer, 0, chunk.getLength());
+                                output.writeByte(chunkProtocol.chunkStart());
+                                output.write(buffer, 0, chunk.getLength());
+                            }
+                        }
+                    }
+                    output.close();
+                    resultHandler.done(null);
+                } finally {
+                    StreamUtils.safeClose(output);
+                }
+            }
+        };
+        executeAsync(task, context);
+    }
 
+    /**
+     * Assembles a file from the chunks available locally and the chunks sent by the remote side. Each chunk received
+     * is verified against the hash in the manifest.
+     */
+    public void handleChunkDataResponse(DataInput input, File localPath, Manifest manifest, Map<String, ChunkLocation> localChunks,
+                                        BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException {
+        expectHeader(input, chunkProtocol.paramNumChunks());
+        final int numChunks = input.readInt();
+        int missing = 0;
+        for (Chunk chunk : manifest.getChunks()) {
+            if (!localChunks.containsKey(chunk.getHexHash())) {
+                missing++;
+            }
+        }
+        if (numChunks != missing) {
+            throw new DidNotReadEntireFileException(manifest.getLength() - manifest.getLocalBytes(localChunks));
+        }
+        // Check the local chunks cover the requested ranges before anything is copied
+        for (Chunk chunk : manifest.getChunks()) {
+            if (chunk.getLength() <= 0 || chunk.getLength() > ContentChunks.MAX_CHUNK_SIZE) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunk(chunk.getLength(), chunk.getOffset(), manifest.getPath());
+            }
+            final ChunkLocation location = localChunks.get(chunk.getHexHash());
+            if (location != null && (location.getOffset() < 0 || location.getOffset() + chunk.getLength() > location.getFile().length())) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunk(chunk.getLength(), location.getOffset(), location.getFile().getPath());
+            }
+        }
+        if (!localPath.exists() && !localPath.mkdirs()) {
+            throw new CannotCreateLocalDirectoryException(localPath);
+        }
+        final File file = new File(localPath, manifest.getPath());
+        log.debugf("Assembling file [%s] of length %d from %d chunks, %d of which are received", file, manifest.getLength(), manifest.getChunks().size(), numChunks);
+        final MessageDigest digest = ContentChunks.createDigest();
+        final byte[] buffer = new byte[ContentChunks.MAX_CHUNK_SIZE];
+        boolean complete = false;
+        try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(file))) {
+            for (Chunk chunk : manifest.getChunks()) {
+                final ChunkLocation location = localChunks.get(chunk.getHexHash());
+                if (location == null) {
+                    expectHeader(input, chunkProtocol.chunkStart());
+                    input.readFully(buffer, 0, chunk.getLength());
+                } else {
+                    try (RandomAccessFile raf = new RandomAccessFile(location.getFile(), "r")) {
+                        raf.seek(location.getOffset());
+                        raf.readFully(buffer, 0, chunk.getLength());
+                    }
+                }
+                digest.update(buffer, 0, chunk.getLength());
+                if (!Arrays.equals(digest.digest(), chunk.getHash())) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.chunkHashMismatch(chunk.getOffset(), manifest.getPath());
+                }
+                fileOut.write(buffer, 0, chunk.getLength());
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                // Do not leave partial content behind, it would be taken as complete by the next lookup
+                PathUtil.deleteSilentlyRecursively(localPath.toPath());
+            }
+        }
+        resultHandler.done(localPath);
+    }
+
+    private void executeAsync(final ManagementRequestContext.AsyncTask<Void> task, final ManagementRequestContext<Void> context) {
         if (asyncExecutor == null) {
             context.executeAsync(task);
         } else {
@@ -152,6 +375,20 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
+    /**
+     * Only roots containing a single file, such as the {@code content} of a deployment, are transferred in chunks.
+     */
+    private static File getSingleFile(final File localPath) {
+        if (localPath == null || !localPath.isDirectory()) {
+            return null;
+        }
+        final File[] children = localPath.listFiles();
+        if (children == null || children.length != 1 || !children[0].isFile()) {
+            return null;
+        }
+        return children[0];
+    }
+
     private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
         output.writeByte(protocol.paramNumFiles());
         if (localPath == null || !localPath.exists()) {
@@ -236,6 +473,14 @@ public abstract class RemoteFileRequestAndHandler {
         byte fileEnd();
     }
 
+    /**
+     * Maps the protocol codes used when transferring a file in chunks to the actual protocol
+     */
+    public interface ChunkProtocolIdMapper {
+        byte paramNumChunks();
+        byte chunkStart();
+    }
+
     /**
      * Reads the root file being got
      */
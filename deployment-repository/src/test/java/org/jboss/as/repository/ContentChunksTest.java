@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.jboss.as.repository.ContentChunks.Chunk;
+import org.jboss.as.repository.ContentChunks.ChunkLocation;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for ContentChunks.
+ */
+public class ContentChunksTest {
+
+    private final Path root = new File("target", "temp").toPath().resolve("chunks");
+    private final Path indexRoot = ContentChunks.getIndexRoot(root.toFile());
+
+    @Before
+    public void createRepository() throws IOException {
+        PathUtil.deleteSilentlyRecursively(root);
+        PathUtil.deleteSilentlyRecursively(indexRoot);
+        Files.createDirectories(root);
+    }
+
+    @After
+    public void destroyRepository() throws IOException {
+        PathUtil.deleteRecursively(root);
+        PathUtil.deleteSilentlyRecursively(indexRoot);
+    }
+
+    @Test
+    public void testChunkSizes() throws IOException {
+        final byte[] content = randomContent(4 * 1024 * 1024);
+        final List<Chunk> chunks = ContentChunks.split(new ByteArrayInputStream(content));
+        Assert.assertTrue(chunks.size() > 1);
+        long offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final Chunk chunk = chunks.get(i);
+            Assert.assertEquals(offset, chunk.getOffset());
+            Assert.assertTrue(chunk.getLength() <= ContentChunks.MAX_CHUNK_SIZE);
+            if (i < chunks.size() - 1) {
+                Assert.assertTrue(chunk.getLength() >= ContentChunks.MIN_CHUNK_SIZE);
+            }
+            offset += chunk.getLength();
+        }
+        Assert.assertEquals(content.length, offset);
+    }
+
+    @Test
+    public void testInsertionOnlyChangesSurroundingChunks() throws IOException {
+        final byte[] content = randomContent(4 * 1024 * 1024);
+        final byte[] modified = new byte[content.length + 100];
+        final int position = content.length / 2;
+        System.arraycopy(content, 0, modified, 0, position);
+        System.arraycopy(content, position, modified, position + 100, content.length - position);
+
+        final List<Chunk> original = ContentChunks.split(new ByteArrayInputStream(content));
+        final List<Chunk> changed = ContentChunks.split(new ByteArrayInputStream(modified));
+        final Set<String> hashes = new HashSet<>();
+        for (Chunk chunk : original) {
+            hashes.add(chunk.getHexHash());
+        }
+        int reused = 0;
+        for (Chunk chunk : changed) {
+            if (hashes.contains(chunk.getHexHash())) {
+                reused++;
+            }
+        }
+        Assert.assertTrue("Only " + reused + " of " + changed.size() + " chunks reused", reused >= changed.size() - 3);
+    }
+
+    @Test
+    public void testFindLocalChunks() throws IOException {
+        final byte[] content = randomContent(1024 * 1024);
+        final Path contentDir = root.resolve("ab").resolve("cdef");
+        Files.createDirectories(contentDir);
+        final Path contentFile = contentDir.resolve("content");
+        Files.write(contentFile, content);
+
+        content[content.length - 1]++;
+        final List<Chunk> wanted = ContentChunks.split(new ByteArrayInputStream(content));
+        final Map<String, ChunkLocation> local = ContentChunks.findLocalChunks(root.toFile(), wanted);
+        Assert.assertEquals(wanted.size() - 1, local.size());
+        Assert.assertFalse(local.containsKey(wanted.get(wanted.size() - 1).getHexHash()));
+        for (ChunkLocation location : local.values()) {
+            Assert.assertEquals(contentFile.toFile().getAbsoluteFile(), location.getFile().getAbsoluteFile());
+        }
+    }
+
+    @Test
+    public void testChunkIndex() throws IOException {
+        final byte[] content = randomContent(1024 * 1024);
+        final Path contentFile = root.resolve("ab").resolve("cdef").resolve("content");
+        Files.createDirectories(contentFile.getParent());
+        Files.write(contentFile, content);
+        final List<Chunk> wanted = ContentChunks.split(new ByteArrayInputStream(content));
+
+        Assert.assertEquals(wanted.size(), ContentChunks.findLocalChunks(root.toFile(), wanted).size());
+        final Path index = indexRoot.resolve("ab").resolve("cdef");
+        Assert.assertTrue(Files.isRegularFile(index));
+        assertSameChunks(wanted, ContentChunks.getIndexedChunks(contentFile.toFile(), index));
+
+        // A corrupt index is rebuilt
+        Files.write(index, new byte[] {0, 0, 0, 1, 42});
+        Assert.assertEquals(wanted.size(), ContentChunks.findLocalChunks(root.toFile(), wanted).size());
+        assertSameChunks(wanted, ContentChunks.getIndexedChunks(contentFile.toFile(), index));
+
+        // An index which no longer describes the content is rebuilt
+        content[0]++;
+        Files.write(contentFile, content);
+        Files.setLastModifiedTime(contentFile, FileTime.fromMillis(Files.getLastModifiedTime(contentFile).toMillis() + 5000));
+        final List<Chunk> changed = ContentChunks.split(new ByteArrayInputStream(content));
+        Assert.assertEquals(changed.size(), ContentChunks.findLocalChunks(root.toFile(), changed).size());
+        assertSameChunks(changed, ContentChunks.getIndexedChunks(contentFile.toFile(), index));
+
+        // The index of removed content is pruned
+        PathUtil.deleteRecursively(contentFile.getParent());
+        Assert.assertTrue(ContentChunks.findLocalChunks(root.toFile(), changed).isEmpty());
+        Assert.assertFalse(Files.exists(index));
+    }
+
+    private static void assertSameChunks(final List<Chunk> expected, final List<Chunk> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getOffset(), actual.get(i).getOffset());
+            Assert.assertEquals(expected.get(i).getLength(), actual.get(i).getLength());
+            Assert.assertEquals(expected.get(i).getHexHash(), actual.get(i).getHexHash());
+        }
+    }
+
+    private static byte[] randomContent(final int size) {
+        final byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+}
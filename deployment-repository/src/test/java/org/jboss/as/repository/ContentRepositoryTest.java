@@ -43,6 +43,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -54,6 +55,7 @@ import java.util.zip.ZipOutputStream;
 import org.hamcrest.CoreMatchers;
 import org.jboss.as.protocol.StreamUtils;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -318,6 +320,42 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test that unchanged files of exploded content are shared between the versions of the content.
+     */
+    @Test
+    public void testExplodedContentSharesUnchangedFiles() throws Exception {
+        Path probe = rootDir.toPath().resolve("probe");
+        Files.createFile(probe);
+        Assume.assumeTrue(PathUtil.createLink(rootDir.toPath().resolve("probe-link"), probe));
+        Files.delete(rootDir.toPath().resolve("probe-link"));
+        Files.delete(probe);
+        Path original;
+        byte[] archive = createArchive(Collections.singletonList("overlay.xhtml"));
+        try (ByteArrayInputStream stream = new ByteArrayInputStream(archive)) {
+            byte[] hash = repository.explodeContent(repository.addContent(stream));
+            original = repository.getContent(hash).getPhysicalFile().toPath().resolve("overlay.xhtml");
+            byte[] updatedHash = repository.addContentToExploded(hash,
+                    Collections.singletonList(new ExplodedContent("test.jsp",
+                            new ByteArrayInputStream("this is a test".getBytes(StandardCharsets.UTF_8)))),
+                    true);
+            Path updated = repository.getContent(updatedHash).getPhysicalFile().toPath().resolve("overlay.xhtml");
+            assertThat(HashUtil.bytesToHexString(updatedHash), is("161a2c95b16d5ffede0721c2cec984ca51009082"));
+            assertTrue(Files.isSameFile(original, updated));
+            assertThat(readFileContent(updated), is(readFileContent(getResourceAsStream("overlay.xhtml"))));
+            updatedHash = repository.removeContentFromExploded(updatedHash, Collections.singletonList("test.jsp"));
+            assertThat(updatedHash, is(hash));
+            assertTrue(Files.exists(original));
+        }
+        archive = createArchive(Arrays.asList("overlay.xhtml", "lockDeployment.btm"));
+        try (ByteArrayInputStream stream = new ByteArrayInputStream(archive)) {
+            byte[] hash = repository.explodeContent(repository.addContent(stream));
+            Path content = repository.getContent(hash).getPhysicalFile().toPath();
+            assertTrue(Files.isSameFile(original, content.resolve("overlay.xhtml")));
+            assertThat(readFileContent(content.resolve("lockDeployment.btm")), is(readFileContent(getResourceAsStream("lockDeployment.btm"))));
+        }
+    }
+
     @Test
     public void testListContents() throws Exception {
         byte[] archive = createArchive(Collections.singletonList("overlay.xhtml"));
@@ -21,6 +21,10 @@ import static org.wildfly.extension.elytron.Capabilities.SECURITY_REALM_CAPABILI
 import static org.wildfly.extension.elytron.Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.elytron.ElytronDefinition.commonDependencies;
 import static org.wildfly.extension.elytron.ElytronExtension.getRequiredService;
+import static org.wildfly.extension.elytron.ElytronExtension.isServerOrHostController;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
@@ -33,6 +37,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
@@ -48,6 +53,7 @@ import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartException;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.elytron._private.ElytronSubsystemMessages;
 import org.wildfly.security.auth.realm.CacheableSecurityRealm;
@@ -55,8 +61,6 @@ import org.wildfly.security.auth.realm.CachingModifiableSecurityRealm;
 import org.wildfly.security.auth.realm.CachingSecurityRealm;
 import org.wildfly.security.auth.server.ModifiableSecurityRealm;
 import org.wildfly.security.auth.server.SecurityRealm;
-import org.wildfly.security.cache.LRURealmIdentityCache;
-import org.wildfly.security.cache.RealmIdentityCache;
 
 /**
  * A {@link ResourceDefinition} for a {@link SecurityRealm} which enables caching to another realm.
@@ -85,8 +89,57 @@ class CachingRealmDefinition extends SimpleResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    static final SimpleAttributeDefinition ADAPTIVE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.ADAPTIVE, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition MINIMUM_ENTRIES = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MINIMUM_ENTRIES, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(1))
+            .setMinSize(1)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition REFRESH_AHEAD = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.REFRESH_AHEAD, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {REALM_NAME, MAXIMUM_ENTRIES, MAXIMUM_AGE};
 
+    static final AttributeDefinition[] ATTRIBUTES_7_0 = new AttributeDefinition[] {REALM_NAME, MAXIMUM_ENTRIES, MAXIMUM_AGE, ADAPTIVE, MINIMUM_ENTRIES, REFRESH_AHEAD};
+
+    /*
+     * Runtime Attributes
+     */
+
+    static final SimpleAttributeDefinition HIT_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.HIT_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition MISS_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MISS_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.EVICTION_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition SIZE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SIZE, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CURRENT_MAXIMUM_ENTRIES = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CURRENT_MAXIMUM_ENTRIES, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleMapAttributeDefinition LOAD_TIME_HISTOGRAM = new SimpleMapAttributeDefinition.Builder(ElytronDescriptionConstants.LOAD_TIME_HISTOGRAM, ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
     private static final AbstractAddStepHandler ADD = new RealmAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, SECURITY_REALM_RUNTIME_CAPABILITY);
 
@@ -101,10 +154,53 @@ class CachingRealmDefinition extends SimpleResourceDefinition {
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
-        AbstractWriteAttributeHandler write = new ElytronReloadRequiredWriteAttributeHandler(ATTRIBUTES);
-        for (AttributeDefinition current : ATTRIBUTES) {
+        AbstractWriteAttributeHandler write = new ElytronReloadRequiredWriteAttributeHandler(ATTRIBUTES_7_0);
+        for (AttributeDefinition current : ATTRIBUTES_7_0) {
             resourceRegistration.registerReadWriteAttribute(current, null, write);
         }
+        if (isServerOrHostController(resourceRegistration)) {
+            resourceRegistration.registerReadOnlyAttribute(HIT_COUNT, new CacheRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, ManagedRealmIdentityCache cache) {
+                    result.set(cache.getHitCount());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(MISS_COUNT, new CacheRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, ManagedRealmIdentityCache cache) {
+                    result.set(cache.getMissCount());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(EVICTION_COUNT, new CacheRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, ManagedRealmIdentityCache cache) {
+                    result.set(cache.getEvictionCount());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(SIZE, new CacheRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, ManagedRealmIdentityCache cache) {
+                    result.set(cache.size());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(CURRENT_MAXIMUM_ENTRIES, new CacheRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, ManagedRealmIdentityCache cache) {
+                    result.set(cache.getCurrentMaximumEntries());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(LOAD_TIME_HISTOGRAM, new CacheRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, ManagedRealmIdentityCache cache) {
+                    long[] loadTimes = cache.getLoadTimes();
+                    long[] buckets = ManagedRealmIdentityCache.LOAD_TIME_BUCKETS;
+                    for (int i = 0; i < buckets.length; i++) {
+                        result.get("<" + buckets[i] + "ms").set(loadTimes[i]);
+                    }
+                    result.get(">=" + buckets[buckets.length - 1] + "ms").set(loadTimes[buckets.length]);
+                }
+            });
+        }
     }
 
     @Override
@@ -116,7 +212,7 @@ class CachingRealmDefinition extends SimpleResourceDefinition {
     private static class RealmAddHandler extends BaseAddHandler {
 
         private RealmAddHandler() {
-            super(SECURITY_REALM_RUNTIME_CAPABILITY, ATTRIBUTES);
+            super(SECURITY_REALM_RUNTIME_CAPABILITY, ATTRIBUTES_7_0);
         }
 
         @Override
@@ -128,36 +224,60 @@ class CachingRealmDefinition extends SimpleResourceDefinition {
             String cacheableRealm = REALM_NAME.resolveModelAttribute(context, model).asString();
             int maxEntries = MAXIMUM_ENTRIES.resolveModelAttribute(context, model).asInt();
             long maxAge = MAXIMUM_AGE.resolveModelAttribute(context, model).asInt();
+            boolean adaptive = ADAPTIVE.resolveModelAttribute(context, model).asBoolean();
+            int minEntries = MINIMUM_ENTRIES.resolveModelAttribute(context, model).asInt();
+            boolean refreshAhead = REFRESH_AHEAD.resolveModelAttribute(context, model).asBoolean();
             InjectedValue<SecurityRealm> cacheableRealmValue = new InjectedValue<>();
-            ServiceBuilder<SecurityRealm> serviceBuilder = serviceTarget.addService(realmName, createService(cacheableRealm, maxEntries, maxAge, cacheableRealmValue));
+            ServiceBuilder<SecurityRealm> serviceBuilder = serviceTarget.addService(realmName,
+                    createService(context.getCurrentAddressValue(), cacheableRealm, minEntries, maxEntries, maxAge, adaptive, refreshAhead, cacheableRealmValue));
 
             addRealmDependency(context, serviceBuilder, cacheableRealm, cacheableRealmValue);
             commonDependencies(serviceBuilder).setInitialMode(Mode.ACTIVE).install();
         }
 
-        private TrivialService<SecurityRealm> createService(String realmName, int maxEntries, long maxAge, InjectedValue<SecurityRealm> injector) {
-            return new TrivialService<>((TrivialService.ValueSupplier<SecurityRealm>) () -> {
-                SecurityRealm securityRealm = injector.getValue();
+        private TrivialService<SecurityRealm> createService(String name, String realmName, int minEntries, int maxEntries, long maxAge, boolean adaptive,
+                                                            boolean refreshAhead, InjectedValue<SecurityRealm> injector) {
+            return new TrivialService<>(new TrivialService.ValueSupplier<SecurityRealm>() {
+
+                private ExecutorService refreshExecutor;
+
+                @Override
+                public SecurityRealm get() throws StartException {
+                    SecurityRealm securityRealm = injector.getValue();
+
+                    if (securityRealm instanceof CacheableSecurityRealm) {
+                        ManagedRealmIdentityCache cache = new ManagedRealmIdentityCache(minEntries, maxEntries, maxAge, adaptive);
+                        CacheableSecurityRealm cacheableRealm = CacheableSecurityRealm.class.cast(securityRealm);
 
-                if (securityRealm instanceof CacheableSecurityRealm) {
-                    RealmIdentityCache cache = createRealmIdentityCache(maxEntries, maxAge);
-                    CacheableSecurityRealm cacheableRealm = CacheableSecurityRealm.class.cast(securityRealm);
+                        SecurityRealm cachingRealm = securityRealm instanceof ModifiableSecurityRealm ?
+                                new ManagedCachingModifiableSecurityRealm(cacheableRealm, cache) :
+                                new ManagedCachingSecurityRealm(cacheableRealm, cache);
 
-                    if (securityRealm instanceof ModifiableSecurityRealm) {
-                        return new CachingModifiableSecurityRealm(cacheableRealm, cache);
+                        if (refreshAhead) {
+                            refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+                                Thread thread = new Thread(r, ElytronDescriptionConstants.CACHING_REALM + "-" + name + "-refresh");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                            cache.enableRefreshAhead(cachingRealm, refreshExecutor);
+                        }
+
+                        return cachingRealm;
                     }
 
-                    return new CachingSecurityRealm(cacheableRealm, cache);
+                    throw ElytronSubsystemMessages.ROOT_LOGGER.realmDoesNotSupportCache(realmName);
                 }
 
-                throw ElytronSubsystemMessages.ROOT_LOGGER.realmDoesNotSupportCache(realmName);
+                @Override
+                public void dispose() {
+                    if (refreshExecutor != null) {
+                        refreshExecutor.shutdownNow();
+                        refreshExecutor = null;
+                    }
+                }
             });
         }
 
-        private LRURealmIdentityCache createRealmIdentityCache(int maxEntries, long maxAge) {
-            return new LRURealmIdentityCache(maxEntries, maxAge);
-        }
-
         private void addRealmDependency(OperationContext context, ServiceBuilder<SecurityRealm> serviceBuilder, String realmName, Injector<SecurityRealm> securityRealmInjector) {
             String runtimeCapability = RuntimeCapability.buildDynamicCapabilityName(SECURITY_REALM_CAPABILITY, realmName);
             ServiceName realmServiceName = context.getCapabilityServiceName(runtimeCapability, SecurityRealm.class);
@@ -189,4 +309,58 @@ class CachingRealmDefinition extends SimpleResourceDefinition {
             securityRealm.removeAllFromCache();
         }
     }
+
+    /**
+     * Reads a runtime attribute from the cache of the realm.
+     */
+    abstract static class CacheRuntimeHandler extends ElytronRuntimeOnlyHandler {
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceRegistry serviceRegistry = context.getServiceRegistry(false);
+            ServiceName realmName = SECURITY_REALM_RUNTIME_CAPABILITY.fromBaseCapability(context.getCurrentAddressValue()).getCapabilityServiceName();
+            ServiceController<SecurityRealm> serviceController = getRequiredService(serviceRegistry, realmName, SecurityRealm.class);
+            SecurityRealm securityRealm = serviceController.getValue();
+            if (securityRealm instanceof ManagedCachingRealm) {
+                performRuntime(context.getResult(), ((ManagedCachingRealm) securityRealm).getCache());
+            }
+        }
+
+        abstract void performRuntime(ModelNode result, ManagedRealmIdentityCache cache);
+    }
+
+    interface ManagedCachingRealm {
+
+        ManagedRealmIdentityCache getCache();
+    }
+
+    private static final class ManagedCachingSecurityRealm extends CachingSecurityRealm implements ManagedCachingRealm {
+
+        private final ManagedRealmIdentityCache cache;
+
+        ManagedCachingSecurityRealm(CacheableSecurityRealm realm, ManagedRealmIdentityCache cache) {
+            super(realm, cache);
+            this.cache = cache;
+        }
+
+        @Override
+        public ManagedRealmIdentityCache getCache() {
+            return cache;
+        }
+    }
+
+    private static final class ManagedCachingModifiableSecurityRealm extends CachingModifiableSecurityRealm implements ManagedCachingRealm {
+
+        private final ManagedRealmIdentityCache cache;
+
+        ManagedCachingModifiableSecurityRealm(CacheableSecurityRealm realm, ManagedRealmIdentityCache cache) {
+            super(realm, cache);
+            this.cache = cache;
+        }
+
+        @Override
+        public ManagedRealmIdentityCache getCache() {
+            return cache;
+        }
+    }
 }
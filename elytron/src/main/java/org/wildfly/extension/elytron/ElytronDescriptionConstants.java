@@ -28,6 +28,7 @@ interface ElytronDescriptionConstants {
     String ACCOUNT_KEY = "account-key";
     String ACTION = "action";
     String ACTIVE_SESSION_COUNT = "active-session-count";
+    String ADAPTIVE = "adaptive";
     String ADD_IDENTITY = "add-identity";
     String ADD_IDENTITY_ATTRIBUTE = "add-identity-attribute";
     String ADD_ALIAS = "add-alias";
@@ -80,6 +81,8 @@ interface ElytronDescriptionConstants {
     String BCRYPT_MAPPER = "bcrypt-mapper";
 
     String CAA_IDENTITIES = "caa-identities";
+    String CACHE_HIT_COUNT = "cache-hit-count";
+    String CACHE_MISS_COUNT = "cache-miss-count";
     String CACHING_REALM = "caching-realm";
     String CERTIFICATE = "certificate";
     String CERTIFICATE_ATTRIBUTE = "certificate-attribute";
@@ -135,6 +138,7 @@ interface ElytronDescriptionConstants {
     String CREDENTIALS = "credentials";
     String CRITICAL = "critical";
 
+    String CURRENT_MAXIMUM_ENTRIES = "current-maximum-entries";
     String CUSTOM_CREDENTIAL_SECURITY_FACTORY = "custom-credential-security-factory";
     String CUSTOM_PERMISSION_MAPPER = "custom-permission-mapper";
     String CUSTOM_POLICY = "custom-policy";
@@ -173,6 +177,7 @@ interface ElytronDescriptionConstants {
     String ENABLING = "enabling";
     String ENCODED = "encoded";
     String ENTRY_TYPE = "entry-type";
+    String EVICTION_COUNT = "eviction-count";
     String EXPIRATION = "expiration";
     String EXPORT_CERTIFICATE = "export-certificate";
     String EXTERNAL_ACCOUNT_REQUIRED = "external-account-required";
@@ -209,6 +214,7 @@ interface ElytronDescriptionConstants {
     String GROUPS_ATTRIBUTE = "groups-attribute";
     String GROUPS_PROPERTIES = "groups-properties";
 
+    String HIT_COUNT = "hit-count";
     String HOST = "host";
     String HOST_CONTEXT_MAP = "host-context-map";
     String HOST_NAME = "host-name";
@@ -222,12 +228,14 @@ interface ElytronDescriptionConstants {
     String HTTP_SERVER_MECHANISM_FACTORIES = "http-server-mechanism-factories";
 
     String IDENTITY = "identity";
+    String IDENTITY_COUNT = "identity-count";
     String IDENTITY_MAPPING = "identity-mapping";
     String IDENTITY_REALM = "identity-realm";
     String IMPLEMENTATION = "implementation";
     String IMPLEMENTATION_PROPERTIES = "implementation-properties";
     String IMPORT_CERTIFICATE = "import-certificate";
     String INDEX = "index";
+    String INDEXED = "indexed";
     String INFO = "info";
     String INIT = "init";
     String INITIAL = "initial";
@@ -273,6 +281,7 @@ interface ElytronDescriptionConstants {
     String LOAD_SERVICES = "load-services";
     String LOADED_PROVIDER = "loaded-provider";
     String LOADED_PROVIDERS = "loaded-providers";
+    String LOAD_TIME_HISTOGRAM = "load-time-histogram";
     String LOCAL_CERTIFICATES = "local-certificates";
     String LOCAL_PRINCIPAL = "local-principal";
     String LOCATION = "location";
@@ -299,6 +308,7 @@ interface ElytronDescriptionConstants {
     String MATCH_URN = "match-urn";
     String MATCH_USER = "match-user";
     String MAXIMUM_AGE = "maximum-age";
+    String MAXIMUM_CACHED_IDENTITIES = "maximum-cached-identities";
     String MAXIMUM_CERT_PATH = "maximum-cert-path";
     String MAXIMUM_ENTRIES = "maximum-entries";
     String MAXIMUM_SEGMENTS = "maximum-segments";
@@ -315,8 +325,10 @@ interface ElytronDescriptionConstants {
     String MECHANISM_REALM = "mechanism-realm";
     String MECHANISM_REALM_CONFIGURATION = "mechanism-realm-configuration";
     String MECHANISM_REALM_CONFIGURATIONS = "mechanism-realm-configurations";
+    String MINIMUM_ENTRIES = "minimum-entries";
     String MINIMUM_REMAINING_LIFETIME = "minimum-remaining-lifetime";
     String MINUS = "minus";
+    String MISS_COUNT = "miss-count";
     String MODIFIABLE = "modifiable";
     String MODIFIABLE_KEY_STORE = "modifiable-key-store";
     String MODIFIABLE_SECURITY_REALM = "modifiable-security-realm";
@@ -414,6 +426,7 @@ interface ElytronDescriptionConstants {
     String REASON = "reason";
     String REFERENCE = "reference";
     String REFERRAL_MODE = "referral-mode";
+    String REFRESH_AHEAD = "refresh-ahead";
     String REGISTER_JASPI_FACTORY = "register-jaspi-factory";
     String REGEX_PRINCIPAL_TRANSFORMER = "regex-principal-transformer";
     String REGEX_VALIDATING_PRINCIPAL_TRANSFORMER = "regex-validating-principal-transformer";
@@ -549,6 +562,7 @@ interface ElytronDescriptionConstants {
     String VERSION_COMPARISON = "version-comparison";
 
     String WANT_CLIENT_AUTH = "want-client-auth";
+    String WATCH = "watch";
     String WEBSITE = "website";
     String WRAP = "wrap";
     String WRAP_GSS_CREDENTIAL = "wrap-gss-credential";
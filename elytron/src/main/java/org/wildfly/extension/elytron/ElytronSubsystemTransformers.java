@@ -16,20 +16,30 @@ limitations under the License.
 
 package org.wildfly.extension.elytron;
 
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.ADAPTIVE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.ALGORITHM;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.AUTOFLUSH;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.BCRYPT_MAPPER;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CACHING_REALM;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILESYSTEM_REALM;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILE_AUDIT_LOG;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.HASH_ENCODING;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.INDEXED;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.JDBC_REALM;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_STORE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.MAXIMUM_CACHED_IDENTITIES;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.MINIMUM_ENTRIES;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.MODULAR_CRYPT_MAPPER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PERIODIC_ROTATING_FILE_AUDIT_LOG;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PROPERTIES_REALM;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.REFRESH_AHEAD;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SALTED_SIMPLE_DIGEST_MAPPER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SALT_ENCODING;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SCRAM_MAPPER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SIMPLE_DIGEST_MAPPER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SIZE_ROTATING_FILE_AUDIT_LOG;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SYNCHRONIZED;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.WATCH;
 import static org.wildfly.extension.elytron.ElytronExtension.ELYTRON_1_2_0;
 import static org.wildfly.extension.elytron.ElytronExtension.ELYTRON_2_0_0;
 import static org.wildfly.extension.elytron.ElytronExtension.ELYTRON_3_0_0;
@@ -112,6 +122,29 @@ public final class ElytronSubsystemTransformers implements ExtensionTransformerR
                 .addRejectCheck(new RejectAttributeChecker.ListRejectAttributeChecker(
                         new RejectAttributeChecker.ObjectFieldsRejectAttributeChecker(principalQueryCheckers)
                 ), PRINCIPAL_QUERY);
+
+        builder.addChildResource(PathElement.pathElement(FILESYSTEM_REALM))
+                .getAttributeBuilder()
+                .addRejectCheck(RejectAttributeChecker.DEFINED, INDEXED, MAXIMUM_CACHED_IDENTITIES)
+                .end();
+
+        builder.addChildResource(PathElement.pathElement(CACHING_REALM))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, ADAPTIVE, MINIMUM_ENTRIES, REFRESH_AHEAD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ADAPTIVE, MINIMUM_ENTRIES, REFRESH_AHEAD)
+                .end();
+
+        builder.addChildResource(PathElement.pathElement(KEY_STORE))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, WATCH)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, WATCH)
+                .end();
+
+        builder.addChildResource(PathElement.pathElement(PROPERTIES_REALM))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, WATCH)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, WATCH)
+                .end();
     }
 
     private static void from6(ChainedTransformationDescriptionBuilder chainedBuilder) {
@@ -20,6 +20,8 @@ package org.wildfly.extension.elytron;
 
 import static org.wildfly.extension.elytron.Capabilities.MODIFIABLE_SECURITY_REALM_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.elytron.Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY;
+import static org.wildfly.extension.elytron.ElytronExtension.getRequiredService;
+import static org.wildfly.extension.elytron.ElytronExtension.isServerOrHostController;
 import static org.wildfly.extension.elytron.FileAttributeDefinitions.pathName;
 import static org.wildfly.extension.elytron.FileAttributeDefinitions.pathResolver;
 
@@ -44,7 +46,9 @@ import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.value.InjectedValue;
@@ -88,8 +92,42 @@ class FileSystemRealmDefinition extends SimpleResourceDefinition {
                     .setRestartAllServices()
                     .build();
 
+    static final SimpleAttributeDefinition INDEXED =
+            new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.INDEXED, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition MAXIMUM_CACHED_IDENTITIES =
+            new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MAXIMUM_CACHED_IDENTITIES, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setMinSize(1)
+                    .setRequires(ElytronDescriptionConstants.INDEXED)
+                    .setRestartAllServices()
+                    .build();
+
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[]{PATH, RELATIVE_TO, LEVELS, ENCODED};
 
+    static final AttributeDefinition[] ATTRIBUTES_7_0 = new AttributeDefinition[]{PATH, RELATIVE_TO, LEVELS, ENCODED, INDEXED, MAXIMUM_CACHED_IDENTITIES};
+
+    /*
+     * Runtime Attributes
+     */
+
+    static final SimpleAttributeDefinition IDENTITY_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.IDENTITY_COUNT, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HIT_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CACHE_HIT_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISS_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CACHE_MISS_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final int DEFAULT_MAXIMUM_CACHED_IDENTITIES = 1000;
+
     private static final AbstractAddStepHandler ADD = new RealmAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, MODIFIABLE_SECURITY_REALM_RUNTIME_CAPABILITY, SECURITY_REALM_RUNTIME_CAPABILITY);
 
@@ -105,16 +143,36 @@ class FileSystemRealmDefinition extends SimpleResourceDefinition {
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
-        AbstractWriteAttributeHandler handler = new ElytronReloadRequiredWriteAttributeHandler(ATTRIBUTES);
-        for (AttributeDefinition attr : ATTRIBUTES) {
+        AbstractWriteAttributeHandler handler = new ElytronReloadRequiredWriteAttributeHandler(ATTRIBUTES_7_0);
+        for (AttributeDefinition attr : ATTRIBUTES_7_0) {
             resourceRegistration.registerReadWriteAttribute(attr, null, handler);
         }
+        if (isServerOrHostController(resourceRegistration)) {
+            resourceRegistration.registerReadOnlyAttribute(IDENTITY_COUNT, new IndexedRealmRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, IndexedFileSystemRealm realm) {
+                    result.set(realm.getIdentityCount());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(CACHE_HIT_COUNT, new IndexedRealmRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, IndexedFileSystemRealm realm) {
+                    result.set(realm.getCacheHitCount());
+                }
+            });
+            resourceRegistration.registerReadOnlyAttribute(CACHE_MISS_COUNT, new IndexedRealmRuntimeHandler() {
+                @Override
+                void performRuntime(ModelNode result, IndexedFileSystemRealm realm) {
+                    result.set(realm.getCacheMissCount());
+                }
+            });
+        }
     }
 
     private static class RealmAddHandler extends BaseAddHandler {
 
         private RealmAddHandler() {
-            super(SECURITY_REALM_RUNTIME_CAPABILITY, ATTRIBUTES);
+            super(SECURITY_REALM_RUNTIME_CAPABILITY, ATTRIBUTES_7_0);
         }
 
         @Override
@@ -130,6 +188,9 @@ class FileSystemRealmDefinition extends SimpleResourceDefinition {
 
             final boolean encoded = ENCODED.resolveModelAttribute(context, model).asBoolean();
 
+            final boolean indexed = INDEXED.resolveModelAttribute(context, model).asBoolean(false);
+            final int maximumCachedIdentities = MAXIMUM_CACHED_IDENTITIES.resolveModelAttribute(context, model).asInt(DEFAULT_MAXIMUM_CACHED_IDENTITIES);
+
             final String path = PATH.resolveModelAttribute(context, model).asString();
             final String relativeTo = RELATIVE_TO.resolveModelAttribute(context, model).asStringOrNull();
 
@@ -148,9 +209,11 @@ class FileSystemRealmDefinition extends SimpleResourceDefinition {
 
                             NameRewriter nameRewriter = nameRewriterInjector.getOptionalValue();
 
-                            return nameRewriter != null ?
+                            FileSystemSecurityRealm fileSystemRealm = nameRewriter != null ?
                                     new FileSystemSecurityRealm(rootPath, nameRewriter, levels, encoded) :
                                     new FileSystemSecurityRealm(rootPath, NameRewriter.IDENTITY_REWRITER, levels, encoded);
+
+                            return indexed ? IndexedFileSystemRealm.create(fileSystemRealm, rootPath, maximumCachedIdentities) : fileSystemRealm;
                         }
 
                         @Override
@@ -175,4 +238,23 @@ class FileSystemRealmDefinition extends SimpleResourceDefinition {
 
     }
 
+    /**
+     * Reads a runtime attribute of the realm, the attribute is left undefined unless the realm is indexed.
+     */
+    abstract static class IndexedRealmRuntimeHandler extends ElytronRuntimeOnlyHandler {
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceRegistry serviceRegistry = context.getServiceRegistry(false);
+            ServiceName realmName = MODIFIABLE_SECURITY_REALM_RUNTIME_CAPABILITY.fromBaseCapability(context.getCurrentAddressValue()).getCapabilityServiceName();
+            ServiceController<SecurityRealm> serviceController = getRequiredService(serviceRegistry, realmName, SecurityRealm.class);
+            SecurityRealm securityRealm = serviceController.getValue();
+            if (securityRealm instanceof IndexedFileSystemRealm) {
+                performRuntime(context.getResult(), (IndexedFileSystemRealm) securityRealm);
+            }
+        }
+
+        abstract void performRuntime(ModelNode result, IndexedFileSystemRealm realm);
+    }
+
 }
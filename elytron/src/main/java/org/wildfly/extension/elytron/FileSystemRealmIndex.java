@@ -0,0 +1,239 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A persistent index of the identity names stored within a filesystem realm.
+ * <p>
+ * The index is held in memory and persisted as a single file which is incrementally maintained; every addition or
+ * removal is appended to the file as a {@code +name} or {@code -name} record. When the index is loaded the records are
+ * replayed and the file is compacted whenever it has accumulated more stale records than live names.
+ * </p>
+ * <p>
+ * The index is only trusted if it holds as many names as there are identity files within the realm, so identities added
+ * or removed without going through the index, or records lost to a crash, cause the index to be rebuilt.
+ * </p>
+ */
+final class FileSystemRealmIndex {
+
+    static final String INDEX_FILE_NAME = ".index";
+
+    private static final String HEADER = "#filesystem-realm-index 1";
+    private static final char ADD = '+';
+    private static final char REMOVE = '-';
+    private static final int COMPACTION_THRESHOLD = 1024;
+    private static final String IDENTITY_FILE_SUFFIX = ".xml";
+
+    private final Path indexFile;
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+    // Guarded by this
+    private int records;
+
+    private FileSystemRealmIndex(final Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Load the index stored in the root directory of the realm.
+     *
+     * @param root the root directory of the filesystem realm
+     * @return the loaded index or {@code null} if no valid index is present or it does not match the identities within
+     *         the realm
+     * @throws IOException if the index file or the realm directory can not be read
+     */
+    static FileSystemRealmIndex load(final Path root) throws IOException {
+        final FileSystemRealmIndex index = new FileSystemRealmIndex(root.resolve(INDEX_FILE_NAME));
+        if (Files.notExists(index.indexFile)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(index.indexFile, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() < 2) {
+                    return null;
+                }
+                final String name = decode(line.substring(1));
+                switch (line.charAt(0)) {
+                    case ADD:
+                        index.names.add(name);
+                        break;
+                    case REMOVE:
+                        index.names.remove(name);
+                        break;
+                    default:
+                        return null;
+                }
+                index.records++;
+            }
+        } catch (IllegalArgumentException e) {
+            // Thrown for a malformed encoded name
+            return null;
+        }
+        if (index.names.size() != countIdentities(root)) {
+            return null;
+        }
+        index.compactIfStale();
+        return index;
+    }
+
+    /**
+     * Create a new index for the realm, replacing any index file already present.
+     *
+     * @param root the root directory of the filesystem realm
+     * @param names the names of all identities currently stored within the realm
+     * @return the new index
+     * @throws IOException if the index file can not be written
+     */
+    static FileSystemRealmIndex create(final Path root, final Collection<String> names) throws IOException {
+        final FileSystemRealmIndex index = new FileSystemRealmIndex(root.resolve(INDEX_FILE_NAME));
+        index.names.addAll(names);
+        index.compact();
+        return index;
+    }
+
+    /**
+     * Remove the index file of the realm.
+     *
+     * @param root the root directory of the filesystem realm
+     * @throws IOException if the index file can not be removed
+     */
+    static void delete(final Path root) throws IOException {
+        Files.deleteIfExists(root.resolve(INDEX_FILE_NAME));
+    }
+
+    boolean contains(final String name) {
+        return names.contains(name);
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * Take a snapshot of the names held within the index.
+     *
+     * @return a copy of the indexed names
+     */
+    List<String> getNames() {
+        return new ArrayList<>(names);
+    }
+
+    synchronized void add(final String name) throws IOException {
+        if (!names.contains(name)) {
+            append(ADD, name);
+            names.add(name);
+            compactIfStale();
+        }
+    }
+
+    synchronized void remove(final String name) throws IOException {
+        if (names.contains(name)) {
+            append(REMOVE, name);
+            names.remove(name);
+            compactIfStale();
+        }
+    }
+
+    Path getIndexFile() {
+        return indexFile;
+    }
+
+    private synchronized void append(final char operation, final String name) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(operation);
+            writer.write(encode(name));
+            writer.newLine();
+        }
+        records++;
+    }
+
+    private synchronized void compactIfStale() throws IOException {
+        if (records - names.size() > Math.max(names.size(), COMPACTION_THRESHOLD)) {
+            compact();
+        }
+    }
+
+    private synchronized void compact() throws IOException {
+        final Path temp = indexFile.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        int written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String name : names) {
+                writer.write(ADD);
+                writer.write(encode(name));
+                writer.newLine();
+                written++;
+            }
+        }
+        try {
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        records = written;
+    }
+
+    private static long countIdentities(final Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(p -> {
+                final String fileName = p.getFileName().toString();
+                return fileName.endsWith(IDENTITY_FILE_SUFFIX) && !fileName.startsWith(".") && Files.isRegularFile(p);
+            }).count();
+        }
+    }
+
+    private static String encode(final String name) {
+        try {
+            return URLEncoder.encode(name, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(final String name) {
+        try {
+            return URLDecoder.decode(name, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches files for changes using a {@link WatchService}.
+ * <p>
+ * A single daemon thread is shared by all watched files and is only running while at least one file is watched. The
+ * callback for a file is invoked on that thread once no further change has been reported for the file for a short
+ * settle time, so a file which is still being written is not read early and the work of handling the change is kept
+ * off the management and request threads.
+ * </p>
+ */
+final class FileWatcher {
+
+    private static final FileWatcher INSTANCE = new FileWatcher();
+
+    private static final long SETTLE_TIME = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long IDLE_POLL_TIME = TimeUnit.SECONDS.toNanos(5);
+
+    // Guarded by this
+    private final Map<Path, WatchedDirectory> directories = new HashMap<>();
+    private WatchService watchService;
+
+    private FileWatcher() {
+    }
+
+    static FileWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Watch a file for changes.
+     *
+     * @param file the file to watch
+     * @param callback the callback to invoke after the file has changed
+     * @return the registration which must be closed to stop watching the file
+     * @throws IOException if the directory of the file can not be watched
+     */
+    synchronized Closeable watch(final File file, final Runnable callback) throws IOException {
+        final Path path = file.toPath().toAbsolutePath();
+        final Path directory = path.getParent();
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            final WatchService service = watchService;
+            final Thread thread = new Thread(() -> run(service), "elytron-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        WatchedDirectory watchedDirectory = directories.get(directory);
+        if (watchedDirectory == null) {
+            final WatchKey key;
+            try {
+                key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException | RuntimeException e) {
+                if (directories.isEmpty()) {
+                    // Nothing else is watched, closing the service stops its thread
+                    closeWatchService();
+                }
+                throw e;
+            }
+            watchedDirectory = new WatchedDirectory(key);
+            directories.put(directory, watchedDirectory);
+        }
+        final Registration registration = new Registration(directory, path.getFileName(), callback);
+        watchedDirectory.registrations.add(registration);
+        return registration;
+    }
+
+    private synchronized void remove(final Registration registration) {
+        final WatchedDirectory watchedDirectory = directories.get(registration.directory);
+        if (watchedDirectory != null && watchedDirectory.registrations.remove(registration) && watchedDirectory.registrations.isEmpty()) {
+            watchedDirectory.key.cancel();
+            directories.remove(registration.directory);
+            if (directories.isEmpty()) {
+                closeWatchService();
+            }
+        }
+    }
+
+    private void closeWatchService() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            ROOT_LOGGER.trace("Unable to close the file watch service", e);
+        }
+        watchService = null;
+    }
+
+    private void run(final WatchService service) {
+        final List<Registration> settled = new ArrayList<>();
+        boolean pending = false;
+        try {
+            for (;;) {
+                final WatchKey key = service.poll(pending ? SETTLE_TIME : IDLE_POLL_TIME, TimeUnit.NANOSECONDS);
+                final long now = System.nanoTime();
+                synchronized (this) {
+                    if (key != null) {
+                        final WatchedDirectory watchedDirectory = directories.get((Path) key.watchable());
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            if (watchedDirectory == null) {
+                                continue;
+                            }
+                            for (Registration registration : watchedDirectory.registrations) {
+                                if (event.kind() == StandardWatchEventKinds.OVERFLOW || registration.fileName.equals(event.context())) {
+                                    registration.changed = now;
+                                }
+                            }
+                        }
+                        key.reset();
+                    }
+                    pending = false;
+                    for (WatchedDirectory watchedDirectory : directories.values()) {
+                        for (Registration registration : watchedDirectory.registrations) {
+                            if (registration.changed != 0) {
+                                if (now - registration.changed >= SETTLE_TIME) {
+                                    registration.changed = 0;
+                                    settled.add(registration);
+                                } else {
+                                    pending = true;
+                                }
+                            }
+                        }
+                    }
+                }
+                // Invoke the callbacks without holding the lock so files can be watched or released by them
+                for (Registration registration : settled) {
+                    try {
+                        registration.callback.run();
+                    } catch (Throwable t) {
+                        ROOT_LOGGER.unableToReloadFile(registration.directory.resolve(registration.fileName).toString(), t);
+                    }
+                }
+                settled.clear();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            ROOT_LOGGER.trace("File watch service closed");
+        }
+    }
+
+    private static final class WatchedDirectory {
+        private final WatchKey key;
+        private final List<Registration> registrations = new ArrayList<>();
+
+        WatchedDirectory(final WatchKey key) {
+            this.key = key;
+        }
+    }
+
+    private final class Registration implements Closeable {
+        private final Path directory;
+        private final Path fileName;
+        private final Runnable callback;
+        // Guarded by the FileWatcher
+        private long changed;
+
+        Registration(final Path directory, final Path fileName, final Runnable callback) {
+            this.directory = directory;
+            this.fileName = fileName;
+            this.callback = callback;
+        }
+
+        @Override
+        public void close() {
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.jboss.msc.service.StartException;
+import org.wildfly.security.auth.SupportLevel;
+import org.wildfly.security.auth.principal.NamePrincipal;
+import org.wildfly.security.auth.realm.CacheableSecurityRealm;
+import org.wildfly.security.auth.realm.CachingModifiableSecurityRealm;
+import org.wildfly.security.auth.realm.FileSystemSecurityRealm;
+import org.wildfly.security.auth.server.ModifiableRealmIdentity;
+import org.wildfly.security.auth.server.ModifiableRealmIdentityIterator;
+import org.wildfly.security.auth.server.ModifiableSecurityRealm;
+import org.wildfly.security.auth.server.RealmIdentity;
+import org.wildfly.security.auth.server.RealmUnavailableException;
+import org.wildfly.security.auth.server.event.RealmEvent;
+import org.wildfly.security.authz.Attributes;
+import org.wildfly.security.authz.AuthorizationIdentity;
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.evidence.Evidence;
+
+/**
+ * A {@link FileSystemSecurityRealm} for large identity stores which keeps a persistent index of the identity names and
+ * holds a bounded number of loaded identities in memory.
+ * <p>
+ * Iterating the identities of the realm is served from the index instead of walking the directory tree, the index is
+ * updated as identities are created and deleted through the realm and rebuilt if it is missing or can not be read.
+ * </p>
+ */
+class IndexedFileSystemRealm extends CachingModifiableSecurityRealm {
+
+    private final FileSystemRealmIndex index;
+    private final ManagedRealmIdentityCache cache;
+
+    private IndexedFileSystemRealm(final IndexingRealm realm, final ManagedRealmIdentityCache cache) {
+        super(realm, cache);
+        this.index = realm.index;
+        this.cache = cache;
+    }
+
+    /**
+     * Create an indexed realm wrapping the {@link FileSystemSecurityRealm}, the index is loaded from the root directory
+     * of the realm or built if it is not present or no longer matches the identities within the realm.
+     *
+     * @param realm the filesystem realm to index
+     * @param root the root directory of the filesystem realm
+     * @param maximumCachedIdentities the maximum number of identities held in memory
+     * @return the indexed realm
+     * @throws StartException if the index can not be loaded or built
+     */
+    static IndexedFileSystemRealm create(final FileSystemSecurityRealm realm, final Path root, final int maximumCachedIdentities) throws StartException {
+        FileSystemRealmIndex index;
+        try {
+            index = FileSystemRealmIndex.load(root);
+            if (index == null) {
+                ROOT_LOGGER.buildingIdentityIndex(root);
+                Files.createDirectories(root);
+                FileSystemRealmIndex.delete(root);
+                index = FileSystemRealmIndex.create(root, readNames(realm));
+            }
+        } catch (IOException | RealmUnavailableException e) {
+            throw ROOT_LOGGER.unableToLoadIdentityIndex(root, e);
+        }
+        return new IndexedFileSystemRealm(new IndexingRealm(realm, index),
+                new ManagedRealmIdentityCache(maximumCachedIdentities, maximumCachedIdentities, -1, false));
+    }
+
+    int getIdentityCount() {
+        return index.size();
+    }
+
+    long getCacheHitCount() {
+        return cache.getHitCount();
+    }
+
+    long getCacheMissCount() {
+        return cache.getMissCount();
+    }
+
+    private static List<String> readNames(final FileSystemSecurityRealm realm) throws RealmUnavailableException {
+        final List<String> names = new ArrayList<>();
+        final ModifiableRealmIdentityIterator iterator = realm.getRealmIdentityIterator();
+        try {
+            while (iterator.hasNext()) {
+                final ModifiableRealmIdentity identity = iterator.next();
+                try {
+                    names.add(identity.getRealmIdentityPrincipal().getName());
+                } finally {
+                    identity.dispose();
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+        return names;
+    }
+
+    /**
+     * The realm which keeps the index up to date and serves the identity iteration from it.
+     */
+    private static final class IndexingRealm implements ModifiableSecurityRealm, CacheableSecurityRealm {
+
+        private final FileSystemSecurityRealm delegate;
+        private final FileSystemRealmIndex index;
+
+        IndexingRealm(final FileSystemSecurityRealm delegate, final FileSystemRealmIndex index) {
+            this.delegate = delegate;
+            this.index = index;
+        }
+
+        @Override
+        public RealmIdentity getRealmIdentity(Principal principal) throws RealmUnavailableException {
+            return delegate.getRealmIdentity(principal);
+        }
+
+        @Override
+        public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return delegate.getCredentialAcquireSupport(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getEvidenceVerifySupport(evidenceType, algorithmName);
+        }
+
+        @Override
+        public void handleRealmEvent(RealmEvent event) {
+            delegate.handleRealmEvent(event);
+        }
+
+        @Override
+        public void registerIdentityChangeListener(Consumer<Principal> listener) {
+            delegate.registerIdentityChangeListener(listener);
+        }
+
+        @Override
+        public ModifiableRealmIdentity getRealmIdentityForUpdate(Principal principal) throws RealmUnavailableException {
+            return new IndexedRealmIdentity(delegate.getRealmIdentityForUpdate(principal), index);
+        }
+
+        @Override
+        public ModifiableRealmIdentityIterator getRealmIdentityIterator() throws RealmUnavailableException {
+            final Iterator<String> names = index.getNames().iterator();
+            return new ModifiableRealmIdentityIterator() {
+
+                @Override
+                public boolean hasNext() {
+                    return names.hasNext();
+                }
+
+                @Override
+                public ModifiableRealmIdentity next() {
+                    try {
+                        return getRealmIdentityForUpdate(new NamePrincipal(names.next()));
+                    } catch (RealmUnavailableException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+
+    /**
+     * A {@link ModifiableRealmIdentity} which records the creation and deletion of the identity in the index.
+     */
+    private static final class IndexedRealmIdentity implements ModifiableRealmIdentity {
+
+        private final ModifiableRealmIdentity delegate;
+        private final FileSystemRealmIndex index;
+
+        IndexedRealmIdentity(final ModifiableRealmIdentity delegate, final FileSystemRealmIndex index) {
+            this.delegate = delegate;
+            this.index = index;
+        }
+
+        @Override
+        public void create() throws RealmUnavailableException {
+            delegate.create();
+            try {
+                index.add(getRealmIdentityPrincipal().getName());
+            } catch (IOException e) {
+                throw ROOT_LOGGER.unableToUpdateIdentityIndex(index.getIndexFile(), e);
+            }
+        }
+
+        @Override
+        public void delete() throws RealmUnavailableException {
+            delegate.delete();
+            try {
+                index.remove(getRealmIdentityPrincipal().getName());
+            } catch (IOException e) {
+                throw ROOT_LOGGER.unableToUpdateIdentityIndex(index.getIndexFile(), e);
+            }
+        }
+
+        @Override
+        public void setCredentials(Collection<? extends Credential> credentials) throws RealmUnavailableException {
+            delegate.setCredentials(credentials);
+        }
+
+        @Override
+        public void setAttributes(Attributes attributes) throws RealmUnavailableException {
+            delegate.setAttributes(attributes);
+        }
+
+        @Override
+        public Principal getRealmIdentityPrincipal() {
+            return delegate.getRealmIdentityPrincipal();
+        }
+
+        @Override
+        public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return delegate.getCredentialAcquireSupport(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public <C extends Credential> C getCredential(Class<C> credentialType) throws RealmUnavailableException {
+            return delegate.getCredential(credentialType);
+        }
+
+        @Override
+        public <C extends Credential> C getCredential(Class<C> credentialType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getCredential(credentialType, algorithmName);
+        }
+
+        @Override
+        public <C extends Credential> C getCredential(Class<C> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return delegate.getCredential(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getEvidenceVerifySupport(evidenceType, algorithmName);
+        }
+
+        @Override
+        public boolean verifyEvidence(Evidence evidence) throws RealmUnavailableException {
+            return delegate.verifyEvidence(evidence);
+        }
+
+        @Override
+        public boolean exists() throws RealmUnavailableException {
+            return delegate.exists();
+        }
+
+        @Override
+        public AuthorizationIdentity getAuthorizationIdentity() throws RealmUnavailableException {
+            return delegate.getAuthorizationIdentity();
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+    }
+}
@@ -113,6 +113,14 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
         .setRestartAllServices()
         .build();
 
+    static final SimpleAttributeDefinition WATCH = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.WATCH, ModelType.BOOLEAN, true)
+        .setDefaultValue(new ModelNode(false))
+        .setAllowExpression(true)
+        .setAttributeGroup(ElytronDescriptionConstants.FILE)
+        .setRequires(ElytronDescriptionConstants.PATH)
+        .setRestartAllServices()
+        .build();
+
     static final SimpleAttributeDefinition ALIAS_FILTER = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.ALIAS_FILTER, ModelType.STRING, true)
         .setAllowExpression(true)
         .setMinSize(1)
@@ -147,7 +155,7 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
         .setRuntimeOnly()
         .build();
 
-    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] { TYPE, PROVIDER_NAME, PROVIDERS, CREDENTIAL_REFERENCE, PATH, RELATIVE_TO, REQUIRED, ALIAS_FILTER };
+    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] { TYPE, PROVIDER_NAME, PROVIDERS, CREDENTIAL_REFERENCE, PATH, RELATIVE_TO, REQUIRED, WATCH, ALIAS_FILTER };
 
     private static final KeyStoreAddHandler ADD = new KeyStoreAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, KEY_STORE_RUNTIME_CAPABILITY);
@@ -245,13 +253,15 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
             String path = PATH.resolveModelAttribute(context, model).asStringOrNull();
             String relativeTo = null;
             boolean required;
+            boolean watch;
             String aliasFilter = ALIAS_FILTER.resolveModelAttribute(context, model).asStringOrNull();
 
             final KeyStoreService keyStoreService;
             if (path != null) {
                 relativeTo = RELATIVE_TO.resolveModelAttribute(context, model).asStringOrNull();
                 required = REQUIRED.resolveModelAttribute(context, model).asBoolean();
-                keyStoreService = KeyStoreService.createFileBasedKeyStoreService(providerName, type, relativeTo, path, required, aliasFilter);
+                watch = WATCH.resolveModelAttribute(context, model).asBoolean();
+                keyStoreService = KeyStoreService.createFileBasedKeyStoreService(providerName, type, relativeTo, path, required, aliasFilter, watch);
             } else {
                 if (type == null) {
                     throw ROOT_LOGGER.filelessKeyStoreMissingType();
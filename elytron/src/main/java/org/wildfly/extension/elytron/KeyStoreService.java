@@ -22,18 +22,25 @@ import static org.wildfly.extension.elytron.FileAttributeDefinitions.pathResolve
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 import static org.wildfly.security.provider.util.ProviderUtil.findProvider;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.Security;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateExpiredException;
 import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.function.Supplier;
 
@@ -72,6 +79,7 @@ class KeyStoreService implements ModifiableKeyStoreService {
     private final String relativeTo;
     private final boolean required;
     private final String aliasFilter;
+    private final boolean watch;
 
     private final InjectedValue<PathManager> pathManager = new InjectedValue<>();
     private final InjectedValue<Provider[]> providers = new InjectedValue<>();
@@ -79,27 +87,31 @@ class KeyStoreService implements ModifiableKeyStoreService {
 
     private PathResolver pathResolver;
     private File resolvedPath;
+    private Closeable watchRegistration;
 
     private volatile long synched;
+    // The hash of the file content last loaded or stored, the modification time is too coarse to detect every change
+    private volatile byte[] fileHash;
     private volatile AtomicLoadKeyStore keyStore = null;
     private volatile ModifyTrackingKeyStore trackingKeyStore = null;
     private volatile KeyStore unmodifiableKeyStore = null;
 
-    private KeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter) {
+    private KeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter, boolean watch) {
         this.provider = provider;
         this.type = type;
         this.relativeTo = relativeTo;
         this.path = path;
         this.required = required;
         this.aliasFilter = aliasFilter;
+        this.watch = watch;
     }
 
     static KeyStoreService createFileLessKeyStoreService(String provider, String type, String aliasFilter) {
-        return new KeyStoreService(provider, type, null, null, false, aliasFilter);
+        return new KeyStoreService(provider, type, null, null, false, aliasFilter, false);
     }
 
-    static KeyStoreService createFileBasedKeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter) {
-        return new KeyStoreService(provider, type, relativeTo, path, required, aliasFilter);
+    static KeyStoreService createFileBasedKeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter, boolean watch) {
+        return new KeyStoreService(provider, type, relativeTo, path, required, aliasFilter, watch);
     }
 
     /*
@@ -122,6 +134,7 @@ class KeyStoreService implements ModifiableKeyStoreService {
             }
 
             synched = System.currentTimeMillis();
+            fileHash = fileHash(resolvedPath);
             if (resolvedPath != null && ! resolvedPath.exists()) {
                 if (required || type == null) {
                     throw ROOT_LOGGER.keyStoreFileNotExists(resolvedPath.getAbsolutePath());
@@ -170,6 +183,14 @@ class KeyStoreService implements ModifiableKeyStoreService {
         } catch (Exception e) {
             throw ROOT_LOGGER.unableToStartService(e);
         }
+
+        if (watch && resolvedPath != null) {
+            try {
+                watchRegistration = FileWatcher.getInstance().watch(resolvedPath, this::fileChanged);
+            } catch (IOException e) {
+                ROOT_LOGGER.unableToWatchFile(resolvedPath.getPath(), e);
+            }
+        }
     }
 
     private Provider resolveProvider() throws StartException {
@@ -190,6 +211,43 @@ class KeyStoreService implements ModifiableKeyStoreService {
         }
     }
 
+    /**
+     * Reload the {@link KeyStore} after the file has changed, called from the {@link FileWatcher} thread.
+     * <p>
+     * The new content is parsed before {@link AtomicLoadKeyStore} swaps it in so users of the {@link KeyStore} continue
+     * to use the previous content until the load is complete.
+     * </p>
+     */
+    private synchronized void fileChanged() {
+        final AtomicLoadKeyStore keyStore = this.keyStore;
+        final ModifyTrackingKeyStore trackingKeyStore = this.trackingKeyStore;
+        final File resolvedPath = this.resolvedPath;
+        if (keyStore == null || trackingKeyStore == null || resolvedPath == null || ! resolvedPath.exists()) {
+            // Stopped
+            return;
+        }
+        try {
+            // Parse exactly the content which was hashed
+            final byte[] content = Files.readAllBytes(resolvedPath.toPath());
+            final byte[] hash = hash(content);
+            if (Arrays.equals(hash, fileHash)) {
+                // Written by this service or unchanged
+                return;
+            }
+            if (trackingKeyStore.isModified()) {
+                ROOT_LOGGER.keyStoreModifiedNotReloaded(resolvedPath.getPath());
+                return;
+            }
+            keyStore.load(new ByteArrayInputStream(content), resolvePassword());
+            checkCertificatesValidity(keyStore);
+            fileHash = hash;
+            synched = System.currentTimeMillis();
+            ROOT_LOGGER.fileReloaded(resolvedPath.getPath());
+        } catch (Exception e) {
+            ROOT_LOGGER.unableToReloadFile(resolvedPath.getPath(), e);
+        }
+    }
+
     private void checkCertificatesValidity(KeyStore keyStore) throws KeyStoreException {
         if (ROOT_LOGGER.isEnabled(Logger.Level.WARN)) {
             Enumeration<String> aliases = keyStore.aliases();
@@ -209,6 +267,14 @@ class KeyStoreService implements ModifiableKeyStoreService {
 
     @Override
     public void stop(StopContext stopContext) {
+        if (watchRegistration != null) {
+            try {
+                watchRegistration.close();
+            } catch (IOException e) {
+                ROOT_LOGGER.trace("Unable to stop watching the KeyStore file", e);
+            }
+            watchRegistration = null;
+        }
         ROOT_LOGGER.tracef(
                 "stopping:  keyStore = %s  unmodifiableKeyStore = %s  trackingKeyStore = %s  pathResolver = %s",
                 keyStore, unmodifiableKeyStore, trackingKeyStore, pathResolver
@@ -251,10 +317,12 @@ class KeyStoreService implements ModifiableKeyStoreService {
         return synched;
     }
 
-    LoadKey load() throws OperationFailedException {
+    synchronized LoadKey load() throws OperationFailedException {
         try {
             ROOT_LOGGER.tracef("reloading KeyStore from file [%s]", resolvedPath);
+            byte[] hash = fileHash(resolvedPath);
             AtomicLoadKeyStore.LoadKey loadKey = load(keyStore);
+            fileHash = hash;
             long originalSynced = synched;
             synched = System.currentTimeMillis();
             boolean originalModified = trackingKeyStore.isModified();
@@ -265,20 +333,23 @@ class KeyStoreService implements ModifiableKeyStoreService {
         }
     }
 
-    void revertLoad(final LoadKey loadKey) {
+    synchronized void revertLoad(final LoadKey loadKey) {
         ROOT_LOGGER.trace("reverting load of KeyStore");
         keyStore.revert(loadKey.loadKey);
         synched = loadKey.modifiedTime;
         trackingKeyStore.setModified(loadKey.modified);
     }
 
-    void save() throws OperationFailedException {
+    synchronized void save() throws OperationFailedException {
         if (resolvedPath == null) {
             throw ROOT_LOGGER.cantSaveWithoutFile(path);
         }
         ROOT_LOGGER.tracef("saving KeyStore to the file [%s]", resolvedPath);
-        try (FileOutputStream fos = new FileOutputStream(resolvedPath)) {
-            keyStore.store(fos, resolvePassword());
+        try {
+            try (FileOutputStream fos = new FileOutputStream(resolvedPath)) {
+                keyStore.store(fos, resolvePassword());
+            }
+            fileHash = fileHash(resolvedPath);
             synched = System.currentTimeMillis();
             trackingKeyStore.setModified(false);
         } catch (Exception e) {
@@ -326,6 +397,18 @@ class KeyStoreService implements ModifiableKeyStoreService {
         return pathResolver.resolve();
     }
 
+    private static byte[] fileHash(File file) throws IOException {
+        return file != null && file.exists() ? hash(Files.readAllBytes(file.toPath())) : null;
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     static class LoadKey {
         private final AtomicLoadKeyStore.LoadKey loadKey;
         private final long modifiedTime;
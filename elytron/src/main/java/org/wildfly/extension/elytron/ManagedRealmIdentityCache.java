@@ -0,0 +1,363 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import org.wildfly.security.auth.server.RealmIdentity;
+import org.wildfly.security.auth.server.RealmUnavailableException;
+import org.wildfly.security.auth.server.SecurityRealm;
+import org.wildfly.security.cache.RealmIdentityCache;
+
+/**
+ * A least recently used {@link RealmIdentityCache} which records statistics about its use.
+ * <p>
+ * Lookups do not lock, each entry records when it was last accessed and once the cache holds more entries than
+ * allowed the least recently accessed entries are evicted in a batch by whichever thread exceeded the limit.
+ * </p>
+ * <p>
+ * In adaptive mode the number of entries the cache holds starts at the minimum and is periodically adjusted within
+ * the configured bounds; it is grown while the hit ratio is low and entries are being evicted, and shrunk while the
+ * heap is under pressure.
+ * </p>
+ * <p>
+ * If refresh-ahead is enabled an entry which is hit once most of its maximum age has passed is reloaded
+ * asynchronously from the realm, so identities in frequent use do not expire from the cache. A reloaded identity only
+ * replaces the entry it was loaded for, so an identity removed from the cache while it is being reloaded stays removed.
+ * </p>
+ */
+class ManagedRealmIdentityCache implements RealmIdentityCache {
+
+    /**
+     * The upper bounds in milliseconds of the load time histogram buckets, the final bucket holds all longer loads.
+     */
+    static final long[] LOAD_TIME_BUCKETS = {1, 5, 10, 50, 100, 500, 1000};
+
+    static final int ADJUSTMENT_INTERVAL = 1000;
+    private static final double TARGET_HIT_RATIO = 0.9;
+    private static final double LOW_HEAP_USAGE = 0.7;
+    private static final double HIGH_HEAP_USAGE = 0.85;
+    private static final double REFRESH_AHEAD_FACTOR = 0.75;
+    // The fraction of the limit evicted beyond the excess, so the cost of an eviction pass is spread over several puts
+    private static final int EVICTION_BATCH_DIVISOR = 16;
+
+    private final int minimumEntries;
+    private final int maximumEntries;
+    private final long maximumAge;
+    private final boolean adaptive;
+    private final LongSupplier clock;
+    private final DoubleSupplier heapUsage;
+    private final Map<Principal, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+    private final ThreadLocal<Entry> refreshingEntry = new ThreadLocal<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder[] loadTimes = new LongAdder[LOAD_TIME_BUCKETS.length + 1];
+    private final AtomicInteger windowLookups = new AtomicInteger();
+    private final LongAdder windowHits = new LongAdder();
+    private final LongAdder windowEvictions = new LongAdder();
+
+    private volatile int currentMaximumEntries;
+    private volatile SecurityRealm refreshRealm;
+    private volatile Executor refreshExecutor;
+
+    /**
+     * Create a new cache.
+     *
+     * @param minimumEntries the minimum number of entries held in adaptive mode
+     * @param maximumEntries the maximum number of entries held
+     * @param maximumAge the time in milliseconds an entry may stay in the cache, {@code -1} if entries do not expire
+     * @param adaptive whether the number of entries held should be adjusted at runtime
+     */
+    ManagedRealmIdentityCache(final int minimumEntries, final int maximumEntries, final long maximumAge, final boolean adaptive) {
+        this(minimumEntries, maximumEntries, maximumAge, adaptive, System::currentTimeMillis, heapUsage(ManagementFactory.getMemoryMXBean()));
+    }
+
+    /**
+     * Create a new cache using the given clock and measure of heap usage.
+     *
+     * @param minimumEntries the minimum number of entries held in adaptive mode
+     * @param maximumEntries the maximum number of entries held
+     * @param maximumAge the time in milliseconds an entry may stay in the cache, {@code -1} if entries do not expire
+     * @param adaptive whether the number of entries held should be adjusted at runtime
+     * @param clock the source of the current time in milliseconds
+     * @param heapUsage the source of the fraction of the heap in use
+     */
+    ManagedRealmIdentityCache(final int minimumEntries, final int maximumEntries, final long maximumAge, final boolean adaptive,
+                              final LongSupplier clock, final DoubleSupplier heapUsage) {
+        this.minimumEntries = Math.min(minimumEntries, maximumEntries);
+        this.maximumEntries = maximumEntries;
+        this.maximumAge = maximumAge;
+        this.adaptive = adaptive;
+        this.clock = clock;
+        this.heapUsage = heapUsage;
+        this.currentMaximumEntries = adaptive ? this.minimumEntries : maximumEntries;
+        for (int i = 0; i < loadTimes.length; i++) {
+            loadTimes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Enable refresh-ahead of entries, refreshing only takes place if entries have a maximum age.
+     *
+     * @param realm the caching realm used to reload the identities
+     * @param executor the executor to reload the identities with
+     */
+    void enableRefreshAhead(final SecurityRealm realm, final Executor executor) {
+        this.refreshRealm = realm;
+        this.refreshExecutor = executor;
+    }
+
+    @Override
+    public void put(Principal principal, RealmIdentity realmIdentity) {
+        final PendingLoad pending = pendingLoad.get();
+        if (pending != null && pending.principal.equals(principal)) {
+            pendingLoad.remove();
+            recordLoadTime(System.nanoTime() - pending.start);
+        }
+        final Entry entry = new Entry(realmIdentity, clock.getAsLong());
+        final Entry refreshing = refreshingEntry.get();
+        if (refreshing != null) {
+            // Only replace the entry being refreshed, it may have been removed or replaced in the meantime
+            entries.replace(principal, refreshing, entry);
+            return;
+        }
+        entries.put(principal, entry);
+        trim();
+    }
+
+    @Override
+    public RealmIdentity get(Principal principal) {
+        if (refreshingEntry.get() != null) {
+            // Reloading the identity, let the realm replace the entry
+            return null;
+        }
+        Entry entry = entries.get(principal);
+        final long now = clock.getAsLong();
+        if (entry != null && maximumAge > 0 && now - entry.created > maximumAge) {
+            if (entries.remove(principal, entry)) {
+                evicted();
+            }
+            entry = null;
+        }
+        boolean refresh = false;
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            hits.increment();
+            windowHits.increment();
+            refresh = refreshRealm != null && maximumAge > 0 && now - entry.created > maximumAge * REFRESH_AHEAD_FACTOR
+                    && entry.refreshing.compareAndSet(false, true);
+        } else {
+            misses.increment();
+        }
+        if (adaptive && windowLookups.incrementAndGet() == ADJUSTMENT_INTERVAL) {
+            adjust();
+        }
+        if (entry == null) {
+            pendingLoad.set(new PendingLoad(principal, System.nanoTime()));
+            return null;
+        }
+        if (refresh) {
+            final Entry refreshed = entry;
+            refreshExecutor.execute(() -> refresh(principal, refreshed));
+        }
+        return entry.identity;
+    }
+
+    @Override
+    public void remove(Principal principal) {
+        entries.remove(principal);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int getCurrentMaximumEntries() {
+        return currentMaximumEntries;
+    }
+
+    /**
+     * Get the number of loads recorded within each bucket of {@link #LOAD_TIME_BUCKETS}.
+     *
+     * @return the load counts, the final element holds the loads longer than all buckets
+     */
+    long[] getLoadTimes() {
+        final long[] result = new long[loadTimes.length];
+        for (int i = 0; i < loadTimes.length; i++) {
+            result[i] = loadTimes[i].sum();
+        }
+        return result;
+    }
+
+    private void recordLoadTime(final long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LOAD_TIME_BUCKETS.length && millis >= LOAD_TIME_BUCKETS[bucket]) {
+            bucket++;
+        }
+        loadTimes[bucket].increment();
+    }
+
+    private void refresh(final Principal principal, final Entry entry) {
+        refreshingEntry.set(entry);
+        try {
+            final RealmIdentity realmIdentity = refreshRealm.getRealmIdentity(principal);
+            if (realmIdentity.exists()) {
+                realmIdentity.getAuthorizationIdentity();
+            } else {
+                entries.remove(principal, entry);
+            }
+        } catch (RealmUnavailableException e) {
+            ROOT_LOGGER.tracef(e, "Unable to refresh the cached identity '%s'", principal);
+            entry.refreshing.set(false);
+        } finally {
+            refreshingEntry.remove();
+        }
+    }
+
+    // Only called by the thread completing an adjustment interval
+    private void adjust() {
+        final long hitCount = windowHits.sumThenReset();
+        final long evictionCount = windowEvictions.sumThenReset();
+        windowLookups.set(0);
+        final double hitRatio = Math.min(1, (double) hitCount / ADJUSTMENT_INTERVAL);
+        final double usage = heapUsage.getAsDouble();
+        final int current = currentMaximumEntries;
+        if (usage > HIGH_HEAP_USAGE) {
+            currentMaximumEntries = Math.max(minimumEntries, current - Math.max(1, current / 4));
+        } else if (hitRatio < TARGET_HIT_RATIO && evictionCount > 0 && usage < LOW_HEAP_USAGE) {
+            currentMaximumEntries = Math.min(maximumEntries, current + Math.max(1, current / 2));
+        }
+        trim();
+    }
+
+    private void trim() {
+        if (entries.size() <= currentMaximumEntries || !evictionLock.tryLock()) {
+            // Within the limit or another thread is already evicting
+            return;
+        }
+        try {
+            final int limit = currentMaximumEntries;
+            final List<EvictionCandidate> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<Principal, Entry> entry : entries.entrySet()) {
+                candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+            }
+            if (candidates.size() <= limit) {
+                return;
+            }
+            int excess = candidates.size() - limit + limit / EVICTION_BATCH_DIVISOR;
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+            for (int i = 0; i < candidates.size() && excess > 0; i++) {
+                final EvictionCandidate candidate = candidates.get(i);
+                if (entries.remove(candidate.principal, candidate.entry)) {
+                    evicted();
+                    excess--;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evicted() {
+        evictions.increment();
+        windowEvictions.increment();
+    }
+
+    private static DoubleSupplier heapUsage(final MemoryMXBean memoryMXBean) {
+        return () -> {
+            final MemoryUsage usage = memoryMXBean.getHeapMemoryUsage();
+            final long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+            return max > 0 ? (double) usage.getUsed() / max : 0;
+        };
+    }
+
+    private static final class Entry {
+        private final RealmIdentity identity;
+        private final long created;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(final RealmIdentity identity, final long created) {
+            this.identity = identity;
+            this.created = created;
+        }
+    }
+
+    private static final class EvictionCandidate {
+        private final Principal principal;
+        private final Entry entry;
+        // Captured up front so the order can not change while sorting
+        private final long lastAccess;
+
+        EvictionCandidate(final Principal principal, final Entry entry) {
+            this.principal = principal;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+
+    private static final class PendingLoad {
+        private final Principal principal;
+        private final long start;
+
+        PendingLoad(final Principal principal, final long start) {
+            this.principal = principal;
+            this.start = start;
+        }
+    }
+}
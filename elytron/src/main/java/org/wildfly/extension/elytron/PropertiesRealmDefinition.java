@@ -25,6 +25,7 @@ import static org.wildfly.extension.elytron.FileAttributeDefinitions.RELATIVE_TO
 import static org.wildfly.extension.elytron.FileAttributeDefinitions.pathName;
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -112,11 +113,17 @@ class PropertiesRealmDefinition {
         .setRestartAllServices()
         .build();
 
+    static final SimpleAttributeDefinition WATCH = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.WATCH, ModelType.BOOLEAN, true)
+        .setDefaultValue(new ModelNode(false))
+        .setAllowExpression(true)
+        .setRestartAllServices()
+        .build();
+
     private static final SimpleAttributeDefinition SYNCHRONIZED = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SYNCHRONIZED, ModelType.STRING)
         .setStorageRuntime()
         .build();
 
-    static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { USERS_PROPERTIES, GROUPS_PROPERTIES, GROUPS_ATTRIBUTE };
+    static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { USERS_PROPERTIES, GROUPS_PROPERTIES, GROUPS_ATTRIBUTE, WATCH };
 
     // Resource Resolver
 
@@ -141,6 +148,7 @@ class PropertiesRealmDefinition {
             final boolean plainText;
             final String digestRealmName;
             final String groupsAttribute = GROUPS_ATTRIBUTE.resolveModelAttribute(context, model).asString();
+            final boolean watch = WATCH.resolveModelAttribute(context, model).asBoolean();
 
             ModelNode usersProperties = USERS_PROPERTIES.resolveModelAttribute(context, model);
             usersPath = PATH.resolveModelAttribute(context, usersProperties).asStringOrNull();
@@ -172,6 +180,7 @@ class PropertiesRealmDefinition {
             return new ValueSupplier<SecurityRealm>() {
 
                 private final List<Handle> callbackHandles = new ArrayList<>();
+                private final List<Closeable> watchRegistrations = new ArrayList<>();
 
                 @Override
                 public SecurityRealm get() throws StartException {
@@ -180,13 +189,21 @@ class PropertiesRealmDefinition {
 
                     try (InputStream usersInputStream = new FileInputStream(usersFile);
                             InputStream groupsInputStream = groupsFile != null ? new FileInputStream(groupsFile) : null) {
-                        return new RealmWrapper(LegacyPropertiesSecurityRealm.builder()
+                        RealmWrapper realmWrapper = new RealmWrapper(LegacyPropertiesSecurityRealm.builder()
                                 .setUsersStream(usersInputStream)
                                 .setGroupsStream(groupsInputStream)
                                 .setPlainText(plainText)
                                 .setGroupsAttribute(groupsAttribute)
                                 .setDefaultRealm(digestRealmName)
                                 .build(), usersFile, groupsFile);
+                        if (watch) {
+                            watch(usersFile, realmWrapper);
+                            if (groupsFile != null) {
+                                watch(groupsFile, realmWrapper);
+                            }
+                        }
+
+                        return realmWrapper;
 
                     } catch (FileNotFoundException e) {
                         throw ROOT_LOGGER.propertyFilesDoesNotExist(e.getMessage());
@@ -199,11 +216,35 @@ class PropertiesRealmDefinition {
 
                 @Override
                 public void dispose() {
+                    for (Closeable c : watchRegistrations) {
+                        try {
+                            c.close();
+                        } catch (IOException e) {
+                            ROOT_LOGGER.trace("Unable to stop watching properties file", e);
+                        }
+                    }
+                    watchRegistrations.clear();
                     for (Handle h : callbackHandles) {
                         h.remove();
                     }
                 }
 
+                private void watch(File file, RealmWrapper realmWrapper) {
+                    try {
+                        watchRegistrations.add(FileWatcher.getInstance().watch(file, () -> {
+                            try {
+                                // The realm only swaps in the new identities once both files have been parsed.
+                                realmWrapper.reload();
+                                ROOT_LOGGER.fileReloaded(file.getPath());
+                            } catch (OperationFailedException e) {
+                                ROOT_LOGGER.unableToReloadFile(file.getPath(), e);
+                            }
+                        }));
+                    } catch (IOException e) {
+                        ROOT_LOGGER.unableToWatchFile(file.getPath(), e);
+                    }
+                }
+
                 private File resolveFileLocation(String path, String relativeTo) {
                     final File resolvedPath;
                     if (relativeTo != null) {
@@ -342,7 +383,7 @@ class PropertiesRealmDefinition {
             return delegate.getLoadTime();
         }
 
-        void reload() throws OperationFailedException {
+        synchronized void reload() throws OperationFailedException {
             try (InputStream usersInputStream = new FileInputStream(usersFile);
                     InputStream groupsInputStream = groupsFile != null ? new FileInputStream(groupsFile) : null) {
                 delegate.load(usersInputStream, groupsInputStream);
@@ -65,6 +65,11 @@ class RealmParser {
             .addAttribute(PropertiesRealmDefinition.USERS_PROPERTIES, AttributeParser.OBJECT_PARSER, AttributeMarshaller.ATTRIBUTE_OBJECT)
             .addAttribute(PropertiesRealmDefinition.GROUPS_PROPERTIES, AttributeParser.OBJECT_PARSER, AttributeMarshaller.ATTRIBUTE_OBJECT)
             .build();
+    private final PersistentResourceXMLDescription propertiesRealmParser_7_0 = builder(PathElement.pathElement(ElytronDescriptionConstants.PROPERTIES_REALM), null)
+            .addAttributes(PropertiesRealmDefinition.GROUPS_ATTRIBUTE, PropertiesRealmDefinition.WATCH)
+            .addAttribute(PropertiesRealmDefinition.USERS_PROPERTIES, AttributeParser.OBJECT_PARSER, AttributeMarshaller.ATTRIBUTE_OBJECT)
+            .addAttribute(PropertiesRealmDefinition.GROUPS_PROPERTIES, AttributeParser.OBJECT_PARSER, AttributeMarshaller.ATTRIBUTE_OBJECT)
+            .build();
     private final PersistentResourceXMLDescription ldapRealmParser = builder(PathElement.pathElement(ElytronDescriptionConstants.LDAP_REALM), null)
             .addAttributes(LdapRealmDefinition.ATTRIBUTES)
             .build();
@@ -72,12 +77,19 @@ class RealmParser {
             .addAttributes(FileSystemRealmDefinition.ATTRIBUTES)
             .setMarshallDefaultValues(true)
             .build();
+    private final PersistentResourceXMLDescription fileSystemRealmDescription_7_0 = builder(PathElement.pathElement(ElytronDescriptionConstants.FILESYSTEM_REALM), null)
+            .addAttributes(FileSystemRealmDefinition.ATTRIBUTES_7_0)
+            .setMarshallDefaultValues(true)
+            .build();
     private final PersistentResourceXMLDescription tokenRealmParser = builder(PathElement.pathElement(ElytronDescriptionConstants.TOKEN_REALM), null)
             .addAttributes(TokenRealmDefinition.ATTRIBUTES)
             .build();
     private final PersistentResourceXMLDescription cachingRealmParser = builder(PathElement.pathElement(ElytronDescriptionConstants.CACHING_REALM), null)
             .addAttributes(CachingRealmDefinition.ATTRIBUTES)
             .build();
+    private final PersistentResourceXMLDescription cachingRealmParser_7_0 = builder(PathElement.pathElement(ElytronDescriptionConstants.CACHING_REALM), null)
+            .addAttributes(CachingRealmDefinition.ATTRIBUTES_7_0)
+            .build();
 
     final PersistentResourceXMLDescription realmParser = decorator(ElytronDescriptionConstants.SECURITY_REALMS)
             .addChild(aggregateRealmParser)
@@ -100,11 +112,11 @@ class RealmParser {
             .addChild(identityRealmParser)
             .addChild(jdbcRealmParser_7_0)
             .addChild(keyStoreRealmParser)
-            .addChild(propertiesRealmParser)
+            .addChild(propertiesRealmParser_7_0)
             .addChild(ldapRealmParser)
-            .addChild(fileSystemRealmDescription)
+            .addChild(fileSystemRealmDescription_7_0)
             .addChild(tokenRealmParser)
-            .addChild(cachingRealmParser)
+            .addChild(cachingRealmParser_7_0)
             .build();
 
     RealmParser() {
@@ -84,6 +84,18 @@ class TlsParser {
             .addAttribute(FileAttributeDefinitions.RELATIVE_TO)
             .addAttribute(CredentialReference.getAttributeDefinition());
 
+    private PersistentResourceXMLBuilder keyStoreParser_7_0 = PersistentResourceXMLDescription.builder(PathElement.pathElement(KEY_STORE))
+            .addAttribute(KeyStoreDefinition.TYPE)
+            .addAttribute(KeyStoreDefinition.PROVIDER_NAME)
+            .addAttribute(KeyStoreDefinition.PROVIDERS)
+            .addAttribute(KeyStoreDefinition.CREDENTIAL_REFERENCE)
+            .addAttribute(KeyStoreDefinition.ALIAS_FILTER)
+            .addAttribute(KeyStoreDefinition.REQUIRED)
+            .addAttribute(KeyStoreDefinition.WATCH) // new
+            .addAttribute(FileAttributeDefinitions.PATH)
+            .addAttribute(FileAttributeDefinitions.RELATIVE_TO)
+            .addAttribute(CredentialReference.getAttributeDefinition());
+
     private PersistentResourceXMLBuilder ldapKeyStoreParser = PersistentResourceXMLDescription.builder(PathElement.pathElement(LDAP_KEY_STORE))
             .addAttribute(LdapKeyStoreDefinition.DIR_CONTEXT)
             .addAttribute(LdapKeyStoreDefinition.SEARCH_PATH)
@@ -227,4 +239,18 @@ class TlsParser {
             .addChild(serverSslSniContextParser) // new
             .build();
 
+    final PersistentResourceXMLDescription tlsParser_7_0 = decorator(TLS)
+            .addChild(decorator(KEY_STORES)
+                .addChild(keyStoreParser_7_0) // new
+                .addChild(ldapKeyStoreParser)
+                .addChild(filteringKeyStoreParser)
+            )
+            .addChild(keyManagerParser)
+            .addChild(trustManagerParser)
+            .addChild(serverSslContextParser)
+            .addChild(clientSslContextParser)
+            .addChild(certificateAuthorityAccountParser)
+            .addChild(serverSslSniContextParser)
+            .build();
+
 }
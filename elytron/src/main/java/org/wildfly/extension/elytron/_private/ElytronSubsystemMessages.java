@@ -18,10 +18,12 @@
 
 package org.wildfly.extension.elytron._private;
 
+import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.security.KeyStore;
 import java.security.NoSuchProviderException;
 import java.security.Policy;
@@ -42,6 +44,7 @@ import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController.State;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartException;
+import org.wildfly.security.auth.server.RealmUnavailableException;
 import org.wildfly.security.auth.server.SecurityRealm;
 import org.wildfly.security.x500.cert.acme.AcmeException;
 
@@ -559,4 +562,30 @@ public interface ElytronSubsystemMessages extends BasicLogger {
 
     @Message(id = 1061, value = "Value of host context map '%s' is not a valid hostname.")
     OperationFailedException invalidHostContextMapValue(String hostname);
+
+    @LogMessage(level = INFO)
+    @Message(id = 1062, value = "Building the identity index for the filesystem realm at '%s'")
+    void buildingIdentityIndex(Path root);
+
+    @Message(id = 1063, value = "Unable to load the identity index for the filesystem realm at '%s'")
+    StartException unableToLoadIdentityIndex(Path root, @Cause Exception cause);
+
+    @Message(id = 1064, value = "Unable to update the identity index '%s'")
+    RealmUnavailableException unableToUpdateIdentityIndex(Path indexFile, @Cause Throwable cause);
+
+    @LogMessage(level = INFO)
+    @Message(id = 1065, value = "Reloaded '%s' following a change to the file")
+    void fileReloaded(String file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 1066, value = "Unable to reload '%s' following a change to the file")
+    void unableToReloadFile(String file, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 1067, value = "The KeyStore loaded from '%s' has modifications which have not been stored, the change to the file has not been loaded")
+    void keyStoreModifiedNotReloaded(String file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 1068, value = "Unable to watch '%s' for changes")
+    void unableToWatchFile(String file, @Cause Throwable cause);
 }
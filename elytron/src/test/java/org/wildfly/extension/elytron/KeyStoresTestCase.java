@@ -29,6 +29,7 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.InputStream;
 import java.math.BigInteger;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
@@ -1204,6 +1205,69 @@ public class KeyStoresTestCase extends AbstractSubsystemTest {
         }
     }
 
+    @Test
+    public void testWatchedKeyStoreReloaded() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path file = resources.resolve("test-watch.keystore");
+        Files.copy(resources.resolve("test.keystore"), file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","WatchedKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(file.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.WATCH).set(true);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+        try {
+            KeyStore keyStore = getKeyStore("WatchedKeyStore");
+            assertTrue(keyStore.containsAlias("ssmith"));
+
+            // Changes are detected from the content, a rewrite within the granularity of the modification time is not missed
+            writeKeyStoreWithAlias(file, "added");
+            waitForAlias(keyStore, "added");
+
+            // A file which can not be parsed keeps the previous content
+            Files.write(file, "not a key store".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(2000);
+            assertTrue(keyStore.containsAlias("added"));
+            writeKeyStoreWithAlias(file, "added-again");
+            waitForAlias(keyStore, "added-again");
+
+            // A key store with unsaved modifications is not reloaded
+            operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","WatchedKeyStore");
+            operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.REMOVE_ALIAS);
+            operation.get(ElytronDescriptionConstants.ALIAS).set("ca");
+            assertSuccess(services.executeOperation(operation));
+            writeKeyStoreWithAlias(file, "not-loaded");
+            Thread.sleep(2000);
+            assertFalse(keyStore.containsAlias("not-loaded"));
+            assertFalse(keyStore.containsAlias("ca"));
+        } finally {
+            removeKeyStore("WatchedKeyStore");
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeKeyStoreWithAlias(Path file, String alias) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream is = Files.newInputStream(file.resolveSibling("test.keystore"))) {
+            keyStore.load(is, KEYSTORE_PASSWORD);
+        }
+        keyStore.setCertificateEntry(alias, keyStore.getCertificate("ca"));
+        try (FileOutputStream fos = new FileOutputStream(file.toFile())) {
+            keyStore.store(fos, KEYSTORE_PASSWORD);
+        }
+    }
+
+    private static void waitForAlias(KeyStore keyStore, String alias) throws Exception {
+        long end = System.currentTimeMillis() + 10000;
+        while (! keyStore.containsAlias(alias) && System.currentTimeMillis() < end) {
+            Thread.sleep(100);
+        }
+        assertTrue(keyStore.containsAlias(alias));
+    }
+
     private void addCertificate(KeyStore keyStore, String alias, ZonedDateTime notValidBefore, ZonedDateTime notValidAfter) throws Exception {
         SelfSignedX509CertificateAndSigningKey issuerCertificateAndSigningKey = SelfSignedX509CertificateAndSigningKey.builder()
                 .setDn(ROOT_DN)
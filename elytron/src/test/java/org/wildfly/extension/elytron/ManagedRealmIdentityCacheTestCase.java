@@ -0,0 +1,293 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.security.auth.SupportLevel;
+import org.wildfly.security.auth.principal.NamePrincipal;
+import org.wildfly.security.auth.server.RealmIdentity;
+import org.wildfly.security.auth.server.RealmUnavailableException;
+import org.wildfly.security.auth.server.SecurityRealm;
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.evidence.Evidence;
+
+/**
+ * Tests the adaptive sizing and refresh-ahead of the {@link ManagedRealmIdentityCache}.
+ */
+public class ManagedRealmIdentityCacheTestCase {
+
+    private static final Principal ALICE = new NamePrincipal("alice");
+
+    private final AtomicLong clock = new AtomicLong();
+    private volatile double heapUsage = 0.5;
+
+    private final Map<Principal, RealmIdentity> identities = new HashMap<>();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private Runnable duringLoad;
+    private boolean unavailable;
+
+    @Before
+    public void reset() {
+        clock.set(0);
+        heapUsage = 0.5;
+        identities.clear();
+        refreshes.clear();
+        duringLoad = null;
+        unavailable = false;
+    }
+
+    @Test
+    public void testAdaptiveGrowth() {
+        ManagedRealmIdentityCache cache = createCache(10, 100, -1, true);
+        Assert.assertEquals(10, cache.getCurrentMaximumEntries());
+
+        // Every lookup misses and evicts, so the limit grows each interval
+        int next = lookupDistinct(cache, 0, ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL);
+        Assert.assertEquals(15, cache.getCurrentMaximumEntries());
+        Assert.assertTrue(cache.size() <= 15);
+
+        for (int i = 0; i < 10; i++) {
+            next = lookupDistinct(cache, next, ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL);
+        }
+        Assert.assertEquals(100, cache.getCurrentMaximumEntries());
+
+        // No growth while the heap is well used
+        ManagedRealmIdentityCache bounded = createCache(10, 100, -1, true);
+        heapUsage = 0.8;
+        lookupDistinct(bounded, 0, ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL);
+        Assert.assertEquals(10, bounded.getCurrentMaximumEntries());
+    }
+
+    @Test
+    public void testNoGrowthAtHighHitRatio() {
+        ManagedRealmIdentityCache cache = createCache(10, 100, -1, true);
+        for (int i = 0; i < 10; i++) {
+            cache.put(new NamePrincipal("user" + i), identity());
+        }
+        for (int i = 0; i < ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL; i++) {
+            Assert.assertNotNull(cache.get(new NamePrincipal("user" + i % 10)));
+        }
+        Assert.assertEquals(10, cache.getCurrentMaximumEntries());
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testAdaptiveShrink() {
+        ManagedRealmIdentityCache cache = createCache(10, 100, -1, true);
+        int next = 0;
+        while (cache.getCurrentMaximumEntries() < 100) {
+            next = lookupDistinct(cache, next, ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+
+        heapUsage = 0.9;
+        next = lookupDistinct(cache, next, ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL);
+        Assert.assertEquals(75, cache.getCurrentMaximumEntries());
+        Assert.assertTrue(cache.size() <= 75);
+
+        for (int i = 0; i < 20; i++) {
+            next = lookupDistinct(cache, next, ManagedRealmIdentityCache.ADJUSTMENT_INTERVAL);
+        }
+        Assert.assertEquals(10, cache.getCurrentMaximumEntries());
+        Assert.assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        ManagedRealmIdentityCache cache = createCache(3, 3, -1, false);
+        Principal first = new NamePrincipal("first");
+        cache.put(first, identity());
+        cache.put(new NamePrincipal("second"), identity());
+        cache.put(new NamePrincipal("third"), identity());
+        Assert.assertNotNull(cache.get(first));
+
+        cache.put(new NamePrincipal("fourth"), identity());
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNotNull(cache.get(first));
+        Assert.assertNull(cache.get(new NamePrincipal("second")));
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        ManagedRealmIdentityCache cache = createCache(10, 10, 1000, false);
+        cache.enableRefreshAhead(createRealm(cache), refreshes::add);
+        RealmIdentity original = identity();
+        cache.put(ALICE, original);
+
+        clock.set(500);
+        Assert.assertSame(original, cache.get(ALICE));
+        Assert.assertTrue("Refreshed before most of the maximum age passed", refreshes.isEmpty());
+
+        clock.set(800);
+        Assert.assertSame(original, cache.get(ALICE));
+        Assert.assertSame(original, cache.get(ALICE));
+        Assert.assertEquals("Only one refresh is scheduled per entry", 1, refreshes.size());
+
+        RealmIdentity updated = identity();
+        identities.put(ALICE, updated);
+        runRefreshes();
+        Assert.assertSame(updated, cache.get(ALICE));
+
+        // The refreshed entry expires relative to the time it was reloaded
+        clock.set(1700);
+        Assert.assertSame(updated, cache.get(ALICE));
+        Assert.assertEquals(1, refreshes.size());
+        refreshes.clear();
+    }
+
+    @Test
+    public void testRefreshAheadOfRemovedIdentity() throws Exception {
+        ManagedRealmIdentityCache cache = createCache(10, 10, 1000, false);
+        cache.enableRefreshAhead(createRealm(cache), refreshes::add);
+        cache.put(ALICE, identity());
+
+        clock.set(800);
+        Assert.assertNotNull(cache.get(ALICE));
+        Assert.assertEquals(1, refreshes.size());
+        runRefreshes();
+        Assert.assertNull("The identity no longer in the realm is still cached", cache.get(ALICE));
+    }
+
+    @Test
+    public void testIdentityRemovedDuringRefresh() throws Exception {
+        ManagedRealmIdentityCache cache = createCache(10, 10, 1000, false);
+        cache.enableRefreshAhead(createRealm(cache), refreshes::add);
+        RealmIdentity original = identity();
+        cache.put(ALICE, original);
+        identities.put(ALICE, original);
+
+        clock.set(800);
+        Assert.assertSame(original, cache.get(ALICE));
+        Assert.assertEquals(1, refreshes.size());
+
+        // The identity is removed from the realm, and so from the cache, after the refresh has read it
+        duringLoad = () -> {
+            identities.remove(ALICE);
+            cache.remove(ALICE);
+        };
+        runRefreshes();
+        Assert.assertNull("The refresh restored a removed identity", cache.get(ALICE));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testFailedRefreshRetried() throws Exception {
+        ManagedRealmIdentityCache cache = createCache(10, 10, 1000, false);
+        cache.enableRefreshAhead(createRealm(cache), refreshes::add);
+        RealmIdentity original = identity();
+        cache.put(ALICE, original);
+        identities.put(ALICE, original);
+
+        clock.set(800);
+        Assert.assertSame(original, cache.get(ALICE));
+        unavailable = true;
+        runRefreshes();
+        Assert.assertSame(original, cache.get(ALICE));
+        Assert.assertEquals("The failed refresh is not retried", 1, refreshes.size());
+
+        unavailable = false;
+        RealmIdentity updated = identity();
+        identities.put(ALICE, updated);
+        runRefreshes();
+        Assert.assertSame(updated, cache.get(ALICE));
+    }
+
+    private ManagedRealmIdentityCache createCache(int minimumEntries, int maximumEntries, long maximumAge, boolean adaptive) {
+        return new ManagedRealmIdentityCache(minimumEntries, maximumEntries, maximumAge, adaptive, clock::get, () -> heapUsage);
+    }
+
+    private static int lookupDistinct(ManagedRealmIdentityCache cache, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            Principal principal = new NamePrincipal("user" + i);
+            if (cache.get(principal) == null) {
+                cache.put(principal, identity());
+            }
+        }
+        return first + count;
+    }
+
+    private void runRefreshes() {
+        List<Runnable> pending = new ArrayList<>(refreshes);
+        refreshes.clear();
+        for (Runnable refresh : pending) {
+            refresh.run();
+        }
+    }
+
+    private static RealmIdentity identity() {
+        RealmIdentity identity = mock(RealmIdentity.class);
+        try {
+            when(identity.exists()).thenReturn(true);
+        } catch (RealmUnavailableException e) {
+            throw new IllegalStateException(e);
+        }
+        return identity;
+    }
+
+    /**
+     * Create a realm which loads identities through the cache the way the caching realm does.
+     */
+    private SecurityRealm createRealm(ManagedRealmIdentityCache cache) {
+        return new SecurityRealm() {
+
+            @Override
+            public RealmIdentity getRealmIdentity(Principal principal) throws RealmUnavailableException {
+                RealmIdentity cached = cache.get(principal);
+                if (cached != null) {
+                    return cached;
+                }
+                if (unavailable) {
+                    throw new RealmUnavailableException();
+                }
+                RealmIdentity identity = identities.getOrDefault(principal, RealmIdentity.NON_EXISTENT);
+                if (duringLoad != null) {
+                    duringLoad.run();
+                }
+                if (identity.exists()) {
+                    cache.put(principal, identity);
+                }
+                return identity;
+            }
+
+            @Override
+            public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) {
+                return SupportLevel.UNSUPPORTED;
+            }
+
+            @Override
+            public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) {
+                return SupportLevel.UNSUPPORTED;
+            }
+        };
+    }
+}
@@ -17,8 +17,10 @@
  */
 package org.wildfly.extension.elytron;
 
+import org.jboss.as.controller.client.helpers.ClientConstants;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceName;
 import org.junit.Assert;
 import org.junit.Test;
@@ -37,8 +39,13 @@ import org.wildfly.security.password.spec.ClearPasswordSpec;
 import org.wildfly.security.password.spec.OneTimePasswordSpec;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.Principal;
 import java.security.spec.KeySpec;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,6 +55,8 @@ import java.util.List;
  */
 public class RealmsTestCase extends AbstractSubsystemBaseTest {
 
+    private static final String WATCHED_REALM_HEADER = "#$REALM_NAME=WatchedRealm$";
+
     public RealmsTestCase() {
         super(ElytronExtension.SUBSYSTEM_NAME, new ElytronExtension());
     }
@@ -98,6 +107,65 @@ public class RealmsTestCase extends AbstractSubsystemBaseTest {
         identity9.dispose();
     }
 
+    /* Test properties-realm reloading its watched file */
+    @Test
+    public void testWatchedPropertyRealm() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+
+        Path users = Paths.get("target", "watched-users.properties").toAbsolutePath();
+        Files.write(users, Arrays.asList(WATCHED_REALM_HEADER, "user1=password1"), StandardCharsets.UTF_8);
+        try {
+            ModelNode operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add("properties-realm", "WatchedPropertyRealm");
+            operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+            operation.get(ElytronDescriptionConstants.USERS_PROPERTIES).get(ElytronDescriptionConstants.PATH).set(users.toString());
+            operation.get(ElytronDescriptionConstants.USERS_PROPERTIES).get(ElytronDescriptionConstants.PLAIN_TEXT).set(true);
+            operation.get(ElytronDescriptionConstants.WATCH).set(true);
+            ModelNode result = services.executeOperation(operation);
+            Assert.assertEquals(result.toString(), ClientConstants.SUCCESS, result.get(ClientConstants.OUTCOME).asString());
+
+            ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("WatchedPropertyRealm");
+            SecurityRealm securityRealm = (SecurityRealm) services.getContainer().getService(serviceName).getValue();
+            Assert.assertTrue(identityExists(securityRealm, "user1"));
+            Assert.assertFalse(identityExists(securityRealm, "user2"));
+
+            Files.write(users, Arrays.asList(WATCHED_REALM_HEADER, "user1=password1", "user2=password2"), StandardCharsets.UTF_8);
+            waitForIdentity(securityRealm, "user2");
+
+            // A file which can not be parsed keeps the previous identities
+            Files.write(users, Arrays.asList(WATCHED_REALM_HEADER, "user1=password1", "user3=\\uZZZZ"), StandardCharsets.UTF_8);
+            Thread.sleep(2000);
+            Assert.assertTrue(identityExists(securityRealm, "user2"));
+            Assert.assertFalse(identityExists(securityRealm, "user3"));
+
+            Files.write(users, Arrays.asList(WATCHED_REALM_HEADER, "user1=password1", "user4=password4"), StandardCharsets.UTF_8);
+            waitForIdentity(securityRealm, "user4");
+            Assert.assertFalse(identityExists(securityRealm, "user2"));
+        } finally {
+            Files.deleteIfExists(users);
+        }
+    }
+
+    private static boolean identityExists(SecurityRealm securityRealm, String name) throws Exception {
+        RealmIdentity identity = securityRealm.getRealmIdentity(fromName(name));
+        try {
+            return identity.exists();
+        } finally {
+            identity.dispose();
+        }
+    }
+
+    private static void waitForIdentity(SecurityRealm securityRealm, String name) throws Exception {
+        long end = System.currentTimeMillis() + 10000;
+        while (! identityExists(securityRealm, name) && System.currentTimeMillis() < end) {
+            Thread.sleep(100);
+        }
+        Assert.assertTrue(identityExists(securityRealm, name));
+    }
+
     /* Test filesystem-realm with existing filesystem from resources, without relative-to */
     @Test
     public void testFilesystemRealm() throws Exception {
@@ -117,6 +185,96 @@ public class RealmsTestCase extends AbstractSubsystemBaseTest {
         testModifiability(securityRealm);
     }
 
+    /* Test filesystem-realm with the identity index and identities held in memory */
+    @Test
+    public void testIndexedFilesystemRealm() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+
+        ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("IndexedFilesystemRealm");
+        IndexedFileSystemRealm securityRealm = (IndexedFileSystemRealm) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(securityRealm);
+        Assert.assertEquals(3, securityRealm.getIdentityCount());
+
+        RealmIdentity identity1 = securityRealm.getRealmIdentity(fromName("firstUser"));
+        Assert.assertTrue(identity1.exists());
+        identity1.dispose();
+        Assert.assertEquals(0, securityRealm.getCacheHitCount());
+        Assert.assertTrue(securityRealm.getCacheMissCount() > 0);
+
+        identity1 = securityRealm.getRealmIdentity(fromName("firstUser"));
+        Assert.assertTrue(identity1.exists());
+        identity1.dispose();
+        Assert.assertTrue(securityRealm.getCacheHitCount() > 0);
+
+        testModifiability(securityRealm);
+        Assert.assertEquals(3, securityRealm.getIdentityCount());
+    }
+
+    /* Test filesystem-realm rebuilding an index which does not match the identities stored in the realm */
+    @Test
+    public void testIndexedFilesystemRealmRebuildsStaleIndex() throws Exception {
+        Path root = Paths.get(RealmsTestCase.class.getResource("filesystem-realm").toURI());
+        Path added = root.resolve("a").resolve("d").resolve("addedUser.xml");
+        // Boot once so the index is present
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+        services.shutdown();
+        Assert.assertTrue(Files.exists(root.resolve(FileSystemRealmIndex.INDEX_FILE_NAME)));
+        try {
+            // Add an identity without going through the index
+            Files.createDirectories(added.getParent());
+            Files.copy(root.resolve("f").resolve("i").resolve("firstUser.xml"), added);
+
+            services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+            if (!services.isSuccessfulBoot()) {
+                Assert.fail(services.getBootError().toString());
+            }
+            ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("IndexedFilesystemRealm");
+            IndexedFileSystemRealm securityRealm = (IndexedFileSystemRealm) services.getContainer().getService(serviceName).getValue();
+            Assert.assertEquals(4, securityRealm.getIdentityCount());
+            Assert.assertTrue(identityExists(securityRealm, "addedUser"));
+        } finally {
+            Files.deleteIfExists(added);
+            Files.deleteIfExists(added.getParent());
+            Files.deleteIfExists(added.getParent().getParent());
+        }
+    }
+
+    /* Test caching-realm statistics */
+    @Test
+    public void testCachingRealmStatistics() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+
+        ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("CachingFilesystemRealm");
+        SecurityRealm securityRealm = (SecurityRealm) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(securityRealm);
+        ManagedRealmIdentityCache cache = ((CachingRealmDefinition.ManagedCachingRealm) securityRealm).getCache();
+
+        for (String name : new String[] {"firstUser", "firstUser", "secondUser", "jsmith@example.redhat.com"}) {
+            RealmIdentity identity = securityRealm.getRealmIdentity(fromName(name));
+            Assert.assertTrue(identity.exists());
+            identity.dispose();
+        }
+
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        long loads = 0;
+        for (long count : cache.getLoadTimes()) {
+            loads += count;
+        }
+        Assert.assertEquals(3, loads);
+    }
+
     @Test
     public void testJwtRealm() throws Exception {
         KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
@@ -121,6 +121,18 @@ public class SubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
                 .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(JDBC_REALM, "JdbcScramHashHex")), REJECTED_RESOURCE)
                 .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(JDBC_REALM, "JdbcScramSaltHex")), REJECTED_RESOURCE)
                 .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(JDBC_REALM, "JdbcModularCrypt")), REJECTED_RESOURCE)
+                .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(ElytronDescriptionConstants.FILESYSTEM_REALM, "IndexedFileSystemRealm")),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(FileSystemRealmDefinition.INDEXED, FileSystemRealmDefinition.MAXIMUM_CACHED_IDENTITIES)
+                )
+                .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(ElytronDescriptionConstants.CACHING_REALM, "AdaptiveCachingRealm")),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(CachingRealmDefinition.ADAPTIVE, CachingRealmDefinition.MINIMUM_ENTRIES, CachingRealmDefinition.REFRESH_AHEAD)
+                )
+                .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(ElytronDescriptionConstants.PROPERTIES_REALM, "WatchedPropertiesRealm")),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(PropertiesRealmDefinition.WATCH)
+                )
+                .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(ElytronDescriptionConstants.KEY_STORE, "watched.keystore")),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(KeyStoreDefinition.WATCH)
+                )
                 .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(ElytronDescriptionConstants.TOKEN_REALM, "SslTokenRealm")),
                         FailedOperationTransformationConfig.REJECTED_RESOURCE)
                 .addFailedAttribute(SUBSYSTEM_ADDRESS.append(PathElement.pathElement(ElytronDescriptionConstants.TOKEN_REALM, "KeyMapTokenRealm")),
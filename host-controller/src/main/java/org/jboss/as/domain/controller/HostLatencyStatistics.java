@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Keeps track of how long each slave host controller takes to respond to the prepare and the commit/rollback phase
+ * of domain wide operations.
+ * <p>
+ * The latencies are recorded in fixed histogram buckets, which are exposed on the {@code host-connection} resources.
+ * If the {@code jboss.as.domain.host-prepare-timeout-factor} system property is set, the observed prepare latency of
+ * a host is also used to derive a per host deadline for the prepare phase, so that a host which is normally fast but
+ * no longer responds fails the operation well before the domain blocking timeout expires. This is not enabled by
+ * default as past latencies do not bound the next operation; a host which so far only handled quick writes would fail
+ * its first large deployment.
+ * </p>
+ */
+public final class HostLatencyStatistics {
+
+    public static final String COUNT = "count";
+    public static final String HISTOGRAM = "histogram";
+    public static final String MAX_TIME = "max-time";
+    public static final String TOTAL_TIME = "total-time";
+
+    /** The upper bounds in milliseconds of the histogram buckets, the last bucket holds everything above. */
+    private static final long[] BUCKETS = {10, 50, 100, 500, 1000, 5000, 10000, 30000, 60000};
+    /** The minimum number of prepare samples before a host specific deadline is used. */
+    private static final int MIN_SAMPLES = 20;
+    /** The lowest host specific deadline, regardless of how fast the host normally is. */
+    private static final long MIN_TIMEOUT = 10000;
+    private static final double TIMEOUT_FACTOR;
+
+    static {
+        double factor = 0;
+        try {
+            factor = Double.parseDouble(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.host-prepare-timeout-factor", "0"));
+        } catch (Exception e) {
+            // ignore, use the domain blocking timeout
+        } finally {
+            TIMEOUT_FACTOR = factor > 0 ? factor : 0;
+        }
+    }
+
+    private final ConcurrentMap<String, Histogram> prepare = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> commit = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time it took for a host to return its prepared result.
+     *
+     * @param hostName the host name
+     * @param millis the latency in milliseconds
+     */
+    public void recordPrepare(final String hostName, final long millis) {
+        getHistogram(prepare, hostName).record(millis);
+    }
+
+    /**
+     * Record the time it took for a host to return its final result after the commit or rollback was sent.
+     *
+     * @param hostName the host name
+     * @param millis the latency in milliseconds
+     */
+    public void recordCommit(final String hostName, final long millis) {
+        getHistogram(commit, hostName).record(millis);
+    }
+
+    /**
+     * Get the time to wait for the prepared result of a host.
+     *
+     * @param hostName the host name
+     * @param timeout the domain blocking timeout in milliseconds
+     * @return the host specific timeout, never more than {@code timeout}
+     */
+    public long getPrepareTimeout(final String hostName, final long timeout) {
+        if (TIMEOUT_FACTOR > 0) {
+            final Histogram histogram = prepare.get(hostName);
+            if (histogram != null && histogram.count.get() >= MIN_SAMPLES) {
+                final long adaptive = Math.max(MIN_TIMEOUT, (long) (histogram.max.get() * TIMEOUT_FACTOR));
+                return Math.min(adaptive, timeout);
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Write the prepare latency statistics of a host to the model node.
+     *
+     * @param hostName the host name
+     * @param model the node to write to
+     */
+    public void writePrepareLatency(final String hostName, final ModelNode model) {
+        write(prepare.get(hostName), model);
+    }
+
+    /**
+     * Write the commit latency statistics of a host to the model node.
+     *
+     * @param hostName the host name
+     * @param model the node to write to
+     */
+    public void writeCommitLatency(final String hostName, final ModelNode model) {
+        write(commit.get(hostName), model);
+    }
+
+    private static Histogram getHistogram(final ConcurrentMap<String, Histogram> histograms, final String hostName) {
+        Histogram histogram = histograms.get(hostName);
+        if (histogram == null) {
+            final Histogram existing = histograms.putIfAbsent(hostName, histogram = new Histogram());
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    private static void write(final Histogram histogram, final ModelNode model) {
+        model.get(COUNT).set(histogram == null ? 0L : histogram.count.get());
+        model.get(TOTAL_TIME).set(histogram == null ? 0L : histogram.total.get());
+        model.get(MAX_TIME).set(histogram == null ? 0L : histogram.max.get());
+        final ModelNode buckets = model.get(HISTOGRAM).setEmptyObject();
+        for (int i = 0; i <= BUCKETS.length; i++) {
+            final String key = i < BUCKETS.length ? Long.toString(BUCKETS[i]) : "+Inf";
+            buckets.get(key).set(histogram == null ? 0L : histogram.buckets.get(i));
+        }
+    }
+
+    private static final class Histogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS.length + 1);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(final long millis) {
+            int bucket = 0;
+            while (bucket < BUCKETS.length && millis > BUCKETS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            total.addAndGet(millis);
+            long current;
+            while (millis > (current = max.get())) {
+                if (max.compareAndSet(current, millis)) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -43,6 +43,13 @@ public interface HostRegistrations {
      */
     HostConnectionInfo getHostInfo(String hostName);
 
+    /**
+     * Get the prepare and commit latency statistics of the slave hosts.
+     *
+     * @return the latency statistics
+     */
+    HostLatencyStatistics getHostLatencyStatistics();
+
     /**
      * Prune all expired host info.
      */
@@ -802,4 +802,26 @@ public interface DomainControllerLogger extends BasicLogger {
 
     @Message(id = 97, value = "Cannot explode a subdeployment of an unexploded deployment")
     OperationFailedException cannotExplodeSubDeploymentOfUnexplodedDeployment();
+
+    /**
+     * A message indicating that the rollout plan is invalid as the value for the property is less than one.
+     *
+     * @param name         the name of the server group.
+     * @param propertyName the name of the property.
+     * @param value        the value of the property.
+     *
+     * @return the message.
+     */
+    @Message(id = 98, value = "Invalid rollout plan. Server group %s has a %s value of %s; cannot be less than 1.")
+    String invalidRolloutPlanLessThanOne(String name, String propertyName, int value);
+
+    /**
+     * Creates a failure description indicating a host was unregistered while awaiting its prepared response.
+     *
+     * @param host the name of the host
+     *
+     * @return the message.
+     */
+    @Message(id = 99, value = "Host %s is no longer registered with the domain controller; not awaiting its prepared response")
+    String hostUnregisteredAwaitingPreparedResponse(String host);
 }
@@ -38,11 +38,22 @@ class ReadDomainModelHandler implements OperationStepHandler {
     private final Transformers transformers;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
     private final boolean lock;
+    private final ModelNode resourceDigests;
 
     public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers, final boolean lock) {
+        this(ignoredTransformationRegistry, transformers, lock, null);
+    }
+
+    /**
+     * @param resourceDigests the digests of the domain model last applied by the slave, or {@code null} if the complete
+     *                        domain model should be returned
+     */
+    ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers,
+                           final boolean lock, final ModelNode resourceDigests) {
         this.transformers = transformers;
         this.ignoredTransformationRegistry = ignoredTransformationRegistry != null ? ignoredTransformationRegistry : Transformers.DEFAULT;
         this.lock = lock;
+        this.resourceDigests = resourceDigests;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -55,7 +66,12 @@ class ReadDomainModelHandler implements OperationStepHandler {
         final Transformers.TransformationInputs transformationInputs = new Transformers.TransformationInputs(context);
         final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
                 transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource());
-        context.getResult().set(readUtil.getDescribedResources());
+        if (resourceDigests == null) {
+            context.getResult().set(readUtil.getDescribedResources());
+        } else {
+            // Only send the resources which changed since the slave last applied the domain model
+            context.getResult().set(ReadMasterDomainModelUtil.replaceUnchangedResources(readUtil.getDescribedResources(), resourceDigests));
+        }
     }
 
 }
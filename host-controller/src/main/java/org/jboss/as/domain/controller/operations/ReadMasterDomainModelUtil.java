@@ -30,10 +30,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jboss.as.controller.OperationFailedException;
@@ -65,6 +71,17 @@ public class ReadMasterDomainModelUtil {
 
     public static final String ORDERED_CHILD_TYPES_PROPERTY = "ordered-child-types";
 
+    /**
+     * Marks a resource which is unchanged compared to the domain model last applied by the slave. Only the address of
+     * such resources is sent, the slave uses the description it has already applied.
+     */
+    public static final String DOMAIN_RESOURCE_UNCHANGED = "domain-resource-unchanged";
+
+    /**
+     * The host info key containing the digests of the resources of the domain model last applied by the slave.
+     */
+    public static final String DOMAIN_MODEL_DIGESTS = "domain-model-digests";
+
     private final Set<PathElement> newRootResources = new HashSet<>();
 
     private volatile List<ModelNode> describedResources;
@@ -213,6 +230,92 @@ public class ReadMasterDomainModelUtil {
         return root;
     }
 
+    /**
+     * Creates the digests of the described resources. The digests are sent by a slave when reconnecting to the domain
+     * controller so that only the resources which changed since the domain model was last applied need to be sent.
+     *
+     * @param describedResources the resources as described by {@link #getDescribedResources()}
+     * @return a model node containing a digest for each resource keyed by the address of the resource
+     */
+    public static ModelNode createResourceDigests(final List<ModelNode> describedResources) {
+        final ModelNode digests = new ModelNode().setEmptyObject();
+        final MessageDigest messageDigest = createMessageDigest();
+        for (ModelNode description : describedResources) {
+            final String address = PathAddress.pathAddress(description.require(DOMAIN_RESOURCE_ADDRESS)).toCLIStyleString();
+            digests.get(address).set(messageDigest.digest(description.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        return digests;
+    }
+
+    /**
+     * Replaces the description of the resources which are unchanged compared to the digests provided by the slave
+     * with a {@link #DOMAIN_RESOURCE_UNCHANGED} marker.
+     *
+     * @param describedResources the described resources
+     * @param digests            the digests provided by the slave
+     * @return the described resources, where unchanged resources only contain their address
+     */
+    static List<ModelNode> replaceUnchangedResources(final List<ModelNode> describedResources, final ModelNode digests) {
+        final List<ModelNode> result = new ArrayList<>(describedResources.size());
+        final MessageDigest messageDigest = createMessageDigest();
+        int unchanged = 0;
+        for (ModelNode description : describedResources) {
+            final ModelNode address = description.require(DOMAIN_RESOURCE_ADDRESS);
+            final String key = PathAddress.pathAddress(address).toCLIStyleString();
+            if (digests.hasDefined(key) && Arrays.equals(digests.get(key).asBytes(),
+                    messageDigest.digest(description.toString().getBytes(StandardCharsets.UTF_8)))) {
+                final ModelNode marker = new ModelNode();
+                marker.get(DOMAIN_RESOURCE_ADDRESS).set(address);
+                marker.get(DOMAIN_RESOURCE_UNCHANGED).set(true);
+                result.add(marker);
+                unchanged++;
+            } else {
+                result.add(description);
+            }
+        }
+        ControllerLogger.ROOT_LOGGER.debugf("%d of %d domain resources are unchanged and are not sent", unchanged, describedResources.size());
+        return result;
+    }
+
+    /**
+     * Restores the description of the resources marked as {@link #DOMAIN_RESOURCE_UNCHANGED} using the domain model
+     * last applied.
+     *
+     * @param received the described resources received from the domain controller
+     * @param previous the described resources last applied or {@code null} if none were applied
+     * @return the complete list of described resources or {@code null} if a resource marked as unchanged could not be
+     * found in the previous resources
+     */
+    public static List<ModelNode> restoreUnchangedResources(final List<ModelNode> received, final List<ModelNode> previous) {
+        final Map<String, ModelNode> previousResources = new HashMap<>();
+        if (previous != null) {
+            for (ModelNode description : previous) {
+                previousResources.put(PathAddress.pathAddress(description.require(DOMAIN_RESOURCE_ADDRESS)).toCLIStyleString(), description);
+            }
+        }
+        final List<ModelNode> result = new ArrayList<>(received.size());
+        for (ModelNode description : received) {
+            if (description.hasDefined(DOMAIN_RESOURCE_UNCHANGED) && description.get(DOMAIN_RESOURCE_UNCHANGED).asBoolean()) {
+                final ModelNode previousDescription = previousResources.get(PathAddress.pathAddress(description.require(DOMAIN_RESOURCE_ADDRESS)).toCLIStyleString());
+                if (previousDescription == null) {
+                    return null;
+                }
+                result.add(previousDescription);
+            } else {
+                result.add(description);
+            }
+        }
+        return result;
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Process the host info and determine which configuration elements are required on the slave host.
      *
@@ -370,45 +473,7 @@ public class ReadMasterDomainModelUtil {
      * @return
      */
     public static Transformers.ResourceIgnoredTransformationRegistry createHostIgnoredRegistry(final HostInfo hostInfo, final RequiredConfigurationHolder rc) {
-        return new Transformers.ResourceIgnoredTransformationRegistry() {
-            @Override
-            public boolean isResourceTransformationIgnored(PathAddress address) {
-                if (hostInfo.isResourceTransformationIgnored(address)) {
-                    return true;
-                }
-                if (address.size() == 1 && hostInfo.isIgnoreUnaffectedConfig()) {
-                    final PathElement element = address.getElement(0);
-                    final String type = element.getKey();
-                    switch (type) {
-                        case ModelDescriptionConstants.EXTENSION:
-                            // Don't ignore extensions for now
-                            return false;
-//                            if (local) {
-//                                return false; // Always include all local extensions
-//                            } else if (!rc.getExtensions().contains(element.getValue())) {
-//                                return true;
-//                            }
-//                            break;
-                        case PROFILE:
-                            if (!rc.getProfiles().contains(element.getValue())) {
-                                return true;
-                            }
-                            break;
-                        case SERVER_GROUP:
-                            if (!rc.getServerGroups().contains(element.getValue())) {
-                                return true;
-                            }
-                            break;
-                        case SOCKET_BINDING_GROUP:
-                            if (!rc.getSocketBindings().contains(element.getValue())) {
-                                return true;
-                            }
-                            break;
-                    }
-                }
-                return false;
-            }
-        };
+        return new HostIgnoredTransformationRegistry(hostInfo, rc);
     }
 
     /**
@@ -465,6 +530,65 @@ public class ReadMasterDomainModelUtil {
         };
     }
 
+    private static class HostIgnoredTransformationRegistry implements Transformers.ResourceIgnoredTransformationRegistry,
+            Transformers.TransformationCacheKeyProvider {
+
+        private final HostInfo hostInfo;
+        private final RequiredConfigurationHolder rc;
+
+        private HostIgnoredTransformationRegistry(final HostInfo hostInfo, final RequiredConfigurationHolder rc) {
+            this.hostInfo = hostInfo;
+            this.rc = rc;
+        }
+
+        @Override
+        public boolean isResourceTransformationIgnored(PathAddress address) {
+            if (hostInfo.isResourceTransformationIgnored(address)) {
+                return true;
+            }
+            if (address.size() == 1 && hostInfo.isIgnoreUnaffectedConfig()) {
+                final PathElement element = address.getElement(0);
+                final String type = element.getKey();
+                switch (type) {
+                    case ModelDescriptionConstants.EXTENSION:
+                        // Don't ignore extensions for now
+                        return false;
+//                            if (local) {
+//                                return false; // Always include all local extensions
+//                            } else if (!rc.getExtensions().contains(element.getValue())) {
+//                                return true;
+//                            }
+//                            break;
+                    case PROFILE:
+                        if (!rc.getProfiles().contains(element.getValue())) {
+                            return true;
+                        }
+                        break;
+                    case SERVER_GROUP:
+                        if (!rc.getServerGroups().contains(element.getValue())) {
+                            return true;
+                        }
+                        break;
+                    case SOCKET_BINDING_GROUP:
+                        if (!rc.getSocketBindings().contains(element.getValue())) {
+                            return true;
+                        }
+                        break;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Object getTransformationCacheKey() {
+            if (rc == null) {
+                return Arrays.asList(HostIgnoredTransformationRegistry.class, hostInfo.getTransformationCacheKey());
+            }
+            return Arrays.asList(HostIgnoredTransformationRegistry.class, hostInfo.getTransformationCacheKey(),
+                    new HashSet<>(rc.getProfiles()), new HashSet<>(rc.getServerGroups()), new HashSet<>(rc.getSocketBindings()));
+        }
+    }
+
     public static class RequiredConfigurationHolder {
 
         private final Set<String> extensions = new HashSet<>();
@@ -51,12 +51,18 @@ import org.jboss.as.controller.operations.OperationAttachments;
 import org.jboss.as.controller.remote.ResponseAttachmentInputStreamSupport;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.domain.controller.HostLatencyStatistics;
 import org.jboss.dmr.ModelNode;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.as.controller.operations.DomainOperationTransmuter;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
+ * <p>
+ * The operation is sent to all hosts up front and the prepared results are processed as they arrive. Each host has
+ * its own deadline. A host which unregisters while the operation is outstanding has its connection closed, which
+ * fails its request immediately rather than leaving it waiting for the domain blocking timeout.
+ * </p>
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -64,10 +70,29 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
     private final MultiphaseOverallContext multiphaseContext;
     private final Map<String, ProxyController> hostProxies;
+    private final Map<String, ProxyController> registeredHosts;
+    private final HostLatencyStatistics latencyStatistics;
 
     public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
                               final MultiphaseOverallContext domainOperationContext) {
+        this(hostProxies, null, null, domainOperationContext);
+    }
+
+    /**
+     * Creates a new handler.
+     *
+     * @param hostProxies the proxies of the hosts to execute the operation on
+     * @param registeredHosts the proxies of all currently registered hosts, used to detect hosts which are gone. May be {@code null}
+     * @param latencyStatistics the latency statistics to update. May be {@code null}
+     * @param domainOperationContext the overall context of the operation
+     */
+    public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
+                              final Map<String, ProxyController> registeredHosts,
+                              final HostLatencyStatistics latencyStatistics,
+                              final MultiphaseOverallContext domainOperationContext) {
         this.hostProxies = hostProxies;
+        this.registeredHosts = registeredHosts;
+        this.latencyStatistics = latencyStatistics;
         this.multiphaseContext = domainOperationContext;
     }
 
@@ -87,6 +112,9 @@ public class DomainSlaveHandler implements OperationStepHandler {
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
         final Transformers.TransformationInputs transformationInputs = Transformers.TransformationInputs.getOrCreate(context);
         final List<DomainOperationTransmuter> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSMUTERS);
+        final long blockingTimeoutValue = blockingTimeout.getDomainBlockingTimeout(false);
+        final Map<String, Long> sendTimes = new HashMap<String, Long>();
+        final Map<String, Long> deadlines = new HashMap<String, Long>();
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             // Create the proxy task
             final String host = entry.getKey();
@@ -103,6 +131,10 @@ public class DomainSlaveHandler implements OperationStepHandler {
             clonedOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
             final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController, transformationInputs);
             // Execute the operation on the remote host
+            final long sendTime = System.currentTimeMillis();
+            final long hostTimeout = latencyStatistics == null ? blockingTimeoutValue : latencyStatistics.getPrepareTimeout(host, blockingTimeoutValue);
+            sendTimes.put(host, sendTime);
+            deadlines.put(host, sendTime + hostTimeout);
             final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
             multiphaseContext.recordHostRequest(host, finalResult);
             finalResults.put(host, finalResult);
@@ -112,26 +144,48 @@ public class DomainSlaveHandler implements OperationStepHandler {
         boolean interrupted = false;
         boolean completeStepCalled = false;
         try {
-            long timeout = 0;
             while (outstanding.size() > 0) {
-                timeout = blockingTimeout.getDomainBlockingTimeout(false);
+                // Wait until the earliest deadline of the outstanding hosts
+                String expiringHost = null;
+                long deadline = Long.MAX_VALUE;
+                for (String host : outstanding) {
+                    final long hostDeadline = deadlines.get(host);
+                    if (hostDeadline < deadline) {
+                        deadline = hostDeadline;
+                        expiringHost = host;
+                    }
+                }
+                // Lost connections are reported through the listener, so there is no need to wake up before then
+                final long wait = deadline - System.currentTimeMillis();
                 TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared = null;
-                try {
-                    prepared = listener.retrievePreparedOperation(timeout, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException ie) {
-                    interrupted = true;
+                if (wait > 0) {
+                    try {
+                        prepared = listener.retrievePreparedOperation(wait, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException ie) {
+                        interrupted = true;
+                    }
                 }
                 if (prepared != null) {
                     final String hostName = prepared.getOperation().getName();
                     if (!outstanding.remove(hostName)) {
                         continue;
                     }
+                    if (latencyStatistics != null) {
+                        latencyStatistics.recordPrepare(hostName, System.currentTimeMillis() - sendTimes.get(hostName));
+                    }
                     final ModelNode preparedResult = prepared.getPreparedResult();
                     HOST_CONTROLLER_LOGGER.tracef("Preliminary result for remote host %s is %s", hostName, preparedResult);
                     // See if we have to reject the result
                     final HostControllerUpdateTask.ExecutedHostRequest request = finalResults.get(hostName);
                     boolean reject = request.rejectOperation(preparedResult);
-                    if (reject) {
+                    if (prepared.isFailed() && isUnregistered(hostName)) {
+                        // The host went away, e.g. because the pinger closed the connection
+                        final ModelNode failureResponse = new ModelNode();
+                        failureResponse.get(OUTCOME).set(FAILED);
+                        failureResponse.get(FAILURE_DESCRIPTION).set(HOST_CONTROLLER_LOGGER.hostUnregisteredAwaitingPreparedResponse(hostName));
+                        finalResults.put(hostName, request.toFailedRequest(failureResponse));
+                        multiphaseContext.addHostControllerPreparedResult(hostName, failureResponse);
+                    } else if (reject) {
                         if (HOST_CONTROLLER_LOGGER.isDebugEnabled()) {
                             HOST_CONTROLLER_LOGGER.debugf("Rejecting result for remote host %s is %s", hostName, preparedResult);
                         }
@@ -146,8 +200,9 @@ public class DomainSlaveHandler implements OperationStepHandler {
                         multiphaseContext.addHostControllerPreparedResult(hostName, preparedResult);
                     }
                     results.add(prepared);
-                } else {
+                } else if (interrupted || System.currentTimeMillis() >= deadline) {
                     // Either interrupted or timed out.
+                    final long timeout = interrupted ? blockingTimeoutValue : deadline - sendTimes.get(expiringHost);
                     handleMissingHostResponses(finalResults, outstanding, !interrupted, timeout);
                     break;
                 }
@@ -215,6 +270,10 @@ public class DomainSlaveHandler implements OperationStepHandler {
         }
     }
 
+    private boolean isUnregistered(final String hostName) {
+        return registeredHosts != null && registeredHosts.get(hostName) != hostProxies.get(hostName);
+    }
+
     private void finalizeOp(final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results,
                             final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults,
                             final boolean interrupted, final OperationContext context, final BlockingTimeout blockingTimeout) {
@@ -235,11 +294,31 @@ public class DomainSlaveHandler implements OperationStepHandler {
                 if (prepared.isDone()) {
                     continue;
                 }
+                final long commitTime = System.currentTimeMillis();
                 if (!rollback) {
                     prepared.commit();
                 } else {
                     prepared.rollback();
                 }
+                if (latencyStatistics != null) {
+                    // Record the latency when this host's final result arrives, independent of the order we wait in below
+                    prepared.getFinalResult().addListener(new AsyncFuture.Listener<OperationResponse, String>() {
+                        @Override
+                        public void handleComplete(AsyncFuture<? extends OperationResponse> future, String hostName) {
+                            latencyStatistics.recordCommit(hostName, System.currentTimeMillis() - commitTime);
+                        }
+
+                        @Override
+                        public void handleFailed(AsyncFuture<? extends OperationResponse> future, Throwable cause, String hostName) {
+                            // no response, nothing to record
+                        }
+
+                        @Override
+                        public void handleCancelled(AsyncFuture<? extends OperationResponse> future, String hostName) {
+                            // no response, nothing to record
+                        }
+                    }, prepared.getOperation().getName());
+                }
             }
             // Now get the final results from the hosts
             // If we've been interrupted, only wait 50 ms for a final response, otherwise wait the domain blocking timeout
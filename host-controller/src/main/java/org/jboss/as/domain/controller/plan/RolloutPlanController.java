@@ -26,11 +26,13 @@
 package org.jboss.as.domain.controller.plan;
 
 import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BATCH_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRACEFUL_SHUTDOWN_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_IN_FLIGHT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLING_TO_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
@@ -141,8 +143,24 @@ public class RolloutPlanController {
 
                     SecurityIdentity securityIdentity = accessAuditContext != null ?  accessAuditContext.getSecurityIdentity() : null;
                     InetAddress sourceAddress = accessAuditContext != null ?  accessAuditContext.getRemoteAddress() : null;
-                    seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout));
+                    if (policyNode.hasDefined(MAX_IN_FLIGHT) || policyNode.hasDefined(BATCH_PERCENTAGE)) {
+                        // Update the servers in batches and/or a bounded window of in flight servers
+                        final int batchPercentage = policyNode.hasDefined(BATCH_PERCENTAGE) ? policyNode.get(BATCH_PERCENTAGE).asInt() : 0;
+                        final int batchSize = batchPercentage > 0 ? Math.max(1, (servers.size() * batchPercentage + 99) / 100) : 0;
+                        final int maxInFlight;
+                        if (rollingGroup) {
+                            maxInFlight = 1;
+                        } else if (policyNode.hasDefined(MAX_IN_FLIGHT)) {
+                            maxInFlight = policyNode.get(MAX_IN_FLIGHT).asInt();
+                        } else {
+                            maxInFlight = batchSize;
+                        }
+                        seriesTasks.add(new WindowedServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout,
+                                maxInFlight, batchSize));
+                    } else {
+                        seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout)
+                            : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout));
+                    }
 
                     updatePolicies.put(serverGroupName, policy);
 
@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.wildfly.security.auth.server.SecurityIdentity;
+
+/**
+ * Updates the servers in a server group keeping at most a fixed number of servers in flight. A new server is sent the
+ * operation as soon as one of the in flight servers reports its prepared result, so the time to prepare the group
+ * depends on the size of the window rather than on the number of servers.
+ * <p>
+ * The servers can additionally be split into batches. A batch is only started once every server of the previous batch
+ * reported its prepared result, so the failure policy of the group is checked against the complete batch before more
+ * servers are updated.
+ * </p>
+ */
+class WindowedServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
+
+    private final int maxInFlight;
+    private final int batchSize;
+
+    WindowedServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy, ServerTaskExecutor executor,
+                                  SecurityIdentity securityIdentity, InetAddress sourceAddress, BlockingTimeout blockingTimeout,
+                                  int maxInFlight, int batchSize) {
+        super(tasks, updatePolicy, executor, securityIdentity, sourceAddress, blockingTimeout);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.batchSize = batchSize > 0 ? batchSize : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void execute() {
+        final Map<ServerIdentity, InFlightTask> outstanding = new LinkedHashMap<>();
+        final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
+        final Iterator<ServerUpdateTask> iterator = tasks.iterator();
+        int batchRemaining = batchSize;
+        boolean interrupted = false;
+        while (!interrupted) {
+            // Fill the window with servers from the current batch
+            while (outstanding.size() < maxInFlight && batchRemaining > 0 && iterator.hasNext()) {
+                final ServerUpdateTask task = iterator.next();
+                final ServerIdentity identity = task.getServerIdentity();
+                batchRemaining--;
+                if (!updatePolicy.canUpdateServer(identity)) {
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+                    continue;
+                }
+                final int timeout = executor.executeTask(listener, task);
+                if (timeout > -1) {
+                    outstanding.put(identity, new InFlightTask(task, timeout));
+                }
+            }
+            if (outstanding.isEmpty()) {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                // The batch is complete, the update policy decides whether the next batch gets updated
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Completed batch of %d servers for %s", batchSize, updatePolicy.getServerGroupName());
+                batchRemaining = batchSize;
+                continue;
+            }
+
+            final long remaining = getEarliestDeadline(outstanding) - System.currentTimeMillis();
+            if (remaining <= 0) {
+                timeoutExpired(outstanding);
+                continue;
+            }
+            try {
+                final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> prepared =
+                        listener.retrievePreparedOperation(remaining, TimeUnit.MILLISECONDS);
+                if (prepared != null) {
+                    final ServerIdentity identity = prepared.getOperation().getIdentity();
+                    // Ignore late results of servers which already timed out
+                    if (outstanding.remove(identity) != null) {
+                        recordPreparedOperation(identity, prepared);
+                    }
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            if (!outstanding.isEmpty()) {
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding.keySet());
+                for (ServerIdentity identity : outstanding.keySet()) {
+                    executor.cancelTask(identity);
+                }
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void timeoutExpired(final Map<ServerIdentity, InFlightTask> outstanding) {
+        final long now = System.currentTimeMillis();
+        final Iterator<Map.Entry<ServerIdentity, InFlightTask>> iterator = outstanding.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<ServerIdentity, InFlightTask> entry = iterator.next();
+            final InFlightTask inFlight = entry.getValue();
+            if (inFlight.deadline <= now) {
+                final ServerIdentity identity = entry.getKey();
+                iterator.remove();
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.timedOutAwaitingPreparedResponse(getClass().getSimpleName(), inFlight.timeout, Collections.singleton(identity));
+                executor.cancelTask(identity);
+                handlePreparePhaseTimeout(identity, inFlight.task, inFlight.timeout);
+            }
+        }
+    }
+
+    private static long getEarliestDeadline(final Map<ServerIdentity, InFlightTask> outstanding) {
+        long result = Long.MAX_VALUE;
+        for (InFlightTask inFlight : outstanding.values()) {
+            result = Math.min(result, inFlight.deadline);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{server-group=" + updatePolicy.getServerGroupName() + ", max-in-flight=" + maxInFlight + "}";
+    }
+
+    private static class InFlightTask {
+        private final ServerUpdateTask task;
+        private final int timeout;
+        private final long deadline;
+
+        private InFlightTask(final ServerUpdateTask task, final int timeout) {
+            this.task = task;
+            this.timeout = timeout;
+            this.deadline = System.currentTimeMillis() + timeout;
+        }
+    }
+}
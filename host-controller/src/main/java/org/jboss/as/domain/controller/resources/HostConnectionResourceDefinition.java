@@ -36,12 +36,15 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.domain.controller.HostConnectionInfo;
+import org.jboss.as.domain.controller.HostLatencyStatistics;
 import org.jboss.as.domain.controller.HostRegistrations;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -85,6 +88,10 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
             .setRuntimeServiceNotRequired()
             .build();
 
+    private static final ObjectTypeAttributeDefinition PREPARE_LATENCY = createLatencyAttribute("prepare-latency");
+
+    private static final ObjectTypeAttributeDefinition COMMIT_LATENCY = createLatencyAttribute("commit-latency");
+
     private static final OperationDefinition PRUNE_EXPIRED_DEF = new SimpleOperationDefinitionBuilder("prune-expired", RESOLVER)
             .withFlag(OperationEntry.Flag.MASTER_HOST_CONTROLLER_ONLY)
             .build();
@@ -105,6 +112,8 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadOnlyAttribute(CONNECTION_DEF, attributeReadHandler);
         resourceRegistration.registerReadOnlyAttribute(EVENT_LIST, attributeReadHandler);
+        resourceRegistration.registerReadOnlyAttribute(PREPARE_LATENCY, attributeReadHandler);
+        resourceRegistration.registerReadOnlyAttribute(COMMIT_LATENCY, attributeReadHandler);
     }
 
     @Override
@@ -142,11 +151,41 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
                     case HostConnectionInfo.EVENTS:
                         processEvents(info, result.setEmptyList());
                         break;
+                    case "prepare-latency":
+                        slaveHosts.getHostLatencyStatistics().writePrepareLatency(hostName, result);
+                        break;
+                    case "commit-latency":
+                        slaveHosts.getHostLatencyStatistics().writeCommitLatency(hostName, result);
+                        break;
                 }
             }
         }
     }
 
+    private static ObjectTypeAttributeDefinition createLatencyAttribute(final String name) {
+        return ObjectTypeAttributeDefinition.Builder.of(name,
+                createLatencyField(HostLatencyStatistics.COUNT),
+                createLatencyField(HostLatencyStatistics.TOTAL_TIME),
+                createLatencyField(HostLatencyStatistics.MAX_TIME),
+                new SimpleMapAttributeDefinition.Builder(HostLatencyStatistics.HISTOGRAM, ModelType.LONG, false)
+                        .setStorageRuntime()
+                        .setRuntimeServiceNotRequired()
+                        .build())
+                .setStorageRuntime()
+                .setRuntimeServiceNotRequired()
+                .build();
+    }
+
+    private static AttributeDefinition createLatencyField(final String name) {
+        final SimpleAttributeDefinitionBuilder builder = SimpleAttributeDefinitionBuilder.create(name, ModelType.LONG, false)
+                .setStorageRuntime()
+                .setRuntimeServiceNotRequired();
+        if (!HostLatencyStatistics.COUNT.equals(name)) {
+            builder.setMeasurementUnit(MeasurementUnit.MILLISECONDS);
+        }
+        return builder.build();
+    }
+
     static void processEvents(final HostConnectionInfo info, final ModelNode list) {
         for (final HostConnectionInfo.Event event : info.getEvents()) {
             event.toModelNode(list.add());
@@ -137,6 +137,7 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.HostConnectionInfo;
 import org.jboss.as.domain.controller.HostConnectionInfo.Event;
+import org.jboss.as.domain.controller.HostLatencyStatistics;
 import org.jboss.as.domain.controller.HostRegistrations;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
@@ -155,6 +156,7 @@ import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.host.controller.mgmt.DomainHostExcludeRegistry;
 import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
 import org.jboss.as.host.controller.mgmt.MasterDomainControllerOperationHandlerService;
+import org.jboss.as.host.controller.mgmt.PeerContentOperationHandlerService;
 import org.jboss.as.host.controller.mgmt.ServerToHostOperationHandlerFactoryService;
 import org.jboss.as.host.controller.mgmt.ServerToHostProtocolHandler;
 import org.jboss.as.host.controller.mgmt.SlaveHostPinger;
@@ -239,6 +241,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     private final DomainDelegatingResourceDefinition rootResourceDefinition;
     private final CapabilityRegistry capabilityRegistry;
     private final DomainHostExcludeRegistry domainHostExcludeRegistry;
+    private final HostLatencyStatistics hostLatencyStatistics;
     private final AtomicBoolean domainConfigAvailable = new AtomicBoolean(false);
     private final PartialModelIndicator partialModelIndicator = new PartialModelIndicator() {
         @Override
@@ -279,14 +282,15 @@ public class DomainModelControllerService extends AbstractControllerService impl
         final ProcessType processType = environment.getProcessType();
         final ExtensionRegistry hostExtensionRegistry = new ExtensionRegistry(processType, runningModeControl, auditLogger, authorizer, securityIdentitySupplier, hostControllerInfoAccessor);
         final ExtensionRegistry extensionRegistry = new ExtensionRegistry(processType, runningModeControl, auditLogger, authorizer, securityIdentitySupplier, hostControllerInfoAccessor);
+        final HostLatencyStatistics hostLatencyStatistics = new HostLatencyStatistics();
         final PrepareStepHandler prepareStepHandler = new PrepareStepHandler(hostControllerInfo,
-                hostProxies, serverProxies, ignoredRegistry, extensionRegistry);
+                hostProxies, serverProxies, ignoredRegistry, extensionRegistry, hostLatencyStatistics);
         final ExpressionResolver expressionResolver = new RuntimeExpressionResolver(vaultReader);
         final DomainHostExcludeRegistry domainHostExcludeRegistry = new DomainHostExcludeRegistry();
         final DomainModelControllerService service = new DomainModelControllerService(environment, runningModeControl, processState,
                 hostControllerInfo, contentRepository, hostProxies, serverProxies, prepareStepHandler, vaultReader,
                 ignoredRegistry, bootstrapListener, pathManager, expressionResolver, new DomainDelegatingResourceDefinition(),
-                hostExtensionRegistry, extensionRegistry, auditLogger, authorizer, securityIdentitySupplier, capabilityRegistry, domainHostExcludeRegistry);
+                hostExtensionRegistry, extensionRegistry, auditLogger, authorizer, securityIdentitySupplier, capabilityRegistry, domainHostExcludeRegistry, hostLatencyStatistics);
 
         HostControllerEnvironmentService.addService(environment, serviceTarget);
 
@@ -320,7 +324,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                          final DelegatingConfigurableAuthorizer authorizer,
                                          final ManagementSecurityIdentitySupplier securityIdentitySupplier,
                                          final CapabilityRegistry capabilityRegistry,
-                                         final DomainHostExcludeRegistry domainHostExcludeRegistry) {
+                                         final DomainHostExcludeRegistry domainHostExcludeRegistry,
+                                         final HostLatencyStatistics hostLatencyStatistics) {
         super(environment.getProcessType(), runningModeControl, null, processState,
                 rootResourceDefinition, prepareStepHandler, new RuntimeExpressionResolver(vaultReader), auditLogger, authorizer, securityIdentitySupplier, capabilityRegistry);
         this.environment = environment;
@@ -344,6 +349,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         this.rootResourceDefinition = rootResourceDefinition;
         this.capabilityRegistry = capabilityRegistry;
         this.domainHostExcludeRegistry = domainHostExcludeRegistry;
+        this.hostLatencyStatistics = hostLatencyStatistics;
     }
 
     private static ManagedAuditLogger createAuditLogger(HostControllerEnvironment environment) {
@@ -445,6 +451,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
         return slaveHostRegistrations.getRegistration(hostName);
     }
 
+    @Override
+    public HostLatencyStatistics getHostLatencyStatistics() {
+        return hostLatencyStatistics;
+    }
+
     @Override
     public void pingRemoteHost(String id) {
         DomainSlaveHostRegistrations.DomainHostConnection reg = slaveHostRegistrations.getRegistration(id);
@@ -703,6 +714,12 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                 ok = false;
                             } else if (connectResult == DomainConnectResult.FAILED) {
                                 useLocalDomainXml = true;
+                            } else if (PeerContentOperationHandlerService.ENABLED && processType != ProcessType.EMBEDDED_HOST_CONTROLLER) {
+                                // Serve the deployment content of this host to other hosts
+                                ManagementRemotingServices.installManagementChannelServices(serviceTarget, ManagementRemotingServices.MANAGEMENT_ENDPOINT,
+                                        new PeerContentOperationHandlerService(localFileRepository),
+                                        DomainModelControllerService.SERVICE_NAME, ManagementRemotingServices.DOMAIN_CHANNEL,
+                                        HC_EXECUTOR_SERVICE_NAME, HC_SCHEDULED_EXECUTOR_SERVICE_NAME);
                             }
                         } else {
                             // Invalid configuration; no way to get the domain config
@@ -48,6 +48,7 @@ import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 import javax.net.ssl.SSLContext;
@@ -124,6 +125,8 @@ public class ManagedServerBootCmdFactory implements ManagedServerBootConfigurati
     private final DirectoryGrouping directoryGrouping;
     private final Supplier<SSLContext> sslContextSupplier;
     private final boolean suspend;
+    // The launch commands only depend on the configuration captured by this instance, so build each variant once
+    private final AtomicReferenceArray<List<String>> launchCommands = new AtomicReferenceArray<>(4);
     private JvmType jvmType;
 
     public ManagedServerBootCmdFactory(final String serverName, final ModelNode domainModel, final ModelNode hostModel, final HostControllerEnvironment environment, final ExpressionResolver expressionResolver, boolean suspend) {
@@ -284,6 +287,18 @@ public class ManagedServerBootCmdFactory implements ManagedServerBootConfigurati
     }
 
     private List<String> getServerLaunchCommand(boolean includeProcessId, boolean forLaunch) {
+        final int index = (includeProcessId ? 2 : 0) + (forLaunch ? 1 : 0);
+        List<String> command = launchCommands.get(index);
+        if (command == null) {
+            command = Collections.unmodifiableList(createServerLaunchCommand(includeProcessId, forLaunch));
+            if (!launchCommands.compareAndSet(index, null, command)) {
+                command = launchCommands.get(index);
+            }
+        }
+        return command;
+    }
+
+    private List<String> createServerLaunchCommand(boolean includeProcessId, boolean forLaunch) {
         final List<String> command = new ArrayList<String>();
 
         if (jvmElement.getLaunchCommand() != null) {
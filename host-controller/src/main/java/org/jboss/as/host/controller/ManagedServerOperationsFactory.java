@@ -109,6 +109,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ExpressionResolver;
@@ -168,6 +170,9 @@ public final class ManagedServerOperationsFactory {
         EMPTY.protect();
     }
 
+    /** The last subsystem operations created for each profile, along with the profile and its includes, keyed by profile name. */
+    private static final ConcurrentMap<String, ProfileOperations> PROFILE_OPERATIONS = new ConcurrentHashMap<>();
+
     /**
      * Create a list of operations required to a boot a managed server.
      *
@@ -771,10 +776,38 @@ public final class ManagedServerOperationsFactory {
         }
 
     private void addSubsystems(List<ModelNode> updates) {
-        ModelNode node = domainController.getProfileOperations(profileName);
+        // Describing a profile executes an operation over all its resources, so reuse the operations for each
+        // server started with the profile until the profile or one of the profiles it includes changes
+        final ModelNode profiles = new ModelNode();
+        resolveProfile(profileName, profiles);
+        final ProfileOperations cached = PROFILE_OPERATIONS.get(profileName);
+        final ModelNode node;
+        if (cached != null && cached.domainController == domainController && cached.profiles.equals(profiles)) {
+            node = cached.operations;
+        } else {
+            node = domainController.getProfileOperations(profileName);
+            PROFILE_OPERATIONS.put(profileName, new ProfileOperations(domainController, profiles, node));
+        }
+        // Drop the operations of profiles which have been removed
+        if (domainModel.hasDefined(PROFILE)) {
+            PROFILE_OPERATIONS.keySet().retainAll(domainModel.get(PROFILE).keys());
+        }
+        // The operations are copied when added to the updates
         updates.addAll(node.asList());
     }
 
+    private void resolveProfile(final String name, final ModelNode resolved) {
+        if (!resolved.has(name)) {
+            final ModelNode profile = domainModel.hasDefined(PROFILE, name) ? domainModel.get(PROFILE, name) : new ModelNode();
+            resolved.get(name).set(profile);
+            if (profile.hasDefined(INCLUDES)) {
+                for (final ModelNode include : profile.get(INCLUDES).asList()) {
+                    resolveProfile(include.asString(), resolved);
+                }
+            }
+        }
+    }
+
     private void addDeployments(List<ModelNode> updates) {
         if (serverGroup.hasDefined(DEPLOYMENT)) {
 
@@ -946,6 +979,21 @@ public final class ManagedServerOperationsFactory {
         }
     }
 
+    private static final class ProfileOperations {
+
+        private final DomainController domainController;
+        private final ModelNode profiles;
+        private final ModelNode operations;
+
+        private ProfileOperations(final DomainController domainController, final ModelNode profiles, final ModelNode operations) {
+            this.domainController = domainController;
+            this.profiles = profiles.clone();
+            this.profiles.protect();
+            this.operations = operations.clone();
+            this.operations.protect();
+        }
+    }
+
     private class ModelNodeList extends AbstractList<ModelNode> implements List<ModelNode> {
 
 
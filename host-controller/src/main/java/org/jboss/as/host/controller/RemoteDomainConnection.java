@@ -45,6 +45,7 @@ import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.management.CallbackHandlerFactory;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.discovery.DiscoveryOption;
@@ -116,6 +117,8 @@ class RemoteDomainConnection extends FutureManagementChannel {
     private final List<DiscoveryOption> discoveryOptions;
     private final RunningMode runningMode;
     private URI uri;
+    // The domain model last applied, used to only receive the changed resources when reconnecting
+    private volatile List<ModelNode> lastDomainModel;
 
     RemoteDomainConnection(final String localHostName, final ProtocolConnectionConfiguration configuration, final AuthenticationContext authenticationContext,
                            final SecurityRealm realm,  final String username, final List<DiscoveryOption> discoveryOptions,
@@ -200,6 +203,18 @@ class RemoteDomainConnection extends FutureManagementChannel {
      * @throws IOException
      */
     protected Connection openConnection() throws IOException {
+        return openConnection(uri);
+    }
+
+    /**
+     * Opens a connection to a host using the same configuration and credentials as the connection to the remote
+     * domain controller.
+     *
+     * @param uri the uri of the host
+     * @return the connection
+     * @throws IOException if the connection cannot be established
+     */
+    Connection openConnection(final URI uri) throws IOException {
         // Perhaps this can just be done once?
         CallbackHandler callbackHandler = null;
         SSLContext sslContext = null;
@@ -229,6 +244,17 @@ class RemoteDomainConnection extends FutureManagementChannel {
         }
     }
 
+    /**
+     * Opens the domain channel on a connection opened using {@link #openConnection(URI)}.
+     *
+     * @param connection the connection
+     * @return the channel
+     * @throws IOException if the channel cannot be opened
+     */
+    Channel openDomainChannel(final Connection connection) throws IOException {
+        return openChannel(connection, CHANNEL_SERVICE_TYPE, configuration.getOptionMap());
+    }
+
     @Override
     public void connectionOpened(final Connection connection) throws IOException {
         final Channel channel = openChannel(connection, CHANNEL_SERVICE_TYPE, configuration.getOptionMap());
@@ -247,6 +273,9 @@ class RemoteDomainConnection extends FutureManagementChannel {
                 if(e.getCause() instanceof IOException) {
                     throw (IOException) e.getCause();
                 }
+                if (e.getCause() instanceof UnknownUnchangedResourcesException) {
+                    throw new IOException(e.getCause());
+                }
                 throw new IOException(e);
             }
             // Registered
@@ -296,7 +325,17 @@ class RemoteDomainConnection extends FutureManagementChannel {
         URI masterURI = new URI(remoteDcConfig.getProtocol(), null, remoteDcConfig.getHost(), remoteDcConfig.getPort(), null, null, null);
         setUri(masterURI);
         HostControllerLogger.ROOT_LOGGER.debugf("trying to reconnect to remote host-controller at %s", masterURI);
-        Connection connection = connectionManager.connect();
+        Connection connection;
+        try {
+            connection = connectionManager.connect();
+        } catch (IOException e) {
+            if (!(e.getCause() instanceof UnknownUnchangedResourcesException)) {
+                throw e;
+            }
+            // The failed registration was closed and the digests are no longer sent, so the complete domain model is requested
+            HostControllerLogger.ROOT_LOGGER.unknownUnchangedDomainResources();
+            connection = connectionManager.connect();
+        }
         HostControllerLogger.ROOT_LOGGER.connectedToMaster(masterURI);
         return connection;
     }
@@ -315,14 +354,24 @@ class RemoteDomainConnection extends FutureManagementChannel {
      * Apply the remote read domain model result.
      *
      * @param result the domain model result
+     * @param previous the domain model the digests sent to the domain controller were created from, or {@code null}
      * @return whether it was applied successfully or not
+     * @throws UnknownUnchangedResourcesException if a resource marked as unchanged is not part of the previous domain model
      */
-    boolean applyDomainModel(ModelNode result) {
+    boolean applyDomainModel(ModelNode result, List<ModelNode> previous) throws UnknownUnchangedResourcesException {
         if(! result.hasDefined(ModelDescriptionConstants.RESULT)) {
             return false;
         }
-        final List<ModelNode> bootOperations= result.get(ModelDescriptionConstants.RESULT).asList();
-        return callback.applyDomainModel(bootOperations);
+        final List<ModelNode> bootOperations = ReadMasterDomainModelUtil.restoreUnchangedResources(
+                result.get(ModelDescriptionConstants.RESULT).asList(), previous);
+        if (bootOperations == null) {
+            // Don't send the digests again, so the next registration receives the complete model
+            lastDomainModel = null;
+            throw new UnknownUnchangedResourcesException();
+        }
+        final boolean applied = callback.applyDomainModel(bootOperations);
+        lastDomainModel = applied ? bootOperations : null;
+        return applied;
     }
 
     void registered() {
@@ -371,12 +420,19 @@ class RemoteDomainConnection extends FutureManagementChannel {
       */
      private abstract class HostControllerConnectRequest extends AbstractManagementRequest<Void, Void> {
 
+         // The domain model the sent digests were created from
+         private volatile List<ModelNode> domainModel;
+
          @Override
          protected void sendRequest(final ActiveOperation.ResultHandler<Void> resultHandler, final ManagementRequestContext<Void> context, final FlushableDataOutput output) throws IOException {
              output.write(DomainControllerProtocol.PARAM_HOST_ID);
              output.writeUTF(localHostName);
              ModelNode hostInfo = callback.createLocalHostInfo();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             domainModel = lastDomainModel;
+             if (domainModel != null) {
+                 hostInfo.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_DIGESTS).set(ReadMasterDomainModelUtil.createResourceDigests(domainModel));
+             }
              hostInfo.writeExternal(output);
          }
 
@@ -402,7 +458,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
                      //
                      final ModelNode subsystems = resolveSubsystemVersions(extensions);
                      channelHandler.executeRequest(context.getOperationId(),
-                             new RegisterSubsystemsRequest(subsystems));
+                             new RegisterSubsystemsRequest(subsystems, domainModel));
                  }
              });
          }
@@ -433,9 +489,11 @@ class RemoteDomainConnection extends FutureManagementChannel {
      private class RegisterSubsystemsRequest extends AbstractManagementRequest<Void, Void> {
 
          private final ModelNode subsystems;
+         private final List<ModelNode> previousDomainModel;
 
-         private RegisterSubsystemsRequest(ModelNode subsystems) {
+         private RegisterSubsystemsRequest(ModelNode subsystems, List<ModelNode> previousDomainModel) {
              this.subsystems = subsystems;
+             this.previousDomainModel = previousDomainModel;
          }
 
          @Override
@@ -465,7 +523,15 @@ class RemoteDomainConnection extends FutureManagementChannel {
                  @Override
                  public void execute(ManagementRequestContext<Void> voidManagementRequestContext) throws Exception {
                      // Apply the domain model
-                     if (applyDomainModel(domainModel)) {
+                     final boolean applied;
+                     try {
+                         applied = applyDomainModel(domainModel, previousDomainModel);
+                     } catch (UnknownUnchangedResourcesException e) {
+                         channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_ERROR));
+                         resultHandler.failed(e);
+                         return;
+                     }
+                     if (applied) {
                          channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_OK));
                      } else {
                          channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_ERROR));
@@ -638,4 +704,12 @@ class RemoteDomainConnection extends FutureManagementChannel {
         }
     }
 
+    /**
+     * Thrown if the domain controller marked resources as unchanged which are not part of the domain model the digests
+     * were created from.
+     */
+    static final class UnknownUnchangedResourcesException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+    }
 }
@@ -27,6 +27,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IGNORED_RESOURCES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IGNORED_RESOURCE_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_MAJOR_VERSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_MICRO_VERSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_MINOR_VERSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RELOAD;
@@ -37,11 +40,20 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 
 import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +69,7 @@ import javax.security.sasl.SaslException;
 import org.jboss.as.controller.Cancellable;
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -82,6 +95,7 @@ import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.FetchMissingConfigurationHandler;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.controller.operations.SyncDomainModelOperationHandler;
 import org.jboss.as.domain.controller.operations.SyncServerGroupOperationHandler;
 import org.jboss.as.domain.controller.operations.coordination.DomainControllerLockIdUtils;
@@ -91,21 +105,28 @@ import org.jboss.as.host.controller.discovery.DiscoveryOption;
 import org.jboss.as.host.controller.discovery.RemoteDomainControllerConnectionConfiguration;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.host.controller.mgmt.ContentSourceRegistry.ContentSource;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
 import org.jboss.as.host.controller.mgmt.DomainRemoteFileRequestAndHandler;
 import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
 import org.jboss.as.host.controller.mgmt.HostInfo;
+import org.jboss.as.host.controller.mgmt.PeerContentOperationHandlerService;
 import org.jboss.as.protocol.ProtocolConnectionConfiguration;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
+import org.jboss.as.repository.ContentChunks;
+import org.jboss.as.repository.ContentChunks.ChunkLocation;
+import org.jboss.as.repository.ContentChunks.Manifest;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.PathUtil;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.DidNotReadEntireFileException;
 import org.jboss.as.version.ProductConfig;
@@ -119,6 +140,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.Connection;
 import org.jboss.remoting3.Endpoint;
 import org.jboss.remoting3.RemotingOptions;
@@ -142,6 +164,14 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    /** Whether missing deployment content is assembled from chunks of content already available locally */
+    private static final boolean DELTA_TRANSFER = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.host.domain.content.delta-transfer", "false"));
+    /** The name of the file or directory holding the content in a deployment root */
+    private static final String DEPLOYMENT_CONTENT = "content";
+    /** The management version of the first masters able to transfer content in chunks */
+    static final ModelVersion CHUNKED_TRANSFER_VERSION = ModelVersion.create(10, 0, 0);
+    /** The management version of the first masters able to have content transferred between hosts */
+    static final ModelVersion PEER_TRANSFER_VERSION = ModelVersion.create(10, 0, 0);
 
     //private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -196,6 +226,10 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private ManagementChannelHandler handler;
     private volatile ResponseAttachmentInputStreamSupport responseAttachmentSupport;
     private volatile RemoteDomainConnection connection;
+    /** Whether to transfer content in chunks, updated from the management version of the master when it sends the domain model */
+    private volatile boolean deltaTransferSupported;
+    /** Whether to transfer content between hosts, updated from the management version of the master when it sends the domain model */
+    private volatile boolean peerTransferSupported;
 
     private RemoteDomainConnectionService(final ModelController controller,
                                           final ExtensionRegistry extensionRegistry,
@@ -543,6 +577,9 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 public boolean applyDomainModel(final List<ModelNode> bootOperations) {
                     // Apply the model..
                     final HostInfo info = HostInfo.fromModelNode(createLocalHostInfo());
+                    final ModelVersion masterVersion = getManagementVersion(bootOperations);
+                    deltaTransferSupported = DELTA_TRANSFER && masterVersion != null && masterVersion.compareTo(CHUNKED_TRANSFER_VERSION) >= 0;
+                    peerTransferSupported = PeerContentOperationHandlerService.ENABLED && masterVersion != null && masterVersion.compareTo(PEER_TRANSFER_VERSION) >= 0;
                     return applyRemoteDomainModel(bootOperations, info);
                 }
 
@@ -703,11 +740,20 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         private final byte rootId;
         private final String filePath;
         private final HostFileRepository localFileRepository;
+        private final File targetPath;
 
         private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository) {
+            this(rootId, filePath, localFileRepository, null);
+        }
+
+        /**
+         * Creates a request storing received deployment content in the target path instead of the local repository.
+         */
+        private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository, final File targetPath) {
             this.rootId = rootId;
             this.filePath = filePath;
             this.localFileRepository = localFileRepository;
+            this.targetPath = targetPath;
         }
 
         @Override
@@ -735,8 +781,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     break;
                 }
                 case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
-                    byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                    localPath = localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                    if (targetPath != null) {
+                        localPath = targetPath;
+                    } else {
+                        byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                        localPath = localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                    }
                     break;
                 }
                 default: {
@@ -753,6 +803,140 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private class GetFileChunksRequest extends AbstractManagementRequest<Manifest, Void> {
+        private final byte rootId;
+        private final String filePath;
+
+        private GetFileChunksRequest(final byte rootId, final String filePath) {
+            this.rootId = rootId;
+            this.filePath = filePath;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_FILE_CHUNKS_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<Manifest> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Manifest> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            resultHandler.done(DomainRemoteFileRequestAndHandler.INSTANCE.handleChunksResponse(input));
+        }
+    }
+
+    private class GetFileChunkDataRequest extends AbstractManagementRequest<File, Void> {
+        private final String filePath;
+        private final File localPath;
+        private final Manifest manifest;
+        private final Map<String, ChunkLocation> localChunks;
+
+        private GetFileChunkDataRequest(final String filePath, final File localPath, final Manifest manifest, final Map<String, ChunkLocation> localChunks) {
+            this.filePath = filePath;
+            this.localPath = localPath;
+            this.manifest = manifest;
+            this.localChunks = localChunks;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_FILE_CHUNK_DATA_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DomainRemoteFileRequestAndHandler.INSTANCE.sendChunkDataRequest(output, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, filePath, manifest, localChunks);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            try {
+                DomainRemoteFileRequestAndHandler.INSTANCE.handleChunkDataResponse(input, localPath, manifest, localChunks, ROOT_LOGGER, resultHandler);
+            } catch (CannotCreateLocalDirectoryException e) {
+                throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(e.getDir());
+            } catch (DidNotReadEntireFileException e) {
+                throw HostControllerLogger.ROOT_LOGGER.didNotReadEntireFile(e.getMissing());
+            }
+        }
+    }
+
+    private class GetContentSourceRequest extends AbstractManagementRequest<ContentSource, Void> {
+        private final String hash;
+
+        private GetContentSourceRequest(final String hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_CONTENT_SOURCE_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<ContentSource> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            output.write(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(hash);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<ContentSource> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_CONTENT_SOURCE);
+            final String hostName = input.readUTF();
+            final String uri = input.readUTF();
+            if (hostName.isEmpty()) {
+                resultHandler.done(new ContentSource(null, null));
+            } else {
+                try {
+                    resultHandler.done(new ContentSource(hostName, new URI(uri)));
+                } catch (URISyntaxException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+
+    private class ContentAvailableRequest extends AbstractManagementRequest<Void, Void> {
+        private final String hash;
+        private final boolean sourceFailed;
+        private final int port;
+
+        private ContentAvailableRequest(final String hash, final boolean sourceFailed, final int port) {
+            this.hash = hash;
+            this.sourceFailed = sourceFailed;
+            this.port = port;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.CONTENT_AVAILABLE_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            output.write(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(hash);
+            output.write(sourceFailed ? DomainControllerProtocol.PARAM_ERROR : DomainControllerProtocol.PARAM_OK);
+            output.write(DomainControllerProtocol.PARAM_PORT);
+            output.writeInt(port);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            resultHandler.done(null);
+        }
+    }
+
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
@@ -807,11 +991,10 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
-                try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
-                } catch (Exception e) {
-                    throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
+                if (repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT && peerTransferSupported) {
+                    return getDeploymentFromSource(relativePath, localFileRepository);
                 }
+                return getFileFromMaster(relativePath, repoId, localFileRepository);
             } else {
                 final File file = localFileRepository.getFile(relativePath);
                 // using --cached-dc and the DC is unavailable, make sure the content exists locally.
@@ -825,6 +1008,194 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     };
 
+    private File getFileFromMaster(final String relativePath, final byte repoId, final HostFileRepository localFileRepository) {
+        if (repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT && deltaTransferSupported) {
+            final File file = getDeploymentDelta(relativePath, localFileRepository);
+            if (file != null) {
+                return file;
+            }
+        }
+        try {
+            return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+        } catch (Exception e) {
+            throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
+        }
+    }
+
+    /**
+     * Fetches deployment content from the source selected by the master, which is either the master itself or another
+     * host already holding the content. Once fetched the master is told this host can serve the content as well.
+     */
+    private File getDeploymentFromSource(final String hash, final HostFileRepository localFileRepository) {
+        final ContentSource source;
+        try {
+            source = handler.executeRequest(new GetContentSourceRequest(hash), null).getResult().get();
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to get a source for content %s, transferring it from the master", hash);
+            return getFileFromMaster(hash, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, localFileRepository);
+        }
+        final ContentReference reference = new ContentReference(hash, HashUtil.hexStringToByteArray(hash));
+        File file = null;
+        boolean sourceFailed = false;
+        try {
+            if (source.getUri() != null) {
+                try {
+                    file = getDeploymentFromPeer(source, reference, localFileRepository);
+                } catch (Exception e) {
+                    ROOT_LOGGER.failedToGetDeploymentContentFromHost(e, hash, source.getHostName());
+                }
+                if (file == null || !file.exists()) {
+                    sourceFailed = true;
+                    file = null;
+                    if (localFileRepository.getDeploymentRoot(reference).exists()) {
+                        localFileRepository.deleteDeployment(reference);
+                    }
+                } else {
+                    ROOT_LOGGER.debugf("Received deployment content %s from host %s", hash, source.getHostName());
+                }
+            }
+            if (file == null) {
+                file = getFileFromMaster(hash, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, localFileRepository);
+            }
+        } finally {
+            final int port = file != null && file.exists() ? localHostInfo.getNativeManagementPort() : -1;
+            try {
+                handler.executeRequest(new ContentAvailableRequest(hash, sourceFailed, port), null);
+            } catch (Exception e) {
+                ROOT_LOGGER.debugf(e, "Failed to notify the master about content %s", hash);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Fetches deployment content from another host. The content is received in a staging directory next to the
+     * deployment root and only moved into the local repository once its hash matches the requested one.
+     */
+    private File getDeploymentFromPeer(final ContentSource source, final ContentReference reference, final HostFileRepository localFileRepository) throws Exception {
+        final File deploymentRoot = localFileRepository.getDeploymentRoot(reference);
+        final File staging = new File(deploymentRoot.getParentFile(), deploymentRoot.getName() + ".peer");
+        PathUtil.deleteSilentlyRecursively(staging.toPath());
+        try {
+            final Connection peerConnection = connection.openConnection(source.getUri());
+            try {
+                final Channel channel = connection.openDomainChannel(peerConnection);
+                final ManagementChannelHandler peerHandler = new ManagementChannelHandler(ManagementClientChannelStrategy.create(channel), executor);
+                channel.receiveMessage(peerHandler.getReceiver());
+                try {
+                    peerHandler.executeRequest(new GetFileRequest(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT,
+                            reference.getHexHash(), localFileRepository, staging), null).getResult().get();
+                } finally {
+                    StreamUtils.safeClose(channel);
+                }
+            } finally {
+                StreamUtils.safeClose(peerConnection);
+            }
+            if (!staging.exists()) {
+                return null;
+            }
+            return installPeerContent(staging, deploymentRoot, reference.getHash(), source.getHostName());
+        } finally {
+            PathUtil.deleteSilentlyRecursively(staging.toPath());
+        }
+    }
+
+    /**
+     * Moves deployment content received from another host into the deployment root, once its hash has been verified
+     * against the requested hash.
+     *
+     * @param staging        the directory holding the received content
+     * @param deploymentRoot the deployment root in the local repository
+     * @param hash           the requested hash
+     * @param hostName       the name of the host the content was received from
+     * @return the deployment root
+     * @throws IOException if the hash of the content does not match, in which case the received content is deleted
+     */
+    static File installPeerContent(final File staging, final File deploymentRoot, final byte[] hash, final String hostName) throws IOException {
+        final Path content = staging.toPath().resolve(DEPLOYMENT_CONTENT);
+        if (!Files.exists(content) || !Arrays.equals(hash, hashContent(content))) {
+            PathUtil.deleteSilentlyRecursively(staging.toPath());
+            throw ROOT_LOGGER.deploymentContentHashMismatch(hostName, HashUtil.bytesToHexString(hash));
+        }
+        if (!deploymentRoot.exists()) {
+            Files.move(staging.toPath(), deploymentRoot.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        return deploymentRoot;
+    }
+
+    /**
+     * Computes the hash of deployment content the same way the content repository does. The hash of an archive is the
+     * hash of its bytes while the hash of exploded content covers the whole directory tree.
+     */
+    private static byte[] hashContent(final Path content) throws IOException {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        if (Files.isDirectory(content)) {
+            return org.jboss.as.repository.HashUtil.hashPath(messageDigest, content);
+        }
+        try (InputStream in = Files.newInputStream(content)) {
+            return org.jboss.as.repository.HashUtil.hashContent(messageDigest, in);
+        }
+    }
+
+    /**
+     * Fetches deployment content reusing the chunks of the content already in the local repository, typically those of
+     * a previous version of the deployment.
+     *
+     * @return the local deployment root, or {@code null} if the content should be transferred as a whole
+     */
+    private File getDeploymentDelta(final String hash, final HostFileRepository localFileRepository) {
+        final Manifest manifest;
+        try {
+            manifest = handler.executeRequest(new GetFileChunksRequest(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, hash), null).getResult().get();
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to get the chunks of content %s, transferring the whole content", hash);
+            return null;
+        }
+        if (manifest == null) {
+            return null;
+        }
+        try {
+            final Map<String, ChunkLocation> localChunks = ContentChunks.findLocalChunks(localFileRepository.getDeploymentRoot(null), manifest.getChunks());
+            if (localChunks.isEmpty()) {
+                return null;
+            }
+            final File localPath = localFileRepository.getDeploymentRoot(new ContentReference(hash, HashUtil.hexStringToByteArray(hash)));
+            final File result = handler.executeRequest(new GetFileChunkDataRequest(hash, localPath, manifest, localChunks), null).getResult().get();
+            final long localBytes = manifest.getLocalBytes(localChunks);
+            ROOT_LOGGER.deploymentContentDeltaTransferred(hash, manifest.getLength() - localBytes, localBytes);
+            return result;
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to transfer content %s in chunks, transferring the whole content", hash);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the management version of the master from the root resource of the domain model it sent.
+     *
+     * @param domainModel the resources of the domain model
+     * @return the management version, or {@code null} if the domain model does not include it
+     */
+    static ModelVersion getManagementVersion(final List<ModelNode> domainModel) {
+        for (ModelNode description : domainModel) {
+            if (description.has(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS)
+                    && PathAddress.pathAddress(description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS)).size() == 0) {
+                final ModelNode model = description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL);
+                if (!model.hasDefined(MANAGEMENT_MAJOR_VERSION)) {
+                    return null;
+                }
+                return ModelVersion.create(model.get(MANAGEMENT_MAJOR_VERSION).asInt(),
+                        model.get(MANAGEMENT_MINOR_VERSION).asInt(0), model.get(MANAGEMENT_MICRO_VERSION).asInt(0));
+            }
+        }
+        return null;
+    }
+
     private void setupHandler() {
         // Setup the transaction protocol handler
         handler.addHandlerFactory(new TransactionalProtocolOperationHandler(controller, handler, responseAttachmentSupport));
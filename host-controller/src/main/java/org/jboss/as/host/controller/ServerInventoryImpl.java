@@ -348,9 +348,21 @@ public class ServerInventoryImpl implements ServerInventory {
 
     @Override
     public void stopServers(final int gracefulTimeout, final boolean blockUntilStopped) {
-        for(final ManagedServer server : servers.values()) {
-            Integer currentOperationID = CurrentOperationIdHolder.getCurrentOperationID();
-            server.stop(currentOperationID == null ? null : gracefulTimeout);
+        final Integer currentOperationID = CurrentOperationIdHolder.getCurrentOperationID();
+        final Integer timeout = currentOperationID == null ? null : gracefulTimeout;
+        // Send the stop requests to the process controller together. With a graceful timeout a server is only stopped
+        // once it has been suspended, so its request is held back until all servers have been suspended.
+        processControllerClient.beginBatch();
+        try {
+            for(final ManagedServer server : servers.values()) {
+                server.stop(timeout);
+            }
+        } finally {
+            try {
+                processControllerClient.endBatch();
+            } catch (IOException e) {
+                ROOT_LOGGER.failedToSendServerStopRequests(e);
+            }
         }
         if(blockUntilStopped) {
             synchronized (shutdownCondition) {
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.client.helpers.domain.ServerStatus;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Starts the auto-start servers of a host when the host controller boots.
+ * <p>
+ * The servers are started in the order of their server group in the {@code org.jboss.as.host.start.servers.group-order}
+ * system property, a comma separated list of server group names. Servers of groups which are not listed are started
+ * last. Within a group the configuration order is kept.
+ * </p>
+ * <p>
+ * If the {@code org.jboss.as.host.start.servers.max-concurrent} system property is set, no more than that number of
+ * servers are booting at the same time. Each remaining server is only admitted once one of the booting servers
+ * finished starting or failed. The servers are always started from the calling thread, so that they are started as
+ * part of the management operation which requested the start.
+ * </p>
+ */
+public final class ServerStartScheduler {
+
+    public static final int MAX_CONCURRENT_BOOTS;
+    static final List<String> GROUP_ORDER;
+    private static final long POLL_INTERVAL = 250;
+
+    static {
+        int maxConcurrent = 0;
+        try {
+            maxConcurrent = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.max-concurrent", "0"));
+        } catch (NumberFormatException e) {
+            // ignore, no limit
+        } finally {
+            MAX_CONCURRENT_BOOTS = maxConcurrent > 0 ? maxConcurrent : 0;
+        }
+        GROUP_ORDER = parseGroupOrder(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.group-order", null));
+    }
+
+    private final ServerInventory serverInventory;
+    private final boolean blocking;
+    private final int maxConcurrentBoots;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param serverInventory the server inventory
+     * @param blocking {@code true} if each server should be started after the previous one completed its boot
+     */
+    public ServerStartScheduler(final ServerInventory serverInventory, final boolean blocking) {
+        this(serverInventory, blocking, MAX_CONCURRENT_BOOTS);
+    }
+
+    ServerStartScheduler(final ServerInventory serverInventory, final boolean blocking, final int maxConcurrentBoots) {
+        this.serverInventory = serverInventory;
+        this.blocking = blocking;
+        this.maxConcurrentBoots = maxConcurrentBoots;
+    }
+
+    /**
+     * Start the servers. If the number of concurrently booting servers is limited, this blocks until the last server
+     * has been admitted.
+     *
+     * @param servers the names of the servers to start mapped to their server group, in configuration order
+     * @param domainModel the domain model to start the servers with
+     */
+    public void startServers(final Map<String, String> servers, final ModelNode domainModel) {
+        final List<String> ordered = order(servers, GROUP_ORDER);
+        final boolean limited = !blocking && maxConcurrentBoots > 0 && ordered.size() > maxConcurrentBoots;
+        final List<String> booting = new ArrayList<>();
+        for (String serverName : ordered) {
+            if (limited) {
+                if (!awaitAdmission(booting)) {
+                    ROOT_LOGGER.debugf("Interrupted while waiting to start server %s", serverName);
+                    return;
+                }
+                // Someone else may have started the server in the meantime
+                if (serverInventory.determineServerStatus(serverName) != ServerStatus.STOPPED) {
+                    continue;
+                }
+            }
+            if (!startServer(serverName, domainModel)) {
+                return;
+            }
+            booting.add(serverName);
+        }
+    }
+
+    /**
+     * Waits until fewer than the maximum number of the given servers are booting.
+     *
+     * @param booting the servers which were started, servers which are no longer booting are removed
+     * @return {@code false} if the thread was interrupted while waiting
+     */
+    private boolean awaitAdmission(final List<String> booting) {
+        for (;;) {
+            final Iterator<String> iterator = booting.iterator();
+            while (iterator.hasNext()) {
+                if (serverInventory.determineServerStatus(iterator.next()) != ServerStatus.STARTING) {
+                    iterator.remove();
+                }
+            }
+            if (booting.size() < maxConcurrentBoots) {
+                return true;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private boolean startServer(final String serverName, final ModelNode domainModel) {
+        try {
+            serverInventory.startServer(serverName, domainModel, blocking, false);
+            return true;
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToStartServer(e, serverName);
+            // The host controller is shutting down, don't bother with the remaining servers
+            return !(e instanceof IllegalStateException);
+        }
+    }
+
+    /**
+     * Orders the servers by the position of their server group in the given list, keeping the configuration order
+     * of the servers within a group. Servers of unlisted groups come last.
+     *
+     * @param servers the server names mapped to their server group, in configuration order
+     * @param groupOrder the server group names, highest priority first
+     * @return the ordered server names
+     */
+    static List<String> order(final Map<String, String> servers, final List<String> groupOrder) {
+        final List<String> result = new ArrayList<>(servers.keySet());
+        if (!groupOrder.isEmpty()) {
+            // List.sort is stable
+            result.sort(new Comparator<String>() {
+                @Override
+                public int compare(final String server1, final String server2) {
+                    return Integer.compare(priority(servers.get(server1)), priority(servers.get(server2)));
+                }
+
+                private int priority(final String group) {
+                    final int index = groupOrder.indexOf(group);
+                    return index < 0 ? groupOrder.size() : index;
+                }
+            });
+        }
+        return result;
+    }
+
+    static List<String> parseGroupOrder(final String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> result = new ArrayList<>();
+        for (String group : value.split(",")) {
+            group = group.trim();
+            if (!group.isEmpty()) {
+                result.add(group);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
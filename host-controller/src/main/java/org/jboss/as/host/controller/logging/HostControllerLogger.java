@@ -1452,4 +1452,23 @@ public interface HostControllerLogger extends BasicLogger {
     @Message(id = 215, value = "Could not find java executable under %s.")
     IllegalStateException cannotFindJavaExe(String binDir);
 
+    @LogMessage(level = Level.INFO)
+    @Message(id = 216, value = "Transferred deployment content %s from the master receiving %d bytes, %d bytes were reused from local content")
+    void deploymentContentDeltaTransferred(String hash, long receivedBytes, long reusedBytes);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 217, value = "Failed to get deployment content %s from host %s, getting it from the master")
+    void failedToGetDeploymentContentFromHost(@Cause Throwable cause, String hash, String hostName);
+
+    @Message(id = 218, value = "The deployment content received from host %s does not match the requested hash %s")
+    IOException deploymentContentHashMismatch(String hostName, String hash);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 219, value = "The domain controller marked domain resources as unchanged which are not part of the domain model last applied by this host, requesting the complete domain model")
+    void unknownUnchangedDomainResources();
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 220, value = "Failed to send the requests to stop the servers to the process controller")
+    void failedToSendServerStopRequests(@Cause IOException cause);
+
 }
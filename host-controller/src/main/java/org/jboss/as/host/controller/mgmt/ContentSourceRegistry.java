@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Keeps track of the host controllers holding a copy of deployment content which they can serve to other host
+ * controllers, so deployment content spreads through the domain like a tree instead of every host fetching it from the
+ * master.
+ * <p>
+ * Each source, including the master, is assigned at most {@code fan-out} concurrent transfers. Once a host has fetched
+ * the content it becomes a source itself, so the number of sources grows geometrically and the time taken to distribute
+ * content grows logarithmically with the number of hosts. If every source is busy the content is fetched from the
+ * master.
+ * </p>
+ */
+public final class ContentSourceRegistry {
+
+    private static final int FAN_OUT = Math.max(1, Integer.parseInt(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.domain.content.peer-fan-out", "2")));
+    // Assignments not completed in time, e.g. because the host went away, no longer count towards the load of a source
+    private static final long ASSIGNMENT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private final int fanOut;
+    // content hash -> host -> uri of the host
+    private final Map<String, Map<String, URI>> sources = new HashMap<>();
+    private final Map<Transfer, Assignment> assignments = new HashMap<>();
+
+    ContentSourceRegistry() {
+        this(FAN_OUT);
+    }
+
+    ContentSourceRegistry(final int fanOut) {
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Selects the source a host should fetch content from.
+     *
+     * @param hash the hex hash of the content
+     * @param host the name of the host fetching the content
+     * @return the source
+     */
+    synchronized ContentSource select(final String hash, final String host) {
+        final long now = System.currentTimeMillis();
+        assignments.values().removeIf(assignment -> assignment.deadline < now);
+        ContentSource selected = ContentSource.MASTER;
+        if (getLoad(null) >= fanOut) {
+            final Map<String, URI> holders = sources.get(hash);
+            if (holders != null) {
+                int lowest = fanOut;
+                for (Map.Entry<String, URI> holder : holders.entrySet()) {
+                    final int load = getLoad(holder.getKey());
+                    if (load < lowest && !holder.getKey().equals(host)) {
+                        lowest = load;
+                        selected = new ContentSource(holder.getKey(), holder.getValue());
+                    }
+                }
+            }
+        }
+        assignments.put(new Transfer(hash, host), new Assignment(selected.getHostName(), now + ASSIGNMENT_TIMEOUT));
+        return selected;
+    }
+
+    /**
+     * Records the completion of a transfer.
+     *
+     * @param hash the hex hash of the content
+     * @param host the name of the host which fetched the content
+     * @param sourceFailed whether the selected source failed to provide the content
+     * @param uri the uri the host serves the content from, or {@code null} if it cannot serve the content
+     */
+    synchronized void completed(final String hash, final String host, final boolean sourceFailed, final URI uri) {
+        final Assignment assignment = assignments.remove(new Transfer(hash, host));
+        if (sourceFailed && assignment != null && assignment.source != null) {
+            final Map<String, URI> holders = sources.get(hash);
+            if (holders != null) {
+                holders.remove(assignment.source);
+            }
+        }
+        if (uri != null) {
+            sources.computeIfAbsent(hash, k -> new LinkedHashMap<>()).put(host, uri);
+        }
+    }
+
+    /**
+     * Forgets about a host which is no longer part of the domain.
+     *
+     * @param host the name of the host
+     */
+    synchronized void removeHost(final String host) {
+        final Iterator<Map<String, URI>> i = sources.values().iterator();
+        while (i.hasNext()) {
+            final Map<String, URI> holders = i.next();
+            holders.remove(host);
+            if (holders.isEmpty()) {
+                i.remove();
+            }
+        }
+        assignments.entrySet().removeIf(entry -> entry.getKey().host.equals(host) || host.equals(entry.getValue().source));
+    }
+
+    private int getLoad(final String source) {
+        int load = 0;
+        for (Assignment assignment : assignments.values()) {
+            if (source == null ? assignment.source == null : source.equals(assignment.source)) {
+                load++;
+            }
+        }
+        return load;
+    }
+
+    /**
+     * A source of deployment content.
+     */
+    public static final class ContentSource {
+        static final ContentSource MASTER = new ContentSource(null, null);
+
+        private final String hostName;
+        private final URI uri;
+
+        public ContentSource(final String hostName, final URI uri) {
+            this.hostName = hostName;
+            this.uri = uri;
+        }
+
+        /**
+         * The name of the host serving the content.
+         *
+         * @return the host name, or {@code null} if the content is served by the master
+         */
+        public String getHostName() {
+            return hostName;
+        }
+
+        /**
+         * The uri to connect to for the content.
+         *
+         * @return the uri, or {@code null} if the content is served by the master
+         */
+        public URI getUri() {
+            return uri;
+        }
+    }
+
+    private static final class Transfer {
+        private final String hash;
+        private final String host;
+
+        private Transfer(final String hash, final String host) {
+            this.hash = hash;
+            this.host = host;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Transfer)) {
+                return false;
+            }
+            final Transfer other = (Transfer) o;
+            return hash.equals(other.hash) && host.equals(other.host);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * hash.hashCode() + host.hashCode();
+        }
+    }
+
+    private static final class Assignment {
+        private final String source;
+        private final long deadline;
+
+        private Assignment(final String source, final long deadline) {
+            this.source = source;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -37,6 +37,10 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FETCH_DOMAIN_CONFIGURATION_REQUEST = 0x57;
     byte COMPLETE_HOST_CONTROLLER_REGISTRATION = 0x58;
     byte REQUEST_SUBSYSTEM_VERSIONS = 0x59;
+    byte GET_FILE_CHUNKS_REQUEST = 0x5A;
+    byte GET_FILE_CHUNK_DATA_REQUEST = 0x5B;
+    byte GET_CONTENT_SOURCE_REQUEST = 0x5C;
+    byte CONTENT_AVAILABLE_REQUEST = 0x5D;
 
     byte PARAM_HOST_ID = 0x20;
     byte PARAM_OK = 0x21;
@@ -51,5 +55,9 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
     byte PARAM_SERVER_ID = 0x33;
+    byte PARAM_NUM_CHUNKS = 0x34;
+    byte CHUNK_START = 0x35;
+    byte PARAM_CONTENT_SOURCE = 0x36;
+    byte PARAM_PORT = 0x37;
 
 }
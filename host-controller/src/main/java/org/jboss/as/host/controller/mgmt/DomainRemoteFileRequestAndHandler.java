@@ -57,10 +57,20 @@ public class DomainRemoteFileRequestAndHandler extends RemoteFileRequestAndHandl
         }
     };
 
+    public static final ChunkProtocolIdMapper CHUNK_MAPPER = new ChunkProtocolIdMapper() {
+        public byte paramNumChunks() {
+            return DomainControllerProtocol.PARAM_NUM_CHUNKS;
+        }
+
+        public byte chunkStart() {
+            return DomainControllerProtocol.CHUNK_START;
+        }
+    };
+
     public static final DomainRemoteFileRequestAndHandler INSTANCE = new DomainRemoteFileRequestAndHandler(null);
 
     public DomainRemoteFileRequestAndHandler(Executor asyncExecutor) {
-        super(MAPPER, asyncExecutor);
+        super(MAPPER, CHUNK_MAPPER, asyncExecutor);
     }
 
 }
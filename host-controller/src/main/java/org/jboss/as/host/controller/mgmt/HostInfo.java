@@ -41,9 +41,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WILDCARD;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -71,7 +73,8 @@ import org.jboss.dmr.Property;
  *
  * @author Brian Stansberry (c) 2012 Red Hat Inc.
  */
-public class HostInfo implements Transformers.ResourceIgnoredTransformationRegistry, Transformers.OperationExcludedTransformationRegistry {
+public class HostInfo implements Transformers.ResourceIgnoredTransformationRegistry, Transformers.OperationExcludedTransformationRegistry,
+        Transformers.TransformationCacheKeyProvider {
 
     /**
      * Create the metadata which gets send to the DC when registering.
@@ -130,6 +133,8 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
     private final Set<ServerConfigInfo> serverConfigInfos;
     private final Set<String> domainIgnoredExtensions;
     private final boolean hostDeclaredIgnoreUnaffected;
+    private final ModelNode domainModelDigests;
+    private final ModelNode ignoredResourcesModel;
     // GuardedBy this
     private ReadMasterDomainModelUtil.RequiredConfigurationHolder requiredConfigurationHolder;
 
@@ -144,6 +149,8 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        domainModelDigests = hostInfo.hasDefined(ReadMasterDomainModelUtil.DOMAIN_MODEL_DIGESTS)
+                ? hostInfo.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_DIGESTS).clone() : null;
 
         Set<String> domainIgnoredExtensions = null;
         Set<String> domainActiveServerGroups = null;
@@ -163,6 +170,7 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         this.domainIgnoredExtensions = domainIgnoredExtensions;
 
         ignoredResources = createIgnoredRegistry(hostInfo, domainIgnoredExtensions);
+        ignoredResourcesModel = hostInfo.hasDefined(IGNORED_RESOURCES) ? hostInfo.get(IGNORED_RESOURCES).clone() : new ModelNode();
 
         hostDeclaredIgnoreUnaffected = hostInfo.hasDefined(IGNORE_UNUSED_CONFIG) && hostInfo.get(IGNORE_UNUSED_CONFIG).asBoolean();
         ignoreUnaffectedConfig = hostDeclaredIgnoreUnaffected || (domainActiveServerGroups != null && !domainActiveServerGroups.isEmpty());
@@ -217,6 +225,15 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         return remoteConnectionId;
     }
 
+    /**
+     * Gets the digests of the domain model resources last applied by the slave.
+     *
+     * @return the digests keyed by resource address, or {@code null} if the slave requires the complete domain model
+     */
+    public ModelNode getDomainModelDigests() {
+        return domainModelDigests;
+    }
+
     public boolean isResourceTransformationIgnored(final PathAddress address) {
         // This resource transformation is only used when registering the host
         // Future operations will send an updated list of ignored-resources
@@ -268,6 +285,21 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         return false;
     }
 
+    @Override
+    public synchronized Object getTransformationCacheKey() {
+        // Hosts ignoring the same resources share their transformations, regardless of the name of the host
+        final List<Set<String>> requiredConfiguration;
+        if (requiredConfigurationHolder == null) {
+            requiredConfiguration = null;
+        } else {
+            requiredConfiguration = Arrays.<Set<String>>asList(new HashSet<>(requiredConfigurationHolder.getExtensions()),
+                    new HashSet<>(requiredConfigurationHolder.getProfiles()), new HashSet<>(requiredConfigurationHolder.getServerGroups()),
+                    new HashSet<>(requiredConfigurationHolder.getSocketBindings()));
+        }
+        return Arrays.asList(ignoredResourcesModel, domainIgnoredExtensions, ignoreUnaffectedConfig, hostDeclaredIgnoreUnaffected,
+                requiredConfiguration);
+    }
+
     public synchronized ReadMasterDomainModelUtil.RequiredConfigurationHolder
             populateRequiredConfigurationHolder(Resource resource, ExtensionRegistry extensionRegistry) {
         if (requiredConfigurationHolder != null) {
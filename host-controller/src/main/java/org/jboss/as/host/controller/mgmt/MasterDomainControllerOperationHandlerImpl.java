@@ -23,6 +23,10 @@ import static org.jboss.as.process.protocol.ProtocolUtils.expectHeader;
 import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.HashUtil;
@@ -52,10 +56,34 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
 
     private final DomainController domainController;
     private final Executor asyncExecutor;
+    private final ContentSourceRegistry contentSources;
 
-    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor) {
+    private final RootFileReader rootFileReader = new RootFileReader() {
+        public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
+            final HostFileRepository localFileRepository = domainController.getLocalFileRepository();
+
+            switch (rootId) {
+                case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
+                    return localFileRepository.getFile(filePath);
+                }
+                case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
+                    return localFileRepository.getConfigurationFile(filePath);
+                }
+                case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
+                    byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                    return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                }
+                default: {
+                    throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
+                }
+            }
+        }
+    };
+
+    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor, final ContentSourceRegistry contentSources) {
         this.domainController = domainController;
         this.asyncExecutor = asyncExecutor;
+        this.contentSources = contentSources;
     }
 
     @Override
@@ -68,6 +96,18 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
             } case DomainControllerProtocol.GET_FILE_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new GetFileOperation();
+            } case DomainControllerProtocol.GET_FILE_CHUNKS_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetFileChunksOperation();
+            } case DomainControllerProtocol.GET_FILE_CHUNK_DATA_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetFileChunkDataOperation();
+            } case DomainControllerProtocol.GET_CONTENT_SOURCE_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetContentSourceOperation();
+            } case DomainControllerProtocol.CONTENT_AVAILABLE_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new ContentAvailableOperation();
             } case DomainControllerProtocol.SERVER_INSTABILITY_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new ServerUnstableHandler();
@@ -81,6 +121,7 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
         @Override
         void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             domainController.unregisterRemoteHost(hostId, null, true);
+            contentSources.removeHost(hostId);
             final FlushableDataOutput os = writeGenericResponseHeader(context);
             try {
                 os.write(ManagementProtocol.RESPONSE_END);
@@ -100,29 +141,81 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
         @Override
         void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileOperation with id %d from %s", context.getOperationId(), hostId);
-            final RootFileReader reader = new RootFileReader() {
-                public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
-                    final HostFileRepository localFileRepository = domainController.getLocalFileRepository();
-
-                    switch (rootId) {
-                        case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
-                            return localFileRepository.getFile(filePath);
-                        }
-                        case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
-                            return localFileRepository.getConfigurationFile(filePath);
-                        }
-                        case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
-                            byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                            return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
-                        }
-                        default: {
-                            throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
-                        }
-                    }
-                }
-            };
+            remoteSupport.handleRequest(input, rootFileReader, resultHandler, context);
+        }
+    }
+
+    private class GetFileChunksOperation extends AbstractHostRequestHandler {
+
+        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(asyncExecutor);
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileChunksOperation with id %d from %s", context.getOperationId(), hostId);
+            remoteSupport.handleChunksRequest(input, rootFileReader, resultHandler, context);
+        }
+    }
 
-            remoteSupport.handleRequest(input, reader, resultHandler, context);
+    private class GetFileChunkDataOperation extends AbstractHostRequestHandler {
+
+        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(asyncExecutor);
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileChunkDataOperation with id %d from %s", context.getOperationId(), hostId);
+            remoteSupport.handleChunkDataRequest(input, rootFileReader, resultHandler, context);
+        }
+    }
+
+    private class GetContentSourceOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String hash = input.readUTF();
+            final ContentSourceRegistry.ContentSource source = contentSources.select(hash, hostId);
+            DomainControllerLogger.ROOT_LOGGER.tracef("Host %s fetches content %s from %s", hostId, hash, source.getHostName());
+            final FlushableDataOutput os = writeGenericResponseHeader(context);
+            try {
+                os.write(DomainControllerProtocol.PARAM_CONTENT_SOURCE);
+                os.writeUTF(source.getHostName() == null ? "" : source.getHostName());
+                os.writeUTF(source.getUri() == null ? "" : source.getUri().toString());
+                os.write(ManagementProtocol.RESPONSE_END);
+                os.close();
+                resultHandler.done(null);
+            } finally {
+                StreamUtils.safeClose(os);
+            }
+        }
+    }
+
+    private class ContentAvailableOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String hash = input.readUTF();
+            final boolean sourceFailed = input.readByte() == DomainControllerProtocol.PARAM_ERROR;
+            expectHeader(input, DomainControllerProtocol.PARAM_PORT);
+            final int port = input.readInt();
+            URI uri = null;
+            final SocketAddress address = context.getChannel().getConnection().getPeerAddress();
+            if (port > 0 && address instanceof InetSocketAddress) {
+                try {
+                    uri = new URI("remote", null, ((InetSocketAddress) address).getAddress().getHostAddress(), port, null, null, null);
+                } catch (URISyntaxException e) {
+                    DomainControllerLogger.ROOT_LOGGER.debugf(e, "Cannot serve content from host %s", hostId);
+                }
+            }
+            contentSources.completed(hash, hostId, sourceFailed, uri);
+            final FlushableDataOutput os = writeGenericResponseHeader(context);
+            try {
+                os.write(ManagementProtocol.RESPONSE_END);
+                os.close();
+                resultHandler.done(null);
+            } finally {
+                StreamUtils.safeClose(os);
+            }
         }
     }
 
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.remote.AbstractModelControllerOperationHandlerFactoryService;
+import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
+import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
+import org.jboss.as.protocol.mgmt.ManagementRequestHandlerFactory;
+import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
+import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
+import org.jboss.remoting3.Channel;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Installed on the domain channel of a slave host controller, serving the deployment content held by the host to other
+ * host controllers as directed by the master's {@link ContentSourceRegistry}.
+ */
+public class PeerContentOperationHandlerService extends AbstractModelControllerOperationHandlerFactoryService {
+
+    /** Whether deployment content is exchanged between slave host controllers */
+    public static final boolean ENABLED = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.host.domain.content.peer-transfer", "false"));
+
+    private final HostFileRepository localFileRepository;
+
+    public PeerContentOperationHandlerService(final HostFileRepository localFileRepository) {
+        this.localFileRepository = localFileRepository;
+    }
+
+    @Override
+    public ManagementChannelHandler startReceiving(final Channel channel) {
+        final ManagementChannelHandler handler = new ManagementChannelHandler(ManagementClientChannelStrategy.create(channel), getExecutor());
+        handler.addHandlerFactory(new ManagementRequestHandlerFactory() {
+            @Override
+            public ManagementRequestHandler<?, ?> resolveHandler(RequestHandlerChain handlers, ManagementRequestHeader header) {
+                if (header.getOperationId() == DomainControllerProtocol.GET_FILE_REQUEST) {
+                    handlers.registerActiveOperation(header.getBatchId(), null);
+                    return new GetDeploymentContentOperation();
+                }
+                return handlers.resolveNext();
+            }
+        });
+        channel.receiveMessage(handler.getReceiver());
+        return handler;
+    }
+
+    private class GetDeploymentContentOperation extends MasterDomainControllerOperationHandlerImpl.AbstractHostRequestHandler {
+
+        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(getExecutor());
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            HostControllerLogger.ROOT_LOGGER.tracef("Serving deployment content with id %d to %s", context.getOperationId(), hostId);
+            final RootFileReader reader = new RootFileReader() {
+                public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
+                    // Only complete deployment content is served, anything else is up to the master
+                    if (rootId != DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT) {
+                        throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
+                    }
+                    byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                    return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                }
+            };
+            remoteSupport.handleRequest(input, reader, resultHandler, context);
+        }
+    }
+}
@@ -25,6 +25,8 @@ package org.jboss.as.host.controller.model.host;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_ORGANIZATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 
+import java.util.concurrent.TimeUnit;
+
 import org.jboss.as.controller.BootErrorCollector;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
@@ -45,6 +47,7 @@ import org.jboss.as.controller.access.management.ManagementSecurityIdentitySuppl
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.ExtensionRegistryType;
@@ -71,6 +74,7 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.controller.services.path.PathResourceDefinition;
+import org.jboss.as.controller.transform.TransformationCache;
 import static org.jboss.as.controller.services.path.PathResourceDefinition.PATH_CAPABILITY;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.operations.DomainServerLifecycleHandlers;
@@ -235,6 +239,22 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
             .addAccessConstraint(SensitiveTargetAccessConstraintDefinition.DOMAIN_CONTROLLER)
             .build();
 
+    public static final SimpleAttributeDefinition TRANSFORMATION_CACHE_HIT_COUNT = new SimpleAttributeDefinitionBuilder("transformation-cache-hit-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition TRANSFORMATION_CACHE_MISS_COUNT = new SimpleAttributeDefinitionBuilder("transformation-cache-miss-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition TRANSFORMATION_CACHE_TIME_SAVED = new SimpleAttributeDefinitionBuilder("transformation-cache-time-saved", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     private final HostControllerConfigurationPersister configurationPersister;
     private final HostControllerEnvironment environment;
     private final HostRunningModeControl runningModeControl;
@@ -344,6 +364,17 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
         hostRegistration.registerReadOnlyAttribute(HostResourceDefinition.HOST_STATE, new ProcessStateAttributeHandler(processState));
         hostRegistration.registerReadOnlyAttribute(ServerRootResourceDefinition.RUNNING_MODE, new RunningModeReadHandler(runningModeControl));
         hostRegistration.registerReadOnlyAttribute(ServerRootResourceDefinition.SUSPEND_STATE, SuspendStateReadHandler.INSTANCE);
+        hostRegistration.registerMetric(TRANSFORMATION_CACHE_HIT_COUNT,
+                (context, operation) -> context.getResult().set(getTransformationCache().getHitCount()));
+        hostRegistration.registerMetric(TRANSFORMATION_CACHE_MISS_COUNT,
+                (context, operation) -> context.getResult().set(getTransformationCache().getMissCount()));
+        hostRegistration.registerMetric(TRANSFORMATION_CACHE_TIME_SAVED,
+                (context, operation) -> context.getResult().set(getTransformationCache().getTimeSaved(TimeUnit.MILLISECONDS)));
+    }
+
+    private TransformationCache getTransformationCache() {
+        // The domain transformers are used for slave hosts and legacy servers
+        return domainController.getExtensionRegistry().getTransformerRegistry().getTransformationCache();
     }
 
 
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link HostLatencyStatistics}.
+ */
+public class HostLatencyStatisticsTestCase {
+
+    @Test
+    public void testHistogram() {
+        final HostLatencyStatistics statistics = new HostLatencyStatistics();
+        statistics.recordPrepare("slave", 5);
+        statistics.recordPrepare("slave", 10);
+        statistics.recordPrepare("slave", 700);
+        statistics.recordPrepare("slave", 120000);
+        statistics.recordCommit("slave", 20);
+
+        final ModelNode prepare = new ModelNode();
+        statistics.writePrepareLatency("slave", prepare);
+        Assert.assertEquals(4, prepare.get(HostLatencyStatistics.COUNT).asLong());
+        Assert.assertEquals(120715, prepare.get(HostLatencyStatistics.TOTAL_TIME).asLong());
+        Assert.assertEquals(120000, prepare.get(HostLatencyStatistics.MAX_TIME).asLong());
+        final ModelNode histogram = prepare.get(HostLatencyStatistics.HISTOGRAM);
+        Assert.assertEquals(2, histogram.get("10").asLong());
+        Assert.assertEquals(0, histogram.get("500").asLong());
+        Assert.assertEquals(1, histogram.get("1000").asLong());
+        Assert.assertEquals(1, histogram.get("+Inf").asLong());
+
+        final ModelNode commit = new ModelNode();
+        statistics.writeCommitLatency("slave", commit);
+        Assert.assertEquals(1, commit.get(HostLatencyStatistics.COUNT).asLong());
+        Assert.assertEquals(1, commit.get(HostLatencyStatistics.HISTOGRAM, "50").asLong());
+
+        // Unknown hosts report empty statistics
+        final ModelNode unknown = new ModelNode();
+        statistics.writePrepareLatency("other", unknown);
+        Assert.assertEquals(0, unknown.get(HostLatencyStatistics.COUNT).asLong());
+        Assert.assertEquals(0, unknown.get(HostLatencyStatistics.HISTOGRAM, "+Inf").asLong());
+    }
+
+    @Test
+    public void testPrepareTimeoutWithoutFactor() {
+        // Without the system property the domain blocking timeout is always used
+        final HostLatencyStatistics statistics = new HostLatencyStatistics();
+        for (int i = 0; i < 100; i++) {
+            statistics.recordPrepare("slave", 5);
+        }
+        Assert.assertEquals(300000, statistics.getPrepareTimeout("slave", 300000));
+        Assert.assertEquals(300000, statistics.getPrepareTimeout("other", 300000));
+    }
+}
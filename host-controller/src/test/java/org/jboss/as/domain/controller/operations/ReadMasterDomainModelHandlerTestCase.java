@@ -35,7 +35,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELEASE_VERSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WILDCARD;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.jboss.as.controller.ExpressionResolver;
 import org.jboss.as.controller.ModelVersion;
@@ -115,6 +117,39 @@ public class ReadMasterDomainModelHandlerTestCase {
         Assert.assertFalse(transformed.get("profile").hasDefined("ignored"));
     }
 
+    @Test
+    public void testUnchangedResourcesNotSent() throws Exception {
+        final List<ModelNode> previous = new ArrayList<>();
+        previous.add(createDescribedResource(PathAddress.pathAddress(EXTENSION, "a"), "1"));
+        previous.add(createDescribedResource(PathAddress.pathAddress(PROFILE, "a"), "1"));
+        previous.add(createDescribedResource(PathAddress.pathAddress(PROFILE, "b"), "1"));
+
+        final List<ModelNode> current = new ArrayList<>();
+        current.add(createDescribedResource(PathAddress.pathAddress(EXTENSION, "a"), "1"));
+        current.add(createDescribedResource(PathAddress.pathAddress(PROFILE, "a"), "2"));
+        current.add(createDescribedResource(PathAddress.pathAddress(PROFILE, "c"), "1"));
+
+        final ModelNode digests = ReadMasterDomainModelUtil.createResourceDigests(previous);
+        final List<ModelNode> sent = ReadMasterDomainModelUtil.replaceUnchangedResources(current, digests);
+        Assert.assertEquals(3, sent.size());
+        Assert.assertTrue(sent.get(0).get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_UNCHANGED).asBoolean(false));
+        Assert.assertFalse(sent.get(0).hasDefined(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL));
+        Assert.assertEquals(current.get(1), sent.get(1));
+        Assert.assertEquals(current.get(2), sent.get(2));
+
+        // The slave restores the complete model using the resources it applied previously
+        Assert.assertEquals(current, ReadMasterDomainModelUtil.restoreUnchangedResources(sent, previous));
+        // Without the previous model the unchanged resources can not be restored
+        Assert.assertNull(ReadMasterDomainModelUtil.restoreUnchangedResources(sent, null));
+    }
+
+    private static ModelNode createDescribedResource(PathAddress address, String value) {
+        final ModelNode description = new ModelNode();
+        description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS).set(address.toModelNode());
+        description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL, "attr").set(value);
+        return description;
+    }
+
     private Resource createProfile() {
         Resource profile = Resource.Factory.create();
         Resource subsystem = Resource.Factory.create();
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.BlockingQueueOperationListener;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link WindowedServerGroupUpdateTask}.
+ */
+public class WindowedServerGroupUpdateTaskTestCase {
+
+    private static final String GROUP = "main-server-group";
+    private static final int SERVERS = 10;
+
+    private final List<ServerIdentity> servers = new ArrayList<>();
+    private RespondingExecutor executor;
+    private Thread responder;
+
+    @Before
+    public void setup() {
+        for (int i = 0; i < SERVERS; i++) {
+            servers.add(new ServerIdentity("host", GROUP, "server-" + i));
+        }
+    }
+
+    @After
+    public void cleanup() throws InterruptedException {
+        if (responder != null) {
+            responder.interrupt();
+            responder.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Test
+    public void testMaxInFlight() {
+        final ServerUpdatePolicy policy = createPolicy(SERVERS);
+        start(new RespondingExecutor(Collections.emptySet()));
+        createTask(policy, 3, 0).execute();
+
+        Assert.assertEquals(SERVERS, executor.executed.size());
+        Assert.assertEquals(3, executor.maxInFlight.get());
+        Assert.assertEquals(SERVERS, executor.prepared.size());
+        Assert.assertFalse(policy.isFailed());
+    }
+
+    @Test
+    public void testBatchLimitsInFlight() {
+        final ServerUpdatePolicy policy = createPolicy(SERVERS);
+        start(new RespondingExecutor(Collections.emptySet()));
+        createTask(policy, 3, 2).execute();
+
+        Assert.assertEquals(SERVERS, executor.executed.size());
+        Assert.assertEquals(2, executor.maxInFlight.get());
+        Assert.assertFalse(policy.isFailed());
+    }
+
+    @Test
+    public void testRolloutStopsAtFailureThreshold() {
+        // Every server fails, the group fails once more than one server failed
+        final ServerUpdatePolicy policy = createPolicy(1);
+        start(new RespondingExecutor(new HashSet<>(servers)));
+        createTask(policy, 3, 0).execute();
+
+        // The first three servers fill the window, the first failure frees a slot for a fourth server which may
+        // still be updated, the second failure exceeds the threshold so no further servers are sent the update
+        Assert.assertEquals(servers.subList(0, 4), executor.executed);
+        Assert.assertTrue(executor.maxInFlight.get() <= 3);
+        Assert.assertEquals(4, executor.prepared.size());
+        Assert.assertTrue(policy.isFailed());
+    }
+
+    @Test
+    public void testRolloutContinuesBelowFailureThreshold() {
+        final ServerUpdatePolicy policy = createPolicy(1);
+        start(new RespondingExecutor(Collections.singleton(servers.get(0))));
+        createTask(policy, 3, 0).execute();
+
+        Assert.assertEquals(SERVERS, executor.executed.size());
+        Assert.assertFalse(policy.isFailed());
+    }
+
+    private ServerUpdatePolicy createPolicy(final int maxFailures) {
+        final ConcurrentGroupServerUpdatePolicy parent = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP));
+        return new ServerUpdatePolicy(parent, GROUP, new HashSet<>(servers), maxFailures);
+    }
+
+    private WindowedServerGroupUpdateTask createTask(final ServerUpdatePolicy policy, final int maxInFlight, final int batchSize) {
+        final List<ServerUpdateTask> tasks = new ArrayList<>();
+        for (ServerIdentity server : servers) {
+            tasks.add(new RunningServerUpdateTask(server, new ModelNode(), policy));
+        }
+        return new WindowedServerGroupUpdateTask(tasks, policy, executor, null, null, null, maxInFlight, batchSize);
+    }
+
+    private void start(final RespondingExecutor executor) {
+        this.executor = executor;
+        responder = new Thread(executor::respond, "responder");
+        responder.setDaemon(true);
+        responder.start();
+    }
+
+    /**
+     * Executes the server operations by handing them to a responder thread, which prepares them one after another in
+     * the order they were sent.
+     */
+    private static class RespondingExecutor extends ServerTaskExecutor {
+
+        private final Set<ServerIdentity> failing;
+        private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+        private final List<ServerIdentity> executed = Collections.synchronizedList(new ArrayList<>());
+        private final List<ServerPreparedResponse> prepared;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        RespondingExecutor(final Set<ServerIdentity> failing) {
+            this(failing, new ArrayList<>());
+        }
+
+        private RespondingExecutor(final Set<ServerIdentity> failing, final List<ServerPreparedResponse> prepared) {
+            super(null, new HashMap<>(), prepared);
+            this.failing = failing;
+            this.prepared = prepared;
+        }
+
+        @Override
+        protected int execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                              final ServerIdentity identity, final ModelNode operation) throws OperationFailedException {
+            executed.add(identity);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            requests.add(new Request(listener, new ServerOperation(identity, operation, null, null, OperationResultTransformer.ORIGINAL_RESULT)));
+            return (int) TimeUnit.SECONDS.toMillis(30);
+        }
+
+        private void respond() {
+            try {
+                for (;;) {
+                    final Request request = requests.take();
+                    // Give the task the chance to send more operations than allowed
+                    Thread.sleep(20);
+                    inFlight.decrementAndGet();
+                    final ServerOperation operation = request.operation;
+                    if (failing.contains(operation.getIdentity())) {
+                        request.listener.operationPrepared(BlockingQueueOperationListener.FailedOperation.create(operation, "failed"));
+                    } else {
+                        request.listener.operationPrepared(new PreparedServerOperation(operation));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class Request {
+        private final TransactionalProtocolClient.TransactionalOperationListener<ServerTaskExecutor.ServerOperation> listener;
+        private final ServerTaskExecutor.ServerOperation operation;
+
+        private Request(final TransactionalProtocolClient.TransactionalOperationListener<ServerTaskExecutor.ServerOperation> listener,
+                        final ServerTaskExecutor.ServerOperation operation) {
+            this.listener = listener;
+            this.operation = operation;
+        }
+    }
+
+    private static class PreparedServerOperation implements TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> {
+        private final ServerTaskExecutor.ServerOperation operation;
+
+        private PreparedServerOperation(final ServerTaskExecutor.ServerOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public ServerTaskExecutor.ServerOperation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public ModelNode getPreparedResult() {
+            final ModelNode result = new ModelNode();
+            result.get(OUTCOME).set(SUCCESS);
+            return result;
+        }
+
+        @Override
+        public boolean isFailed() {
+            return false;
+        }
+
+        @Override
+        public boolean isTimedOut() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> getFinalResult() {
+            return null;
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+}
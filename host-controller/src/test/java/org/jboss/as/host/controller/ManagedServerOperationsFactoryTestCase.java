@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT_INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.LocalHostControllerInfo;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the reuse of the subsystem operations of a profile by {@link ManagedServerOperationsFactory}.
+ */
+public class ManagedServerOperationsFactoryTestCase {
+
+    private static final String HOST_NAME = "master";
+    private static final String SERVER_NAME = "server-one";
+
+    private final AtomicInteger describeCount = new AtomicInteger();
+    private DomainController domainController;
+    private ModelNode domainModel;
+
+    @Before
+    public void setup() {
+        describeCount.set(0);
+        domainModel = new ModelNode();
+        domainModel.get(SERVER_GROUP, "main-server-group", PROFILE).set("default");
+        domainModel.get(SERVER_GROUP, "main-server-group", SOCKET_BINDING_GROUP).set("standard-sockets");
+        domainModel.get(SOCKET_BINDING_GROUP, "standard-sockets", DEFAULT_INTERFACE).set("public");
+        domainModel.get(PROFILE, "base", SUBSYSTEM, "logging", "level").set("INFO");
+        domainModel.get(PROFILE, "default", INCLUDES).add("base");
+        domainModel.get(PROFILE, "default", SUBSYSTEM, "ee", "spec-descriptor-property-replacement").set(false);
+        domainModel.get(HOST, HOST_NAME, SERVER_CONFIG, SERVER_NAME, GROUP).set("main-server-group");
+
+        final LocalHostControllerInfo hostInfo = mock(LocalHostControllerInfo.class);
+        when(hostInfo.getLocalHostName()).thenReturn(HOST_NAME);
+        domainController = mock(DomainController.class);
+        when(domainController.getLocalHostInfo()).thenReturn(hostInfo);
+        when(domainController.getProfileOperations("default")).thenAnswer(invocation -> {
+            describeCount.incrementAndGet();
+            return describe("default");
+        });
+    }
+
+    @Test
+    public void testUnchangedProfileReused() {
+        final List<ModelNode> first = bootSubsystems();
+        // Every boot reads the domain model anew
+        domainModel = domainModel.clone();
+        final List<ModelNode> second = bootSubsystems();
+        Assert.assertEquals(1, describeCount.get());
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(2, second.size());
+    }
+
+    @Test
+    public void testChangedSubsystemAttribute() {
+        bootSubsystems();
+        domainModel.get(PROFILE, "default", SUBSYSTEM, "ee", "spec-descriptor-property-replacement").set(true);
+        final List<ModelNode> updated = bootSubsystems();
+        Assert.assertEquals(2, describeCount.get());
+        Assert.assertTrue(findSubsystem(updated, "ee").get("spec-descriptor-property-replacement").asBoolean());
+    }
+
+    @Test
+    public void testAddedAndRemovedSubsystem() {
+        bootSubsystems();
+        domainModel.get(PROFILE, "default", SUBSYSTEM, "jmx").setEmptyObject();
+        List<ModelNode> updated = bootSubsystems();
+        Assert.assertEquals(2, describeCount.get());
+        Assert.assertNotNull(findSubsystem(updated, "jmx"));
+
+        domainModel.get(PROFILE, "default", SUBSYSTEM).remove("jmx");
+        updated = bootSubsystems();
+        Assert.assertEquals(3, describeCount.get());
+        Assert.assertNull(findSubsystem(updated, "jmx"));
+    }
+
+    @Test
+    public void testChangedIncludedProfile() {
+        bootSubsystems();
+        domainModel.get(PROFILE, "base", SUBSYSTEM, "logging", "level").set("DEBUG");
+        final List<ModelNode> updated = bootSubsystems();
+        Assert.assertEquals(2, describeCount.get());
+        Assert.assertEquals("DEBUG", findSubsystem(updated, "logging").get("level").asString());
+    }
+
+    @Test
+    public void testChangedServerGroupProfile() {
+        bootSubsystems();
+        domainModel.get(PROFILE, "other", SUBSYSTEM, "jmx").setEmptyObject();
+        when(domainController.getProfileOperations("other")).thenAnswer(invocation -> {
+            describeCount.incrementAndGet();
+            return describe("other");
+        });
+        domainModel.get(SERVER_GROUP, "main-server-group", PROFILE).set("other");
+        final List<ModelNode> updated = bootSubsystems();
+        Assert.assertEquals(2, describeCount.get());
+        Assert.assertEquals(1, updated.size());
+        Assert.assertNotNull(findSubsystem(updated, "jmx"));
+    }
+
+    @Test
+    public void testNewDomainControllerNotReused() {
+        bootSubsystems();
+        final DomainController previous = domainController;
+        setup();
+        Assert.assertNotSame(previous, domainController);
+        bootSubsystems();
+        Assert.assertEquals(1, describeCount.get());
+    }
+
+    @Test
+    public void testCachedOperationsNotModified() {
+        final List<ModelNode> first = bootSubsystems();
+        first.get(0).get("modified").set(true);
+        final List<ModelNode> second = bootSubsystems();
+        Assert.assertFalse(second.get(0).has("modified"));
+    }
+
+    /**
+     * Create the boot operations of the server and return those of the subsystems.
+     */
+    private List<ModelNode> bootSubsystems() {
+        final ModelNode hostModel = domainModel.get(HOST, HOST_NAME);
+        final ModelNode updates = ManagedServerOperationsFactory.createBootUpdates(SERVER_NAME, domainModel, hostModel,
+                domainController, ExpressionResolver.TEST_RESOLVER);
+        final List<ModelNode> result = new ArrayList<>();
+        for (ModelNode update : updates.asList()) {
+            final PathAddress address = PathAddress.pathAddress(update.get(OP_ADDR));
+            if (address.size() == 1 && SUBSYSTEM.equals(address.getElement(0).getKey())) {
+                result.add(update);
+            }
+        }
+        return result;
+    }
+
+    private static ModelNode findSubsystem(final List<ModelNode> operations, final String name) {
+        for (ModelNode operation : operations) {
+            if (PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue().equals(name)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create the add operations of the subsystems of a profile and the profiles it includes, as describing the
+     * profile does.
+     */
+    private ModelNode describe(final String profileName) {
+        final ModelNode result = new ModelNode().setEmptyList();
+        final ModelNode profile = domainModel.get(PROFILE, profileName);
+        if (profile.hasDefined(INCLUDES)) {
+            for (ModelNode include : profile.get(INCLUDES).asList()) {
+                for (ModelNode operation : describe(include.asString()).asList()) {
+                    result.add(operation);
+                }
+            }
+        }
+        if (profile.hasDefined(SUBSYSTEM)) {
+            for (Property subsystem : profile.get(SUBSYSTEM).asPropertyList()) {
+                final ModelNode add = Util.createAddOperation(PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, subsystem.getName())));
+                if (subsystem.getValue().isDefined()) {
+                    for (Property attribute : subsystem.getValue().asPropertyList()) {
+                        add.get(attribute.getName()).set(attribute.getValue());
+                    }
+                }
+                result.add(add);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_MAJOR_VERSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_MICRO_VERSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_MINOR_VERSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
+import org.jboss.as.repository.HashUtil;
+import org.jboss.as.repository.PathUtil;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the verification of deployment content received from another host and the detection of a master which does
+ * not support a content transfer request.
+ */
+public class PeerContentTransferUnitTestCase {
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory("peer-content");
+    }
+
+    @After
+    public void deleteRoot() {
+        PathUtil.deleteSilentlyRecursively(root);
+    }
+
+    @Test
+    public void testMatchingContent() throws Exception {
+        final File staging = createStaging("deployment bytes");
+        final File deploymentRoot = root.resolve("ab").resolve("cdef").toFile();
+        final byte[] hash = hash(staging.toPath().resolve("content"));
+
+        final File result = RemoteDomainConnectionService.installPeerContent(staging, deploymentRoot, hash, "peer");
+
+        Assert.assertEquals(deploymentRoot, result);
+        Assert.assertFalse(staging.exists());
+        Assert.assertEquals("deployment bytes", new String(Files.readAllBytes(deploymentRoot.toPath().resolve("content")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testHashMismatch() throws Exception {
+        final byte[] hash = hash(createStaging("expected bytes").toPath().resolve("content"));
+        PathUtil.deleteRecursively(root.resolve("ab"));
+        // The peer sends different content for the requested hash
+        final File staging = createStaging("tampered bytes");
+        final File deploymentRoot = root.resolve("ab").resolve("cdef").toFile();
+
+        try {
+            RemoteDomainConnectionService.installPeerContent(staging, deploymentRoot, hash, "peer");
+            Assert.fail("Content with a different hash was accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+        Assert.assertFalse("The received content was not deleted", staging.exists());
+        Assert.assertFalse("The received content was moved into the repository", deploymentRoot.exists());
+    }
+
+    @Test
+    public void testExplodedContent() throws Exception {
+        final File staging = root.resolve("ab").resolve("cdef.peer").toFile();
+        final Path content = staging.toPath().resolve("content");
+        Files.createDirectories(content.resolve("META-INF"));
+        Files.write(content.resolve("META-INF").resolve("MANIFEST.MF"), "Manifest-Version: 1.0".getBytes(StandardCharsets.UTF_8));
+        final File deploymentRoot = root.resolve("ab").resolve("cdef").toFile();
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final byte[] hash = HashUtil.hashPath(digest, content);
+
+        RemoteDomainConnectionService.installPeerContent(staging, deploymentRoot, hash, "peer");
+
+        Assert.assertTrue(deploymentRoot.toPath().resolve("content").resolve("META-INF").resolve("MANIFEST.MF").toFile().exists());
+    }
+
+    @Test
+    public void testManagementVersion() {
+        final ModelNode root = new ModelNode();
+        root.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS).setEmptyList();
+        root.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL, MANAGEMENT_MAJOR_VERSION).set(10);
+        root.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL, MANAGEMENT_MINOR_VERSION).set(1);
+        root.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL, MANAGEMENT_MICRO_VERSION).set(0);
+        final ModelNode profile = new ModelNode();
+        profile.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS).add(PROFILE, "default");
+        profile.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL).setEmptyObject();
+
+        Assert.assertEquals(ModelVersion.create(10, 1, 0), RemoteDomainConnectionService.getManagementVersion(Arrays.asList(profile, root)));
+        // A master which does not report its version is treated as an old one
+        root.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL).setEmptyObject();
+        Assert.assertNull(RemoteDomainConnectionService.getManagementVersion(Arrays.asList(root, profile)));
+        Assert.assertNull(RemoteDomainConnectionService.getManagementVersion(Collections.singletonList(profile)));
+    }
+
+    private File createStaging(final String content) throws IOException {
+        final Path staging = root.resolve("ab").resolve("cdef.peer");
+        Files.createDirectories(staging);
+        Files.write(staging.resolve("content"), content.getBytes(StandardCharsets.UTF_8));
+        return staging.toFile();
+    }
+
+    private static byte[] hash(final Path file) throws Exception {
+        try (InputStream in = Files.newInputStream(file)) {
+            return HashUtil.hashContent(MessageDigest.getInstance("SHA-1"), in);
+        }
+    }
+}
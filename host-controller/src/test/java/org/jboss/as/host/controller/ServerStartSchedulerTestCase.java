@@ -0,0 +1,296 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.host.controller.HostControllerEnvironment.HOME_DIR;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.controller.CurrentOperationIdHolder;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.client.helpers.domain.ServerStatus;
+import org.jboss.as.controller.extension.ExtensionRegistry;
+import org.jboss.as.controller.extension.RuntimeHostControllerInfoAccessor;
+import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.LocalHostControllerInfo;
+import org.jboss.as.process.ProcessControllerClient;
+import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Channel;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ServerStartScheduler}.
+ */
+public class ServerStartSchedulerTestCase {
+
+    private static final Path homeDir = new File(System.getProperty("basedir", ".")).toPath().resolve("target").resolve("server-start-scheduler");
+    private static final String HOST_NAME = "primary";
+
+    @BeforeClass
+    public static void createHomeDir() throws IOException {
+        Files.createDirectories(homeDir.resolve("domain").resolve("configuration"));
+    }
+
+    @AfterClass
+    public static void clean() throws IOException {
+        if (Files.exists(homeDir)) {
+            Files.walkFileTree(homeDir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testOrder() {
+        final Map<String, String> servers = new LinkedHashMap<>();
+        servers.put("server-one", "main-server-group");
+        servers.put("server-two", "other-server-group");
+        servers.put("server-three", "main-server-group");
+        servers.put("server-four", "backend-server-group");
+
+        Assert.assertEquals(Arrays.asList("server-one", "server-two", "server-three", "server-four"),
+                ServerStartScheduler.order(servers, Collections.<String>emptyList()));
+        Assert.assertEquals(Arrays.asList("server-four", "server-one", "server-three", "server-two"),
+                ServerStartScheduler.order(servers, ServerStartScheduler.parseGroupOrder("backend-server-group, main-server-group")));
+        Assert.assertEquals(Arrays.asList("server-two", "server-one", "server-three", "server-four"),
+                ServerStartScheduler.order(servers, ServerStartScheduler.parseGroupOrder("other-server-group,")));
+    }
+
+    @Test
+    public void testMaxConcurrentBoots() throws Exception {
+        final Map<String, ServerStatus> states = new ConcurrentHashMap<>();
+        final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+        final ServerInventory inventory = (ServerInventory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ServerInventory.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                final String serverName = (String) args[0];
+                switch (method.getName()) {
+                    case "startServer":
+                        int booting = 0;
+                        for (ServerStatus status : states.values()) {
+                            if (status == ServerStatus.STARTING) {
+                                booting++;
+                            }
+                        }
+                        Assert.assertTrue("Too many servers booting", booting < 2);
+                        states.put(serverName, ServerStatus.STARTING);
+                        started.add(serverName);
+                        return ServerStatus.STARTING;
+                    case "determineServerStatus":
+                        final ServerStatus status = states.get(serverName);
+                        return status == null ? ServerStatus.STOPPED : status;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        });
+
+        final Map<String, String> servers = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            servers.put("server-" + i, "main-server-group");
+        }
+        final Thread operation = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                new ServerStartScheduler(inventory, false, 2).startServers(servers, new ModelNode());
+            }
+        });
+        operation.start();
+        awaitSize(started, 2);
+        Assert.assertEquals(Arrays.asList("server-0", "server-1"), started);
+
+        // Finish booting the servers one at a time; each completion admits the next server
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue("The servers are started by the calling thread", i >= 3 || operation.isAlive());
+            states.put("server-" + i, ServerStatus.STARTED);
+            awaitSize(started, Math.min(5, i + 3));
+        }
+        operation.join(10000);
+        Assert.assertFalse(operation.isAlive());
+        Assert.assertEquals(new ArrayList<>(servers.keySet()), started);
+    }
+
+    /**
+     * Starts real {@link ManagedServer}s through a {@link ServerInventoryImpl}, checking that the servers whose start
+     * was deferred are still started in the context of the calling management operation.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeferredStartsRunInOperation() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final DomainController domainController = mock(DomainController.class);
+            final LocalHostControllerInfo hostInfo = mock(LocalHostControllerInfo.class);
+            when(hostInfo.getLocalHostName()).thenReturn(HOST_NAME);
+            when(domainController.getLocalHostInfo()).thenReturn(hostInfo);
+            when(domainController.getExpressionResolver()).thenReturn(ExpressionResolver.TEST_RESOLVER);
+            final ProcessControllerClient processControllerClient = mock(ProcessControllerClient.class);
+            final ExtensionRegistry extensionRegistry = new ExtensionRegistry(ProcessType.HOST_CONTROLLER, new RunningModeControl(RunningMode.NORMAL), null, null, null, RuntimeHostControllerInfoAccessor.SERVER);
+            final ServerInventoryImpl inventory = new ServerInventoryImpl(domainController, getTestHostEnvironment(),
+                    URI.create("remote+http://127.0.0.1:9990"), processControllerClient, extensionRegistry);
+
+            // The process controller and the server processes report back asynchronously
+            final List<String> added = Collections.synchronizedList(new ArrayList<String>());
+            final List<Integer> operationIds = Collections.synchronizedList(new ArrayList<Integer>());
+            doAnswer(invocation -> {
+                final String processName = invocation.getArgument(0);
+                added.add(ManagedServer.getServerName(processName));
+                operationIds.add(CurrentOperationIdHolder.getCurrentOperationID());
+                executor.execute(() -> inventory.serverProcessAdded(processName));
+                return null;
+            }).when(processControllerClient).addProcess(anyString(), anyInt(), anyString(), any(), anyString(), any());
+            doAnswer(invocation -> {
+                final String processName = invocation.getArgument(0);
+                executor.execute(() -> inventory.serverProcessStarted(processName));
+                return null;
+            }).when(processControllerClient).startProcess(anyString());
+            doAnswer(invocation -> {
+                final String processName = invocation.getArgument(0);
+                final Channel channel = mock(Channel.class);
+                executor.execute(() -> inventory.serverCommunicationRegistered(processName,
+                        new ManagementChannelHandler(ManagementClientChannelStrategy.create(channel), executor)));
+                return new ByteArrayOutputStream();
+            }).when(processControllerClient).sendStdin(anyString());
+
+            final Map<String, String> servers = new LinkedHashMap<>();
+            final ModelNode domainModel = new ModelNode();
+            domainModel.get(SERVER_GROUP, "main-server-group").setEmptyObject();
+            for (int i = 0; i < 3; i++) {
+                servers.put("server-" + i, "main-server-group");
+                domainModel.get(HOST, HOST_NAME, SERVER_CONFIG, "server-" + i, GROUP).set("main-server-group");
+            }
+
+            final Method setOperationId = CurrentOperationIdHolder.class.getDeclaredMethod("setCurrentOperationID", Integer.class);
+            setOperationId.setAccessible(true);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            final Thread operation = new Thread(() -> {
+                try {
+                    setOperationId.invoke(null, 42);
+                    new ServerStartScheduler(inventory, false, 1).startServers(servers, domainModel);
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            operation.start();
+
+            for (int i = 0; i < 3; i++) {
+                final String serverName = "server-" + i;
+                awaitSize(added, i + 1);
+                awaitStatus(inventory, serverName, ServerStatus.STARTING);
+                // The next server is only admitted once this one finished booting
+                Thread.sleep(500);
+                Assert.assertEquals(i + 1, added.size());
+                inventory.serverStarted(inventory.getServerProcessName(serverName));
+                awaitStatus(inventory, serverName, ServerStatus.STARTED);
+            }
+            operation.join(10000);
+            Assert.assertFalse(operation.isAlive());
+            Assert.assertNull(failure.get());
+            Assert.assertEquals(new ArrayList<>(servers.keySet()), added);
+            Assert.assertEquals(Arrays.asList(42, 42, 42), operationIds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static HostControllerEnvironment getTestHostEnvironment() throws IOException {
+        final Map<String, String> hostSystemProperties = new HashMap<>();
+        hostSystemProperties.put("jboss.server.log.dir", "/tmp/");
+        hostSystemProperties.put("jboss.domain.log.dir", "/tmp/");
+        hostSystemProperties.put("jboss.server.temp.dir", "/tmp/");
+        hostSystemProperties.put(HOME_DIR, homeDir.toAbsolutePath().toString());
+        return new HostControllerEnvironment(
+                hostSystemProperties, false, "/opt/wildfly/modules",
+                InetAddress.getLocalHost(), 8080, InetAddress.getLocalHost(), 9990, null, null, null, null, null,
+                RunningMode.NORMAL, true, true, null);
+    }
+
+    private static void awaitSize(final List<?> list, final int expected) throws InterruptedException {
+        final long end = System.currentTimeMillis() + 10000;
+        while (list.size() < expected && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+        }
+        Assert.assertThat(list.size(), is(expected));
+    }
+
+    private static void awaitStatus(final ServerInventory inventory, final String serverName, final ServerStatus expected) throws InterruptedException {
+        final long end = System.currentTimeMillis() + 10000;
+        while (inventory.determineServerStatus(serverName) != expected && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+        }
+        Assert.assertThat(inventory.determineServerStatus(serverName), is(expected));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.as.host.controller.mgmt.ContentSourceRegistry.ContentSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ContentSourceRegistry}.
+ */
+public class ContentSourceRegistryUnitTestCase {
+
+    private static final String HASH = "0123456789abcdef0123456789abcdef01234567";
+
+    @Test
+    public void testMasterServesUpToFanOut() {
+        final ContentSourceRegistry registry = new ContentSourceRegistry(2);
+        Assert.assertNull(registry.select(HASH, "host1").getHostName());
+        Assert.assertNull(registry.select(HASH, "host2").getHostName());
+        // No other host holds the content yet
+        Assert.assertNull(registry.select(HASH, "host3").getHostName());
+    }
+
+    @Test
+    public void testHostsServeContent() throws Exception {
+        final ContentSourceRegistry registry = new ContentSourceRegistry(2);
+        registry.select(HASH, "host1");
+        registry.select(HASH, "host2");
+        registry.completed(HASH, "host1", false, new URI("remote://host1:9999"));
+        registry.select(HASH, "host3");
+
+        // The master is busy with host2 and host3, host1 serves the next two hosts
+        final ContentSource source = registry.select(HASH, "host4");
+        Assert.assertEquals("host1", source.getHostName());
+        Assert.assertEquals(new URI("remote://host1:9999"), source.getUri());
+        Assert.assertEquals("host1", registry.select(HASH, "host5").getHostName());
+        // Every source is busy
+        Assert.assertNull(registry.select(HASH, "host6").getHostName());
+    }
+
+    @Test
+    public void testFailedSourceRemoved() throws Exception {
+        final ContentSourceRegistry registry = new ContentSourceRegistry(1);
+        registry.select(HASH, "host1");
+        registry.completed(HASH, "host1", false, new URI("remote://host1:9999"));
+        registry.select(HASH, "host2");
+        Assert.assertEquals("host1", registry.select(HASH, "host3").getHostName());
+        registry.completed(HASH, "host3", true, null);
+        Assert.assertNull(registry.select(HASH, "host4").getHostName());
+    }
+
+    @Test
+    public void testSourcesGrowGeometrically() throws Exception {
+        final ContentSourceRegistry registry = new ContentSourceRegistry(2);
+        final Set<String> holders = new HashSet<>();
+        int hosts = 0;
+        int rounds = 0;
+        while (holders.size() < 100) {
+            rounds++;
+            // Each source may serve two hosts per round
+            final int capacity = 2 * (holders.size() + 1);
+            final Set<String> fetched = new HashSet<>();
+            int fromMaster = 0;
+            for (int i = 0; i < capacity && holders.size() + fetched.size() < 100; i++) {
+                final String host = "host" + (++hosts);
+                if (registry.select(HASH, host).getHostName() == null) {
+                    fromMaster++;
+                }
+                fetched.add(host);
+            }
+            Assert.assertTrue(fromMaster <= 2);
+            for (String host : fetched) {
+                registry.completed(HASH, host, false, new URI("remote://" + host + ":9999"));
+            }
+            holders.addAll(fetched);
+        }
+        Assert.assertTrue("Took " + rounds + " rounds", rounds <= 5);
+    }
+
+    @Test
+    public void testRemoveHost() throws Exception {
+        final ContentSourceRegistry registry = new ContentSourceRegistry(1);
+        registry.select(HASH, "host1");
+        registry.completed(HASH, "host1", false, new URI("remote://host1:9999"));
+        registry.select(HASH, "host2");
+        registry.removeHost("host1");
+        Assert.assertNull(registry.select(HASH, "host3").getHostName());
+    }
+}
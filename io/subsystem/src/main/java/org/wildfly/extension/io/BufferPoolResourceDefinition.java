@@ -24,6 +24,7 @@
 package org.wildfly.extension.io;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -36,6 +37,7 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
@@ -43,16 +45,20 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.io.logging.IOLogger;
 import org.xnio.Pool;
 
 /**
@@ -66,9 +72,9 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             RuntimeCapability.Builder.of(IOServices.BYTE_BUFFER_POOL_CAPABILITY_NAME, true, ByteBufferPool.class).build();
 
 
-    private static final int defaultBufferSize;
-    private static final int defaultBuffersPerRegion;
-    private static final boolean defaultDirectBuffers;
+    static final int defaultBufferSize;
+    static final int defaultBuffersPerRegion;
+    static final boolean defaultDirectBuffers;
 
     static {
         long maxMemory = Runtime.getRuntime().maxMemory();
@@ -108,6 +114,12 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             .build();
 
 
+    private static final AttributeDefinition ALLOCATION_COUNT = new SimpleAttributeDefinitionBuilder("allocation-count", ModelType.LONG).setStorageRuntime().build();
+    private static final AttributeDefinition ALLOCATION_HIT_COUNT = new SimpleAttributeDefinitionBuilder("allocation-hit-count", ModelType.LONG).setStorageRuntime().build();
+    private static final AttributeDefinition ALLOCATION_MISS_COUNT = new SimpleAttributeDefinitionBuilder("allocation-miss-count", ModelType.LONG).setStorageRuntime().build();
+    private static final AttributeDefinition ALLOCATED_MEMORY = new SimpleAttributeDefinitionBuilder("allocated-memory", ModelType.LONG).setStorageRuntime().build();
+
+
     /*<buffer-pool name="default" buffer-size="1024" buffers-per-slice="1024"/>*/
 
     static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
@@ -137,6 +149,51 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         return (Collection) ATTRIBUTES;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        registerMetrics(resourceRegistration);
+    }
+
+    static void registerMetrics(ManagementResourceRegistration resourceRegistration) {
+        BufferPoolMetricsHandler metricsHandler = new BufferPoolMetricsHandler();
+        resourceRegistration.registerMetric(ALLOCATION_COUNT, metricsHandler);
+        resourceRegistration.registerMetric(ALLOCATION_HIT_COUNT, metricsHandler);
+        resourceRegistration.registerMetric(ALLOCATION_MISS_COUNT, metricsHandler);
+        resourceRegistration.registerMetric(ALLOCATED_MEMORY, metricsHandler);
+    }
+
+    private static class BufferPoolMetricsHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (PROFILE.equals(context.getCurrentAddress().getElement(0).getKey())) {
+                return;
+            }
+            ServiceName serviceName = IO_POOL_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddressValue(), Pool.class);
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+            // The pool is on demand, so it is only measured once something is using it
+            if (controller == null || controller.getState() != ServiceController.State.UP
+                    || !(controller.getValue() instanceof BufferPoolMetrics)) {
+                context.getResult().set(IOExtension.NO_METRICS);
+                return;
+            }
+            BufferPoolMetrics pool = (BufferPoolMetrics) controller.getValue();
+            String name = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (ALLOCATION_COUNT.getName().equals(name)) {
+                context.getResult().set(pool.getAllocationCount());
+            } else if (ALLOCATION_HIT_COUNT.getName().equals(name)) {
+                context.getResult().set(pool.getAllocationHitCount());
+            } else if (ALLOCATION_MISS_COUNT.getName().equals(name)) {
+                context.getResult().set(pool.getAllocationMissCount());
+            } else if (ALLOCATED_MEMORY.getName().equals(name)) {
+                context.getResult().set(pool.getAllocatedMemory());
+            } else {
+                throw new OperationFailedException(IOLogger.ROOT_LOGGER.noMetrics());
+            }
+        }
+    }
+
     private static class BufferPoolAdd extends AbstractAddStepHandler {
 
         private BufferPoolAdd() {
@@ -171,7 +228,7 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         }
     }
 
-    private static final class ByteBufferPoolService implements Service<ByteBufferPool> {
+    static final class ByteBufferPoolService implements Service<ByteBufferPool> {
 
         final InjectedValue<Pool> bufferPool = new InjectedValue<>();
         private volatile ByteBufferPool byteBufferPool;
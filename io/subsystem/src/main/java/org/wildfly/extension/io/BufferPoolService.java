@@ -25,6 +25,7 @@
 package org.wildfly.extension.io;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -33,6 +34,7 @@ import org.jboss.msc.service.StopContext;
 import org.xnio.BufferAllocator;
 import org.xnio.ByteBufferSlicePool;
 import org.xnio.Pool;
+import org.xnio.Pooled;
 
 /**
  * @author <a href="mailto:tomaz.cerar@redhat.com">Tomaz Cerar</a> (c) 2013 Red Hat Inc.
@@ -52,7 +54,7 @@ public class BufferPoolService implements Service<Pool<ByteBuffer>> {
 
     @Override
     public void start(StartContext context) throws StartException {
-        bufferPool = new ByteBufferSlicePool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR, bufferSize, buffersPerSlice * bufferSize);
+        bufferPool = new MeasuredBufferPool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR, bufferSize, buffersPerSlice * bufferSize);
     }
 
     @Override
@@ -64,4 +66,52 @@ public class BufferPoolService implements Service<Pool<ByteBuffer>> {
     public Pool<ByteBuffer> getValue() throws IllegalStateException, IllegalArgumentException {
         return bufferPool;
     }
+
+    /**
+     * A slice pool which counts the buffers allocated from it and the slices it allocates from the underlying
+     * allocator. The slice pool only allocates a new slice when no free buffer is available, so each slice allocation
+     * is an allocation which missed. The counters are {@link LongAdder}s so no lock is taken when allocating.
+     */
+    static final class MeasuredBufferPool implements Pool<ByteBuffer>, BufferPoolMetrics {
+        private final Pool<ByteBuffer> delegate;
+        private final LongAdder allocations = new LongAdder();
+        private final LongAdder sliceAllocations = new LongAdder();
+        private final int sliceSize;
+
+        MeasuredBufferPool(final BufferAllocator<ByteBuffer> allocator, final int bufferSize, final int sliceSize) {
+            this.sliceSize = sliceSize;
+            this.delegate = new ByteBufferSlicePool(size -> {
+                sliceAllocations.increment();
+                return allocator.allocate(size);
+            }, bufferSize, sliceSize);
+        }
+
+        @Override
+        public Pooled<ByteBuffer> allocate() {
+            allocations.increment();
+            return delegate.allocate();
+        }
+
+        @Override
+        public long getAllocationCount() {
+            return allocations.sum();
+        }
+
+        @Override
+        public long getAllocationMissCount() {
+            return sliceAllocations.sum();
+        }
+
+        @Override
+        public long getAllocationHitCount() {
+            // Read the misses first so a concurrent allocation can not make the result negative
+            final long misses = sliceAllocations.sum();
+            return Math.max(0, allocations.sum() - misses);
+        }
+
+        @Override
+        public long getAllocatedMemory() {
+            return sliceAllocations.sum() * sliceSize;
+        }
+    }
 }
@@ -32,6 +32,9 @@ interface Constants {
     String BUFFER_SIZE = "buffer-size";
     String BUFFER_PER_SLICE = "buffers-per-slice";
     String DIRECT_BUFFERS = "direct-buffers";
+    String MAX_MEMORY = "max-memory";
+    String THREAD_LOCAL_BUFFER_POOL = "thread-local-buffer-pool";
+    String THREAD_LOCAL_CACHE_SIZE = "thread-local-cache-size";
     String WORKER = "worker";
     String WORKER_IO_THREADS = "io-threads";
     String WORKER_TASK_CORE_THREADS = "task-core-threads";
@@ -50,7 +50,8 @@ class IORootDefinition extends PersistentResourceDefinition {
 
     static final PersistentResourceDefinition[] CHILDREN = {
             WorkerResourceDefinition.INSTANCE,
-            BufferPoolResourceDefinition.INSTANCE
+            BufferPoolResourceDefinition.INSTANCE,
+            ThreadLocalBufferPoolResourceDefinition.INSTANCE
         };
 
     private IORootDefinition() {
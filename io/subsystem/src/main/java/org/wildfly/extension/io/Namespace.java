@@ -37,12 +37,13 @@ enum Namespace {
     IO_1_0("urn:jboss:domain:io:1.0"),
     IO_1_1("urn:jboss:domain:io:1.1"),
     IO_2_0("urn:jboss:domain:io:2.0"),
-    IO_3_0("urn:jboss:domain:io:3.0");
+    IO_3_0("urn:jboss:domain:io:3.0"),
+    IO_4_0("urn:jboss:domain:io:4.0");
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = IO_3_0;
+    public static final Namespace CURRENT = IO_4_0;
 
     private final String name;
 
@@ -0,0 +1,308 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.extension.io.logging.IOLogger;
+import org.xnio.BufferAllocator;
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * A buffer pool which keeps a cache of free buffers for each thread, backed by a pool shared by all threads.
+ * <p>
+ * A buffer is returned to the cache of the thread freeing it, so a thread which allocates and frees buffers, such as an
+ * I/O thread, reuses its own buffers without touching any shared state. Only once its cache is empty or full does a
+ * thread take buffers from or spill buffers to the shared pool. Memory is allocated in slices holding several
+ * buffers. As the slices are first written by the allocating thread, the operating system usually places their pages
+ * on the memory node local to that thread.
+ * </p>
+ * <p>
+ * The memory held in slices can be capped. Once the cap is reached, the free buffers cached by every thread are moved
+ * to the shared pool, so buffers held by idle threads are available to busy ones. An allocation which still can not be
+ * served gets a buffer of its own, which is not pooled and is released once freed. A buffer which is discarded rather
+ * than freed no longer counts towards the cap.
+ * </p>
+ * <p>
+ * The caches of all threads are tracked, so the free buffers they hold are released once the pool is closed.
+ * </p>
+ */
+final class ThreadLocalBufferPool implements Pool<ByteBuffer>, BufferPoolMetrics {
+
+    private final BufferAllocator<ByteBuffer> allocator;
+    private final int bufferSize;
+    private final int buffersPerSlice;
+    private final int threadLocalCacheSize;
+    private final long maxMemory;
+
+    private final Queue<ByteBuffer> sharedBuffers = new ConcurrentLinkedQueue<>();
+    private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::createThreadCache);
+    private final AtomicLong allocatedMemory = new AtomicLong();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicBoolean limitReached = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param allocator            the allocator of the slices
+     * @param bufferSize           the size of each buffer
+     * @param buffersPerSlice      the number of buffers allocated at once
+     * @param threadLocalCacheSize the maximum number of free buffers cached by each thread
+     * @param maxMemory            the maximum number of bytes held in slices, or {@code 0} if not limited
+     */
+    ThreadLocalBufferPool(final BufferAllocator<ByteBuffer> allocator, final int bufferSize, final int buffersPerSlice,
+                          final int threadLocalCacheSize, final long maxMemory) {
+        this.allocator = allocator;
+        this.bufferSize = bufferSize;
+        this.buffersPerSlice = buffersPerSlice;
+        this.threadLocalCacheSize = threadLocalCacheSize;
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * Allocates a buffer. If the memory cap has been reached and no buffer is free, the buffer is not pooled.
+     *
+     * @return the buffer
+     */
+    @Override
+    public Pooled<ByteBuffer> allocate() {
+        allocations.increment();
+        if (closed) {
+            // Late users of a closed pool get a buffer of their own, which is released once freed
+            return new PooledBuffer(allocator.allocate(bufferSize), false);
+        }
+        final ThreadCache cache = threadCache.get();
+        ByteBuffer buffer = cache.poll();
+        if (buffer == null) {
+            buffer = sharedBuffers.poll();
+        }
+        if (buffer == null) {
+            reclaimThreadCaches(false);
+            buffer = sharedBuffers.poll();
+        }
+        if (buffer == null) {
+            buffer = allocateSlice(cache);
+        }
+        if (buffer == null) {
+            // The memory cap has been reached, so take the free buffers cached by the other threads
+            reclaimThreadCaches(true);
+            buffer = sharedBuffers.poll();
+            if (buffer == null) {
+                misses.increment();
+                if (limitReached.compareAndSet(false, true)) {
+                    IOLogger.ROOT_LOGGER.bufferPoolLimitReached(maxMemory);
+                }
+                return new PooledBuffer(allocator.allocate(bufferSize), false);
+            }
+        }
+        return new PooledBuffer(buffer, true);
+    }
+
+    /**
+     * Releases the free buffers held by the pool, including those cached by threads which are idle. Buffers which are
+     * still in use are released rather than pooled once they are freed.
+     */
+    void close() {
+        closed = true;
+        for (ThreadCache cache : threadCaches) {
+            cache.clear();
+        }
+        threadCaches.clear();
+        sharedBuffers.clear();
+    }
+
+    private ByteBuffer allocateSlice(final ThreadCache cache) {
+        final int sliceSize = bufferSize * buffersPerSlice;
+        long current;
+        do {
+            current = allocatedMemory.get();
+            if (maxMemory > 0 && current + sliceSize > maxMemory) {
+                return null;
+            }
+        } while (!allocatedMemory.compareAndSet(current, current + sliceSize));
+
+        misses.increment();
+        final ByteBuffer slice = allocator.allocate(sliceSize);
+        for (int i = 1; i < buffersPerSlice; i++) {
+            release(cache, slice(slice, i));
+        }
+        return slice(slice, 0);
+    }
+
+    private ByteBuffer slice(final ByteBuffer slice, final int index) {
+        final ByteBuffer duplicate = slice.duplicate();
+        duplicate.position(index * bufferSize);
+        duplicate.limit((index + 1) * bufferSize);
+        return duplicate.slice();
+    }
+
+    private void release(final ThreadCache cache, final ByteBuffer buffer) {
+        if (!cache.offer(buffer)) {
+            sharedBuffers.offer(buffer);
+        }
+        if (closed) {
+            // Closed concurrently, do not keep the buffer
+            cache.clear();
+            sharedBuffers.clear();
+        }
+    }
+
+    private ThreadCache createThreadCache() {
+        final ThreadCache cache = new ThreadCache(Thread.currentThread(), threadLocalCacheSize);
+        threadCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Moves the buffers cached by threads which have terminated, or by all threads, to the shared pool. Only done once
+     * both the cache of the thread and the shared pool are empty, so it does not add to the cost of allocations served
+     * by either.
+     */
+    private void reclaimThreadCaches(final boolean all) {
+        for (ThreadCache cache : threadCaches) {
+            final Thread thread = cache.thread.get();
+            if (thread == null || !thread.isAlive()) {
+                if (threadCaches.remove(cache)) {
+                    cache.drainTo(sharedBuffers);
+                }
+            } else if (all) {
+                cache.drainTo(sharedBuffers);
+            }
+        }
+    }
+
+    @Override
+    public long getAllocationCount() {
+        return allocations.sum();
+    }
+
+    @Override
+    public long getAllocationHitCount() {
+        // Read the misses first so a concurrent allocation can not make the result negative
+        final long misses = this.misses.sum();
+        return Math.max(0, allocations.sum() - misses);
+    }
+
+    @Override
+    public long getAllocationMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getAllocatedMemory() {
+        return allocatedMemory.get();
+    }
+
+    /**
+     * The free buffers cached by a thread. Other threads only access the cache to reclaim its buffers, so the lock is
+     * uncontended when the thread allocates and frees buffers.
+     */
+    private static final class ThreadCache {
+        private final WeakReference<Thread> thread;
+        private final int size;
+        private final ArrayDeque<ByteBuffer> buffers;
+
+        ThreadCache(final Thread thread, final int size) {
+            this.thread = new WeakReference<>(thread);
+            this.size = size;
+            this.buffers = new ArrayDeque<>(Math.max(1, size));
+        }
+
+        synchronized ByteBuffer poll() {
+            return buffers.pollFirst();
+        }
+
+        synchronized boolean offer(final ByteBuffer buffer) {
+            if (buffers.size() >= size) {
+                return false;
+            }
+            buffers.addFirst(buffer);
+            return true;
+        }
+
+        synchronized void drainTo(final Queue<ByteBuffer> queue) {
+            queue.addAll(buffers);
+            buffers.clear();
+        }
+
+        synchronized void clear() {
+            buffers.clear();
+        }
+    }
+
+    private final class PooledBuffer implements Pooled<ByteBuffer> {
+        private final boolean pooled;
+        private ByteBuffer buffer;
+
+        PooledBuffer(final ByteBuffer buffer, final boolean pooled) {
+            this.buffer = buffer;
+            this.pooled = pooled;
+        }
+
+        @Override
+        public void discard() {
+            if (buffer != null && pooled) {
+                // The buffer is gone for good, allow the memory to be allocated again
+                allocatedMemory.addAndGet(-bufferSize);
+            }
+            buffer = null;
+        }
+
+        @Override
+        public void free() {
+            final ByteBuffer buffer = this.buffer;
+            if (buffer == null) {
+                return;
+            }
+            this.buffer = null;
+            if (pooled && !closed) {
+                buffer.clear();
+                release(threadCache.get(), buffer);
+            }
+        }
+
+        @Override
+        public ByteBuffer getResource() throws IllegalStateException {
+            final ByteBuffer buffer = this.buffer;
+            if (buffer == null) {
+                throw IOLogger.ROOT_LOGGER.bufferFreed();
+            }
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            free();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import static org.wildfly.extension.io.BufferPoolResourceDefinition.IO_BYTE_BUFFER_POOL_RUNTIME_CAPABILITY;
+import static org.wildfly.extension.io.BufferPoolResourceDefinition.IO_POOL_RUNTIME_CAPABILITY;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.io.BufferPoolResourceDefinition.ByteBufferPoolService;
+import org.xnio.Pool;
+
+/**
+ * Resource definition of a buffer pool which caches free buffers for each thread, see {@link ThreadLocalBufferPool}.
+ * It provides the same capabilities as a {@link BufferPoolResourceDefinition buffer pool}, so can be used in its place.
+ */
+class ThreadLocalBufferPoolResourceDefinition extends PersistentResourceDefinition {
+
+    static final PathElement PATH = PathElement.pathElement(Constants.THREAD_LOCAL_BUFFER_POOL);
+
+    static final SimpleAttributeDefinition BUFFER_SIZE = new SimpleAttributeDefinitionBuilder(Constants.BUFFER_SIZE, ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .build();
+    static final SimpleAttributeDefinition BUFFER_PER_SLICE = new SimpleAttributeDefinitionBuilder(Constants.BUFFER_PER_SLICE, ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+    static final SimpleAttributeDefinition DIRECT_BUFFERS = new SimpleAttributeDefinitionBuilder(Constants.DIRECT_BUFFERS, ModelType.BOOLEAN, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .build();
+    static final SimpleAttributeDefinition THREAD_LOCAL_CACHE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.THREAD_LOCAL_CACHE_SIZE, ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(12))
+            .setValidator(new IntRangeValidator(0, true, true))
+            .build();
+    static final SimpleAttributeDefinition MAX_MEMORY = new SimpleAttributeDefinitionBuilder(Constants.MAX_MEMORY, ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .build();
+
+    static final List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
+            BUFFER_SIZE,
+            BUFFER_PER_SLICE,
+            DIRECT_BUFFERS,
+            THREAD_LOCAL_CACHE_SIZE,
+            MAX_MEMORY
+    );
+
+    static final ThreadLocalBufferPoolResourceDefinition INSTANCE = new ThreadLocalBufferPoolResourceDefinition();
+
+    private ThreadLocalBufferPoolResourceDefinition() {
+        super(new SimpleResourceDefinition.Parameters(PATH, IOExtension.getResolver(Constants.THREAD_LOCAL_BUFFER_POOL))
+                .setAddHandler(new ThreadLocalBufferPoolAdd())
+                .setRemoveHandler(new ReloadRequiredRemoveStepHandler())
+                .addCapabilities(IO_POOL_RUNTIME_CAPABILITY,
+                        IO_BYTE_BUFFER_POOL_RUNTIME_CAPABILITY)
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return (Collection) ATTRIBUTES;
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        BufferPoolResourceDefinition.registerMetrics(resourceRegistration);
+    }
+
+    private static class ThreadLocalBufferPoolAdd extends AbstractAddStepHandler {
+
+        private ThreadLocalBufferPoolAdd() {
+            super(ThreadLocalBufferPoolResourceDefinition.ATTRIBUTES);
+        }
+
+        @Override
+        protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+            final ModelNode bufferSizeModel = BUFFER_SIZE.resolveModelAttribute(context, model);
+            final ModelNode bufferPerSliceModel = BUFFER_PER_SLICE.resolveModelAttribute(context, model);
+            final ModelNode directModel = DIRECT_BUFFERS.resolveModelAttribute(context, model);
+            final ModelNode maxMemoryModel = MAX_MEMORY.resolveModelAttribute(context, model);
+
+            final int bufferSize = bufferSizeModel.isDefined() ? bufferSizeModel.asInt() : BufferPoolResourceDefinition.defaultBufferSize;
+            final int bufferPerSlice = bufferPerSliceModel.isDefined() ? bufferPerSliceModel.asInt() : BufferPoolResourceDefinition.defaultBuffersPerRegion;
+            final boolean direct = directModel.isDefined() ? directModel.asBoolean() : BufferPoolResourceDefinition.defaultDirectBuffers;
+            final int threadLocalCacheSize = THREAD_LOCAL_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
+            final long maxMemory = maxMemoryModel.isDefined() ? maxMemoryModel.asLong() : 0;
+
+            final ThreadLocalBufferPoolService service = new ThreadLocalBufferPoolService(bufferSize, bufferPerSlice, direct, threadLocalCacheSize, maxMemory);
+            context.getCapabilityServiceTarget().addCapability(IO_POOL_RUNTIME_CAPABILITY)
+                    .setInstance(service)
+                    .setInitialMode(ServiceController.Mode.ON_DEMAND)
+                    .install();
+
+            ByteBufferPoolService poolService = new ByteBufferPoolService();
+
+            context.getCapabilityServiceTarget().addCapability(IO_BYTE_BUFFER_POOL_RUNTIME_CAPABILITY)
+                    .setInstance(poolService)
+                    .addCapabilityRequirement(IO_POOL_RUNTIME_CAPABILITY.getDynamicName(context.getCurrentAddress()), Pool.class, poolService.bufferPool)
+                    .setInitialMode(ServiceController.Mode.ON_DEMAND)
+                    .install();
+        }
+    }
+}
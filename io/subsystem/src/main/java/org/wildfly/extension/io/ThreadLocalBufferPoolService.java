@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import java.nio.ByteBuffer;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.xnio.BufferAllocator;
+import org.xnio.Pool;
+
+/**
+ * Service providing a {@link ThreadLocalBufferPool}.
+ */
+class ThreadLocalBufferPoolService implements Service<Pool<ByteBuffer>> {
+    private volatile ThreadLocalBufferPool bufferPool;
+    private final int bufferSize;
+    private final int buffersPerSlice;
+    private final boolean directBuffers;
+    private final int threadLocalCacheSize;
+    private final long maxMemory;
+
+    ThreadLocalBufferPoolService(int bufferSize, int buffersPerSlice, boolean directBuffers, int threadLocalCacheSize, long maxMemory) {
+        this.bufferSize = bufferSize;
+        this.buffersPerSlice = buffersPerSlice;
+        this.directBuffers = directBuffers;
+        this.threadLocalCacheSize = threadLocalCacheSize;
+        this.maxMemory = maxMemory;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        bufferPool = new ThreadLocalBufferPool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR,
+                bufferSize, buffersPerSlice, threadLocalCacheSize, maxMemory);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        // Release the buffers cached by threads which outlive the pool
+        bufferPool.close();
+        bufferPool = null;
+    }
+
+    @Override
+    public Pool<ByteBuffer> getValue() throws IllegalStateException, IllegalArgumentException {
+        return bufferPool;
+    }
+}
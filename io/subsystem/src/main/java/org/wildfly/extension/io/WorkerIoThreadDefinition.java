@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import static org.wildfly.extension.io.WorkerResourceDefinition.getXnioWorker;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+
+/**
+ * Runtime resource exposing the metrics of a single I/O thread of a worker. The values are sampled from the
+ * {@link ThreadMXBean} when read, so nothing is recorded on the I/O path itself. As an I/O thread does not use CPU
+ * while it waits in its selector, its CPU time is the time it has spent busy handling I/O events and tasks.
+ */
+class WorkerIoThreadDefinition extends SimpleResourceDefinition {
+
+    static final String IO_THREAD = "io-thread";
+
+    private static final SimpleAttributeDefinition THREAD_NAME = new SimpleAttributeDefinitionBuilder("thread-name", ModelType.STRING)
+            .setStorageRuntime()
+            .build();
+    private static final SimpleAttributeDefinition THREAD_STATE = new SimpleAttributeDefinitionBuilder("thread-state", ModelType.STRING)
+            .setStorageRuntime()
+            .build();
+    private static final SimpleAttributeDefinition CPU_TIME = new SimpleAttributeDefinitionBuilder("cpu-time", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+    private static final SimpleAttributeDefinition USER_TIME = new SimpleAttributeDefinitionBuilder("user-time", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    WorkerIoThreadDefinition() {
+        super(new Parameters(PathElement.pathElement(IO_THREAD), IOExtension.getResolver("worker", IO_THREAD))
+                .setRuntime());
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadOnlyAttribute(THREAD_NAME, new IoThreadMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(ThreadMXBean threadMXBean, XnioIoThread thread) {
+                return new ModelNode(thread.getName());
+            }
+        });
+        resourceRegistration.registerMetric(THREAD_STATE, new IoThreadMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(ThreadMXBean threadMXBean, XnioIoThread thread) {
+                return new ModelNode(thread.getState().toString());
+            }
+        });
+        resourceRegistration.registerMetric(CPU_TIME, new IoThreadMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(ThreadMXBean threadMXBean, XnioIoThread thread) {
+                return new ModelNode(threadMXBean.getThreadCpuTime(thread.getId()));
+            }
+        });
+        resourceRegistration.registerMetric(USER_TIME, new IoThreadMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(ThreadMXBean threadMXBean, XnioIoThread thread) {
+                return new ModelNode(threadMXBean.getThreadUserTime(thread.getId()));
+            }
+        });
+    }
+
+    private abstract static class IoThreadMetricsHandler implements OperationStepHandler {
+
+        abstract ModelNode getMetricValue(ThreadMXBean threadMXBean, XnioIoThread thread);
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            XnioWorker worker = getXnioWorker(context);
+            int index = getIndex(context.getCurrentAddressValue());
+            if (worker == null || index < 0 || index >= worker.getIoThreadCount()) {
+                context.getResult().set(IOExtension.NO_METRICS);
+                return;
+            }
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            ModelNode value = getMetricValue(threadMXBean, worker.getIoThread(index));
+            // The thread MX bean reports -1 if CPU time measurement is disabled or not supported
+            if (value.getType() == ModelType.LONG && value.asLong() < 0) {
+                context.getResult().set(IOExtension.NO_METRICS);
+            } else {
+                context.getResult().set(value);
+            }
+        }
+
+        private static int getIndex(String name) {
+            try {
+                return Integer.parseInt(name);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -210,6 +210,7 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         // by doing it this way it will still behave correctly.
         if (!PROFILE.equals(resourceRegistration.getPathAddress().getElement(0).getKey())) {
             resourceRegistration.registerSubModel(new WorkerServerDefinition());
+            resourceRegistration.registerSubModel(new WorkerIoThreadDefinition());
         }
     }
 
@@ -362,22 +363,7 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
             super(Resource.Factory.create());
             this.serviceRegistry = context.getServiceRegistry(false);
             this.pathAddress = context.getCurrentAddress();
-            super.registerResourceProvider("server", new ResourceProvider() {
-                @Override
-                public boolean has(String name) {
-                    return children().contains(name);
-                }
-
-                @Override
-                public Resource get(String name) {
-                    return PlaceholderResource.INSTANCE;
-                }
-
-                @Override
-                public boolean hasChildren() {
-                    return false;
-                }
-
+            super.registerResourceProvider("server", new RuntimeResourceProvider() {
                 @Override
                 public Set<String> children() {
                     XnioWorkerMXBean metrics = getMetrics(serviceRegistry, pathAddress.getLastElement().getValue());
@@ -390,25 +376,19 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
                     }
                     return res;
                 }
-
-                @Override
-                public void register(String name, Resource resource) {
-                    throw new UnsupportedOperationException();
-                }
-
-                @Override
-                public void register(String value, int index, Resource resource) {
-                    throw new UnsupportedOperationException();
-                }
-
-                @Override
-                public Resource remove(String name) {
-                    return null;
-                }
-
+            });
+            super.registerResourceProvider(WorkerIoThreadDefinition.IO_THREAD, new RuntimeResourceProvider() {
                 @Override
-                public ResourceProvider clone() {
-                    return this;
+                public Set<String> children() {
+                    XnioWorker worker = getXnioWorker(serviceRegistry, pathAddress.getLastElement().getValue());
+                    if (worker == null) {
+                        return Collections.emptySet();
+                    }
+                    Set<String> res = new LinkedHashSet<>();
+                    for (int i = 0; i < worker.getIoThreadCount(); i++) {
+                        res.add(Integer.toString(i));
+                    }
+                    return res;
                 }
             });
         }
@@ -417,8 +397,49 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         public Set<String> getChildTypes() {
             LinkedHashSet<String> result = new LinkedHashSet<>(super.getChildTypes());
             result.add("server");
+            result.add(WorkerIoThreadDefinition.IO_THREAD);
             return result;
         }
 
     }
+
+    /**
+     * Provides the runtime only children of a worker, which are computed from the running worker.
+     */
+    private abstract static class RuntimeResourceProvider implements ResourceProvider {
+        @Override
+        public boolean has(String name) {
+            return children().contains(name);
+        }
+
+        @Override
+        public Resource get(String name) {
+            return PlaceholderResource.INSTANCE;
+        }
+
+        @Override
+        public boolean hasChildren() {
+            return false;
+        }
+
+        @Override
+        public void register(String name, Resource resource) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void register(String value, int index, Resource resource) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Resource remove(String name) {
+            return null;
+        }
+
+        @Override
+        public ResourceProvider clone() {
+            return this;
+        }
+    }
 }
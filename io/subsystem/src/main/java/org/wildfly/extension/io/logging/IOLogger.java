@@ -75,4 +75,11 @@ public interface IOLogger extends BasicLogger {
 
     @Message(id = 7, value = "Unexpected bind address conflict in resource \"%s\" when attempting to establish binding for destination %s to %s: a binding of %s already existed")
     OperationFailedException unexpectedBindAddressConflict(PathAddress currentAddress, CidrAddress cidrAddress, InetSocketAddress bindAddress, InetSocketAddress existing);
+
+    @Message(id = 8, value = "Buffer has already been freed")
+    IllegalStateException bufferFreed();
+
+    @LogMessage(level = WARN)
+    @Message(id = 9, value = "Buffer pool reached its limit of %d bytes, further buffers are allocated without pooling until pooled buffers are freed")
+    void bufferPoolLimitReached(long maxMemory);
 }
@@ -60,12 +60,12 @@ public class IOSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("io-3.0.xml");
+        return readResource("io-4.0.xml");
     }
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-io_3_0.xsd";
+        return "schema/wildfly-io_4_0.xsd";
     }
 
     @Override
@@ -149,6 +149,21 @@ public class IOSubsystemTestCase extends AbstractSubsystemBaseTest {
         Assert.assertEquals(keepAliveMillis / 1000, (long) mbs.getAttribute(threadPoolName, "KeepAliveTimeSeconds"));
     }
 
+    @Test
+    public void testIoThreadMetrics() throws Exception {
+        KernelServices kernelServices = startKernelServices(getSubsystemXml());
+        XnioWorker worker = startXnioWorker(kernelServices);
+
+        PathAddress addr = PathAddress.parseCLIStyleAddress("/subsystem=io/worker=default");
+        ModelNode op = Util.createOperation("read-children-names", addr);
+        op.get("child-type").set("io-thread");
+        ModelNode result = kernelServices.executeForResult(op);
+        Assert.assertEquals(worker.getIoThreadCount(), result.asList().size());
+
+        op = Util.getReadAttributeOperation(addr.append("io-thread", "0"), "thread-name");
+        Assert.assertEquals(worker.getIoThread(0).getName(), kernelServices.executeForResult(op).asString());
+    }
+
     protected KernelServices startKernelServices(String subsystemXml) throws Exception {
         KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization())
                 .setSubsystemXml(subsystemXml);
@@ -20,6 +20,7 @@ package org.wildfly.extension.io;
 
 import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_0_0;
 import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_1_0;
+import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_2_0;
 import static org.junit.Assert.assertTrue;
 import static org.wildfly.extension.io.IOExtension.SUBSYSTEM_PATH;
 import static org.wildfly.extension.io.IOExtension.WORKER_PATH;
@@ -124,6 +125,9 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
                 )
                 .addFailedAttribute(subsystemAddress.append(PathElement.pathElement(WORKER_PATH.getKey(), "fourth-worker"), PathElement.pathElement("outbound-bind-address")),
                         FailedOperationTransformationConfig.REJECTED_RESOURCE
+                )
+                .addFailedAttribute(subsystemAddress.append(ThreadLocalBufferPoolResourceDefinition.PATH),
+                        FailedOperationTransformationConfig.REJECTED_RESOURCE
                 );
         testRejectingTransformers(EAP_7_0_0, config);
     }
@@ -136,10 +140,23 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
                         new FailedOperationTransformationConfig.NewAttributesConfig(
                                 WORKER_TASK_CORE_THREADS
                         )
+                )
+                .addFailedAttribute(subsystemAddress.append(ThreadLocalBufferPoolResourceDefinition.PATH),
+                        FailedOperationTransformationConfig.REJECTED_RESOURCE
                 );
         testRejectingTransformers(EAP_7_1_0, config);
     }
 
+    @Test
+    public void testRejectingTransformersEAP_7_2_0() throws Exception {
+        PathAddress subsystemAddress = PathAddress.pathAddress(SUBSYSTEM_PATH);
+        FailedOperationTransformationConfig config = new FailedOperationTransformationConfig()
+                .addFailedAttribute(subsystemAddress.append(ThreadLocalBufferPoolResourceDefinition.PATH),
+                        FailedOperationTransformationConfig.REJECTED_RESOURCE
+                );
+        testRejectingTransformers(EAP_7_2_0, config);
+    }
+
     private void testRejectingTransformers(ModelTestControllerVersion controllerVersion, FailedOperationTransformationConfig config) throws Exception {
         ModelVersion modelVersion = controllerVersion.getSubsystemModelVersion(getMainSubsystemName());
 
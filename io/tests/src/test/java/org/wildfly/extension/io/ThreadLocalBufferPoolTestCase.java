@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.Pooled;
+
+/**
+ * Tests of the {@link ThreadLocalBufferPool}.
+ */
+public class ThreadLocalBufferPoolTestCase {
+
+    private static final int BUFFER_SIZE = 128;
+    private static final int BUFFERS_PER_SLICE = 8;
+
+    @Test
+    public void testBuffersReused() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFERS_PER_SLICE, BUFFERS_PER_SLICE, 0);
+        Pooled<ByteBuffer> first = pool.allocate();
+        ByteBuffer buffer = first.getResource();
+        Assert.assertEquals(BUFFER_SIZE, buffer.capacity());
+        Assert.assertEquals(BUFFER_SIZE, buffer.remaining());
+        buffer.put((byte) 1);
+        first.free();
+        try {
+            first.getResource();
+            Assert.fail("Expected the buffer to be freed");
+        } catch (IllegalStateException expected) {
+        }
+
+        // The freed buffer is cached by this thread
+        Pooled<ByteBuffer> second = pool.allocate();
+        Assert.assertSame(buffer, second.getResource());
+        Assert.assertEquals(BUFFER_SIZE, second.getResource().remaining());
+        second.free();
+
+        // Allocating more than a slice allocates a second slice
+        List<Pooled<ByteBuffer>> allocated = new ArrayList<>();
+        for (int i = 0; i < BUFFERS_PER_SLICE + 1; i++) {
+            allocated.add(pool.allocate());
+        }
+        allocated.forEach(Pooled::free);
+        Assert.assertEquals(2 + BUFFERS_PER_SLICE + 1, pool.getAllocationCount());
+        Assert.assertEquals(2, pool.getAllocationMissCount());
+        Assert.assertEquals(BUFFERS_PER_SLICE + 1, pool.getAllocationHitCount());
+        Assert.assertEquals(2 * BUFFER_SIZE * BUFFERS_PER_SLICE, pool.getAllocatedMemory());
+    }
+
+    @Test
+    public void testMaxMemory() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFERS_PER_SLICE, 4,
+                BUFFER_SIZE * BUFFERS_PER_SLICE);
+        List<Pooled<ByteBuffer>> allocated = new ArrayList<>();
+        for (int i = 0; i < BUFFERS_PER_SLICE; i++) {
+            Pooled<ByteBuffer> pooled = pool.allocate();
+            Assert.assertEquals(BUFFER_SIZE, pooled.getResource().capacity());
+            allocated.add(pooled);
+        }
+        // The cap has been reached, the next buffer is not pooled
+        ByteBuffer slice = allocated.get(0).getResource();
+        Pooled<ByteBuffer> unpooled = pool.allocate();
+        Assert.assertEquals(BUFFER_SIZE, unpooled.getResource().capacity());
+        Assert.assertNotSame(slice.array(), unpooled.getResource().array());
+        Assert.assertEquals(BUFFER_SIZE * BUFFERS_PER_SLICE, pool.getAllocatedMemory());
+        Assert.assertEquals(2, pool.getAllocationMissCount());
+        ByteBuffer unpooledBuffer = unpooled.getResource();
+        unpooled.free();
+
+        // Freed pooled buffers are reused, freed unpooled buffers are not
+        allocated.get(0).free();
+        Pooled<ByteBuffer> reused = pool.allocate();
+        Assert.assertSame(slice.array(), reused.getResource().array());
+        Assert.assertNotSame(unpooledBuffer, reused.getResource());
+        Assert.assertEquals(BUFFER_SIZE * BUFFERS_PER_SLICE, pool.getAllocatedMemory());
+        Assert.assertEquals(2, pool.getAllocationMissCount());
+    }
+
+    @Test
+    public void testDiscardReturnsCapacity() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, 1, 4, BUFFER_SIZE);
+        Pooled<ByteBuffer> first = pool.allocate();
+        Assert.assertEquals(BUFFER_SIZE, pool.getAllocatedMemory());
+        first.discard();
+        Assert.assertEquals(0, pool.getAllocatedMemory());
+        // Discarding twice, or freeing a discarded buffer, does not return the capacity again
+        first.discard();
+        first.free();
+        Assert.assertEquals(0, pool.getAllocatedMemory());
+
+        // The discarded capacity is used for a new pooled buffer
+        Pooled<ByteBuffer> second = pool.allocate();
+        Assert.assertEquals(BUFFER_SIZE, pool.getAllocatedMemory());
+        Assert.assertEquals(2, pool.getAllocationMissCount());
+        ByteBuffer buffer = second.getResource();
+        second.free();
+        Assert.assertSame(buffer, pool.allocate().getResource());
+    }
+
+    @Test
+    public void testIdleThreadCachesReclaimedAtMaxMemory() throws Exception {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFERS_PER_SLICE,
+                BUFFERS_PER_SLICE, BUFFER_SIZE * BUFFERS_PER_SLICE);
+        CountDownLatch cached = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            pool.allocate().free();
+            cached.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        thread.start();
+        try {
+            Assert.assertTrue(cached.await(1, TimeUnit.MINUTES));
+            // All the buffers of the slice are cached by the idle, but still running, thread
+            for (int i = 0; i < BUFFERS_PER_SLICE; i++) {
+                pool.allocate();
+            }
+            Assert.assertEquals(1, pool.getAllocationMissCount());
+        } finally {
+            done.countDown();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testClose() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFERS_PER_SLICE, BUFFERS_PER_SLICE, 0);
+        Pooled<ByteBuffer> inUse = pool.allocate();
+        Pooled<ByteBuffer> cached = pool.allocate();
+        ByteBuffer cachedBuffer = cached.getResource();
+        cached.free();
+        pool.close();
+
+        // The cached buffers were released, buffers allocated or freed afterwards are not pooled
+        Pooled<ByteBuffer> afterClose = pool.allocate();
+        Assert.assertNotSame(cachedBuffer, afterClose.getResource());
+        Assert.assertNotSame(cachedBuffer.array(), afterClose.getResource().array());
+        inUse.free();
+        afterClose.free();
+        Assert.assertNotSame(cachedBuffer.array(), pool.allocate().getResource().array());
+    }
+
+    @Test
+    public void testTerminatedThreadCachesReclaimed() throws Exception {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFERS_PER_SLICE,
+                BUFFERS_PER_SLICE, BUFFER_SIZE * BUFFERS_PER_SLICE);
+        Thread thread = new Thread(() -> pool.allocate().free());
+        thread.start();
+        thread.join();
+
+        // All the buffers of the slice were cached by the terminated thread
+        for (int i = 0; i < BUFFERS_PER_SLICE; i++) {
+            pool.allocate();
+        }
+        Assert.assertEquals(1, pool.getAllocationMissCount());
+    }
+
+    @Test
+    public void testConcurrentAllocation() throws Exception {
+        final int threads = 16;
+        final int iterations = 10000;
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFERS_PER_SLICE, 4, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final byte value = (byte) i;
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    for (int j = 0; j < iterations; j++) {
+                        Pooled<ByteBuffer> first = pool.allocate();
+                        Pooled<ByteBuffer> second = pool.allocate();
+                        first.getResource().put(0, value);
+                        second.getResource().put(0, value);
+                        // A buffer must never be handed out twice
+                        Assert.assertEquals(value, first.getResource().get(0));
+                        Assert.assertEquals(value, second.getResource().get(0));
+                        first.free();
+                        second.free();
+                    }
+                    return null;
+                }));
+            }
+            latch.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(2L * threads * iterations, pool.getAllocationCount());
+        Assert.assertEquals(pool.getAllocationMissCount() * BUFFER_SIZE * BUFFERS_PER_SLICE, pool.getAllocatedMemory());
+    }
+}
@@ -22,6 +22,9 @@
 
 package org.jboss.as.logging;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractRemoveStepHandler;
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
@@ -55,6 +58,12 @@ public final class LoggingOperations {
      * Note the commit step will only be added if process type is a
      * {@linkplain org.jboss.as.controller.ProcessType#isServer() server}.
      * </p>
+     * <p>
+     * When several logging operations are executed in the same context, for example in a composite operation, the
+     * changes are batched. Each commit step prepares any changes made since the previous prepare, so the changes are
+     * always prepared before the steps queued after the commit step execute. Only one commit and one write of the
+     * {@code logging.properties} file is done when the operation completes.
+     * </p>
      *
      * @param context                  the context to add the step to
      * @param configurationPersistence the configuration to commit
@@ -63,10 +72,33 @@ public final class LoggingOperations {
         // This should only check that it's a server for the commit step. The logging.properties may need to be written
         // in ADMIN_ONLY mode
         if (context.getProcessType().isServer()) {
+            getCommitBatch(context, configurationPersistence).changed = true;
             context.addStep(new CommitOperationStepHandler(configurationPersistence), Stage.RUNTIME);
         }
     }
 
+    private static CommitBatch getCommitBatch(final OperationContext context, final ConfigurationPersistence configurationPersistence) {
+        Map<ConfigurationPersistence, CommitBatch> batches = context.getAttachment(CommitOperationStepHandler.BATCH_KEY);
+        if (batches == null) {
+            batches = new ConcurrentHashMap<>();
+            final Map<ConfigurationPersistence, CommitBatch> existing = context.attachIfAbsent(CommitOperationStepHandler.BATCH_KEY, batches);
+            if (existing != null) {
+                batches = existing;
+            }
+        }
+        return batches.computeIfAbsent(configurationPersistence, key -> new CommitBatch());
+    }
+
+    /**
+     * The state of the logging changes made to a configuration within a single operation context.
+     */
+    private static final class CommitBatch {
+        // Changes were made since the last prepare
+        volatile boolean changed;
+        // The commit or rollback has been registered for the batch
+        volatile boolean completionRegistered;
+    }
+
     private static ConfigurationPersistence getOrCreateConfigurationPersistence(final OperationContext context) {
         final PathAddress address = context.getCurrentAddress();
         final ConfigurationPersistence configurationPersistence;
@@ -92,6 +124,7 @@ public final class LoggingOperations {
 
     private static final class CommitOperationStepHandler implements OperationStepHandler {
         private static final AttachmentKey<Boolean> WRITTEN_KEY = AttachmentKey.create(Boolean.class);
+        private static final AttachmentKey<Map<ConfigurationPersistence, CommitBatch>> BATCH_KEY = AttachmentKey.create(Map.class);
         private final ConfigurationPersistence configurationPersistence;
         private final boolean persistConfig;
 
@@ -103,7 +136,18 @@ public final class LoggingOperations {
 
         @Override
         public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
-            configurationPersistence.prepare();
+            final CommitBatch batch = getCommitBatch(context, configurationPersistence);
+            // Always prepare pending changes, steps queued after this one, e.g. after commit steps, may require the
+            // prepared configuration
+            if (batch.changed) {
+                batch.changed = false;
+                configurationPersistence.prepare();
+            }
+            // Only the first commit step for the configuration commits or rolls back the whole batch of changes
+            if (batch.completionRegistered) {
+                return;
+            }
+            batch.completionRegistered = true;
             context.completeStep(new ResultHandler() {
                 @Override
                 public void handleResult(final ResultAction resultAction, final OperationContext context, final ModelNode operation) {
@@ -89,12 +89,14 @@ abstract class AbstractLoggingDeploymentProcessor implements DeploymentUnitProce
         // nonexistent context.
         unregisterLogContext(context, DEFAULT_LOG_CONTEXT_KEY, module);
         unregisterLogContext(context, LOG_CONTEXT_KEY, module);
+        releaseLogContext(context);
         // Unregister all sub-deployments
         final List<DeploymentUnit> subDeployments = getSubDeployments(context);
         for (DeploymentUnit subDeployment : subDeployments) {
             final Module subDeploymentModule = subDeployment.getAttachment(Attachments.MODULE);
             // Sub-deployment should never have a default log context
             unregisterLogContext(subDeployment, LOG_CONTEXT_KEY, subDeploymentModule);
+            releaseLogContext(subDeployment);
         }
     }
 
@@ -109,6 +111,16 @@ abstract class AbstractLoggingDeploymentProcessor implements DeploymentUnitProce
      */
     protected abstract void processDeployment(DeploymentPhaseContext phaseContext, DeploymentUnit deploymentUnit, ResourceRoot root) throws DeploymentUnitProcessingException;
 
+    /**
+     * Releases any resources held for the log context of the deployment after it has been unregistered. By default
+     * this does nothing.
+     *
+     * @param deploymentUnit the deployment unit being undeployed
+     */
+    void releaseLogContext(final DeploymentUnit deploymentUnit) {
+        // Do nothing by default
+    }
+
     void registerLogContext(final DeploymentUnit deploymentUnit, final Module module, final LogContext logContext) {
         // If the default log context is registered we need to remove it and unregister before we register a defined log
         // context
@@ -22,6 +22,8 @@
 
 package org.jboss.as.logging.deployments;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -34,8 +36,10 @@ import java.util.Properties;
 import java.util.Set;
 
 import org.apache.log4j.xml.DOMConfigurator;
+import org.jboss.as.logging.deployments.SharedLogContexts.SharedLogContext;
 import org.jboss.as.logging.logging.LoggingLogger;
 import org.jboss.as.logging.logmanager.WildFlyLogContextSelector;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -67,6 +71,8 @@ public class LoggingConfigDeploymentProcessor extends AbstractLoggingDeploymentP
     private static final String DEFAULT_PROPERTIES = "logging.properties";
     private static final String JBOSS_PROPERTIES = "jboss-logging.properties";
     private static final Object CONTEXT_LOCK = new Object();
+    private static final AttachmentKey<String> SHARED_LOG_CONTEXT_KEY = AttachmentKey.create(String.class);
+    private static final SharedLogContexts SHARED_LOG_CONTEXTS = new SharedLogContexts();
 
     private final String attributeName;
     private final boolean process;
@@ -103,15 +109,31 @@ public class LoggingConfigDeploymentProcessor extends AbstractLoggingDeploymentP
                 final Module module = deploymentUnit.getAttachment(Attachments.MODULE);
                 // Create the log context and load into the selector for the module and keep a strong reference
                 final LogContext logContext;
-                if (isLog4jConfiguration(configFile.getName())) {
+                final String fileName = configFile.getName();
+                if (isLog4jConfiguration(fileName)) {
                     logContext = LogContext.create(true);
+                    loggingConfigurationService = configureLog4j(root, configFile, module.getClassLoader(), logContext);
                 } else {
-                    logContext = LogContext.create();
+                    final byte[] content = readConfigFile(configFile);
+                    final Properties properties = loadProperties(configFile, content);
+                    // Attempt to see if this is a J.U.L. configuration file
+                    if (isJulConfiguration(properties)) {
+                        LoggingLogger.ROOT_LOGGER.julConfigurationFileFound(fileName);
+                        logContext = null;
+                    } else if (SharedLogContexts.isShareable(properties)) {
+                        // Identical configurations are configured once and the log context is shared
+                        final SharedLogContext sharedLogContext = acquireSharedLogContext(configFile, content, properties);
+                        deploymentUnit.putAttachment(SHARED_LOG_CONTEXT_KEY, sharedLogContext.getKey());
+                        logContext = sharedLogContext.getLogContext();
+                        loggingConfigurationService = new LoggingConfigurationService(sharedLogContext.getLogContextConfiguration(), resolveRelativePath(root, configFile));
+                    } else {
+                        logContext = LogContext.create();
+                        loggingConfigurationService = configure(root, configFile, properties, logContext);
+                    }
                 }
 
                 boolean processSubdeployments = true;
                 // Configure the deployments logging based on the top-level configuration file
-                loggingConfigurationService = configure(root, configFile, module.getClassLoader(), logContext);
                 if (loggingConfigurationService != null) {
                     registerLogContext(deploymentUnit, module, logContext);
                 } else {
@@ -207,17 +229,18 @@ public class LoggingConfigDeploymentProcessor extends AbstractLoggingDeploymentP
     }
 
     /**
-     * Configures the log context.
+     * Configures the log context using a log4j configuration file.
      *
+     * @param root        the deployments root resource
      * @param configFile  the configuration file
      * @param classLoader the class loader to use for the configuration
      * @param logContext  the log context to configure
      *
-     * @return {@code true} if the log context was successfully configured, otherwise {@code false}
+     * @return the configuration service for the deployment
      *
      * @throws DeploymentUnitProcessingException if the configuration fails
      */
-    private LoggingConfigurationService configure(final ResourceRoot root, final VirtualFile configFile, final ClassLoader classLoader, final LogContext logContext) throws DeploymentUnitProcessingException {
+    private LoggingConfigurationService configureLog4j(final ResourceRoot root, final VirtualFile configFile, final ClassLoader classLoader, final LogContext logContext) throws DeploymentUnitProcessingException {
         InputStream configStream = null;
         try {
             LoggingLogger.ROOT_LOGGER.debugf("Found logging configuration file: %s", configFile);
@@ -226,44 +249,99 @@ public class LoggingConfigDeploymentProcessor extends AbstractLoggingDeploymentP
             final String fileName = configFile.getName();
             configStream = configFile.openStream();
 
-            // Check the type of the configuration file
-            if (isLog4jConfiguration(fileName)) {
-                final ClassLoader current = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
-                final LogContext old = logContextSelector.getAndSet(CONTEXT_LOCK, logContext);
-                try {
-                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
-                    if (LOG4J_XML.equals(fileName) || JBOSS_LOG4J_XML.equals(fileName)) {
-                        new DOMConfigurator().doConfigure(configStream, org.apache.log4j.JBossLogManagerFacade.getLoggerRepository(logContext));
-                    } else {
-                        final Properties properties = new Properties();
-                        properties.load(new InputStreamReader(configStream, ENCODING));
-                        new org.apache.log4j.PropertyConfigurator().doConfigure(properties, org.apache.log4j.JBossLogManagerFacade.getLoggerRepository(logContext));
-                    }
-                } finally {
-                    logContextSelector.getAndSet(CONTEXT_LOCK, old);
-                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
-                }
-                return new LoggingConfigurationService(null, resolveRelativePath(root, configFile));
-            } else {
-                // Create a properties file
-                final Properties properties = new Properties();
-                properties.load(new InputStreamReader(configStream, ENCODING));
-                // Attempt to see if this is a J.U.L. configuration file
-                if (isJulConfiguration(properties)) {
-                    LoggingLogger.ROOT_LOGGER.julConfigurationFileFound(configFile.getName());
+            final ClassLoader current = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            final LogContext old = logContextSelector.getAndSet(CONTEXT_LOCK, logContext);
+            try {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
+                if (LOG4J_XML.equals(fileName) || JBOSS_LOG4J_XML.equals(fileName)) {
+                    new DOMConfigurator().doConfigure(configStream, org.apache.log4j.JBossLogManagerFacade.getLoggerRepository(logContext));
                 } else {
-                    // Load non-log4j types
-                    final PropertyConfigurator propertyConfigurator = new PropertyConfigurator(logContext);
-                    propertyConfigurator.configure(properties);
-                    return new LoggingConfigurationService(propertyConfigurator.getLogContextConfiguration(), resolveRelativePath(root, configFile));
+                    final Properties properties = new Properties();
+                    properties.load(new InputStreamReader(configStream, ENCODING));
+                    new org.apache.log4j.PropertyConfigurator().doConfigure(properties, org.apache.log4j.JBossLogManagerFacade.getLoggerRepository(logContext));
                 }
+            } finally {
+                logContextSelector.getAndSet(CONTEXT_LOCK, old);
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
             }
+            return new LoggingConfigurationService(null, resolveRelativePath(root, configFile));
         } catch (Exception e) {
             throw LoggingLogger.ROOT_LOGGER.failedToConfigureLogging(e, configFile.getName());
         } finally {
             safeClose(configStream);
         }
-        return null;
+    }
+
+    /**
+     * Configures the log context.
+     *
+     * @param root       the deployments root resource
+     * @param configFile the configuration file
+     * @param properties the properties read from the configuration file
+     * @param logContext the log context to configure
+     *
+     * @return the configuration service for the deployment
+     *
+     * @throws DeploymentUnitProcessingException if the configuration fails
+     */
+    private LoggingConfigurationService configure(final ResourceRoot root, final VirtualFile configFile, final Properties properties, final LogContext logContext) throws DeploymentUnitProcessingException {
+        try {
+            final PropertyConfigurator propertyConfigurator = new PropertyConfigurator(logContext);
+            propertyConfigurator.configure(properties);
+            return new LoggingConfigurationService(propertyConfigurator.getLogContextConfiguration(), resolveRelativePath(root, configFile));
+        } catch (Exception e) {
+            throw LoggingLogger.ROOT_LOGGER.failedToConfigureLogging(e, configFile.getName());
+        }
+    }
+
+    private static SharedLogContext acquireSharedLogContext(final VirtualFile configFile, final byte[] content, final Properties properties) throws DeploymentUnitProcessingException {
+        try {
+            return SHARED_LOG_CONTEXTS.acquire(content, properties);
+        } catch (Exception e) {
+            throw LoggingLogger.ROOT_LOGGER.failedToConfigureLogging(e, configFile.getName());
+        }
+    }
+
+    private static byte[] readConfigFile(final VirtualFile configFile) throws DeploymentUnitProcessingException {
+        LoggingLogger.ROOT_LOGGER.debugf("Found logging configuration file: %s", configFile);
+        InputStream configStream = null;
+        try {
+            configStream = configFile.openStream();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int len;
+            while ((len = configStream.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw LoggingLogger.ROOT_LOGGER.failedToConfigureLogging(e, configFile.getName());
+        } finally {
+            safeClose(configStream);
+        }
+    }
+
+    private static Properties loadProperties(final VirtualFile configFile, final byte[] content) throws DeploymentUnitProcessingException {
+        try {
+            final Properties properties = new Properties();
+            properties.load(new InputStreamReader(new ByteArrayInputStream(content), ENCODING));
+            return properties;
+        } catch (IOException e) {
+            throw LoggingLogger.ROOT_LOGGER.failedToConfigureLogging(e, configFile.getName());
+        }
+    }
+
+    /**
+     * Releases the shared log context, if one was used, for the deployment and its sub-deployments.
+     *
+     * @param deploymentUnit the deployment unit being undeployed
+     */
+    @Override
+    void releaseLogContext(final DeploymentUnit deploymentUnit) {
+        final String key = deploymentUnit.removeAttachment(SHARED_LOG_CONTEXT_KEY);
+        if (key != null && SHARED_LOG_CONTEXTS.release(key)) {
+            LoggingLogger.ROOT_LOGGER.tracef("Released the last reference to the shared log context for deployment %s", deploymentUnit.getName());
+        }
     }
 
     private static boolean isLog4jConfiguration(final String fileName) {
@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.deployments;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.PropertyConfigurator;
+import org.jboss.logmanager.config.LogContextConfiguration;
+
+/**
+ * Keeps track of the {@linkplain LogContext log contexts} created from deployment logging configuration files which
+ * can be shared between deployments.
+ * <p>
+ * Deployments which contain a byte for byte identical {@code logging.properties} or {@code jboss-logging.properties}
+ * file are configured using the same log context. This avoids creating duplicate handlers, formatters and open file
+ * handles for each deployment. The log context is released once the last deployment referencing it is undeployed.
+ * </p>
+ * <p>
+ * Only configurations which use types from the log manager itself can be shared. Any configuration that references a
+ * module or a type which may be loaded from the deployment is configured on its own log context.
+ * </p>
+ */
+final class SharedLogContexts {
+
+    private static final String LOG_MANAGER_PACKAGE = "org.jboss.logmanager.";
+    private static final String[] TYPE_PREFIXES = {"handler", "formatter", "filter", "errorManager", "pojo"};
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Map<String, SharedLogContext> contexts = new HashMap<>();
+
+    /**
+     * Returns the shared log context for the configuration, creating and configuring it if one does not yet exist.
+     * Each call must be paired with a call to {@link #release(String)} with the {@linkplain SharedLogContext#getKey() key}
+     * of the returned log context.
+     *
+     * @param content    the raw content of the configuration file
+     * @param properties the properties loaded from the content
+     *
+     * @return the shared log context
+     */
+    synchronized SharedLogContext acquire(final byte[] content, final Properties properties) {
+        final String key = createKey(content);
+        SharedLogContext result = contexts.get(key);
+        if (result == null) {
+            final LogContext logContext = LogContext.create();
+            final PropertyConfigurator propertyConfigurator = new PropertyConfigurator(logContext);
+            propertyConfigurator.configure(properties);
+            result = new SharedLogContext(key, logContext, propertyConfigurator.getLogContextConfiguration());
+            contexts.put(key, result);
+        }
+        result.references++;
+        return result;
+    }
+
+    /**
+     * Releases a reference to the shared log context. Once no more references are held the log context is no
+     * longer shared.
+     *
+     * @param key the key of the shared log context
+     *
+     * @return {@code true} if this was the last reference to the log context, otherwise {@code false}
+     */
+    synchronized boolean release(final String key) {
+        final SharedLogContext logContext = contexts.get(key);
+        if (logContext != null && --logContext.references <= 0) {
+            contexts.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of log contexts currently shared.
+     *
+     * @return the number of log contexts
+     */
+    synchronized int size() {
+        return contexts.size();
+    }
+
+    /**
+     * Checks whether or not the configuration only uses types from the log manager and can be shared between
+     * deployments.
+     *
+     * @param properties the configuration properties
+     *
+     * @return {@code true} if the log context may be shared, otherwise {@code false}
+     */
+    static boolean isShareable(final Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            // Types loaded from a module could be different between deployments
+            if (key.endsWith(".module")) {
+                return false;
+            }
+            final String[] parts = key.split("\\.");
+            if (parts.length == 2 && isTypeDefinition(parts[0])) {
+                final String className = properties.getProperty(key).trim();
+                if (!className.startsWith(LOG_MANAGER_PACKAGE)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTypeDefinition(final String prefix) {
+        for (String typePrefix : TYPE_PREFIXES) {
+            if (typePrefix.equals(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String createKey(final byte[] content) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(content);
+            final StringBuilder result = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                result.append(HEX[(b >> 4) & 0x0f]).append(HEX[b & 0x0f]);
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A log context shared by one or more deployments.
+     */
+    static final class SharedLogContext {
+        private final String key;
+        private final LogContext logContext;
+        private final LogContextConfiguration logContextConfiguration;
+        private int references;
+
+        private SharedLogContext(final String key, final LogContext logContext, final LogContextConfiguration logContextConfiguration) {
+            this.key = key;
+            this.logContext = logContext;
+            this.logContextConfiguration = logContextConfiguration;
+        }
+
+        /**
+         * The key used to identify the shared configuration.
+         *
+         * @return the key
+         */
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * The log context configured for the deployments.
+         *
+         * @return the log context
+         */
+        LogContext getLogContext() {
+            return logContext;
+        }
+
+        /**
+         * The configuration for the log context.
+         *
+         * @return the log context configuration
+         */
+        LogContextConfiguration getLogContextConfiguration() {
+            return logContextConfiguration;
+        }
+    }
+}
@@ -30,6 +30,9 @@ import java.io.InputStream;
 import java.nio.channels.FileLock;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.logging.CommonAttributes;
@@ -57,12 +60,15 @@ import org.jboss.logmanager.config.PojoConfiguration;
  */
 public class ConfigurationPersistence implements Configurator, LogContextConfiguration {
 
+    // Only guards the attaching of the configurator to a log context, each configuration has its own lock
     private static final Object LOCK = new Object();
     private static final String PROPERTIES_FILE = "logging.properties";
     private static final byte[] NOTE_MESSAGE = String.format("# Note this file has been generated and will be overwritten if a%n" +
             "# logging subsystem has been defined in the XML configuration.%n%n").getBytes(StandardCharsets.UTF_8);
     private final PropertyConfigurator config;
     private final LogContextConfiguration delegate;
+    // Reads of the configuration may happen concurrently, modifications are exclusive to this log context only
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     private ConfigurationPersistence(final LogContext logContext) {
         this(new PropertyConfigurator(logContext));
@@ -141,204 +147,320 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
 
     @Override
     public void configure(final InputStream inputStream) throws IOException {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             config.configure(inputStream);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public LogContext getLogContext() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getLogContext();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public LoggerConfiguration addLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.addLoggerConfiguration(loggerName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean removeLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.removeLoggerConfiguration(loggerName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public LoggerConfiguration getLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getLoggerConfiguration(loggerName);
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public List<String> getLoggerNames() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getLoggerNames();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public HandlerConfiguration addHandlerConfiguration(final String moduleName, final String className, final String handlerName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.addHandlerConfiguration(moduleName, className, handlerName, constructorProperties);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean removeHandlerConfiguration(final String handlerName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.removeHandlerConfiguration(handlerName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public HandlerConfiguration getHandlerConfiguration(final String handlerName) {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getHandlerConfiguration(handlerName);
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public List<String> getHandlerNames() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getHandlerNames();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public FormatterConfiguration addFormatterConfiguration(final String moduleName, final String className, final String formatterName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.addFormatterConfiguration(moduleName, className, formatterName, constructorProperties);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean removeFormatterConfiguration(final String formatterName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.removeFormatterConfiguration(formatterName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public FormatterConfiguration getFormatterConfiguration(final String formatterName) {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getFormatterConfiguration(formatterName);
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public List<String> getFormatterNames() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getFormatterNames();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public FilterConfiguration addFilterConfiguration(final String moduleName, final String className, final String filterName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.addFilterConfiguration(moduleName, className, filterName, constructorProperties);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean removeFilterConfiguration(final String filterName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.removeFilterConfiguration(filterName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public FilterConfiguration getFilterConfiguration(final String filterName) {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getFilterConfiguration(filterName);
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public List<String> getFilterNames() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getFilterNames();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public ErrorManagerConfiguration addErrorManagerConfiguration(final String moduleName, final String className, final String errorManagerName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.addErrorManagerConfiguration(moduleName, className, errorManagerName, constructorProperties);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean removeErrorManagerConfiguration(final String errorManagerName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.removeErrorManagerConfiguration(errorManagerName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public ErrorManagerConfiguration getErrorManagerConfiguration(final String errorManagerName) {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getErrorManagerConfiguration(errorManagerName);
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public List<String> getErrorManagerNames() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getErrorManagerNames();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public void prepare() {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             delegate.prepare();
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public PojoConfiguration addPojoConfiguration(final String moduleName, final String className, final String pojoName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.addPojoConfiguration(moduleName, className, pojoName, constructorProperties);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean removePojoConfiguration(final String pojoName) {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             return delegate.removePojoConfiguration(pojoName);
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public PojoConfiguration getPojoConfiguration(final String pojoName) {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getPojoConfiguration(pojoName);
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public List<String> getPojoNames() {
-        synchronized (LOCK) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
             return delegate.getPojoNames();
+        } finally {
+            readLock.unlock();
         }
     }
 
     @Override
     public void commit() {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             delegate.commit();
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public void forget() {
-        synchronized (LOCK) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
             delegate.forget();
+        } finally {
+            writeLock.unlock();
         }
     }
 
@@ -392,33 +514,34 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
             LoggingLogger.ROOT_LOGGER.warn(LoggingLogger.ROOT_LOGGER.pathManagerServiceNotStarted());
         } else {
             final File configFile = new File(loggingConfig);
-            synchronized (LOCK) {
+            final Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                // Commit the log context configuration
+                commit();
+                FileOutputStream out = null;
                 try {
-                    // Commit the log context configuration
-                    commit();
-                    FileOutputStream out = null;
+                    out = new FileOutputStream(configFile);
+                    final FileLock lock = out.getChannel().lock();
                     try {
-                        out = new FileOutputStream(configFile);
-                        final FileLock lock = out.getChannel().lock();
-                        try {
-                            out.write(NOTE_MESSAGE);
-                            config.writeConfiguration(out);
-                        } finally {
-                            // The write should close the stream which would release the lock this check ensures the
-                            // lock will be released
-                            if (lock.isValid()) {
-                                lock.release();
-                            }
-                        }
-                        LoggingLogger.ROOT_LOGGER.tracef("Logging configuration file '%s' successfully written.", configFile.getAbsolutePath());
-                    } catch (IOException e) {
-                        throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
+                        out.write(NOTE_MESSAGE);
+                        config.writeConfiguration(out);
                     } finally {
-                        safeClose(out);
+                        // The write should close the stream which would release the lock this check ensures the
+                        // lock will be released
+                        if (lock.isValid()) {
+                            lock.release();
+                        }
                     }
+                    LoggingLogger.ROOT_LOGGER.tracef("Logging configuration file '%s' successfully written.", configFile.getAbsolutePath());
+                } catch (IOException e) {
+                    throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
                 } finally {
-                    forget();
+                    safeClose(out);
                 }
+            } finally {
+                forget();
+                writeLock.unlock();
             }
         }
     }
@@ -61,6 +61,7 @@ import org.jboss.logmanager.Logger;
 import org.jboss.logmanager.config.HandlerConfiguration;
 import org.jboss.logmanager.config.LogContextConfiguration;
 import org.jboss.logmanager.config.LoggerConfiguration;
+import org.jboss.logmanager.handlers.DelayedHandler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -253,6 +254,70 @@ public class HandlerOperationsTestCase extends AbstractOperationsTestCase {
                 handlerConfiguration.getFormatterName());
     }
 
+    @Test
+    public void testAddSocketHandlerComposite() {
+        final CompositeOperationBuilder builder = CompositeOperationBuilder.create();
+
+        // Add the socket-handler first so its after commit step is queued before the other handlers are added
+        final ModelNode socketHandlerAddress = createAddress("socket-handler", "composite-socket-handler").toModelNode();
+        final ModelNode socketHandlerAddOp = SubsystemOperations.createAddOperation(socketHandlerAddress);
+        socketHandlerAddOp.get("outbound-socket-binding-ref").set("log-server");
+        builder.addStep(socketHandlerAddOp);
+
+        // Add several other handlers to the same batch
+        builder.addStep(OperationBuilder.createAddOperation(createFileHandlerAddress("composite-file-handler").toModelNode())
+                .addAttribute(CommonAttributes.FILE, createFileValue("jboss.server.log.dir", "composite-file-handler.log"))
+                .build());
+        builder.addStep(OperationBuilder.createAddOperation(createConsoleHandlerAddress("composite-console-handler").toModelNode())
+                .addAttribute(ConsoleHandlerResourceDefinition.TARGET, Target.SYSTEM_OUT.toString())
+                .build());
+        builder.addStep(OperationBuilder.createAddOperation(createSizeRotatingFileHandlerAddress(null, "composite-size-handler").toModelNode())
+                .addAttribute(CommonAttributes.FILE, createFileValue("jboss.server.log.dir", "composite-size-handler.log"))
+                .build());
+
+        executeOperation(kernelServices, builder.build().getOperation());
+
+        final LogContextConfiguration configuration = ConfigurationPersistence.getConfigurationPersistence(LogContext.getLogContext());
+        assertNotNull(configuration);
+        final HandlerConfiguration socketHandlerConfiguration = configuration.getHandlerConfiguration("composite-socket-handler");
+        assertNotNull("The socket-handler was not configured", socketHandlerConfiguration);
+        assertTrue("Expected the socket-handler to be wrapped in a DelayedHandler but was " + socketHandlerConfiguration.getInstance(),
+                socketHandlerConfiguration.getInstance() instanceof DelayedHandler);
+        assertNotNull(configuration.getHandlerConfiguration("composite-file-handler"));
+        assertNotNull(configuration.getHandlerConfiguration("composite-console-handler"));
+        assertNotNull(configuration.getHandlerConfiguration("composite-size-handler"));
+
+        // Remove the handlers in a single composite
+        final CompositeOperationBuilder removeBuilder = CompositeOperationBuilder.create();
+        removeBuilder.addStep(SubsystemOperations.createRemoveOperation(socketHandlerAddress));
+        removeBuilder.addStep(SubsystemOperations.createRemoveOperation(createFileHandlerAddress("composite-file-handler").toModelNode()));
+        removeBuilder.addStep(SubsystemOperations.createRemoveOperation(createConsoleHandlerAddress("composite-console-handler").toModelNode()));
+        removeBuilder.addStep(SubsystemOperations.createRemoveOperation(createSizeRotatingFileHandlerAddress(null, "composite-size-handler").toModelNode()));
+        executeOperation(kernelServices, removeBuilder.build().getOperation());
+
+        assertFalse(configuration.getHandlerNames().contains("composite-socket-handler"));
+        assertFalse(configuration.getHandlerNames().contains("composite-file-handler"));
+    }
+
+    @Test
+    public void testBootSocketHandler() throws Exception {
+        // Replace the default kernel with one booted from a configuration which adds other handlers after the socket-handler
+        kernelServices.shutdown();
+        kernelServices = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXml(readResource("/socket-handler-subsystem.xml"))
+                .build();
+        assertTrue("Failed to boot: " + kernelServices.getBootError(), kernelServices.isSuccessfulBoot());
+
+        final LogContextConfiguration configuration = ConfigurationPersistence.getConfigurationPersistence(LogContext.getLogContext());
+        assertNotNull(configuration);
+        final HandlerConfiguration socketHandlerConfiguration = configuration.getHandlerConfiguration("SOCKET");
+        assertNotNull("The socket-handler was not configured", socketHandlerConfiguration);
+        assertTrue("Expected the socket-handler to be wrapped in a DelayedHandler but was " + socketHandlerConfiguration.getInstance(),
+                socketHandlerConfiguration.getInstance() instanceof DelayedHandler);
+        assertNotNull(configuration.getHandlerConfiguration("CONSOLE"));
+        assertNotNull(configuration.getHandlerConfiguration("FILE"));
+    }
+
     @Test
     public void testAddHandlerComposite() {
         final ModelNode handlerAddress = createFileHandlerAddress("FILE").toModelNode();
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.deployments;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.jboss.as.logging.deployments.SharedLogContexts.SharedLogContext;
+import org.jboss.logmanager.LogContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that identical deployment logging configurations share a single log context.
+ */
+public class SharedLogContextsTestCase {
+
+    private static final int DEPLOYMENTS = 200;
+
+    private static final String CONFIG = "loggers=org.jboss.as.test\n" +
+            "logger.level=INFO\n" +
+            "logger.handlers=CONSOLE\n" +
+            "logger.org.jboss.as.test.level=DEBUG\n" +
+            "handler.CONSOLE=org.jboss.logmanager.handlers.ConsoleHandler\n" +
+            "handler.CONSOLE.formatter=PATTERN\n" +
+            "handler.CONSOLE.properties=autoFlush\n" +
+            "handler.CONSOLE.autoFlush=true\n" +
+            "formatter.PATTERN=org.jboss.logmanager.formatters.PatternFormatter\n" +
+            "formatter.PATTERN.properties=pattern\n" +
+            "formatter.PATTERN.pattern=%d %-5p [%c] %s%e%n\n";
+
+    @Test
+    public void testIdenticalConfigurationsShared() throws Exception {
+        final SharedLogContexts sharedLogContexts = new SharedLogContexts();
+        final byte[] content = CONFIG.getBytes(StandardCharsets.UTF_8);
+        final List<SharedLogContext> acquired = new ArrayList<>(DEPLOYMENTS);
+        final Set<LogContext> logContexts = new HashSet<>();
+        for (int i = 0; i < DEPLOYMENTS; i++) {
+            // Each deployment loads its own copy of the properties
+            final SharedLogContext sharedLogContext = sharedLogContexts.acquire(content, load(content));
+            acquired.add(sharedLogContext);
+            logContexts.add(sharedLogContext.getLogContext());
+        }
+        Assert.assertEquals("Expected a single log context for all deployments", 1, logContexts.size());
+        Assert.assertEquals(1, sharedLogContexts.size());
+        Assert.assertEquals(1, acquired.get(0).getLogContextConfiguration().getHandlerNames().size());
+        Assert.assertEquals(1, acquired.get(0).getLogContext().getLogger("").getHandlers().length);
+
+        // Release all but the last deployment, the log context should still be shared
+        for (int i = 0; i < DEPLOYMENTS - 1; i++) {
+            Assert.assertFalse(sharedLogContexts.release(acquired.get(i).getKey()));
+        }
+        Assert.assertEquals(1, sharedLogContexts.size());
+        Assert.assertTrue(sharedLogContexts.release(acquired.get(DEPLOYMENTS - 1).getKey()));
+        Assert.assertEquals(0, sharedLogContexts.size());
+    }
+
+    @Test
+    public void testDifferentConfigurationsNotShared() throws Exception {
+        final SharedLogContexts sharedLogContexts = new SharedLogContexts();
+        final byte[] content1 = CONFIG.getBytes(StandardCharsets.UTF_8);
+        final byte[] content2 = CONFIG.replace("DEBUG", "TRACE").getBytes(StandardCharsets.UTF_8);
+        final SharedLogContext sharedLogContext1 = sharedLogContexts.acquire(content1, load(content1));
+        final SharedLogContext sharedLogContext2 = sharedLogContexts.acquire(content2, load(content2));
+        Assert.assertNotSame(sharedLogContext1.getLogContext(), sharedLogContext2.getLogContext());
+        Assert.assertEquals(2, sharedLogContexts.size());
+        Assert.assertTrue(sharedLogContexts.release(sharedLogContext1.getKey()));
+        Assert.assertTrue(sharedLogContexts.release(sharedLogContext2.getKey()));
+    }
+
+    @Test
+    public void testShareable() throws Exception {
+        Assert.assertTrue(SharedLogContexts.isShareable(load(CONFIG.getBytes(StandardCharsets.UTF_8))));
+
+        // A handler from the deployment may not be shared
+        Properties properties = load(CONFIG.replace("org.jboss.logmanager.handlers.ConsoleHandler", "org.jboss.as.test.CustomHandler")
+                .getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(SharedLogContexts.isShareable(properties));
+
+        // Types loaded from a module may not be shared
+        properties = load(CONFIG.getBytes(StandardCharsets.UTF_8));
+        properties.setProperty("formatter.PATTERN.module", "org.jboss.logmanager");
+        Assert.assertFalse(SharedLogContexts.isShareable(properties));
+    }
+
+    private static Properties load(final byte[] content) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+        return properties;
+    }
+}
@@ -331,6 +331,23 @@ public final class ProcessControllerClient implements Closeable {
         }
     }
 
+    /**
+     * Begin a batch of requests to the process controller. The requests made until {@link #endBatch()} is called are
+     * sent together.
+     */
+    public void beginBatch() {
+        connection.beginBatch();
+    }
+
+    /**
+     * End a batch of requests started with {@link #beginBatch()}, sending the requests to the process controller.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void endBatch() throws IOException {
+        connection.endBatch();
+    }
+
     public void close() throws IOException {
         connection.close();
     }
@@ -43,6 +43,22 @@ public interface Connection extends Closeable {
      */
     OutputStream writeMessage() throws IOException;
 
+    /**
+     * Begin a batch of messages.  Until the matching call to {@link #endBatch()}, concluded messages are held back
+     * and then sent to the peer together, which saves a write per message when many control messages are sent at
+     * once.  The framing of the individual messages is not affected.  Batches may be nested, in which case the
+     * messages are sent once the outermost batch ends.
+     */
+    void beginBatch();
+
+    /**
+     * End a batch of messages started with {@link #beginBatch()}, sending the held back messages if this was the
+     * outermost batch.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void endBatch() throws IOException;
+
     /**
      * Shut down writes once all messages are sent.  This will cause the reading side's {@link MessageHandler#handleShutdown(Connection)}
      * method to be called.
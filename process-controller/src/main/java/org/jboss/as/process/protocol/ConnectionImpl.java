@@ -52,6 +52,8 @@ final class ConnectionImpl implements Connection {
         }
     };
 
+    private static final int BUFFER_SIZE = 8192;
+
     private final Socket socket;
 
     private final Object lock = new Object();
@@ -64,6 +66,11 @@ final class ConnectionImpl implements Connection {
     private boolean readDone;
     // protected by {@link #lock}
     private boolean writeDone;
+    // protected by {@link #lock}
+    // Shared by all messages so that the chunk headers, data and end markers go out in as few writes as possible
+    private OutputStream output;
+    // protected by {@link #lock}
+    private int batchDepth;
 
     private volatile MessageHandler messageHandler;
 
@@ -99,12 +106,15 @@ final class ConnectionImpl implements Connection {
             }
             boolean ok = false;
             try {
-                MessageOutputStream mos = new MessageOutputStream();
+                if (output == null) {
+                    output = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+                }
+                MessageOutputStream mos = new MessageOutputStream(output);
                 // Use a PhantomReference instead of overriding finalize() to ensure close gets called
                 // CleanerReference handles ensuring there's a strong ref to itself so we can just construct it and move on
                 new CleanerReference<MessageOutputStream, OutputStreamCloser>(mos, mos.closer, REAPER);
                 sender = mos.closer;
-                os = new BufferedOutputStream(mos);
+                os = mos;
                 ok = true;
             } finally {
                 if (! ok) {
@@ -128,6 +138,10 @@ final class ConnectionImpl implements Connection {
                     throw new InterruptedIOException();
                 }
             }
+            if (output != null) {
+                // Send anything held back by an unfinished batch
+                output.flush();
+            }
             writeDone = true;
             if (readDone) {
                 socket.close();
@@ -138,6 +152,23 @@ final class ConnectionImpl implements Connection {
         }
     }
 
+    @Override
+    public void beginBatch() {
+        synchronized (lock) {
+            batchDepth++;
+        }
+    }
+
+    @Override
+    public void endBatch() throws IOException {
+        synchronized (lock) {
+            if (batchDepth > 0 && --batchDepth == 0 && output != null && !writeDone) {
+                ProcessLogger.PROTOCOL_CONNECTION_LOGGER.trace("Sending batched messages");
+                output.flush();
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
         synchronized (lock) {
@@ -339,12 +370,10 @@ final class ConnectionImpl implements Connection {
     final class MessageOutputStream extends FilterOutputStream {
 
         private final byte[] hdr = new byte[5];
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
         private final OutputStreamCloser closer;
 
-        MessageOutputStream() throws IOException {
-            this(socket.getOutputStream());
-        }
-
         private MessageOutputStream(OutputStream out) {
             super(out);
             this.closer = new OutputStreamCloser(out);
@@ -352,14 +381,51 @@ final class ConnectionImpl implements Connection {
 
         @Override
         public void write(final int b) throws IOException {
-            throw new IllegalStateException();
+            if (position == buffer.length) {
+                writeChunk();
+            }
+            buffer[position++] = (byte) b;
         }
 
         @Override
-        public void write(final byte[] b, final int off, final int len) throws IOException {
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (position == buffer.length) {
+                    writeChunk();
+                }
+                final int cnt = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, cnt);
+                position += cnt;
+                off += cnt;
+                len -= cnt;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeChunk();
+            synchronized (lock) {
+                if (sender == closer && batchDepth == 0) {
+                    out.flush();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writeChunk();
+            } finally {
+                closer.close();
+            }
+        }
+
+        private void writeChunk() throws IOException {
+            final int len = position;
             if (len == 0) {
                 return;
             }
+            position = 0;
             final byte[] hdr = this.hdr;
             hdr[0] = (byte) ProtocolConstants.CHUNK_START;
             hdr[1] = (byte) (len >> 24);
@@ -374,14 +440,9 @@ final class ConnectionImpl implements Connection {
                 }
                 ProcessLogger.PROTOCOL_CONNECTION_LOGGER.tracef("Sending data chunk of size %d", Integer.valueOf(len));
                 out.write(hdr);
-                out.write(b, off, len);
+                out.write(buffer, 0, len);
             }
         }
-
-        @Override
-        public void close() throws IOException {
-            closer.close();
-        }
     }
 
     private final class OutputStreamCloser implements Closeable {
@@ -412,6 +473,9 @@ final class ConnectionImpl implements Connection {
                 }
                 ProcessLogger.PROTOCOL_CONNECTION_LOGGER.tracef("Sending end of message");
                 out.write(ProtocolConstants.CHUNK_END);
+                if (batchDepth == 0) {
+                    out.flush();
+                }
             }
         }
 
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process.protocol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests sending messages over a {@link Connection}, both one at a time and batched.
+ */
+public final class ConnectionBatchTest {
+
+    private static final int MESSAGES = 1000;
+
+    private final BlockingQueue<byte[]> received = new LinkedBlockingQueue<byte[]>();
+    private ExecutorService executor;
+    private ProtocolServer server;
+    private Connection connection;
+
+    @Before
+    public void setup() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        final MessageHandler messageHandler = new MessageHandler() {
+            @Override
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[512];
+                int len;
+                while ((len = dataStream.read(buffer)) != -1) {
+                    out.write(buffer, 0, len);
+                }
+                received.add(out.toByteArray());
+            }
+
+            @Override
+            public void handleShutdown(final Connection connection) throws IOException {
+                connection.shutdownWrites();
+            }
+
+            @Override
+            public void handleFailure(final Connection connection, final IOException e) throws IOException {
+                connection.close();
+            }
+
+            @Override
+            public void handleFinished(final Connection connection) throws IOException {
+            }
+        };
+        final ProtocolServer.Configuration serverConfiguration = new ProtocolServer.Configuration();
+        serverConfiguration.setBindAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        serverConfiguration.setThreadFactory(Executors.defaultThreadFactory());
+        serverConfiguration.setSocketFactory(ServerSocketFactory.getDefault());
+        serverConfiguration.setReadExecutor(executor);
+        serverConfiguration.setConnectionHandler(new ConnectionHandler() {
+            @Override
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return messageHandler;
+            }
+        });
+        server = new ProtocolServer(serverConfiguration);
+        server.start();
+
+        final ProtocolClient.Configuration clientConfiguration = new ProtocolClient.Configuration();
+        clientConfiguration.setServerAddress(server.getBoundAddress());
+        clientConfiguration.setThreadFactory(Executors.defaultThreadFactory());
+        clientConfiguration.setSocketFactory(SocketFactory.getDefault());
+        clientConfiguration.setReadExecutor(executor);
+        clientConfiguration.setMessageHandler(MessageHandler.NULL);
+        connection = new ProtocolClient(clientConfiguration).connect();
+    }
+
+    @After
+    public void cleanup() {
+        StreamUtils.safeClose(connection);
+        if (server != null) {
+            server.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSingleMessages() throws Exception {
+        for (int i = 0; i < MESSAGES; i++) {
+            send(message(i));
+        }
+        for (int i = 0; i < MESSAGES; i++) {
+            assertArrayEquals(message(i), received.poll(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testBatchedMessages() throws Exception {
+        // More messages than fit in the buffer, so parts of the batch are sent before it ends
+        connection.beginBatch();
+        try {
+            for (int i = 0; i < MESSAGES; i++) {
+                send(message(i));
+            }
+        } finally {
+            connection.endBatch();
+        }
+        for (int i = 0; i < MESSAGES; i++) {
+            assertArrayEquals(message(i), received.poll(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testNestedBatch() throws Exception {
+        connection.beginBatch();
+        try {
+            send(message(1));
+            connection.beginBatch();
+            try {
+                send(message(2));
+            } finally {
+                connection.endBatch();
+            }
+            // Only the outermost batch sends the messages
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            connection.endBatch();
+        }
+        assertArrayEquals(message(1), received.poll(10, TimeUnit.SECONDS));
+        assertArrayEquals(message(2), received.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBatchHoldsBackSmallMessages() throws Exception {
+        connection.beginBatch();
+        try {
+            send(message(1));
+            send(message(2));
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            connection.endBatch();
+        }
+        assertArrayEquals(message(1), received.poll(10, TimeUnit.SECONDS));
+        assertArrayEquals(message(2), received.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLargeMessage() throws Exception {
+        final byte[] large = new byte[100000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        connection.beginBatch();
+        try {
+            send(message(1));
+            send(large);
+            send(message(2));
+        } finally {
+            connection.endBatch();
+        }
+        assertArrayEquals(message(1), received.poll(10, TimeUnit.SECONDS));
+        final byte[] result = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(result);
+        assertEquals(large.length, result.length);
+        assertArrayEquals(large, result);
+        assertArrayEquals(message(2), received.poll(10, TimeUnit.SECONDS));
+    }
+
+    private void send(final byte[] message) throws IOException {
+        final OutputStream os = connection.writeMessage();
+        try {
+            os.write(message);
+            os.close();
+        } finally {
+            StreamUtils.safeClose(os);
+        }
+    }
+
+    private static byte[] message(final int i) {
+        return ("stop-process server-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -42,6 +42,16 @@ public class RuntimeExpressionResolver extends ExpressionResolverImpl {
         this.vaultReader = vaultReader;
     }
 
+    @Override
+    protected boolean isResolvedValueCacheable(String expression) {
+        // Never keep vaulted data around
+        if (expression.length() > 3) {
+            String vaultedData = expression.substring(2, expression.length() -1);
+            return vaultReader == null ? !VaultReader.STANDARD_VAULT_PATTERN.matcher(vaultedData).matches() : !vaultReader.isVaultFormat(vaultedData);
+        }
+        return true;
+    }
+
     @Override
     protected void resolvePluggableExpression(ModelNode node) throws OperationFailedException {
         String expression = node.asString();
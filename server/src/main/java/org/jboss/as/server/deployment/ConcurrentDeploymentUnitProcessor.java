@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Set;
+
+/**
+ * A {@link DeploymentUnitProcessor} which declares the attachments it reads and writes. Consecutive processors of the
+ * same phase which implement this interface, and whose declared attachments do not conflict, may be executed
+ * concurrently.
+ * <p>
+ * Two processors conflict if either of them writes an attachment the other one reads or writes. Attachment keys
+ * apply to both the {@link DeploymentUnit} and the {@link DeploymentPhaseContext}. A processor implementing this
+ * interface must not have any other side effects visible to other processors of the same phase. Processors which do
+ * not implement this interface are always executed on their own.
+ * </p>
+ * <p>
+ * Handing a processor off to another thread has a cost, so a processor is only executed concurrently once an earlier
+ * execution showed that it takes a noticeable time. Until then it runs on the deployment thread.
+ * </p>
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Returns the attachment keys read by this processor.
+     *
+     * @return the attachment keys read, never {@code null}
+     */
+    Set<AttachmentKey<?>> getReadAttachmentKeys();
+
+    /**
+     * Returns the attachment keys added, modified or removed by this processor.
+     *
+     * @return the attachment keys written, never {@code null}
+     */
+    Set<AttachmentKey<?>> getWriteAttachmentKeys();
+}
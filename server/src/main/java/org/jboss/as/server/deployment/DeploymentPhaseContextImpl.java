@@ -76,12 +76,19 @@ final class DeploymentPhaseContextImpl extends SimpleAttachable implements Deplo
 
     @Override
     public <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
-        this.dependencies.add(new InjectorDeploymentPhaseDependency<>(serviceName, type, injector));
+        addPhaseDependency(new InjectorDeploymentPhaseDependency<>(serviceName, type, injector));
     }
 
     @Override
     public <T> void requires(final ServiceName serviceName, final DelegatingSupplier<T> supplier) {
-        this.dependencies.add(new SupplierDeploymentPhaseDependency<>(serviceName, supplier));
+        addPhaseDependency(new SupplierDeploymentPhaseDependency<>(serviceName, supplier));
+    }
+
+    private void addPhaseDependency(final DeploymentUnitPhaseDependency dependency) {
+        // Concurrent deployment unit processors of the same phase may add dependencies at the same time
+        synchronized (dependencies) {
+            dependencies.add(dependency);
+        }
     }
 
     @Override
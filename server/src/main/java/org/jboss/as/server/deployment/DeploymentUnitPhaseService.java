@@ -22,12 +22,25 @@
 
 package org.jboss.as.server.deployment;
 
+import static org.jboss.as.server.Services.JBOSS_SERVER_EXECUTOR;
+
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -48,6 +61,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which executes a particular phase of deployment.
@@ -59,7 +73,14 @@ import org.jboss.msc.value.InjectedValue;
  */
 final class DeploymentUnitPhaseService<T> implements Service<T> {
 
+    /**
+     * The measured duration above which a {@linkplain ConcurrentDeploymentUnitProcessor concurrent processor} is
+     * worth executing on another thread.
+     */
+    private static final long CONCURRENT_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(1);
+
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
+    private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<ExecutorService>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
     private final AttachmentKey<T> valueKey;
@@ -118,7 +139,6 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final DeploymentUnit parent = deploymentUnit.getParent();
@@ -169,19 +189,30 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final RegisteredDeploymentUnitProcessor processor = iterator.next();
+        final boolean[] executed = new boolean[list.size()];
+        final long[] durations = new long[list.size()];
+        int index = 0;
+        while (index < list.size()) {
+            final int batchSize = nextBatchSize(list, index);
             try {
-                if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                if (batchSize == 1) {
+                    deploy(deploymentUnit, processorContext, list, index, executed, durations);
+                } else {
+                    deployConcurrently(executorInjector.getValue(), deploymentUnit, processorContext, list, index, batchSize, executed, durations);
                 }
             } catch (Throwable e) {
-                while (iterator.hasPrevious()) {
-                    final RegisteredDeploymentUnitProcessor prev = iterator.previous();
-                    safeUndeploy(deploymentUnit, phase, prev);
+                // Undeploy every processor which was executed, including the ones which failed
+                for (int i = index + batchSize - 1; i >= 0; i--) {
+                    if (executed[i]) {
+                        safeUndeploy(deploymentUnit, phase, list.get(i));
+                    }
                 }
                 throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
+            index += batchSize;
+        }
+        if (ServerLogger.DEPLOYMENT_LOGGER.isDebugEnabled()) {
+            logTimings(deploymentUnit, phase, list, durations);
         }
 
         final Phase nextPhase = phase.next();
@@ -195,6 +226,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
 
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
+            phaseServiceBuilder.addDependency(JBOSS_SERVER_EXECUTOR, ExecutorService.class, phaseService.getExecutorInjector());
             phaseServiceBuilder.requires(context.getController().getName());
 
             final List<ServiceName> nextPhaseDeps = processorContext.getAttachment(Attachments.NEXT_PHASE_DEPS);
@@ -239,6 +271,124 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    /**
+     * Determines the number of processors, starting at the index, which can be executed concurrently. Only consecutive
+     * {@linkplain ConcurrentDeploymentUnitProcessor concurrent processors} whose attachments do not conflict with each
+     * other are grouped together, and only if an earlier execution showed that they are expensive enough to be worth
+     * handing off to another thread.
+     */
+    private static int nextBatchSize(final List<RegisteredDeploymentUnitProcessor> list, final int start) {
+        int end = start + 1;
+        if (isConcurrentCandidate(list.get(start))) {
+            while (end < list.size() && isConcurrentCandidate(list.get(end))) {
+                final ConcurrentDeploymentUnitProcessor candidate = (ConcurrentDeploymentUnitProcessor) list.get(end).getProcessor();
+                boolean conflicts = false;
+                for (int i = start; i < end && !conflicts; i++) {
+                    conflicts = conflicts((ConcurrentDeploymentUnitProcessor) list.get(i).getProcessor(), candidate);
+                }
+                if (conflicts) {
+                    break;
+                }
+                end++;
+            }
+        }
+        return end - start;
+    }
+
+    private static boolean isConcurrentCandidate(final RegisteredDeploymentUnitProcessor processor) {
+        return processor.getProcessor() instanceof ConcurrentDeploymentUnitProcessor
+                && processor.getAverageDuration() >= CONCURRENT_THRESHOLD;
+    }
+
+    private static boolean conflicts(final ConcurrentDeploymentUnitProcessor first, final ConcurrentDeploymentUnitProcessor second) {
+        final Set<AttachmentKey<?>> firstWrites = first.getWriteAttachmentKeys();
+        final Set<AttachmentKey<?>> secondWrites = second.getWriteAttachmentKeys();
+        return !Collections.disjoint(firstWrites, secondWrites)
+                || !Collections.disjoint(firstWrites, second.getReadAttachmentKeys())
+                || !Collections.disjoint(secondWrites, first.getReadAttachmentKeys());
+    }
+
+    private static void deploy(final DeploymentUnit deploymentUnit, final DeploymentPhaseContext processorContext,
+                               final List<RegisteredDeploymentUnitProcessor> list, final int index,
+                               final boolean[] executed, final long[] durations) throws DeploymentUnitProcessingException {
+        final RegisteredDeploymentUnitProcessor processor = list.get(index);
+        // Mark the processor before running it, so that it is undeployed even if it fails part way
+        executed[index] = true;
+        if (shouldRun(deploymentUnit, processor)) {
+            final long start = System.nanoTime();
+            try {
+                processor.getProcessor().deploy(processorContext);
+            } finally {
+                durations[index] = System.nanoTime() - start;
+                processor.recordDuration(durations[index]);
+            }
+        }
+    }
+
+    private static void deployConcurrently(final ExecutorService executor, final DeploymentUnit deploymentUnit,
+                                           final DeploymentPhaseContext processorContext,
+                                           final List<RegisteredDeploymentUnitProcessor> list, final int start, final int batchSize,
+                                           final boolean[] executed, final long[] durations) throws Throwable {
+        // Run the processors with the same context class loader and security context as the deployment thread
+        final ClassLoader classLoader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        final AccessControlContext accessControlContext = AccessController.getContext();
+        final boolean checking = WildFlySecurityManager.isChecking();
+        final List<Callable<Void>> tasks = new ArrayList<>(batchSize);
+        for (int i = start; i < start + batchSize; i++) {
+            final int index = i;
+            final PrivilegedExceptionAction<Void> action = () -> {
+                deploy(deploymentUnit, processorContext, list, index, executed, durations);
+                return null;
+            };
+            tasks.add(() -> {
+                final ClassLoader current = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
+                try {
+                    if (System.getSecurityManager() == null) {
+                        return action.run();
+                    }
+                    return checking ? WildFlySecurityManager.doChecked(action, accessControlContext)
+                            : WildFlySecurityManager.doUnchecked(action, accessControlContext);
+                } catch (PrivilegedActionException e) {
+                    throw e.getException();
+                } finally {
+                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
+                }
+            });
+        }
+        // Wait for all the processors to complete so a failure can be reverted safely
+        Throwable failure = null;
+        for (Future<Void> result : executor.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void logTimings(final DeploymentUnit deploymentUnit, final Phase phase,
+                                   final List<RegisteredDeploymentUnitProcessor> list, final long[] durations) {
+        final Integer[] order = new Integer[durations.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(durations[b], durations[a]));
+        final StringBuilder report = new StringBuilder();
+        for (Integer i : order) {
+            final RegisteredDeploymentUnitProcessor processor = list.get(i);
+            report.append(System.lineSeparator())
+                    .append(String.format("    %10.3f ms  %s (priority 0x%04X, subsystem %s)", durations[i] / 1_000_000d,
+                            processor.getProcessor().getClass().getName(), processor.getPriority(), processor.getSubsystemName()));
+        }
+        ServerLogger.DEPLOYMENT_LOGGER.debugf("Deployment unit processor timings for phase %s of %s:%s", phase, deploymentUnit.getName(), report);
+    }
+
     private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final RegisteredDeploymentUnitProcessor prev) {
         try {
             if (shouldRun(deploymentUnit, prev)) {
@@ -257,6 +407,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return deployerChainsInjector;
     }
 
+    InjectedValue<ExecutorService> getExecutorInjector() {
+        return executorInjector;
+    }
+
     private static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
         Set<String> shouldNotRun = unit.getAttachment(Attachments.EXCLUDED_SUBSYSTEMS);
         if (shouldNotRun == null) {
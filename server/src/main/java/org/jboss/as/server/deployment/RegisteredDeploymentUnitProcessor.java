@@ -30,6 +30,11 @@ public final class RegisteredDeploymentUnitProcessor implements Comparable<Regis
     private final int priority;
     private final DeploymentUnitProcessor processor;
     private final String subsystemName;
+    /**
+     * Moving average of the time taken by {@link DeploymentUnitProcessor#deploy}, in nanoseconds, or {@code -1} if the
+     * processor was never executed. Concurrent updates may be lost, which is fine for an estimate.
+     */
+    private volatile long averageDuration = -1;
 
 
     public RegisteredDeploymentUnitProcessor(final int priority, final DeploymentUnitProcessor processor, final String subsystemName) {
@@ -55,4 +60,13 @@ public final class RegisteredDeploymentUnitProcessor implements Comparable<Regis
     public String getSubsystemName() {
         return subsystemName;
     }
+
+    long getAverageDuration() {
+        return averageDuration;
+    }
+
+    void recordDuration(final long duration) {
+        final long average = averageDuration;
+        averageDuration = average < 0 ? duration : (3 * average + duration) / 4;
+    }
 }
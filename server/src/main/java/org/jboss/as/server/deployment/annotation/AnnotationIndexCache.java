@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * An on-disk cache of annotation indexes keyed by the hash of the content of an archive.
+ * <p>
+ * Library archives are usually byte for byte identical across deployments and server restarts. Rather than scanning
+ * every class file each time such an archive is deployed the generated index is written to the
+ * {@code annotation-index} directory of the server data directory and read back the next time an archive with the
+ * same content is indexed.
+ * </p>
+ * <p>
+ * The cache is disabled by default. It is enabled by setting the {@value #MAX_SIZE_PROPERTY} system property to the
+ * maximum number of bytes the stored indexes may use. Once the limit is reached the least recently used indexes are
+ * evicted.
+ * </p>
+ */
+final class AnnotationIndexCache {
+
+    static final String MAX_SIZE_PROPERTY = "org.jboss.as.server.deployment.annotation-index-cache.max-size";
+    private static final String CACHE_DIR = "annotation-index";
+    private static final String SUFFIX = ".idx";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static volatile AnnotationIndexCache instance;
+
+    private final Path cacheDir;
+    private final long maxSize;
+    // Insertion ordered by access, the eldest entry is the least recently used
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    AnnotationIndexCache(final Path cacheDir, final long maxSize) {
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+        load();
+    }
+
+    /**
+     * Returns the cache for the server or {@code null} if caching of annotation indexes is disabled.
+     *
+     * @return the cache or {@code null}
+     */
+    static AnnotationIndexCache getInstance() {
+        AnnotationIndexCache result = instance;
+        if (result == null) {
+            final String maxSize = WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, null);
+            final String dataDir = WildFlySecurityManager.getPropertyPrivileged(ServerEnvironment.SERVER_DATA_DIR, null);
+            if (maxSize == null || dataDir == null) {
+                return null;
+            }
+            synchronized (AnnotationIndexCache.class) {
+                result = instance;
+                if (result == null) {
+                    try {
+                        result = new AnnotationIndexCache(new File(dataDir, CACHE_DIR).toPath(), Long.parseLong(maxSize.trim()));
+                    } catch (NumberFormatException e) {
+                        ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Invalid value %s for %s, annotation indexes will not be cached", maxSize, MAX_SIZE_PROPERTY);
+                        return null;
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result.maxSize > 0 ? result : null;
+    }
+
+    /**
+     * Creates the key for the archive. The key is the hash of the content of the archive and of the paths which are
+     * excluded from the index.
+     *
+     * @param archive     the archive file
+     * @param ignorePaths the paths excluded from the index or {@code null}
+     *
+     * @return the key
+     *
+     * @throws IOException if the archive cannot be read
+     */
+    static String createKey(final VirtualFile archive, final Set<String> ignorePaths) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final InputStream in = archive.openStream();
+        try {
+            final byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, len);
+            }
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        if (ignorePaths != null) {
+            for (String path : new TreeSet<>(ignorePaths)) {
+                digest.update((byte) 0);
+                digest.update(path.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        final byte[] hash = digest.digest();
+        final StringBuilder result = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            result.append(HEX[(b >> 4) & 0x0f]).append(HEX[b & 0x0f]);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Reads the index stored for the key.
+     *
+     * @param key the key of the archive
+     *
+     * @return the index or {@code null} if no index was stored for the key
+     */
+    Index get(final String key) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+        }
+        final Path file = cacheDir.resolve(key + SUFFIX);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final Index index = new IndexReader(in).read();
+            // Persist the access order across restarts
+            file.toFile().setLastModified(System.currentTimeMillis());
+            return index;
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Failed to read cached annotation index %s", file);
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the index for the key, evicting the least recently used indexes if the maximum size is exceeded.
+     *
+     * @param key   the key of the archive
+     * @param index the index to store
+     */
+    void put(final String key, final Index index) {
+        final Path file = cacheDir.resolve(key + SUFFIX);
+        Path tmp = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                new IndexWriter(out).write(index);
+            }
+            final long length = Files.size(tmp);
+            if (length > maxSize) {
+                Files.delete(tmp);
+                return;
+            }
+            // Concurrent deployments of the same archive write the same content, the last one wins
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+            synchronized (this) {
+                final Long previous = entries.put(key, length);
+                size += length - (previous == null ? 0 : previous);
+                evict();
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Failed to cache annotation index %s", file);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of bytes used by the stored indexes.
+     *
+     * @return the size in bytes
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    private synchronized void remove(final String key) {
+        final Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+            deleteFile(key);
+        }
+    }
+
+    private void evict() {
+        assert Thread.holdsLock(this);
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            deleteFile(eldest.getKey());
+        }
+    }
+
+    private void deleteFile(final String key) {
+        try {
+            Files.deleteIfExists(cacheDir.resolve(key + SUFFIX));
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Failed to remove cached annotation index %s", key);
+        }
+    }
+
+    private synchronized void load() {
+        final File[] files = cacheDir.toFile().listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        // Restore the access order from the last modified time of the files
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            final String name = file.getName();
+            final long length = file.length();
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), length);
+            size += length;
+        }
+        evict();
+    }
+}
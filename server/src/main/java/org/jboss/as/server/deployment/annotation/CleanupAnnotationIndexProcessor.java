@@ -22,11 +22,17 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 
@@ -34,7 +40,12 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  * DUP that removes the Jandex indexes and composite index from the deployment unit to save memory
  * @author Stuart Douglas
  */
-public class CleanupAnnotationIndexProcessor implements DeploymentUnitProcessor {
+public class CleanupAnnotationIndexProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENT_KEYS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.<AttachmentKey<?>>asList(Attachments.DEPLOYMENT_ROOT, Attachments.RESOURCE_ROOTS)));
+    private static final Set<AttachmentKey<?>> WRITE_ATTACHMENT_KEYS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.<AttachmentKey<?>>asList(Attachments.COMPOSITE_ANNOTATION_INDEX, Attachments.ANNOTATION_INDEX)));
 
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -50,4 +61,14 @@ public class CleanupAnnotationIndexProcessor implements DeploymentUnitProcessor
     public void undeploy(final DeploymentUnit context) {
 
     }
+
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachmentKeys() {
+        return READ_ATTACHMENT_KEYS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWriteAttachmentKeys() {
+        return WRITE_ATTACHMENT_KEYS;
+    }
 }
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
 import java.util.List;
@@ -35,6 +36,7 @@ import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
+import org.jboss.vfs.MountHandle;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
@@ -80,6 +82,18 @@ public class ResourceRootIndexer {
             indexIgnorePaths = null;
         }
 
+        // Archives which have been indexed before can be read from the cache
+        final AnnotationIndexCache cache = AnnotationIndexCache.getInstance();
+        final String cacheKey = cache == null ? null : getCacheKey(resourceRoot, indexIgnorePaths);
+        if (cacheKey != null) {
+            final Index index = cache.get(cacheKey);
+            if (index != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Read cached index for archive %s", resourceRoot.getRoot());
+                return;
+            }
+        }
+
         final VirtualFile virtualFile = resourceRoot.getRoot();
         final Indexer indexer = new Indexer();
         try {
@@ -106,8 +120,29 @@ public class ResourceRootIndexer {
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (cacheKey != null) {
+                cache.put(cacheKey, index);
+            }
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Returns the key used to cache the index of the resource root. Only resource roots mounted from an archive are
+     * cached, {@code null} is returned for any other resource root.
+     */
+    private static String getCacheKey(final ResourceRoot resourceRoot, final Set<String> indexIgnorePaths) {
+        final MountHandle mountHandle = resourceRoot.getMountHandle();
+        final VirtualFile archive = mountHandle == null ? null : mountHandle.getMountSource();
+        if (archive == null || !archive.isFile()) {
+            return null;
+        }
+        try {
+            return AnnotationIndexCache.createKey(archive, indexIgnorePaths);
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Failed to hash %s, the index will not be cached", archive);
+            return null;
+        }
+    }
 }
@@ -22,11 +22,14 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.invocation.proxy.MethodIdentifier;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -36,6 +39,7 @@ import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import static java.lang.reflect.Modifier.ABSTRACT;
 import static java.lang.reflect.Modifier.PUBLIC;
@@ -44,7 +48,9 @@ import static java.lang.reflect.Modifier.STATIC;
 /**
  * A short-lived index of all the declared fields and methods of a class.
  * <p/>
- * The ClassReflectionIndex is only available during the deployment.
+ * The ClassReflectionIndex is only available during the deployment. The declared members are resolved when the index is
+ * created, so a class which cannot be introspected fails right away, but the fields, methods and constructors are each
+ * only indexed the first time they are requested.
  *
  * @param <?> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -52,11 +58,10 @@ import static java.lang.reflect.Modifier.STATIC;
 public final class ClassReflectionIndex {
     private final DeploymentReflectionIndex deploymentReflectionIndex;
     private final Class<?> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<?>> constructors;
-    private final Map<ParamNameList, Constructor<?>> constructorsByTypeName;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
-    private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
+    // Each kind of member is only indexed the first time it is requested
+    private volatile Map<String, Field> fields;
+    private volatile Constructors constructors;
+    private volatile Methods methods;
 
     /**
      * Identity map of all methods defined by this class and its superclasses (including default methods)
@@ -64,19 +69,81 @@ public final class ClassReflectionIndex {
      */
     private volatile Set<Method> classMethods;
 
-    @SuppressWarnings({"unchecked"})
     ClassReflectionIndex(final Class<?> indexedClass, final DeploymentReflectionIndex deploymentReflectionIndex) {
         this.deploymentReflectionIndex = deploymentReflectionIndex;
         this.indexedClass = indexedClass;
-        // -- fields --
+        // The JVM keeps the resolved members, so indexing them later does not resolve them again
+        index(ClassReflectionIndex::resolveMembers);
+    }
+
+    private static Void resolveMembers(final Class<?> indexedClass) {
+        indexedClass.getDeclaredFields();
+        indexedClass.getDeclaredMethods();
+        indexedClass.getDeclaredConstructors();
+        return null;
+    }
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            synchronized (this) {
+                fields = this.fields;
+                if (fields == null) {
+                    this.fields = fields = index(ClassReflectionIndex::indexFields);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private Methods methods() {
+        Methods methods = this.methods;
+        if (methods == null) {
+            synchronized (this) {
+                methods = this.methods;
+                if (methods == null) {
+                    this.methods = methods = index(ClassReflectionIndex::indexMethods);
+                }
+            }
+        }
+        return methods;
+    }
+
+    private Constructors constructors() {
+        Constructors constructors = this.constructors;
+        if (constructors == null) {
+            synchronized (this) {
+                constructors = this.constructors;
+                if (constructors == null) {
+                    this.constructors = constructors = index(ClassReflectionIndex::indexConstructors);
+                }
+            }
+        }
+        return constructors;
+    }
+
+    private <T> T index(final Function<Class<?>, T> indexer) {
+        try {
+            if (System.getSecurityManager() == null) {
+                return indexer.apply(indexedClass);
+            }
+            return AccessController.doPrivileged((PrivilegedAction<T>) () -> indexer.apply(indexedClass));
+        } catch (Throwable e) {
+            throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(indexedClass, indexedClass.getClassLoader(), e);
+        }
+    }
+
+    private static Map<String, Field> indexFields(final Class<?> indexedClass) {
         final Field[] declaredFields = indexedClass.getDeclaredFields();
         final Map<String, Field> fields = new HashMap<String, Field>();
         for (Field field : declaredFields) {
             field.setAccessible(true);
             fields.put(field.getName(), field);
         }
-        this.fields = fields;
-        // -- methods --
+        return fields;
+    }
+
+    private static Methods indexMethods(final Class<?> indexedClass) {
         final Method[] declaredMethods = indexedClass.getDeclaredMethods();
         final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
         final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
@@ -90,11 +157,11 @@ public final class ClassReflectionIndex {
             addMethod(methods, method);
             addMethodByTypeName(methodsByTypeName, method);
         }
+        return new Methods(methods, methodsByTypeName);
+    }
 
-        this.methods = methods;
-        this.methodsByTypeName = methodsByTypeName;
-        // -- constructors --
-        final Constructor<?>[] declaredConstructors = (Constructor<?>[]) indexedClass.getDeclaredConstructors();
+    private static Constructors indexConstructors(final Class<?> indexedClass) {
+        final Constructor<?>[] declaredConstructors = indexedClass.getDeclaredConstructors();
         final Map<ParamNameList, Constructor<?>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<?>>();
         final Map<ParamList, Constructor<?>> constructors = new HashMap<ParamList, Constructor<?>>();
         for (Constructor<?> constructor : declaredConstructors) {
@@ -103,8 +170,7 @@ public final class ClassReflectionIndex {
             constructors.put(createParamList(parameterTypes), constructor);
             constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
         }
-        this.constructorsByTypeName = constructorsByTypeName;
-        this.constructors = constructors;
+        return new Constructors(constructors, constructorsByTypeName);
     }
 
     private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
@@ -182,7 +248,7 @@ public final class ClassReflectionIndex {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -191,7 +257,7 @@ public final class ClassReflectionIndex {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -203,7 +269,7 @@ public final class ClassReflectionIndex {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -233,7 +299,7 @@ public final class ClassReflectionIndex {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(String returnType, String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -251,7 +317,7 @@ public final class ClassReflectionIndex {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(MethodIdentifier methodIdentifier) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(methodIdentifier.getName());
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(methodIdentifier.getName());
         if (nameMap == null) {
             return null;
         }
@@ -270,7 +336,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -289,7 +355,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -307,7 +373,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -326,7 +392,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods with the given name and parameter count
      */
     public Collection<Method> getAllMethods(String name, int paramCount) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -348,7 +414,7 @@ public final class ClassReflectionIndex {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
+        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : methods().byType.entrySet()) {
             final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
             for (Map<Class<?>, Method> map : nameMap.values()) {
                 methods.addAll(map.values());
@@ -363,7 +429,7 @@ public final class ClassReflectionIndex {
      * @return the constructors
      */
     public Collection<Constructor<?>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().byType.values());
     }
 
     /**
@@ -373,7 +439,7 @@ public final class ClassReflectionIndex {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<?> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        return constructors().byType.get(createParamList(paramTypes));
     }
 
     /**
@@ -383,7 +449,7 @@ public final class ClassReflectionIndex {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<?> getConstructor(String... paramTypeNames) {
-        return constructorsByTypeName.get(createParamNameList(paramTypeNames));
+        return constructors().byTypeName.get(createParamNameList(paramTypeNames));
     }
 
     public Set<Method> getClassMethods() {
@@ -439,6 +505,26 @@ public final class ClassReflectionIndex {
     }
 
 
+    private static final class Methods {
+        private final Map<String, Map<ParamList, Map<Class<?>, Method>>> byType;
+        private final Map<String, Map<ParamNameList, Map<String, Method>>> byTypeName;
+
+        Methods(final Map<String, Map<ParamList, Map<Class<?>, Method>>> byType, final Map<String, Map<ParamNameList, Map<String, Method>>> byTypeName) {
+            this.byType = byType;
+            this.byTypeName = byTypeName;
+        }
+    }
+
+    private static final class Constructors {
+        private final Map<ParamList, Constructor<?>> byType;
+        private final Map<ParamNameList, Constructor<?>> byTypeName;
+
+        Constructors(final Map<ParamList, Constructor<?>> byType, final Map<ParamNameList, Constructor<?>> byTypeName) {
+            this.byType = byType;
+            this.byTypeName = byTypeName;
+        }
+    }
+
     private static final class ParamList {
         private final Class<?>[] types;
         private final int hashCode;
@@ -22,18 +22,27 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 
 /**
  * The processor to remove the reflection index from the deployment unit.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public final class CleanupReflectionIndexProcessor implements DeploymentUnitProcessor {
+public final class CleanupReflectionIndexProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> WRITE_ATTACHMENT_KEYS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.<AttachmentKey<?>>asList(Attachments.REFLECTION_INDEX, Attachments.PROXY_REFLECTION_INDEX)));
 
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -44,4 +53,14 @@ public final class CleanupReflectionIndexProcessor implements DeploymentUnitProc
     /** {@inheritDoc} */
     public void undeploy(final DeploymentUnit context) {
     }
+
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachmentKeys() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWriteAttachmentKeys() {
+        return WRITE_ATTACHMENT_KEYS;
+    }
 }
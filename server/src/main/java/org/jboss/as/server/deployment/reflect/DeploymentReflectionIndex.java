@@ -22,23 +22,39 @@
 
 package org.jboss.as.server.deployment.reflect;
 
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.security.ServerPermission;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A reflection index for a deployment.
+ * <p>
+ * The index may be used concurrently. The members of each class are only indexed when first requested. If the
+ * {@value #SOFT_REFERENCES_PROPERTY} system property is set to {@code true}, class indexes which are not in use may be
+ * reclaimed by the garbage collector when memory is low, and are rebuilt if requested again. Note that in that case a
+ * rebuilt index returns different {@link java.lang.reflect.Member} instances than the reclaimed one.
+ * </p>
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex> classes = new HashMap<Class<?>, ClassReflectionIndex>();
+    static final String SOFT_REFERENCES_PROPERTY = "org.jboss.as.server.deployment.reflection-index.soft-references";
+    private static final boolean SOFT_REFERENCES = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SOFT_REFERENCES_PROPERTY, "false"));
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex> classes;
+    private final ConcurrentMap<Class<?>, SoftReference<ClassReflectionIndex>> softClasses;
 
     DeploymentReflectionIndex() {
+        if (SOFT_REFERENCES) {
+            classes = null;
+            softClasses = new ConcurrentHashMap<>();
+        } else {
+            classes = new ConcurrentHashMap<>();
+            softClasses = null;
+        }
     }
 
     /**
@@ -61,21 +77,31 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized ClassReflectionIndex getClassIndex(Class clazz) {
-        try {
+    public ClassReflectionIndex getClassIndex(Class clazz) {
+        if (classes != null) {
             ClassReflectionIndex index = classes.get(clazz);
             if (index == null) {
-                final SecurityManager sm = System.getSecurityManager();
-                if (sm == null) {
-                    index = new ClassReflectionIndex(clazz, this);
-                } else {
-                    index = AccessController.doPrivileged((PrivilegedAction<ClassReflectionIndex>) () -> new ClassReflectionIndex(clazz, this));
+                index = new ClassReflectionIndex(clazz, this);
+                final ClassReflectionIndex existing = classes.putIfAbsent(clazz, index);
+                if (existing != null) {
+                    index = existing;
                 }
-                classes.put(clazz, index);
             }
             return index;
-        } catch (Throwable e) {
-            throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
+        final SoftReference<ClassReflectionIndex> reference = softClasses.get(clazz);
+        ClassReflectionIndex index = reference == null ? null : reference.get();
+        while (index == null) {
+            final ClassReflectionIndex created = new ClassReflectionIndex(clazz, this);
+            final SoftReference<ClassReflectionIndex> current = softClasses.get(clazz);
+            final ClassReflectionIndex existing = current == null ? null : current.get();
+            if (existing != null) {
+                index = existing;
+            } else if (current == null ? softClasses.putIfAbsent(clazz, new SoftReference<>(created)) == null
+                    : softClasses.replace(clazz, current, new SoftReference<>(created))) {
+                index = created;
+            }
+        }
+        return index;
     }
 }
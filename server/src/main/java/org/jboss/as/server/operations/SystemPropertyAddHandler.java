@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -117,6 +118,7 @@ public class SystemPropertyAddHandler implements OperationStepHandler{
                 }
                 if (systemPropertyUpdater != null) {
                     WildFlySecurityManager.clearPropertyPrivileged(name);
+                    ExpressionResolverImpl.invalidateResolvedExpressions();
                     if (systemPropertyUpdater != null) {
                         systemPropertyUpdater.systemPropertyUpdated(name, null);
                     }
@@ -131,6 +133,7 @@ public class SystemPropertyAddHandler implements OperationStepHandler{
         } else {
             WildFlySecurityManager.clearPropertyPrivileged(name);
         }
+        ExpressionResolverImpl.invalidateResolvedExpressions();
         if (systemPropertyUpdater != null) {
             systemPropertyUpdater.systemPropertyUpdated(name, value);
         }
@@ -24,6 +24,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -76,6 +77,7 @@ public class SystemPropertyRemoveHandler implements OperationStepHandler {
 
         if (applyToRuntime) {
             WildFlySecurityManager.clearPropertyPrivileged(name);
+            ExpressionResolverImpl.invalidateResolvedExpressions();
             if (systemPropertyUpdater != null) {
                 systemPropertyUpdater.systemPropertyUpdated(name, null);
             }
@@ -88,6 +90,7 @@ public class SystemPropertyRemoveHandler implements OperationStepHandler {
             public void handleRollback(OperationContext context, ModelNode operation) {
                 if (applyToRuntime) {
                     WildFlySecurityManager.setPropertyPrivileged(name, oldValue);
+                    ExpressionResolverImpl.invalidateResolvedExpressions();
                     if (systemPropertyUpdater != null) {
                         systemPropertyUpdater.systemPropertyUpdated(name, oldValue);
                     }
@@ -26,6 +26,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
@@ -68,6 +69,7 @@ public class SystemPropertyValueWriteAttributeHandler extends AbstractWriteAttri
             } else {
                 WildFlySecurityManager.clearPropertyPrivileged(name);
             }
+            ExpressionResolverImpl.invalidateResolvedExpressions();
             systemPropertyUpdater.systemPropertyUpdated(name, setValue);
 
             handbackHolder.setHandback(new SysPropValue(name, oldValue));
@@ -86,6 +88,7 @@ public class SystemPropertyValueWriteAttributeHandler extends AbstractWriteAttri
                 WildFlySecurityManager.clearPropertyPrivileged(handback.name);
             }
 
+            ExpressionResolverImpl.invalidateResolvedExpressions();
             systemPropertyUpdater.systemPropertyUpdated(handback.name, handback.value);
 
         }
@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.module.ModuleSpecification;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ValueService;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the execution of {@link ConcurrentDeploymentUnitProcessor concurrent processors} by the
+ * {@link DeploymentUnitPhaseService}.
+ */
+public class DeploymentUnitPhaseServiceTestCase {
+
+    private static final AttachmentKey<String> FIRST_KEY = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> SECOND_KEY = AttachmentKey.create(String.class);
+
+    private ServiceContainer container;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        container = ServiceContainer.Factory.create(DeploymentUnitPhaseServiceTestCase.class.getSimpleName());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void teardown() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            container = null;
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentProcessors() throws Exception {
+        final ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        final ContextClassLoaderProcessor setClassLoader = new ContextClassLoaderProcessor(classLoader);
+        final ContextClassLoaderProcessor restoreClassLoader = new ContextClassLoaderProcessor(null);
+        // Each processor waits for the other one, so the phase only completes if they run concurrently
+        final CountDownLatch latch = new CountDownLatch(2);
+        final TestConcurrentProcessor first = new TestConcurrentProcessor(FIRST_KEY, latch, false);
+        final TestConcurrentProcessor second = new TestConcurrentProcessor(SECOND_KEY, latch, false);
+
+        final DeploymentUnit deploymentUnit = createDeploymentUnit();
+        final ServiceController<?> controller = installPhase(deploymentUnit, true, setClassLoader, first, second, restoreClassLoader);
+
+        assertEquals(ServiceController.State.UP, controller.getState());
+        assertEquals("first", deploymentUnit.getAttachment(FIRST_KEY));
+        assertEquals("second", deploymentUnit.getAttachment(SECOND_KEY));
+        assertTrue("The processors were not executed on different threads", first.thread != second.thread);
+        assertSame(classLoader, first.contextClassLoader);
+        assertSame(classLoader, second.contextClassLoader);
+    }
+
+    @Test
+    public void testUnmeasuredProcessorsRunSequentially() throws Exception {
+        final ThreadProcessor before = new ThreadProcessor();
+        final CountDownLatch latch = new CountDownLatch(0);
+        final TestConcurrentProcessor first = new TestConcurrentProcessor(FIRST_KEY, latch, false);
+        final TestConcurrentProcessor second = new TestConcurrentProcessor(SECOND_KEY, latch, false);
+
+        final DeploymentUnit deploymentUnit = createDeploymentUnit();
+        final ServiceController<?> controller = installPhase(deploymentUnit, false, before, first, second);
+
+        assertEquals(ServiceController.State.UP, controller.getState());
+        // Nothing is known about the cost of the processors yet, so they are not handed off to other threads
+        assertSame(before.thread, first.thread);
+        assertSame(before.thread, second.thread);
+    }
+
+    @Test
+    public void testConcurrentProcessorFailure() throws Exception {
+        final ContextClassLoaderProcessor sequential = new ContextClassLoaderProcessor(null);
+        // The failing processor only fails once the other one was executed concurrently
+        final CountDownLatch latch = new CountDownLatch(2);
+        final TestConcurrentProcessor first = new TestConcurrentProcessor(FIRST_KEY, latch, false);
+        final TestConcurrentProcessor failing = new TestConcurrentProcessor(SECOND_KEY, latch, true);
+
+        final DeploymentUnit deploymentUnit = createDeploymentUnit();
+        final ServiceController<?> controller = installPhase(deploymentUnit, true, sequential, first, failing);
+
+        assertEquals(ServiceController.State.START_FAILED, controller.getState());
+        // All the executed processors, including the failed one, must have been undeployed
+        assertTrue(sequential.undeployed);
+        assertTrue(first.undeployed);
+        assertTrue(failing.undeployed);
+        assertFalse(deploymentUnit.hasAttachment(FIRST_KEY));
+    }
+
+    @Test
+    public void testSequentialProcessorFailure() throws Exception {
+        final ContextClassLoaderProcessor sequential = new ContextClassLoaderProcessor(null);
+        final TestConcurrentProcessor failing = new TestConcurrentProcessor(SECOND_KEY, new CountDownLatch(0), true);
+        final ContextClassLoaderProcessor skipped = new ContextClassLoaderProcessor(null);
+
+        final DeploymentUnit deploymentUnit = createDeploymentUnit();
+        final ServiceController<?> controller = installPhase(deploymentUnit, false, sequential, failing, skipped);
+
+        assertEquals(ServiceController.State.START_FAILED, controller.getState());
+        assertTrue(sequential.undeployed);
+        assertTrue("The failed processor was not undeployed", failing.undeployed);
+        assertFalse(skipped.undeployed);
+    }
+
+    private DeploymentUnit createDeploymentUnit() {
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.jar", container);
+        deploymentUnit.putAttachment(Attachments.REGISTERED_SUBSYSTEMS, new HashSet<>());
+        deploymentUnit.putAttachment(Attachments.MODULE_SPECIFICATION, new ModuleSpecification());
+        return deploymentUnit;
+    }
+
+    /**
+     * Installs the phase service for a chain of the given processors.
+     *
+     * @param measured whether the processors should appear to have taken a noticeable time in an earlier deployment
+     */
+    private ServiceController<?> installPhase(final DeploymentUnit deploymentUnit, final boolean measured,
+                                              final DeploymentUnitProcessor... processors) throws InterruptedException {
+        final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Collections.emptyList());
+        }
+        final List<RegisteredDeploymentUnitProcessor> chain = new ArrayList<>();
+        int priority = 0;
+        for (DeploymentUnitProcessor processor : processors) {
+            final RegisteredDeploymentUnitProcessor registered = new RegisteredDeploymentUnitProcessor(++priority, processor, "test");
+            if (measured) {
+                registered.recordDuration(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            chain.add(registered);
+        }
+        // The last phase is used so no other phase is installed
+        phases.put(Phase.CLEANUP, chain);
+        container.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new ValueService<>(new ImmediateValue<>(new DeployerChains(phases))))
+                .install();
+        container.addService(org.jboss.as.server.Services.JBOSS_SERVER_EXECUTOR, new ValueService<>(new ImmediateValue<>(executor)))
+                .install();
+
+        final DeploymentUnitPhaseService<?> service = DeploymentUnitPhaseService.create(deploymentUnit, Phase.CLEANUP);
+        final ServiceController<?> controller = container.addService(deploymentUnit.getServiceName().append(Phase.CLEANUP.name()), service)
+                .addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, service.getDeployerChainsInjector())
+                .addDependency(org.jboss.as.server.Services.JBOSS_SERVER_EXECUTOR, ExecutorService.class, service.getExecutorInjector())
+                .install();
+        container.awaitStability(30, TimeUnit.SECONDS);
+        return controller;
+    }
+
+    private static final class ContextClassLoaderProcessor implements DeploymentUnitProcessor {
+        private final ClassLoader classLoader;
+        private volatile boolean undeployed;
+
+        private ContextClassLoaderProcessor(final ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+            if (classLoader != null) {
+                Thread.currentThread().setContextClassLoader(classLoader);
+            } else {
+                Thread.currentThread().setContextClassLoader(DeploymentUnitPhaseServiceTestCase.class.getClassLoader());
+            }
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit deploymentUnit) {
+            undeployed = true;
+        }
+    }
+
+    private static final class ThreadProcessor implements DeploymentUnitProcessor {
+        private volatile Thread thread;
+
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+            thread = Thread.currentThread();
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit deploymentUnit) {
+        }
+    }
+
+    private static final class TestConcurrentProcessor implements ConcurrentDeploymentUnitProcessor {
+        private final AttachmentKey<String> key;
+        private final CountDownLatch latch;
+        private final boolean fail;
+        private volatile Thread thread;
+        private volatile ClassLoader contextClassLoader;
+        private volatile boolean undeployed;
+
+        private TestConcurrentProcessor(final AttachmentKey<String> key, final CountDownLatch latch, final boolean fail) {
+            this.key = key;
+            this.latch = latch;
+            this.fail = fail;
+        }
+
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            thread = Thread.currentThread();
+            contextClassLoader = thread.getContextClassLoader();
+            latch.countDown();
+            try {
+                if (!latch.await(10, TimeUnit.SECONDS)) {
+                    throw new DeploymentUnitProcessingException("Processors were not executed concurrently");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DeploymentUnitProcessingException(e);
+            }
+            if (fail) {
+                throw new DeploymentUnitProcessingException("Expected failure");
+            }
+            // Concurrent processors may add dependencies for the next phase at the same time
+            phaseContext.requires(Services.JBOSS_DEPLOYMENT_CHAINS, new DelegatingSupplier<>());
+            phaseContext.getDeploymentUnit().putAttachment(key, key == FIRST_KEY ? "first" : "second");
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit deploymentUnit) {
+            deploymentUnit.removeAttachment(key);
+            undeployed = true;
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getReadAttachmentKeys() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getWriteAttachmentKeys() {
+            return new HashSet<>(Arrays.<AttachmentKey<?>>asList(key));
+        }
+    }
+}
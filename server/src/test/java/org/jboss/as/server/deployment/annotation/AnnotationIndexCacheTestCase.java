@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the on-disk {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private Path cacheDir;
+
+    @Before
+    public void createCacheDir() throws IOException {
+        cacheDir = Files.createTempDirectory("annotation-index");
+    }
+
+    @After
+    public void deleteCacheDir() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(cacheDir);
+    }
+
+    @Test
+    public void testStoreAndRead() throws Exception {
+        final Index index = createIndex();
+        AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir, Long.MAX_VALUE);
+        Assert.assertNull(cache.get("a"));
+        cache.put("a", index);
+        Assert.assertTrue(cache.size() > 0);
+
+        // A new cache instance, as after a restart, should find the stored index
+        cache = new AnnotationIndexCache(cacheDir, Long.MAX_VALUE);
+        final Index cached = cache.get("a");
+        Assert.assertNotNull(cached);
+        Assert.assertNotNull(cached.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() throws Exception {
+        final Index index = createIndex();
+        final AnnotationIndexCache sizing = new AnnotationIndexCache(cacheDir, Long.MAX_VALUE);
+        sizing.put("sizing", index);
+        final long entrySize = sizing.size();
+        Files.delete(cacheDir.resolve("sizing.idx"));
+
+        // Only room for two entries
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir, entrySize * 2);
+        cache.put("a", index);
+        cache.put("b", index);
+        // Access a so b becomes the least recently used entry
+        Assert.assertNotNull(cache.get("a"));
+        cache.put("c", index);
+        Assert.assertEquals(entrySize * 2, cache.size());
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("c"));
+        Assert.assertFalse(Files.exists(cacheDir.resolve("b.idx")));
+    }
+
+    private static Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        try (InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class")) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+}
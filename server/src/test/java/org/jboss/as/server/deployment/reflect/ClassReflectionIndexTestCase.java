@@ -0,0 +1,370 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the lazily built member indexes of a {@link ClassReflectionIndex} hold the same members as indexing all
+ * declared members up front did, also when the indexes are first requested by several threads at once.
+ */
+public class ClassReflectionIndexTestCase {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testFields() {
+        for (Class<?> clazz : Arrays.asList(Base.class, Sub.class, Iface.class)) {
+            final ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(clazz);
+            assertFields(clazz, index);
+        }
+    }
+
+    @Test
+    public void testMethods() {
+        for (Class<?> clazz : Arrays.asList(Base.class, Sub.class, Iface.class)) {
+            final ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(clazz);
+            assertMethods(clazz, index);
+        }
+    }
+
+    @Test
+    public void testConstructors() {
+        for (Class<?> clazz : Arrays.asList(Base.class, Sub.class)) {
+            final ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(clazz);
+            assertConstructors(clazz, index);
+        }
+    }
+
+    @Test
+    public void testClassMethods() throws Exception {
+        final ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(Sub.class);
+        final Set<Method> expected = new HashSet<>();
+        for (Class<?> clazz = Sub.class; clazz != null; clazz = clazz.getSuperclass()) {
+            expected.addAll(Arrays.asList(clazz.getDeclaredMethods()));
+        }
+        // Only the default method which is not implemented by a class is included
+        expected.add(Iface.class.getMethod("greeting"));
+        Assert.assertEquals(expected, new HashSet<>(index.getClassMethods()));
+        Assert.assertEquals(expected.size(), index.getClassMethods().size());
+    }
+
+    @Test
+    public void testBridgeMethods() throws Exception {
+        final ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(Sub.class);
+        // The covariant override and its bridge share the name and parameters but not the return type
+        Assert.assertEquals(Sub.class.getDeclaredMethod("value"), index.getMethod(String.class, "value"));
+        Assert.assertTrue(index.getMethod(Object.class, "value").isBridge());
+        Assert.assertEquals(2, index.getMethods("value", new Class<?>[0]).size());
+        Assert.assertEquals(2, index.getAllMethods("value").size());
+        Assert.assertNull(index.getMethod(Integer.class, "value"));
+        Assert.assertNull(index.getMethod(String.class, "missing"));
+    }
+
+    @Test
+    public void testUnresolvableClass() throws Exception {
+        // Load a class whose field type cannot be found, so its members cannot be introspected
+        final Class<?> clazz = new HidingClassLoader().loadClass(Unresolvable.class.getName());
+        try {
+            DeploymentReflectionIndex.create().getClassIndex(clazz);
+            Assert.fail("Creating the index should fail");
+        } catch (RuntimeException expected) {
+            Throwable cause = expected;
+            while (cause != null && !(cause instanceof NoClassDefFoundError)) {
+                cause = cause.getCause();
+            }
+            Assert.assertNotNull(cause);
+        }
+    }
+
+    @Test
+    public void testConcurrentFirstAccess() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 50; round++) {
+                final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+                final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+                final List<Future<Snapshot>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    final int thread = i;
+                    futures.add(executor.submit(new Callable<Snapshot>() {
+                        @Override
+                        public Snapshot call() throws Exception {
+                            barrier.await(10, TimeUnit.SECONDS);
+                            // Start with a different kind of member on each thread so the indexes are built concurrently
+                            final ClassReflectionIndex index = deploymentIndex.getClassIndex(Sub.class);
+                            switch (thread % 4) {
+                                case 0:
+                                    index.getMethods();
+                                    break;
+                                case 1:
+                                    index.getFields();
+                                    break;
+                                case 2:
+                                    index.getConstructors();
+                                    break;
+                                default:
+                                    index.getClassMethods();
+                            }
+                            return new Snapshot(index);
+                        }
+                    }));
+                }
+                Snapshot first = null;
+                for (Future<Snapshot> future : futures) {
+                    final Snapshot snapshot = future.get(10, TimeUnit.SECONDS);
+                    assertFields(Sub.class, snapshot.index);
+                    assertMethods(Sub.class, snapshot.index);
+                    assertConstructors(Sub.class, snapshot.index);
+                    if (first == null) {
+                        first = snapshot;
+                    } else {
+                        // Every thread sees the single index built for the class
+                        Assert.assertSame(first.index, snapshot.index);
+                        Assert.assertEquals(first.methods.size(), snapshot.methods.size());
+                        for (int i = 0; i < first.methods.size(); i++) {
+                            Assert.assertSame(first.methods.get(i), snapshot.methods.get(i));
+                        }
+                        for (Map.Entry<String, Field> field : first.fields.entrySet()) {
+                            Assert.assertSame(field.getValue(), snapshot.fields.get(field.getKey()));
+                        }
+                        Assert.assertSame(first.classMethods, snapshot.classMethods);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertFields(final Class<?> clazz, final ClassReflectionIndex index) {
+        final Field[] declared = clazz.getDeclaredFields();
+        Assert.assertEquals(declared.length, index.getFields().size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(declared)), new HashSet<>(index.getFields()));
+        for (Field field : declared) {
+            final Field indexed = index.getField(field.getName());
+            Assert.assertEquals(field, indexed);
+            Assert.assertTrue(indexed.isAccessible());
+        }
+        Assert.assertNull(index.getField("missing"));
+    }
+
+    private static void assertMethods(final Class<?> clazz, final ClassReflectionIndex index) {
+        final Method[] declared = clazz.getDeclaredMethods();
+        final Collection<Method> methods = index.getMethods();
+        Assert.assertEquals(declared.length, methods.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(declared)), new HashSet<>(methods));
+        final Map<String, Integer> countByName = new HashMap<>();
+        for (Method method : declared) {
+            countByName.merge(method.getName(), 1, Integer::sum);
+            final String[] parameterNames = typeNames(method.getParameterTypes());
+            Assert.assertEquals(method, index.getMethod(method));
+            Assert.assertEquals(method, index.getMethod(method.getReturnType(), method.getName(), method.getParameterTypes()));
+            Assert.assertEquals(method, index.getMethod(method.getReturnType().getName(), method.getName(), parameterNames));
+            Assert.assertEquals(method, index.getMethod(MethodIdentifier.getIdentifierForMethod(method)));
+            Assert.assertTrue(index.getMethods(method.getName(), method.getParameterTypes()).contains(method));
+            Assert.assertTrue(index.getMethods(method.getName(), parameterNames).contains(method));
+            Assert.assertTrue(index.getAllMethods(method.getName(), method.getParameterCount()).contains(method));
+            Assert.assertTrue(index.getMethod(method).isAccessible());
+        }
+        for (Map.Entry<String, Integer> entry : countByName.entrySet()) {
+            Assert.assertEquals(entry.getValue().intValue(), index.getAllMethods(entry.getKey()).size());
+        }
+        Assert.assertTrue(index.getAllMethods("missing").isEmpty());
+    }
+
+    private static void assertConstructors(final Class<?> clazz, final ClassReflectionIndex index) {
+        final Constructor<?>[] declared = clazz.getDeclaredConstructors();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(declared)), new HashSet<>(index.getConstructors()));
+        for (Constructor<?> constructor : declared) {
+            Assert.assertEquals(constructor, index.getConstructor(constructor.getParameterTypes()));
+            Assert.assertEquals(constructor, index.getConstructor(typeNames(constructor.getParameterTypes())));
+        }
+        Assert.assertNull(index.getConstructor(Thread.class));
+    }
+
+    private static String[] typeNames(final Class<?>[] types) {
+        final String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = types[i].getName();
+        }
+        return names;
+    }
+
+    private static final class Snapshot {
+        private final ClassReflectionIndex index;
+        private final List<Method> methods = new ArrayList<>();
+        private final Map<String, Field> fields = new HashMap<>();
+        private final Set<Method> classMethods;
+
+        private Snapshot(final ClassReflectionIndex index) {
+            this.index = index;
+            for (Method method : Sub.class.getDeclaredMethods()) {
+                methods.add(index.getMethod(method));
+            }
+            for (Field field : Sub.class.getDeclaredFields()) {
+                fields.put(field.getName(), index.getField(field.getName()));
+            }
+            classMethods = index.getClassMethods();
+        }
+    }
+
+    /**
+     * Defines {@link Unresolvable} itself and hides {@link Hidden}.
+     */
+    private static final class HidingClassLoader extends ClassLoader {
+
+        private HidingClassLoader() {
+            super(ClassReflectionIndexTestCase.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (name.equals(Hidden.class.getName())) {
+                throw new ClassNotFoundException(name);
+            }
+            if (!name.equals(Unresolvable.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                final Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    final byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                    return defineClass(name, out.toByteArray(), 0, out.size());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    public static class Hidden {
+    }
+
+    public static class Unresolvable {
+        public Hidden hidden;
+    }
+
+    public interface Iface {
+        String NAME = "iface";
+
+        default String greeting() {
+            return "hello";
+        }
+
+        default int count() {
+            return 0;
+        }
+
+        void run(int times);
+    }
+
+    @SuppressWarnings("unused")
+    public static class Base {
+        private int count;
+        protected String name;
+        public static long total;
+
+        public Base() {
+        }
+
+        protected Base(final String name) {
+            this.name = name;
+        }
+
+        public Object value() {
+            return name;
+        }
+
+        public void run(final int times) {
+        }
+
+        private void run(final String name, final int times) {
+        }
+
+        static int add(final int a, final int b) {
+            return a + b;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Sub extends Base implements Iface {
+        private final List<String> names = new ArrayList<>();
+        private transient Object[] values;
+
+        public Sub() {
+        }
+
+        Sub(final String name, final int[] counts) {
+            super(name);
+        }
+
+        @Override
+        public String value() {
+            return "sub";
+        }
+
+        @Override
+        public int count() {
+            return names.size();
+        }
+
+        public void run(final long times) {
+        }
+
+        private int[][] matrix(final Object[] values, final char c) {
+            return new int[0][];
+        }
+    }
+}
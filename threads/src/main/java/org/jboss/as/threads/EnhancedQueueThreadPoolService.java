@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.EnhancedQueueExecutor;
+
+/**
+ * Service responsible for creating, starting and stopping a thread pool backed by an {@link EnhancedQueueExecutor},
+ * whose task queue is lock-free.
+ */
+public class EnhancedQueueThreadPoolService implements Service<ManagedEnhancedQueueExecutorService> {
+    private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+
+    private ManagedEnhancedQueueExecutorService executor;
+    private StopContext stopContext;
+
+    private int coreThreads;
+    private int maxThreads;
+    private TimeSpec keepAlive;
+    private boolean allowCoreTimeout;
+
+    public EnhancedQueueThreadPoolService(int coreThreads, int maxThreads, TimeSpec keepAlive, boolean allowCoreTimeout) {
+        this.coreThreads = coreThreads;
+        this.maxThreads = maxThreads;
+        this.keepAlive = keepAlive;
+        this.allowCoreTimeout = allowCoreTimeout;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final TimeSpec keepAliveSpec = keepAlive;
+        long keepAliveTime = keepAliveSpec == null ? Long.MAX_VALUE : keepAliveSpec.getUnit().toNanos(keepAliveSpec.getDuration());
+        final EnhancedQueueExecutor enhancedQueueExecutor = new EnhancedQueueExecutor.Builder()
+                .setCorePoolSize(Math.min(coreThreads, maxThreads))
+                .setMaximumPoolSize(maxThreads)
+                .setKeepAliveTime(keepAliveTime, TimeUnit.NANOSECONDS)
+                .allowCoreThreadTimeOut(allowCoreTimeout)
+                .setThreadFactory(threadFactoryValue.getValue())
+                .setTerminationTask(this::terminated)
+                .build();
+        executor = new ManagedEnhancedQueueExecutorService(enhancedQueueExecutor);
+    }
+
+    public void stop(final StopContext context) {
+        final ManagedEnhancedQueueExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+            this.stopContext = context;
+        }
+        context.asynchronous();
+        executor.internalShutdown();
+    }
+
+    private void terminated() {
+        final StopContext context;
+        synchronized (this) {
+            context = stopContext;
+            stopContext = null;
+        }
+        if (context != null) {
+            context.complete();
+        }
+    }
+
+    public synchronized ManagedEnhancedQueueExecutorService getValue() throws IllegalStateException {
+        final ManagedEnhancedQueueExecutorService value = this.executor;
+        if (value == null) {
+            throw ThreadsLogger.ROOT_LOGGER.enhancedQueueThreadPoolExecutorUninitialized();
+        }
+        return value;
+    }
+
+    public Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactoryValue;
+    }
+
+    public synchronized void setThreads(final int coreThreads, final int maxThreads) {
+        this.coreThreads = coreThreads;
+        this.maxThreads = maxThreads;
+        final ManagedEnhancedQueueExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.setThreads(coreThreads, maxThreads);
+        }
+    }
+
+    public synchronized void setKeepAlive(final TimeSpec keepAlive) {
+        this.keepAlive = keepAlive;
+        final ManagedEnhancedQueueExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.setKeepAlive(keepAlive);
+        }
+    }
+
+    public synchronized void setAllowCoreTimeout(final boolean allowCoreTimeout) {
+        this.allowCoreTimeout = allowCoreTimeout;
+        final ManagedEnhancedQueueExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.setAllowCoreTimeout(allowCoreTimeout);
+        }
+    }
+
+    public int getActiveCount() {
+        return getValue().getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        return getValue().getCompletedTaskCount();
+    }
+
+    public int getCurrentThreadCount() {
+        return getValue().getCurrentThreadCount();
+    }
+
+    public int getLargestThreadCount() {
+        return getValue().getLargestThreadCount();
+    }
+
+    public long getRejectedCount() {
+        return getValue().getRejectedCount();
+    }
+
+    public long getTaskCount() {
+        return getValue().getTaskCount();
+    }
+
+    public int getQueueSize() {
+        return getValue().getQueueSize();
+    }
+
+    TimeUnit getKeepAliveUnit() {
+        return keepAlive == null ? TimeSpec.DEFAULT_KEEPALIVE.getUnit() : keepAlive.getUnit();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import org.jboss.threads.EnhancedQueueExecutor;
+
+/**
+ * Managed view of an {@link EnhancedQueueExecutor}.
+ */
+public class ManagedEnhancedQueueExecutorService extends ManagedExecutorService {
+
+    private final EnhancedQueueExecutor executor;
+
+    public ManagedEnhancedQueueExecutorService(EnhancedQueueExecutor executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    @Override
+    void internalShutdown() {
+        executor.shutdown();
+    }
+
+    public int getCoreThreads() {
+        return executor.getCorePoolSize();
+    }
+
+    public int getMaxThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    // Package protected for subsys write-attribute handlers
+    void setThreads(int coreThreads, int maxThreads) {
+        // Keep the core size within the maximum size at each step
+        if (maxThreads < executor.getMaximumPoolSize()) {
+            executor.setCorePoolSize(Math.min(coreThreads, maxThreads));
+            executor.setMaximumPoolSize(maxThreads);
+        } else {
+            executor.setMaximumPoolSize(maxThreads);
+            executor.setCorePoolSize(Math.min(coreThreads, maxThreads));
+        }
+    }
+
+    public boolean isAllowCoreTimeout() {
+        return executor.allowsCoreThreadTimeOut();
+    }
+
+    void setAllowCoreTimeout(boolean allowCoreTimeout) {
+        executor.allowCoreThreadTimeOut(allowCoreTimeout);
+    }
+
+    void setKeepAlive(TimeSpec keepAlive) {
+        executor.setKeepAliveTime(keepAlive.getDuration(), keepAlive.getUnit());
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public int getCurrentThreadCount() {
+        return executor.getPoolSize();
+    }
+
+    public int getLargestThreadCount() {
+        return executor.getLargestPoolSize();
+    }
+
+    public long getRejectedCount() {
+        return executor.getRejectedTaskCount();
+    }
+
+    public long getTaskCount() {
+        return executor.getSubmittedTaskCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueueSize();
+    }
+}
@@ -209,6 +209,16 @@ class ThreadPoolManagementUtils {
     }
 
 
+    static EnhancedQueueThreadPoolParameters parseEnhancedQueueThreadPoolParameters(final OperationContext context, final ModelNode operation, final ModelNode model) throws OperationFailedException {
+        ThreadPoolParametersImpl params = new ThreadPoolParametersImpl();
+        parseBaseThreadPoolOperationParameters(context, operation, model, params);
+
+        params.allowCoreTimeout = PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT.resolveModelAttribute(context, model).asBoolean();
+        ModelNode coreTh = PoolAttributeDefinitions.CORE_THREADS.resolveModelAttribute(context, model);
+        params.coreThreads = coreTh.isDefined() ? coreTh.asInt() : params.maxThreads;
+        return params;
+    }
+
     private static ThreadPoolParametersImpl parseBaseThreadPoolOperationParameters(final OperationContext context, final ModelNode operation,
                                                                                    final ModelNode model, final ThreadPoolParametersImpl params) throws OperationFailedException {
         params.address = operation.require(OP_ADDR);
@@ -259,7 +269,12 @@ class ThreadPoolManagementUtils {
         int getQueueLength();
     }
 
-    private static class ThreadPoolParametersImpl implements QueuelessThreadPoolParameters, BoundedThreadPoolParameters {
+    interface EnhancedQueueThreadPoolParameters extends BaseThreadPoolParameters {
+        boolean isAllowCoreTimeout();
+        int getCoreThreads();
+    }
+
+    private static class ThreadPoolParametersImpl implements QueuelessThreadPoolParameters, BoundedThreadPoolParameters, EnhancedQueueThreadPoolParameters {
         ModelNode address;
         String name;
         String threadFactory;
@@ -145,4 +145,34 @@ interface ThreadsLogger extends BasicLogger {
     OperationFailedException failedToParseUnit(String unit, List<TimeUnit> allowed);
 
     // id = 31; redundant parameter null check message
+
+    @Message(id = 32, value = "Virtual threads are not supported by this JVM")
+    String virtualThreadsNotSupported();
+
+    @Message(id = 33, value = "Cannot add virtual thread executor '%s' as virtual threads are not supported by this JVM")
+    OperationFailedException virtualThreadsNotSupportedForExecutor(String name);
+
+    @Message(id = 34, value = "The executor service hasn't been initialized.")
+    IllegalStateException virtualThreadExecutorUninitialized();
+
+    @Message(id = 35, value = "Service '%s' not found.")
+    OperationFailedException virtualThreadExecutorServiceNotFound(ServiceName serviceName);
+
+    @Message(id = 36, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedVirtualThreadExecutorMetric(String attributeName);
+
+    @Message(id = 37, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedVirtualThreadExecutorAttribute(String attributeName);
+
+    @Message(id = 38, value = "The executor service hasn't been initialized.")
+    IllegalStateException enhancedQueueThreadPoolExecutorUninitialized();
+
+    @Message(id = 39, value = "Service '%s' not found.")
+    OperationFailedException enhancedQueueThreadPoolServiceNotFound(ServiceName serviceName);
+
+    @Message(id = 40, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedEnhancedQueueThreadPoolMetric(String attributeName);
+
+    @Message(id = 41, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedEnhancedQueueThreadPoolAttribute(String attributeName);
 }
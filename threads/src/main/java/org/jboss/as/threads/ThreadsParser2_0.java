@@ -80,6 +80,18 @@ public class ThreadsParser2_0 extends PersistentResourceXMLParser {
         return builder;
     }
 
+    public static PersistentResourceXMLBuilder getEnhancedQueueThreadPoolParser(EnhancedQueueThreadPoolResourceDefinition resourceDefinition) {
+        return builder(resourceDefinition.getPathElement())
+                .addAttributes(PoolAttributeDefinitions.KEEPALIVE_TIME,
+                        PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.THREAD_FACTORY,
+                        PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT);
+    }
+
+    public static PersistentResourceXMLBuilder getVirtualThreadExecutorParser(VirtualThreadExecutorResourceDefinition resourceDefinition) {
+        return builder(resourceDefinition.getPathElement())
+                .addAttributes(PoolAttributeDefinitions.MAX_THREADS);
+    }
+
     public static PersistentResourceXMLBuilder getBoundedQueueThreadPoolParser(BoundedQueueThreadPoolResourceDefinition definition) {
         PersistentResourceXMLBuilder builder = builder(definition.getPathElement())
                 .addAttributes(
@@ -0,0 +1,283 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.threads.EventListener;
+import org.wildfly.common.Assert;
+
+/**
+ * Executor starting a new virtual thread for each task, limiting the number of tasks which run concurrently.
+ * Tasks submitted beyond the limit wait in their own virtual thread until a running task completes.
+ * <p>
+ * Virtual threads are only available on Java 21 or later, so they are created reflectively.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ThreadFactory threadFactory;
+    private final Limiter limiter;
+    private int limit;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private final AtomicInteger largestThreads = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    private final Object terminationLock = new Object();
+    private final List<Runnable> terminationTasks = new ArrayList<>();
+    private volatile boolean shutdown;
+    private boolean terminated;
+
+    /**
+     * Only for testing use, creating the threads with the given factory instead of as virtual threads.
+     */
+    VirtualThreadExecutor(ThreadFactory threadFactory, int maxConcurrency) {
+        this.threadFactory = threadFactory;
+        this.limit = getLimit(maxConcurrency);
+        this.limiter = new Limiter(limit);
+    }
+
+    /**
+     * Checks whether the JVM supports virtual threads.
+     *
+     * @return {@code true} if virtual threads can be created
+     */
+    static boolean isSupported() {
+        return createThreadFactory("") != null;
+    }
+
+    /**
+     * Creates a factory for virtual threads.
+     *
+     * @param namePrefix the prefix of the thread names, followed by a sequence number
+     * @return the thread factory or {@code null} if the JVM does not support virtual threads
+     */
+    static ThreadFactory createThreadFactory(String namePrefix) {
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Method name = builderType.getMethod("name", String.class, long.class);
+            final Method factory = builderType.getMethod("factory");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) factory.invoke(name.invoke(builder, namePrefix, 0L));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available before Java 21, or only as a preview feature
+            return null;
+        }
+    }
+
+    private static int getLimit(int maxConcurrency) {
+        return maxConcurrency > 0 ? maxConcurrency : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Assert.checkNotNullParam("task", task);
+        final int current = threads.incrementAndGet();
+        if (shutdown) {
+            reject();
+        }
+        final Thread thread = threadFactory.newThread(() -> run(task));
+        if (thread == null) {
+            reject();
+        }
+        updateLargest(current);
+        waiting.incrementAndGet();
+        submitted.increment();
+        thread.start();
+    }
+
+    private void reject() {
+        rejected.incrementAndGet();
+        threadDone();
+        throw new RejectedExecutionException();
+    }
+
+    private void run(Runnable task) {
+        limiter.acquireUninterruptibly();
+        try {
+            waiting.decrementAndGet();
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+            }
+        } finally {
+            limiter.release();
+            threadDone();
+        }
+    }
+
+    private void updateLargest(int current) {
+        int largest;
+        while (current > (largest = largestThreads.get()) && !largestThreads.compareAndSet(largest, current)) {
+            // retry
+        }
+    }
+
+    private void threadDone() {
+        if (threads.decrementAndGet() == 0 && shutdown) {
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        final List<Runnable> tasks;
+        synchronized (terminationLock) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            terminationLock.notifyAll();
+            tasks = new ArrayList<>(terminationTasks);
+            terminationTasks.clear();
+        }
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    <A> void addShutdownListener(final EventListener<A> shutdownListener, final A attachment) {
+        final Runnable task = () -> shutdownListener.handleEvent(attachment);
+        synchronized (terminationLock) {
+            if (!terminated) {
+                terminationTasks.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (threads.get() == 0) {
+            terminate();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        // Tasks are never queued, the waiting ones already have their own thread
+        shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        synchronized (terminationLock) {
+            return terminated;
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (!terminated) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+            return true;
+        }
+    }
+
+    synchronized int getMaxConcurrency() {
+        return limit == Integer.MAX_VALUE ? 0 : limit;
+    }
+
+    synchronized void setMaxConcurrency(int maxConcurrency) {
+        final int newLimit = getLimit(maxConcurrency);
+        final int delta = newLimit - limit;
+        limit = newLimit;
+        if (delta > 0) {
+            limiter.release(delta);
+        } else if (delta < 0) {
+            limiter.reducePermits(-delta);
+        }
+    }
+
+    int getCurrentThreadCount() {
+        return threads.get();
+    }
+
+    int getLargestThreadCount() {
+        return largestThreads.get();
+    }
+
+    int getActiveCount() {
+        return active.get();
+    }
+
+    int getQueueSize() {
+        return waiting.get();
+    }
+
+    int getRejectedCount() {
+        return rejected.get();
+    }
+
+    long getTaskCount() {
+        return submitted.sum();
+    }
+
+    long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    private static final class Limiter extends Semaphore {
+        private static final long serialVersionUID = -3244498734185306216L;
+
+        Limiter(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
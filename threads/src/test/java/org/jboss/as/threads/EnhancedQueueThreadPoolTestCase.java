@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.ExtensionContext;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.ModelOnlyRemoveStepHandler;
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.SubsystemRegistration;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.parsing.ExtensionParsingContext;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.subsystem.test.AbstractSubsystemTest;
+import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the management of an {@link EnhancedQueueThreadPoolResourceDefinition enhanced queue thread pool} and the
+ * executor it installs, using a test subsystem as the resource is not part of the threads subsystem.
+ */
+public class EnhancedQueueThreadPoolTestCase extends AbstractSubsystemTest {
+
+    private static final String SUBSYSTEM_NAME = "enhanced-queue-test";
+    private static final String NAMESPACE = "urn:jboss:domain:enhanced-queue-test:1.0";
+    private static final PathAddress POOL_ADDRESS = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME),
+            PathElement.pathElement(CommonAttributes.ENHANCED_QUEUE_THREAD_POOL, "test-pool"));
+
+    public EnhancedQueueThreadPoolTestCase() {
+        super(SUBSYSTEM_NAME, new TestExtension());
+    }
+
+    @Test
+    public void testAddReadAndMetrics() throws Exception {
+        final KernelServices services = boot();
+
+        final ModelNode readResource = Util.createEmptyOperation(READ_RESOURCE_OPERATION, POOL_ADDRESS);
+        readResource.get(INCLUDE_RUNTIME).set(true);
+        final ModelNode pool = executeSuccessfully(services, readResource);
+        Assert.assertEquals("test-pool", pool.get(NAME).asString());
+        Assert.assertEquals(2, pool.get(CommonAttributes.MAX_THREADS).asInt());
+        Assert.assertEquals(2, pool.get(CommonAttributes.CORE_THREADS).asInt());
+        Assert.assertEquals(0, pool.get(CommonAttributes.COMPLETED_TASK_COUNT).asLong());
+
+        final ManagedEnhancedQueueExecutorService executor = getExecutor(services);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                completed.countDown();
+            });
+        }
+        waitFor(() -> readMetric(services, CommonAttributes.ACTIVE_COUNT) == 2);
+        Assert.assertEquals(3, readMetric(services, CommonAttributes.QUEUE_SIZE));
+        Assert.assertEquals(2, readMetric(services, CommonAttributes.CURRENT_THREAD_COUNT));
+        Assert.assertEquals(5, readMetric(services, CommonAttributes.TASK_COUNT));
+
+        release.countDown();
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        waitFor(() -> readMetric(services, CommonAttributes.COMPLETED_TASK_COUNT) == 5);
+        Assert.assertEquals(0, readMetric(services, CommonAttributes.ACTIVE_COUNT));
+        Assert.assertEquals(0, readMetric(services, CommonAttributes.QUEUE_SIZE));
+        Assert.assertEquals(2, readMetric(services, CommonAttributes.LARGEST_THREAD_COUNT));
+        Assert.assertEquals(0, readMetric(services, CommonAttributes.REJECTED_COUNT));
+    }
+
+    @Test
+    public void testTasksRunAndPoolShutsDownOnRemove() throws Exception {
+        final KernelServices services = boot();
+        final ManagedEnhancedQueueExecutorService executor = getExecutor(services);
+        final CountDownLatch completed = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executor.execute(completed::countDown);
+        }
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(executor.isShutdown());
+
+        executeSuccessfully(services, Util.createRemoveOperation(POOL_ADDRESS));
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.isShutdown());
+        Assert.assertNull(services.getContainer().getService(ThreadsServices.EXECUTOR.append("test-pool")));
+    }
+
+    private KernelServices boot() throws Exception {
+        final ModelNode addPool = Util.createAddOperation(POOL_ADDRESS);
+        addPool.get(CommonAttributes.MAX_THREADS).set(2);
+        addPool.get(CommonAttributes.CORE_THREADS).set(2);
+        final KernelServices services = createKernelServicesBuilder(new AdditionalInitialization())
+                .setBootOperations(Util.createAddOperation(POOL_ADDRESS.getParent()), addPool)
+                .build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(String.valueOf(services.getBootError()));
+        }
+        return services;
+    }
+
+    private static ManagedEnhancedQueueExecutorService getExecutor(final KernelServices services) {
+        final ServiceController<?> controller = services.getContainer().getRequiredService(ThreadsServices.EXECUTOR.append("test-pool"));
+        return (ManagedEnhancedQueueExecutorService) controller.getValue();
+    }
+
+    private static long readMetric(final KernelServices services, final String name) {
+        final ModelNode operation = Util.getReadAttributeOperation(POOL_ADDRESS, name);
+        return executeSuccessfully(services, operation).asLong();
+    }
+
+    private static ModelNode executeSuccessfully(final KernelServices services, final ModelNode operation) {
+        final ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response.get(RESULT);
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.isMet()) {
+            Assert.assertTrue("Timed out waiting for the thread pool", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    /**
+     * Registers a subsystem holding enhanced queue thread pools.
+     */
+    private static class TestExtension implements Extension {
+
+        @Override
+        public void initialize(ExtensionContext context) {
+            final SubsystemRegistration subsystem = context.registerSubsystem(SUBSYSTEM_NAME, ModelVersion.create(1));
+            final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(new SimpleResourceDefinition(
+                    new SimpleResourceDefinition.Parameters(PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME), new NonResolvingResourceDescriptionResolver())
+                            .setAddHandler(new ModelOnlyAddStepHandler())
+                            .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE)));
+            registration.registerSubModel(EnhancedQueueThreadPoolResourceDefinition.create(true));
+            subsystem.registerXMLElementWriter((writer, marshallingContext) -> {
+                marshallingContext.startSubsystemElement(NAMESPACE, false);
+                writer.writeEndElement();
+            });
+        }
+
+        @Override
+        public void initializeParsers(ExtensionParsingContext context) {
+            context.setSubsystemXmlMapping(SUBSYSTEM_NAME, NAMESPACE, new XMLElementReader<List<ModelNode>>() {
+                @Override
+                public void readElement(XMLExtendedStreamReader reader, List<ModelNode> list) throws XMLStreamException {
+                    reader.next();
+                    list.add(Util.createAddOperation(POOL_ADDRESS.getParent()));
+                }
+            });
+        }
+    }
+}
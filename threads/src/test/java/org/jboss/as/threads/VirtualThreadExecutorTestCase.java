@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the concurrency limit and metrics of the {@link VirtualThreadExecutor}, using platform threads as
+ * virtual threads are not available on every JVM.
+ */
+public class VirtualThreadExecutorTestCase {
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        final VirtualThreadExecutor executor = new VirtualThreadExecutor(Executors.defaultThreadFactory(), 2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            });
+        }
+        waitFor(() -> executor.getActiveCount() == 2 && executor.getQueueSize() == 8);
+        Assert.assertEquals(10, executor.getCurrentThreadCount());
+        Assert.assertEquals(10, executor.getTaskCount());
+
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, maxRunning.get());
+        Assert.assertEquals(10, executor.getCompletedTaskCount());
+        Assert.assertEquals(10, executor.getLargestThreadCount());
+        Assert.assertEquals(0, executor.getCurrentThreadCount());
+        Assert.assertEquals(0, executor.getQueueSize());
+
+        try {
+            executor.execute(() -> {});
+            Assert.fail("Task accepted after shutdown");
+        } catch (RejectedExecutionException expected) {
+            Assert.assertEquals(1, executor.getRejectedCount());
+        }
+    }
+
+    @Test
+    public void testChangeConcurrencyLimit() throws Exception {
+        final VirtualThreadExecutor executor = new VirtualThreadExecutor(Executors.defaultThreadFactory(), 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        waitFor(() -> executor.getActiveCount() == 1 && executor.getQueueSize() == 3);
+        executor.setMaxConcurrency(3);
+        waitFor(() -> executor.getActiveCount() == 3 && executor.getQueueSize() == 1);
+        executor.setMaxConcurrency(0);
+        Assert.assertEquals(0, executor.getMaxConcurrency());
+        waitFor(() -> executor.getActiveCount() == 4 && executor.getQueueSize() == 0);
+
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.isMet()) {
+            Assert.assertTrue("Timed out waiting for the executor", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}